@@ -0,0 +1,149 @@
+package com.ticketsystem.zimsmartvillages.benchmark;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with synthetic users, tickets and comments through JDBC batches, which
+ * is far faster than going through the services. Tickets are spread evenly over the last
+ * {@code days} days; resolved and closed tickets get first-response and resolution times, so
+ * every report has data to work on. The same seed always produces the same data.
+ */
+final class BenchmarkDataSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+    // Matches the allocationSize of the entity sequence generators
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final int AGENT_SHARE = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    BenchmarkDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return ids of the seeded support agents
+     */
+    List<Long> seed(int users, int tickets, int commentsPerTicket, int days) {
+        List<Long> agentIds = new ArrayList<>();
+        List<Long> customerIds = new ArrayList<>();
+        seedUsers(users, agentIds, customerIds);
+        seedTickets(tickets, commentsPerTicket, days, agentIds, customerIds);
+        return agentIds;
+    }
+
+    private void seedUsers(int users, List<Long> agentIds, List<Long> customerIds) {
+        Long supportRole = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_SUPPORT'", Long.class);
+        Long userRole = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Long.class);
+        long firstId = nextId("users");
+
+        List<Object[]> userRows = new ArrayList<>(users);
+        List<Object[]> roleRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            long id = firstId + i;
+            boolean agent = i % AGENT_SHARE == 0;
+            userRows.add(new Object[]{id, "bench" + i, "{noop}bench", "bench" + i + "@example.com", "Bench User " + i});
+            roleRows.add(new Object[]{id, agent ? supportRole : userRole});
+            (agent ? agentIds : customerIds).add(id);
+        }
+        batch("INSERT INTO users (id, username, password, email, full_name) VALUES (?, ?, ?, ?, ?)", userRows);
+        batch("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", roleRows);
+        restartSequence("users_seq", firstId + users);
+    }
+
+    private void seedTickets(int tickets, int commentsPerTicket, int days, List<Long> agentIds, List<Long> customerIds) {
+        Ticket.Status[] statuses = Ticket.Status.values();
+        Ticket.Priority[] priorities = Ticket.Priority.values();
+        Ticket.ContentType[] contentTypes = Ticket.ContentType.values();
+        LocalDateTime now = LocalDateTime.now();
+        long spanMinutes = days * 24L * 60;
+        long firstTicketId = nextId("tickets");
+        long commentId = nextId("comments");
+
+        List<Object[]> ticketRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> commentRows = new ArrayList<>(BATCH_SIZE * Math.max(1, commentsPerTicket));
+        for (int i = 0; i < tickets; i++) {
+            long id = firstTicketId + i;
+            LocalDateTime created = now.minusMinutes(spanMinutes - spanMinutes * i / tickets);
+            Ticket.Status status = statuses[random.nextInt(statuses.length)];
+            Long creator = customerIds.get(random.nextInt(customerIds.size()));
+            Long assignee = status == Ticket.Status.OPEN && random.nextBoolean()
+                    ? null : agentIds.get(random.nextInt(agentIds.size()));
+
+            LocalDateTime firstResponse = null;
+            LocalDateTime resolved = null;
+            LocalDateTime closed = null;
+            if (assignee != null && status != Ticket.Status.OPEN) {
+                firstResponse = capped(created.plusMinutes(5 + random.nextInt(8 * 60)), now);
+            }
+            if (firstResponse != null && (status == Ticket.Status.RESOLVED || status == Ticket.Status.CLOSED)) {
+                resolved = capped(firstResponse.plusMinutes(30 + random.nextInt(72 * 60)), now);
+                if (status == Ticket.Status.CLOSED) {
+                    closed = capped(resolved.plusMinutes(random.nextInt(24 * 60)), now);
+                }
+            }
+            LocalDateTime updated = closed != null ? closed : resolved != null ? resolved
+                    : firstResponse != null ? firstResponse : created;
+
+            ticketRows.add(new Object[]{id, "Benchmark ticket " + i, "Seeded for benchmarks",
+                    priorities[random.nextInt(priorities.length)].name(), status.name(),
+                    contentTypes[random.nextInt(contentTypes.length)].name(),
+                    timestamp(created), timestamp(updated), timestamp(firstResponse), timestamp(resolved),
+                    timestamp(closed), creator, assignee});
+
+            for (int c = 0; c < commentsPerTicket; c++) {
+                // The first reply after the opening comment is the agent's first response
+                boolean fromAgent = assignee != null && c % 2 == 1;
+                LocalDateTime at = c == 1 && firstResponse != null ? firstResponse
+                        : capped(created.plusMinutes(c * 60L), now);
+                commentRows.add(new Object[]{commentId++, "Comment " + c, timestamp(at), id,
+                        fromAgent ? assignee : creator});
+            }
+
+            if (ticketRows.size() == BATCH_SIZE || i == tickets - 1) {
+                batch("INSERT INTO tickets (id, title, description, priority, status, content_type, created_date, "
+                        + "updated_date, first_response_at, resolved_at, closed_at, creator_id, assigned_to_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", ticketRows);
+                batch("INSERT INTO comments (id, content, created_date, ticket_id, author_id) VALUES (?, ?, ?, ?, ?)",
+                        commentRows);
+                ticketRows.clear();
+                commentRows.clear();
+            }
+        }
+        restartSequence("tickets_seq", firstTicketId + tickets);
+        restartSequence("comments_seq", commentId);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Rows were inserted with explicit ids, so move the sequence past them. Hibernate's pooled
+    // optimizer hands out the block below each value it reads, hence the extra allocation.
+    private void restartSequence(String sequence, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (next + ID_ALLOCATION_SIZE));
+    }
+
+    private static LocalDateTime capped(LocalDateTime value, LocalDateTime now) {
+        return value.isAfter(now) ? now : value;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ticketsystem.zimsmartvillages.benchmark;
+
+import com.ticketsystem.zimsmartvillages.ZimsmartvillagesApplication;
+import com.ticketsystem.zimsmartvillages.dto.PerformanceMetricsDTO;
+import com.ticketsystem.zimsmartvillages.dto.PriorityAnalysisDTO;
+import com.ticketsystem.zimsmartvillages.dto.ResponseTimeAnalysisDTO;
+import com.ticketsystem.zimsmartvillages.dto.StatusDistributionDTO;
+import com.ticketsystem.zimsmartvillages.dto.TicketTrendsDTO;
+import com.ticketsystem.zimsmartvillages.dto.UserActivityDTO;
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+import com.ticketsystem.zimsmartvillages.service.AgentScorecardService;
+import com.ticketsystem.zimsmartvillages.service.CommentActivityService;
+import com.ticketsystem.zimsmartvillages.service.ReportCacheService;
+import com.ticketsystem.zimsmartvillages.service.ReportsService;
+import com.ticketsystem.zimsmartvillages.service.TicketRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of every {@link ReportsService} report over a seeded database.
+ * <p>
+ * Each fork starts the application against its own in-memory H2 database, seeds it with
+ * {@link BenchmarkDataSeeder} and builds the rollups, comment counters and scorecards the
+ * reports read. The report cache is cleared before every call unless {@code cached} is set, so
+ * by default the numbers are for a cache miss. Run through {@link ReportsBenchmarkRunner} to get
+ * allocation rates and SQL statement counts alongside throughput and latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReportsBenchmark {
+
+    @Param("500")
+    int users;
+
+    @Param("100000")
+    int tickets;
+
+    @Param("3")
+    int commentsPerTicket;
+
+    /** Days the seeded tickets are spread over. */
+    @Param("365")
+    int days;
+
+    @Param("false")
+    boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private ReportsService reportsService;
+    private ReportCacheService reportCacheService;
+    private Long agentId;
+    private LocalDateTime rangeStart;
+    private LocalDateTime rangeEnd;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ZimsmartvillagesApplication.class)
+                // Command-line arguments, so they take precedence over application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.ticketsystem=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.org.springframework.web.cors=WARN",
+                        "--spring.devtools.restart.enabled=false",
+                        // Keep background work out of the measurements
+                        "--app.reports.columnar.enabled=false",
+                        "--app.search.enabled=false",
+                        "--app.reports.scorecard.initial-delay-ms=86400000",
+                        "--app.reports.scorecard.refresh-ms=86400000",
+                        "--app.reports.scorecard.dirty-refresh-ms=86400000");
+
+        List<Long> agents = new BenchmarkDataSeeder(context.getBean(JdbcTemplate.class))
+                .seed(users, tickets, commentsPerTicket, days);
+        context.getBean(TicketRollupService.class).rebuild();
+        context.getBean(CommentActivityService.class).rebuild();
+        context.getBean(AgentScorecardService.class).refreshAll();
+
+        reportsService = context.getBean(ReportsService.class);
+        reportCacheService = context.getBean(ReportCacheService.class);
+        agentId = agents.get(0);
+        rangeEnd = LocalDateTime.now();
+        rangeStart = rangeEnd.minusDays(90);
+
+        SqlStatementProfiler.attach(context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics());
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        if (!cached) {
+            reportCacheService.clear();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public TicketTrendsDTO ticketTrends() {
+        return reportsService.getTicketTrends(rangeStart, rangeEnd, TimeGranularity.DAY);
+    }
+
+    @Benchmark
+    public StatusDistributionDTO statusDistribution() {
+        return reportsService.getStatusDistribution();
+    }
+
+    @Benchmark
+    public PriorityAnalysisDTO priorityAnalysis() {
+        return reportsService.getPriorityAnalysis();
+    }
+
+    @Benchmark
+    public List<UserActivityDTO> userActivity() {
+        return reportsService.getUserActivity(30);
+    }
+
+    @Benchmark
+    public PerformanceMetricsDTO teamPerformanceMetrics() {
+        return reportsService.getPerformanceMetrics(null);
+    }
+
+    @Benchmark
+    public PerformanceMetricsDTO agentPerformanceMetrics() {
+        return reportsService.getPerformanceMetrics(agentId);
+    }
+
+    @Benchmark
+    public ResponseTimeAnalysisDTO responseTimeAnalysis() {
+        return reportsService.getResponseTimeAnalysis(rangeStart, rangeEnd, TimeGranularity.DAY);
+    }
+}
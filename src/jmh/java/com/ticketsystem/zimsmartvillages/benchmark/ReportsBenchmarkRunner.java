@@ -0,0 +1,30 @@
+package com.ticketsystem.zimsmartvillages.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate per operation) and
+ * {@link SqlStatementProfiler} always on. Takes the usual JMH command-line options, for
+ * example {@code -p tickets=1000000} to change the data volume or a regex to pick benchmarks.
+ */
+public final class ReportsBenchmarkRunner {
+
+    private ReportsBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .addProfiler(SqlStatementProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(ReportsBenchmark.class.getSimpleName());
+        }
+        new Runner(options.build()).run();
+    }
+}
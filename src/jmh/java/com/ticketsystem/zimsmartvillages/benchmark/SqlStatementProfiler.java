@@ -0,0 +1,55 @@
+package com.ticketsystem.zimsmartvillages.benchmark;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reports the number of SQL statements Hibernate prepared per benchmark operation, as
+ * {@code sql.statements/op}. The benchmark state hands over Hibernate's statistics once its
+ * application context is up, so the first iteration of each fork, which includes seeding the
+ * database, is not reported.
+ */
+public class SqlStatementProfiler implements InternalProfiler {
+
+    private static volatile Statistics statistics;
+
+    private Statistics measured;
+    private long statementsBefore;
+
+    static void attach(Statistics statistics) {
+        statistics.setStatisticsEnabled(true);
+        SqlStatementProfiler.statistics = statistics;
+    }
+
+    @Override
+    public String getDescription() {
+        return "SQL statements prepared per operation";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        // Null on the first iteration of a fork, whose trial setup has not run yet
+        measured = statistics;
+        statementsBefore = measured != null ? measured.getPrepareStatementCount() : 0;
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        long ops = result.getMetadata() != null ? result.getMetadata().getAllOps() : 0;
+        if (measured == null || ops == 0) {
+            return List.of();
+        }
+        double perOp = (double) (measured.getPrepareStatementCount() - statementsBefore) / ops;
+        return List.of(new ScalarResult("sql.statements", perOp, "statements/op", AggregationPolicy.AVG));
+    }
+}
@@ -0,0 +1,50 @@
+package com.ticketsystem.zimsmartvillages.config;
+
+import com.ticketsystem.zimsmartvillages.service.CommentActivityService;
+import com.ticketsystem.zimsmartvillages.service.TicketLifecycleBackfillService;
+import com.ticketsystem.zimsmartvillages.service.TicketRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs report maintenance tasks requested on the command line, e.g.
+ * {@code java -jar app.jar --rebuild-ticket-rollups}.
+ */
+@Component
+public class ReportsMaintenanceRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportsMaintenanceRunner.class);
+
+    private final TicketRollupService ticketRollupService;
+    private final TicketLifecycleBackfillService ticketLifecycleBackfillService;
+    private final CommentActivityService commentActivityService;
+
+    public ReportsMaintenanceRunner(TicketRollupService ticketRollupService,
+                                    TicketLifecycleBackfillService ticketLifecycleBackfillService,
+                                    CommentActivityService commentActivityService) {
+        this.ticketRollupService = ticketRollupService;
+        this.ticketLifecycleBackfillService = ticketLifecycleBackfillService;
+        this.commentActivityService = commentActivityService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("backfill-ticket-lifecycle")) {
+            logger.info("Backfilling ticket lifecycle timestamps");
+            ticketLifecycleBackfillService.backfill();
+        }
+
+        if (args.containsOption("rebuild-ticket-rollups")) {
+            logger.info("Rebuilding ticket daily rollups from the ticket table");
+            ticketRollupService.rebuild();
+        }
+
+        if (args.containsOption("rebuild-comment-activity")) {
+            logger.info("Rebuilding author comment counters from the comment table");
+            commentActivityService.rebuild();
+        }
+    }
+}
@@ -3,10 +3,15 @@ package com.ticketsystem.zimsmartvillages.controller;
 import com.ticketsystem.zimsmartvillages.dto.CommentDto;
 import com.ticketsystem.zimsmartvillages.model.User;
 import com.ticketsystem.zimsmartvillages.service.CommentService;
+import com.ticketsystem.zimsmartvillages.service.ExportFormat;
+import com.ticketsystem.zimsmartvillages.service.ExportService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,9 +20,11 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final ExportService exportService;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, ExportService exportService) {
         this.commentService = commentService;
+        this.exportService = exportService;
     }
 
     @GetMapping("/ticket/{ticketId}")
@@ -25,6 +32,20 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getCommentsByTicketId(ticketId));
     }
 
+    /**
+     * Streams all comments, or those of one ticket, as CSV or NDJSON.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
+    public ResponseEntity<StreamingResponseBody> exportComments(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) Long ticketId) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"comments." + format.getExtension() + "\"")
+                .body(exportService.exportComments(ticketId, format));
+    }
+
     @PostMapping
     public ResponseEntity<CommentDto> createComment(@RequestBody CommentDto commentDto,
                                                     @AuthenticationPrincipal User currentUser) {
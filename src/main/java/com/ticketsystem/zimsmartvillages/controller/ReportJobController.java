@@ -0,0 +1,62 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.ticketsystem.zimsmartvillages.dto.ReportJobDto;
+import com.ticketsystem.zimsmartvillages.dto.ReportJobRequest;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.service.ReportJobService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+public class ReportJobController {
+
+    private static final long MAX_WAIT_SECONDS = 30;
+
+    private final ReportJobService reportJobService;
+
+    @Autowired
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReportJobDto> submitJob(@Valid @RequestBody ReportJobRequest request,
+                                                  @AuthenticationPrincipal User currentUser) {
+        return new ResponseEntity<>(reportJobService.submit(request, currentUser.getUsername()), HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Returns the job's state. With {@code waitSeconds}, holds the request until the job
+     * finishes or the wait (capped at 30 seconds) runs out, whichever comes first.
+     */
+    @GetMapping("/{id}")
+    public DeferredResult<ResponseEntity<ReportJobDto>> getJob(@PathVariable String id,
+                                                               @RequestParam(defaultValue = "0") long waitSeconds,
+                                                               @AuthenticationPrincipal User currentUser) {
+        String owner = currentUser.getUsername();
+        ReportJobDto job = reportJobService.getJob(id, owner);
+
+        long timeoutMs = Math.min(Math.max(waitSeconds, 0), MAX_WAIT_SECONDS) * 1000;
+        DeferredResult<ResponseEntity<ReportJobDto>> result = new DeferredResult<>(timeoutMs > 0 ? timeoutMs : null);
+        if (timeoutMs == 0 || job.getStatus().isFinished()) {
+            result.setResult(ResponseEntity.ok(job));
+            return result;
+        }
+
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok(reportJobService.getJob(id, owner))));
+        reportJobService.whenFinished(id, owner).thenAccept(finished -> result.setResult(ResponseEntity.ok(finished)));
+        return result;
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReportJobDto> cancelJob(@PathVariable String id,
+                                                  @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(reportJobService.cancel(id, currentUser.getUsername()));
+    }
+}
@@ -1,14 +1,29 @@
 package com.ticketsystem.zimsmartvillages.controller;
 
 import com.ticketsystem.zimsmartvillages.dto.*;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+import com.ticketsystem.zimsmartvillages.service.ColumnarAnalyticsService;
+import com.ticketsystem.zimsmartvillages.service.CommentActivityService;
+import com.ticketsystem.zimsmartvillages.service.DashboardStreamService;
+import com.ticketsystem.zimsmartvillages.service.ReportCacheService;
 import com.ticketsystem.zimsmartvillages.service.ReportsService;
+import com.ticketsystem.zimsmartvillages.service.TicketLifecycleBackfillService;
+import com.ticketsystem.zimsmartvillages.service.TicketRollupService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,17 +33,35 @@ import java.util.List;
 public class ReportsController {
 
     private final ReportsService reportsService;
+    private final TicketRollupService ticketRollupService;
+    private final TicketLifecycleBackfillService ticketLifecycleBackfillService;
+    private final ReportCacheService reportCacheService;
+    private final ColumnarAnalyticsService columnarAnalyticsService;
+    private final DashboardStreamService dashboardStreamService;
+    private final CommentActivityService commentActivityService;
 
     @Autowired
-    public ReportsController(ReportsService reportsService) {
+    public ReportsController(ReportsService reportsService, TicketRollupService ticketRollupService,
+                             TicketLifecycleBackfillService ticketLifecycleBackfillService,
+                             ReportCacheService reportCacheService,
+                             ColumnarAnalyticsService columnarAnalyticsService,
+                             DashboardStreamService dashboardStreamService,
+                             CommentActivityService commentActivityService) {
         this.reportsService = reportsService;
+        this.ticketRollupService = ticketRollupService;
+        this.ticketLifecycleBackfillService = ticketLifecycleBackfillService;
+        this.reportCacheService = reportCacheService;
+        this.columnarAnalyticsService = columnarAnalyticsService;
+        this.dashboardStreamService = dashboardStreamService;
+        this.commentActivityService = commentActivityService;
     }
 
     @GetMapping("/ticket-trends")
     public ResponseEntity<TicketTrendsDTO> getTicketTrends(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(reportsService.getTicketTrends(startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) TimeGranularity granularity) {
+        return ResponseEntity.ok(reportsService.getTicketTrends(startDate, endDate, granularity));
     }
 
     @GetMapping("/status-distribution")
@@ -41,21 +74,98 @@ public class ReportsController {
         return ResponseEntity.ok(reportsService.getPriorityAnalysis());
     }
 
+    /**
+     * Activity per user, most active first: every user by default, the first {@code top}, or
+     * page {@code page} of {@code size} users. {@code top} and {@code size} must be between 1 and 100.
+     */
     @GetMapping("/user-activity")
-    public ResponseEntity<List<UserActivityDTO>> getUserActivity(@RequestParam(defaultValue = "30") int days) {
+    public ResponseEntity<List<UserActivityDTO>> getUserActivity(@RequestParam(defaultValue = "30") int days,
+                                                                 @RequestParam(required = false) Integer top,
+                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(required = false) Integer size) {
+        if (top != null) {
+            return ResponseEntity.ok(reportsService.getUserActivity(days, 0, top));
+        }
+        if (size != null) {
+            return ResponseEntity.ok(reportsService.getUserActivity(days, page, size));
+        }
         return ResponseEntity.ok(reportsService.getUserActivity(days));
     }
 
     @GetMapping("/performance-metrics")
     public ResponseEntity<PerformanceMetricsDTO> getPerformanceMetrics(
-            @RequestParam(required = false) Long userId) {
-        return ResponseEntity.ok(reportsService.getPerformanceMetrics(userId));
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "" + ReportsService.DEFAULT_SCORECARD_WINDOW_DAYS) int windowDays) {
+        return ResponseEntity.ok(reportsService.getPerformanceMetrics(userId, windowDays));
     }
 
     @GetMapping("/response-time")
     public ResponseEntity<ResponseTimeAnalysisDTO> getResponseTimeAnalysis(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(reportsService.getResponseTimeAnalysis(startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) TimeGranularity granularity,
+            @RequestParam(required = false) Ticket.Priority priority,
+            @RequestParam(required = false) List<Double> slaHours) {
+        return ResponseEntity.ok(reportsService.getResponseTimeAnalysis(startDate, endDate, granularity, priority,
+                slaHours != null ? slaHours : ReportsService.DEFAULT_SLA_HOURS));
+    }
+
+    /**
+     * Ad-hoc filter and group-by over tickets, served from the in-memory columnar store when it is loaded.
+     */
+    @PostMapping("/query")
+    public ResponseEntity<AnalyticsQueryResultDto> query(@Valid @RequestBody AnalyticsQueryRequest request) {
+        return ResponseEntity.ok(columnarAnalyticsService.query(request));
+    }
+
+    /**
+     * Live dashboard counts as Server-Sent Events: a {@code snapshot} event, then a {@code delta}
+     * event per committed ticket change. Browsers resume with the {@code Last-Event-ID} header on
+     * reconnect; {@code lastEventId} does the same for clients that cannot set it.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                             @RequestParam(required = false) String lastEventId) {
+        return dashboardStreamService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @PostMapping("/maintenance/rollups/rebuild")
+    public ResponseEntity<MessageResponse> rebuildTicketRollups() {
+        int rows = ticketRollupService.rebuild();
+        reportCacheService.clear();
+        return ResponseEntity.ok(new MessageResponse("Rebuilt " + rows + " ticket rollup rows"));
+    }
+
+    @PostMapping("/maintenance/lifecycle/backfill")
+    public ResponseEntity<MessageResponse> backfillTicketLifecycle() {
+        int rows = ticketLifecycleBackfillService.backfill();
+        reportCacheService.clear();
+        // The backfill bypasses ticket change events, so the columnar store has to be reloaded
+        columnarAnalyticsService.reload();
+        return ResponseEntity.ok(new MessageResponse("Backfilled lifecycle timestamps on " + rows + " tickets"));
+    }
+
+    @PostMapping("/maintenance/comment-activity/rebuild")
+    public ResponseEntity<MessageResponse> rebuildCommentActivity() {
+        int rows = commentActivityService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Rebuilt " + rows + " comment activity rows"));
+    }
+
+    @PostMapping("/maintenance/columnar/reload")
+    public ResponseEntity<MessageResponse> reloadColumnarStore() {
+        columnarAnalyticsService.reload();
+        return ResponseEntity.ok(new MessageResponse(columnarAnalyticsService.isReady()
+                ? "Columnar store reloaded" : "Columnar store unavailable; ad-hoc queries use the database"));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ReportCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(reportCacheService.getStats());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<MessageResponse> clearCache() {
+        reportCacheService.clear();
+        return ResponseEntity.ok(new MessageResponse("Report cache cleared"));
     }
 }
@@ -0,0 +1,43 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.ticketsystem.zimsmartvillages.dto.SlaPolicyDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.service.SlaService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sla")
+public class SlaController {
+
+    private final SlaService slaService;
+
+    public SlaController(SlaService slaService) {
+        this.slaService = slaService;
+    }
+
+    @GetMapping("/policies")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
+    public ResponseEntity<List<SlaPolicyDto>> getPolicies() {
+        return ResponseEntity.ok(slaService.getPolicies());
+    }
+
+    /**
+     * Sets the first-response and resolution targets of a priority; open tickets are rescheduled.
+     */
+    @PutMapping("/policies/{priority}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SlaPolicyDto> updatePolicy(@PathVariable Ticket.Priority priority,
+                                                     @Valid @RequestBody SlaPolicyDto policy) {
+        return ResponseEntity.ok(slaService.updatePolicy(priority, policy));
+    }
+}
@@ -1,38 +1,127 @@
 package com.ticketsystem.zimsmartvillages.controller;
 
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketRequest;
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketResultDto;
+import com.ticketsystem.zimsmartvillages.dto.CursorPageDto;
+import com.ticketsystem.zimsmartvillages.dto.MessageResponse;
+import com.ticketsystem.zimsmartvillages.dto.SlaBreachDto;
 import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketImportDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketRatingDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketRatingRequest;
+import com.ticketsystem.zimsmartvillages.dto.TicketSearchCriteria;
+import com.ticketsystem.zimsmartvillages.dto.TicketStatusTransitionDto;
 import com.ticketsystem.zimsmartvillages.model.Ticket;
 import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.service.ExportFormat;
+import com.ticketsystem.zimsmartvillages.service.ExportService;
+import com.ticketsystem.zimsmartvillages.service.SlaService;
+import com.ticketsystem.zimsmartvillages.service.TicketImportService;
+import com.ticketsystem.zimsmartvillages.service.TicketRatingService;
 import com.ticketsystem.zimsmartvillages.service.TicketService;
+import com.ticketsystem.zimsmartvillages.service.TicketTextSearchService;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
     private final TicketService ticketService;
+    private final ExportService exportService;
+    private final TicketRatingService ticketRatingService;
+    private final SlaService slaService;
+    private final TicketTextSearchService textSearchService;
+    private final TicketImportService importService;
 
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, ExportService exportService,
+                            TicketRatingService ticketRatingService, SlaService slaService,
+                            TicketTextSearchService textSearchService, TicketImportService importService) {
         this.ticketService = ticketService;
+        this.exportService = exportService;
+        this.ticketRatingService = ticketRatingService;
+        this.slaService = slaService;
+        this.textSearchService = textSearchService;
+        this.importService = importService;
     }
 
+    /**
+     * Offset-paged by default. With {@code after} (empty for the first page) the listing is
+     * keyset-paged newest first instead and returns a {@code nextCursor} to pass as the next
+     * {@code after}; {@code size} sets the page size and must be between 1 and 100, which is
+     * checked rather than clamped. Each page carries a weak ETag, so a client polling with
+     * {@code If-None-Match} gets a bodiless 304 while the page is unchanged. The same holds for
+     * every listing below.
+     */
     @GetMapping
-    public ResponseEntity<Page<TicketDto>> getAllTickets(Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getAllTickets(pageable));
+    public ResponseEntity<?> getAllTickets(@RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           Pageable pageable) {
+        if (after != null) {
+            return listing(ticketService.getAllTickets(after, size));
+        }
+        return listing(ticketService.getAllTickets(pageable));
     }
 
+    /**
+     * Tickets matching every given filter, e.g.
+     * {@code ?statuses=OPEN,REOPENED&priorities=CRITICAL&assigneeId=7&createdFrom=2025-01-01T00:00:00}.
+     * Paged like the listings; {@code sort} accepts createdDate, updatedDate and id in offset mode.
+     * <p>
+     * With {@code q} it is a full-text search of titles, descriptions, text content and comments
+     * instead, most relevant first with highlighted snippets, always keyset-paged; {@code q}
+     * cannot be combined with the filters.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTickets(@ModelAttribute TicketSearchCriteria criteria,
+                                           @RequestParam(required = false) String q,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           Pageable pageable) {
+        if (q != null) {
+            if (criteria.hasFilters()) {
+                throw new IllegalArgumentException("q cannot be combined with search filters");
+            }
+            return listing(textSearchService.search(q, after, size));
+        }
+        if (after != null) {
+            return listing(ticketService.searchTickets(criteria, after, size));
+        }
+        return listing(ticketService.searchTickets(criteria, pageable));
+    }
+
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildSearchIndex() {
+        int tickets = textSearchService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Indexed " + tickets + " tickets for search"));
+    }
+
+    /**
+     * Tagged with the ticket's version as a strong ETag. A matching {@code If-None-Match} gets a
+     * 304 after reading just the version, without loading or serializing the ticket.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<TicketDto> getTicket(@PathVariable Long id) {
+    public ResponseEntity<TicketDto> getTicket(@PathVariable Long id, WebRequest request) {
+        // The tag is the version read here; a write landing before the load only costs one extra download
+        if (request.checkNotModified(TicketETags.of(ticketService.getTicketVersion(id)))) {
+            return null;
+        }
         return ResponseEntity.ok(ticketService.getTicketById(id));
     }
 
@@ -56,10 +145,16 @@ public class TicketController {
                 HttpStatus.CREATED);
     }
 
+    /**
+     * With {@code If-Match} set to the ticket's ETag, fails with 412 if the ticket has changed
+     * since; the same goes for the status and assignment updates. The response carries the new ETag.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<TicketDto> updateTicket(@PathVariable Long id,
-                                                  @RequestBody TicketDto ticketDto) {
-        return ResponseEntity.ok(ticketService.updateTicket(id, ticketDto));
+                                                  @RequestBody TicketDto ticketDto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @AuthenticationPrincipal User currentUser) {
+        return tagged(ticketService.updateTicket(id, ticketDto, currentUser, TicketETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{id}")
@@ -69,48 +164,176 @@ public class TicketController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Applies many status, priority, assignment and delete operations in one transaction and
+     * reports the outcome of each. Deleting requires the ADMIN role.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
+    public ResponseEntity<BulkTicketResultDto> applyBulk(@Valid @RequestBody BulkTicketRequest request,
+                                                         @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(ticketService.applyBulk(request, currentUser));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<TicketDto> updateTicketStatus(@PathVariable Long id,
-                                                        @RequestParam Ticket.Status status) {
-        return ResponseEntity.ok(ticketService.updateTicketStatus(id, status));
+                                                        @RequestParam Ticket.Status status,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @AuthenticationPrincipal User currentUser) {
+        return tagged(ticketService.updateTicketStatus(id, status, currentUser, TicketETags.expectedVersion(ifMatch)));
+    }
+
+    /**
+     * Status timeline of the ticket, oldest first. Pass the returned {@code nextCursor} to get the next page.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<CursorPageDto<TicketStatusTransitionDto>> getTicketHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ticketService.getTicketHistory(id, cursor, size));
+    }
+
+    /**
+     * Rates a closed ticket from 1 to 5. Only its creator may rate it; rating again replaces the score.
+     */
+    @PostMapping("/{id}/rating")
+    public ResponseEntity<TicketRatingDto> rateTicket(@PathVariable Long id,
+                                                      @Valid @RequestBody TicketRatingRequest request,
+                                                      @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(ticketRatingService.rateTicket(id, request, currentUser));
+    }
+
+    @GetMapping("/{id}/rating")
+    public ResponseEntity<TicketRatingDto> getTicketRating(@PathVariable Long id) {
+        return ResponseEntity.ok(ticketRatingService.getRating(id));
+    }
+
+    /**
+     * SLA deadlines the ticket has missed, oldest first.
+     */
+    @GetMapping("/{id}/sla-breaches")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
+    public ResponseEntity<List<SlaBreachDto>> getSlaBreaches(@PathVariable Long id) {
+        return ResponseEntity.ok(slaService.getBreaches(id));
     }
 
     @PutMapping("/{id}/assign")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
     public ResponseEntity<TicketDto> assignTicket(@PathVariable Long id,
-                                                  @RequestParam Long userId) {
-        return ResponseEntity.ok(ticketService.assignTicket(id, userId));
+                                                  @RequestParam Long userId,
+                                                  @AuthenticationPrincipal User currentUser,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return tagged(ticketService.assignTicket(id, userId, currentUser, TicketETags.expectedVersion(ifMatch)));
     }
 
     @GetMapping("/my-tickets")
-    public ResponseEntity<Page<TicketDto>> getMyTickets(@AuthenticationPrincipal User currentUser,
-                                                        Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getTicketsByCreator(currentUser, pageable));
+    public ResponseEntity<?> getMyTickets(@AuthenticationPrincipal User currentUser,
+                                          @RequestParam(required = false) String after,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          Pageable pageable) {
+        if (after != null) {
+            return listing(ticketService.getTicketsByCreator(currentUser, after, size));
+        }
+        return listing(ticketService.getTicketsByCreator(currentUser, pageable));
     }
 
     @GetMapping("/assigned-to-me")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
-    public ResponseEntity<Page<TicketDto>> getAssignedToMe(@AuthenticationPrincipal User currentUser,
-                                                           Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getTicketsAssignedTo(currentUser, pageable));
+    public ResponseEntity<?> getAssignedToMe(@AuthenticationPrincipal User currentUser,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(defaultValue = "20") int size,
+                                             Pageable pageable) {
+        if (after != null) {
+            return listing(ticketService.getTicketsAssignedTo(currentUser, after, size));
+        }
+        return listing(ticketService.getTicketsAssignedTo(currentUser, pageable));
     }
 
     @GetMapping("/by-status")
-    public ResponseEntity<Page<TicketDto>> getTicketsByStatus(@RequestParam Ticket.Status status,
-                                                              Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getTicketsByStatus(status, pageable));
+    public ResponseEntity<?> getTicketsByStatus(@RequestParam Ticket.Status status,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                Pageable pageable) {
+        if (after != null) {
+            return listing(ticketService.getTicketsByStatus(status, after, size));
+        }
+        return listing(ticketService.getTicketsByStatus(status, pageable));
     }
 
     @GetMapping("/by-priority")
-    public ResponseEntity<Page<TicketDto>> getTicketsByPriority(@RequestParam Ticket.Priority priority,
-                                                                Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getTicketsByPriority(priority, pageable));
+    public ResponseEntity<?> getTicketsByPriority(@RequestParam Ticket.Priority priority,
+                                                  @RequestParam(required = false) String after,
+                                                  @RequestParam(defaultValue = "20") int size,
+                                                  Pageable pageable) {
+        if (after != null) {
+            return listing(ticketService.getTicketsByPriority(priority, after, size));
+        }
+        return listing(ticketService.getTicketsByPriority(priority, pageable));
+    }
+
+    /**
+     * Streams every ticket matching the optional filters as CSV or NDJSON.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT')")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) Ticket.Status status,
+            @RequestParam(required = false) Ticket.Priority priority,
+            @RequestParam(required = false) Ticket.ContentType contentType) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets." + format.getExtension() + "\"")
+                .body(exportService.exportTickets(status, priority, contentType, format));
+    }
+
+    /**
+     * Imports tickets from a CSV or NDJSON body in the export layout, committing a chunk at a
+     * time. Sending the body again with the same {@code importId} resumes after the last
+     * committed row.
+     * <p>
+     * Imported tickets that are not RESOLVED or CLOSED are tracked for SLA like any other, with
+     * deadlines counted from their {@code createdDate}. Open historical tickets past their targets
+     * are therefore recorded as breached and escalated on the next SLA tick; import them with
+     * their final status to avoid that.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TicketImportDto> importTickets(InputStream body,
+                                                         @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                         @RequestParam(required = false) String importId) throws IOException {
+        return ResponseEntity.ok(importService.importTickets(body, format, importId));
+    }
+
+    @GetMapping("/import/{importId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TicketImportDto> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(importService.getImport(importId));
     }
 
     @GetMapping("/by-content-type")
-    public ResponseEntity<Page<TicketDto>> getTicketsByContentType(
+    public ResponseEntity<?> getTicketsByContentType(
             @RequestParam Ticket.ContentType contentType,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
             Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getTicketsByContentType(contentType, pageable));
+        if (after != null) {
+            return listing(ticketService.getTicketsByContentType(contentType, after, size));
+        }
+        return listing(ticketService.getTicketsByContentType(contentType, pageable));
+    }
+
+    private static ResponseEntity<TicketDto> tagged(TicketDto ticket) {
+        return ResponseEntity.ok().eTag(TicketETags.of(ticket.getVersion())).body(ticket);
+    }
+
+    // Weakly tagged, so a matching If-None-Match is answered with 304 before the body is written
+    private static ResponseEntity<?> listing(Page<TicketDto> page) {
+        return ResponseEntity.ok().eTag(TicketETags.of(page)).body(page);
+    }
+
+    private static ResponseEntity<?> listing(CursorPageDto<?> page) {
+        return ResponseEntity.ok().eTag(TicketETags.of(page)).body(page);
     }
 }
@@ -0,0 +1,79 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.ticketsystem.zimsmartvillages.dto.CursorPageDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketSearchHitDto;
+import com.ticketsystem.zimsmartvillages.exception.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entity tags for ticket responses. A ticket's tag is its version, strong enough for
+ * {@code If-Match}; a listing's tag is weak, a digest of the ids and versions on the page and of
+ * the creator and assignee names, which change without changing the tickets.
+ */
+final class TicketETags {
+
+    private TicketETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or {@code null} if it requires none. A tag
+     * that cannot be a current version, such as a weak one, fails the precondition outright.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("If-Match must name a single entity tag");
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failed precondition
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + tag + " does not match the ticket");
+    }
+
+    static String of(Page<TicketDto> page) {
+        StringBuilder key = new StringBuilder()
+                .append(page.getNumber()).append('/').append(page.getSize()).append('/').append(page.getTotalElements());
+        appendTickets(key, page.getContent());
+        return weak(key);
+    }
+
+    static String of(CursorPageDto<?> page) {
+        StringBuilder key = new StringBuilder().append(page.getNextCursor());
+        for (Object item : page.getItems()) {
+            if (item instanceof TicketSearchHitDto hit) {
+                appendTickets(key, List.of(hit.getTicket()));
+                key.append(':').append(hit.getScore()).append(':').append(hit.getHighlights());
+            } else if (item instanceof TicketDto ticket) {
+                appendTickets(key, List.of(ticket));
+            }
+        }
+        return weak(key);
+    }
+
+    private static void appendTickets(StringBuilder key, List<TicketDto> tickets) {
+        for (TicketDto ticket : tickets) {
+            key.append(';').append(ticket.getId()).append(':').append(ticket.getVersion())
+                    .append(':').append(ticket.getCreatorName()).append(':').append(ticket.getAssignedToName());
+        }
+    }
+
+    private static String weak(StringBuilder key) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
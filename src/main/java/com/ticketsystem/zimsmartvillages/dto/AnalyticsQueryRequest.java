@@ -0,0 +1,122 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.reporting.TicketAggregation;
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ad-hoc ticket aggregation: tickets created in [startDate, endDate) that match every given
+ * filter, grouped by the listed dimensions and, when a granularity is given, by time bucket.
+ * Every group reports its ticket count; when a measure is given it also reports the sum,
+ * average and requested percentiles of that duration, in hours.
+ */
+public class AnalyticsQueryRequest {
+
+    @NotNull(message = "startDate is required")
+    private LocalDateTime startDate;
+
+    @NotNull(message = "endDate is required")
+    private LocalDateTime endDate;
+
+    private TimeGranularity granularity;
+    private List<TicketAggregation.Dimension> groupBy;
+    private List<Ticket.Status> statuses;
+    private List<Ticket.Priority> priorities;
+    private List<Ticket.ContentType> contentTypes;
+    private Long creatorId;
+    private Long assigneeId;
+    private TicketAggregation.Measure measure;
+    private List<Integer> percentiles;
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public TimeGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(TimeGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public List<TicketAggregation.Dimension> getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(List<TicketAggregation.Dimension> groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public List<Ticket.Status> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<Ticket.Status> statuses) {
+        this.statuses = statuses;
+    }
+
+    public List<Ticket.Priority> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(List<Ticket.Priority> priorities) {
+        this.priorities = priorities;
+    }
+
+    public List<Ticket.ContentType> getContentTypes() {
+        return contentTypes;
+    }
+
+    public void setContentTypes(List<Ticket.ContentType> contentTypes) {
+        this.contentTypes = contentTypes;
+    }
+
+    public Long getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(Long creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public void setAssigneeId(Long assigneeId) {
+        this.assigneeId = assigneeId;
+    }
+
+    public TicketAggregation.Measure getMeasure() {
+        return measure;
+    }
+
+    public void setMeasure(TicketAggregation.Measure measure) {
+        this.measure = measure;
+    }
+
+    public List<Integer> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Integer> percentiles) {
+        this.percentiles = percentiles;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class AnalyticsQueryResultDto {
+
+    public enum Source {
+        COLUMNAR, DATABASE
+    }
+
+    private Source source;
+    private TimeGranularity granularity;
+    private long ticketsMatched;
+    private long elapsedMs;
+    private List<Row> rows;
+
+    public AnalyticsQueryResultDto(Source source, TimeGranularity granularity, long ticketsMatched, long elapsedMs,
+                                   List<Row> rows) {
+        this.source = source;
+        this.granularity = granularity;
+        this.ticketsMatched = ticketsMatched;
+        this.elapsedMs = elapsedMs;
+        this.rows = rows;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public TimeGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(TimeGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public long getTicketsMatched() {
+        return ticketsMatched;
+    }
+
+    public void setTicketsMatched(long ticketsMatched) {
+        this.ticketsMatched = ticketsMatched;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<Row> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * One group. Measure fields are {@code null} when no measure was requested.
+     */
+    public static class Row {
+        private Map<String, Object> dimensions;
+        private String bucket;
+        private LocalDateTime bucketStart;
+        private long count;
+        private Long measuredCount;
+        private Double sumHours;
+        private Double averageHours;
+        private Map<String, Double> percentileHours;
+
+        public Map<String, Object> getDimensions() {
+            return dimensions;
+        }
+
+        public void setDimensions(Map<String, Object> dimensions) {
+            this.dimensions = dimensions;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+
+        public LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+
+        public void setBucketStart(LocalDateTime bucketStart) {
+            this.bucketStart = bucketStart;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public Long getMeasuredCount() {
+            return measuredCount;
+        }
+
+        public void setMeasuredCount(Long measuredCount) {
+            this.measuredCount = measuredCount;
+        }
+
+        public Double getSumHours() {
+            return sumHours;
+        }
+
+        public void setSumHours(Double sumHours) {
+            this.sumHours = sumHours;
+        }
+
+        public Double getAverageHours() {
+            return averageHours;
+        }
+
+        public void setAverageHours(Double averageHours) {
+            this.averageHours = averageHours;
+        }
+
+        public Map<String, Double> getPercentileHours() {
+            return percentileHours;
+        }
+
+        public void setPercentileHours(Map<String, Double> percentileHours) {
+            this.percentileHours = percentileHours;
+        }
+    }
+}
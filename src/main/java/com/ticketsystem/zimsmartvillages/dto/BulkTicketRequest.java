@@ -0,0 +1,85 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Operations on many tickets, applied in order in one transaction. Each operation names a
+ * ticket and the one field it sets: {@code status} for STATUS, {@code priority} for PRIORITY,
+ * {@code userId} for ASSIGN; DELETE takes nothing else.
+ */
+public class BulkTicketRequest {
+
+    public enum OperationType {
+        STATUS, PRIORITY, ASSIGN, DELETE
+    }
+
+    @NotEmpty(message = "At least one operation is required")
+    @Valid
+    private List<Operation> operations;
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public static class Operation {
+
+        @NotNull(message = "type is required")
+        private OperationType type;
+
+        @NotNull(message = "ticketId is required")
+        private Long ticketId;
+
+        private Ticket.Status status;
+        private Ticket.Priority priority;
+        private Long userId;
+
+        public OperationType getType() {
+            return type;
+        }
+
+        public void setType(OperationType type) {
+            this.type = type;
+        }
+
+        public Long getTicketId() {
+            return ticketId;
+        }
+
+        public void setTicketId(Long ticketId) {
+            this.ticketId = ticketId;
+        }
+
+        public Ticket.Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Ticket.Status status) {
+            this.status = status;
+        }
+
+        public Ticket.Priority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(Ticket.Priority priority) {
+            this.priority = priority;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
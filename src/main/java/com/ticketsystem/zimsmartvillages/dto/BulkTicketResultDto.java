@@ -0,0 +1,118 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk request: one result per operation, in request order, and the totals.
+ */
+public class BulkTicketResultDto {
+
+    public enum Outcome {
+        /** The ticket was changed. */
+        APPLIED,
+        /** The ticket already had the requested value. */
+        UNCHANGED,
+        /** The operation was skipped; see the message. The others still apply. */
+        FAILED
+    }
+
+    private int applied;
+    private int unchanged;
+    private int failed;
+    private long elapsedMs;
+    private List<Item> results;
+
+    public BulkTicketResultDto(int applied, int unchanged, int failed, long elapsedMs, List<Item> results) {
+        this.applied = applied;
+        this.unchanged = unchanged;
+        this.failed = failed;
+        this.elapsedMs = elapsedMs;
+        this.results = results;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    public static class Item {
+        private int index;
+        private Long ticketId;
+        private Outcome outcome;
+        private String message;
+
+        public Item(int index, Long ticketId, Outcome outcome, String message) {
+            this.index = index;
+            this.ticketId = ticketId;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public Long getTicketId() {
+            return ticketId;
+        }
+
+        public void setTicketId(Long ticketId) {
+            this.ticketId = ticketId;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public void setOutcome(Outcome outcome) {
+            this.outcome = outcome;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
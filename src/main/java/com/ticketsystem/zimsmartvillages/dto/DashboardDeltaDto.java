@@ -0,0 +1,58 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Change to the live dashboard counts caused by one committed ticket write, e.g.
+ * {@code {"ticketId":42,"status":{"OPEN":-1,"RESOLVED":1}}}. {@code created} counts new tickets
+ * per priority; maps with nothing to report are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class DashboardDeltaDto {
+    private Long ticketId;
+    private Map<String, Integer> status;
+    private Map<String, Integer> priority;
+    private Map<String, Integer> created;
+
+    public DashboardDeltaDto(Long ticketId, Map<String, Integer> status, Map<String, Integer> priority,
+                             Map<String, Integer> created) {
+        this.ticketId = ticketId;
+        this.status = status;
+        this.priority = priority;
+        this.created = created;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Map<String, Integer> getStatus() {
+        return status;
+    }
+
+    public void setStatus(Map<String, Integer> status) {
+        this.status = status;
+    }
+
+    public Map<String, Integer> getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Map<String, Integer> priority) {
+        this.priority = priority;
+    }
+
+    public Map<String, Integer> getCreated() {
+        return created;
+    }
+
+    public void setCreated(Map<String, Integer> created) {
+        this.created = created;
+    }
+}
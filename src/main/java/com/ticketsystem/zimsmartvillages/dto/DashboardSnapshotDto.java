@@ -0,0 +1,43 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import java.util.Map;
+
+/**
+ * Full dashboard counts, sent when a stream connects and whenever it cannot be resumed from
+ * the client's last event. Later deltas apply on top of it.
+ */
+public class DashboardSnapshotDto {
+    private Map<String, Long> status;
+    private Map<String, Long> priority;
+    private long total;
+
+    public DashboardSnapshotDto(Map<String, Long> status, Map<String, Long> priority, long total) {
+        this.status = status;
+        this.priority = priority;
+        this.total = total;
+    }
+
+    public Map<String, Long> getStatus() {
+        return status;
+    }
+
+    public void setStatus(Map<String, Long> status) {
+        this.status = status;
+    }
+
+    public Map<String, Long> getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Map<String, Long> priority) {
+        this.priority = priority;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+}
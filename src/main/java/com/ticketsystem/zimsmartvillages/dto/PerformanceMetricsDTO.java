@@ -1,16 +1,21 @@
 package com.ticketsystem.zimsmartvillages.dto;
 
+import java.time.LocalDateTime;
+
 public class PerformanceMetricsDTO {
     private String agentName;
     private MetricsData metrics;
     private MetricsData teamAverage;
     private StatsData stats;
+    private LocalDateTime computedAt;
 
-    public PerformanceMetricsDTO(String agentName, MetricsData metrics, MetricsData teamAverage, StatsData stats) {
+    public PerformanceMetricsDTO(String agentName, MetricsData metrics, MetricsData teamAverage, StatsData stats,
+                                 LocalDateTime computedAt) {
         this.agentName = agentName;
         this.metrics = metrics;
         this.teamAverage = teamAverage;
         this.stats = stats;
+        this.computedAt = computedAt;
     }
 
     public static Builder builder() {
@@ -22,6 +27,7 @@ public class PerformanceMetricsDTO {
         private MetricsData metrics;
         private MetricsData teamAverage;
         private StatsData stats;
+        private LocalDateTime computedAt;
 
         public Builder agentName(String agentName) {
             this.agentName = agentName;
@@ -43,8 +49,13 @@ public class PerformanceMetricsDTO {
             return this;
         }
 
+        public Builder computedAt(LocalDateTime computedAt) {
+            this.computedAt = computedAt;
+            return this;
+        }
+
         public PerformanceMetricsDTO build() {
-            return new PerformanceMetricsDTO(agentName, metrics, teamAverage, stats);
+            return new PerformanceMetricsDTO(agentName, metrics, teamAverage, stats, computedAt);
         }
     }
 
@@ -291,4 +302,12 @@ public class PerformanceMetricsDTO {
     public void setStats(StatsData stats) {
         this.stats = stats;
     }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
 }
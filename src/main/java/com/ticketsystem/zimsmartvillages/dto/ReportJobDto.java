@@ -0,0 +1,158 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import java.time.LocalDateTime;
+
+public class ReportJobDto {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private String id;
+    private ReportJobRequest.ReportType type;
+    private Status status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private Object result;
+
+    public ReportJobDto(String id, ReportJobRequest.ReportType type, Status status, LocalDateTime submittedAt,
+                        LocalDateTime startedAt, LocalDateTime finishedAt, String error, Object result) {
+        this.id = id;
+        this.type = type;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+        this.result = result;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String id;
+        private ReportJobRequest.ReportType type;
+        private Status status;
+        private LocalDateTime submittedAt;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String error;
+        private Object result;
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder type(ReportJobRequest.ReportType type) {
+            this.type = type;
+            return this;
+        }
+
+        public Builder status(Status status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder submittedAt(LocalDateTime submittedAt) {
+            this.submittedAt = submittedAt;
+            return this;
+        }
+
+        public Builder startedAt(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public Builder finishedAt(LocalDateTime finishedAt) {
+            this.finishedAt = finishedAt;
+            return this;
+        }
+
+        public Builder error(String error) {
+            this.error = error;
+            return this;
+        }
+
+        public Builder result(Object result) {
+            this.result = result;
+            return this;
+        }
+
+        public ReportJobDto build() {
+            return new ReportJobDto(id, type, status, submittedAt, startedAt, finishedAt, error, result);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public ReportJobRequest.ReportType getType() {
+        return type;
+    }
+
+    public void setType(ReportJobRequest.ReportType type) {
+        this.type = type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public void setResult(Object result) {
+        this.result = result;
+    }
+}
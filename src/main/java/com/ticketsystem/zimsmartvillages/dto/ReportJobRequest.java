@@ -0,0 +1,103 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Specification of a report to run as a background job. Fields mirror the query parameters of
+ * the matching {@code /api/reports} endpoint; those a report does not use are ignored.
+ */
+public class ReportJobRequest {
+
+    public enum ReportType {
+        TICKET_TRENDS, STATUS_DISTRIBUTION, PRIORITY_ANALYSIS, USER_ACTIVITY, PERFORMANCE_METRICS, RESPONSE_TIME
+    }
+
+    @NotNull(message = "Report type is required")
+    private ReportType type;
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private TimeGranularity granularity;
+    private Ticket.Priority priority;
+    private List<Double> slaHours;
+    private Integer days;
+    private Long userId;
+    private Integer windowDays;
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public void setType(ReportType type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public TimeGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(TimeGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public List<Double> getSlaHours() {
+        return slaHours;
+    }
+
+    public void setSlaHours(List<Double> slaHours) {
+        this.slaHours = slaHours;
+    }
+
+    public Integer getDays() {
+        return days;
+    }
+
+    public void setDays(Integer days) {
+        this.days = days;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getWindowDays() {
+        return windowDays;
+    }
+
+    public void setWindowDays(Integer windowDays) {
+        this.windowDays = windowDays;
+    }
+}
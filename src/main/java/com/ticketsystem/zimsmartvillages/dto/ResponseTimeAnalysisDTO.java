@@ -1,6 +1,7 @@
 package com.ticketsystem.zimsmartvillages.dto;
 
 import java.util.List;
+import java.util.Map;
 
 public class ResponseTimeAnalysisDTO {
     private TimelineData timeline;
@@ -38,11 +39,16 @@ public class ResponseTimeAnalysisDTO {
         private List<String> labels;
         private List<Double> firstResponseTime;
         private List<Double> resolutionTime;
+        private List<Double> firstResponseP90;
+        private List<Double> resolutionP90;
 
-        public TimelineData(List<String> labels, List<Double> firstResponseTime, List<Double> resolutionTime) {
+        public TimelineData(List<String> labels, List<Double> firstResponseTime, List<Double> resolutionTime,
+                            List<Double> firstResponseP90, List<Double> resolutionP90) {
             this.labels = labels;
             this.firstResponseTime = firstResponseTime;
             this.resolutionTime = resolutionTime;
+            this.firstResponseP90 = firstResponseP90;
+            this.resolutionP90 = resolutionP90;
         }
 
         public static TimelineDataBuilder builder() {
@@ -53,6 +59,8 @@ public class ResponseTimeAnalysisDTO {
             private List<String> labels;
             private List<Double> firstResponseTime;
             private List<Double> resolutionTime;
+            private List<Double> firstResponseP90;
+            private List<Double> resolutionP90;
 
             public TimelineDataBuilder labels(List<String> labels) {
                 this.labels = labels;
@@ -69,8 +77,18 @@ public class ResponseTimeAnalysisDTO {
                 return this;
             }
 
+            public TimelineDataBuilder firstResponseP90(List<Double> firstResponseP90) {
+                this.firstResponseP90 = firstResponseP90;
+                return this;
+            }
+
+            public TimelineDataBuilder resolutionP90(List<Double> resolutionP90) {
+                this.resolutionP90 = resolutionP90;
+                return this;
+            }
+
             public TimelineData build() {
-                return new TimelineData(labels, firstResponseTime, resolutionTime);
+                return new TimelineData(labels, firstResponseTime, resolutionTime, firstResponseP90, resolutionP90);
             }
         }
 
@@ -97,6 +115,22 @@ public class ResponseTimeAnalysisDTO {
         public void setResolutionTime(List<Double> resolutionTime) {
             this.resolutionTime = resolutionTime;
         }
+
+        public List<Double> getFirstResponseP90() {
+            return firstResponseP90;
+        }
+
+        public void setFirstResponseP90(List<Double> firstResponseP90) {
+            this.firstResponseP90 = firstResponseP90;
+        }
+
+        public List<Double> getResolutionP90() {
+            return resolutionP90;
+        }
+
+        public void setResolutionP90(List<Double> resolutionP90) {
+            this.resolutionP90 = resolutionP90;
+        }
     }
 
     public static class MetricsData {
@@ -104,12 +138,22 @@ public class ResponseTimeAnalysisDTO {
         private String averageResolutionTime;
         private String responseSLA;
         private String resolutionSLA;
-
-        public MetricsData(String averageFirstResponse, String averageResolutionTime, String responseSLA, String resolutionSLA) {
+        private Map<String, Double> firstResponsePercentiles;
+        private Map<String, Double> resolutionPercentiles;
+        private Map<String, String> firstResponseSla;
+        private Map<String, String> resolutionSla;
+
+        public MetricsData(String averageFirstResponse, String averageResolutionTime, String responseSLA, String resolutionSLA,
+                           Map<String, Double> firstResponsePercentiles, Map<String, Double> resolutionPercentiles,
+                           Map<String, String> firstResponseSla, Map<String, String> resolutionSla) {
             this.averageFirstResponse = averageFirstResponse;
             this.averageResolutionTime = averageResolutionTime;
             this.responseSLA = responseSLA;
             this.resolutionSLA = resolutionSLA;
+            this.firstResponsePercentiles = firstResponsePercentiles;
+            this.resolutionPercentiles = resolutionPercentiles;
+            this.firstResponseSla = firstResponseSla;
+            this.resolutionSla = resolutionSla;
         }
 
         public static MetricsDataBuilder builder() {
@@ -121,6 +165,10 @@ public class ResponseTimeAnalysisDTO {
             private String averageResolutionTime;
             private String responseSLA;
             private String resolutionSLA;
+            private Map<String, Double> firstResponsePercentiles;
+            private Map<String, Double> resolutionPercentiles;
+            private Map<String, String> firstResponseSla;
+            private Map<String, String> resolutionSla;
 
             public MetricsDataBuilder averageFirstResponse(String averageFirstResponse) {
                 this.averageFirstResponse = averageFirstResponse;
@@ -142,8 +190,29 @@ public class ResponseTimeAnalysisDTO {
                 return this;
             }
 
+            public MetricsDataBuilder firstResponsePercentiles(Map<String, Double> firstResponsePercentiles) {
+                this.firstResponsePercentiles = firstResponsePercentiles;
+                return this;
+            }
+
+            public MetricsDataBuilder resolutionPercentiles(Map<String, Double> resolutionPercentiles) {
+                this.resolutionPercentiles = resolutionPercentiles;
+                return this;
+            }
+
+            public MetricsDataBuilder firstResponseSla(Map<String, String> firstResponseSla) {
+                this.firstResponseSla = firstResponseSla;
+                return this;
+            }
+
+            public MetricsDataBuilder resolutionSla(Map<String, String> resolutionSla) {
+                this.resolutionSla = resolutionSla;
+                return this;
+            }
+
             public MetricsData build() {
-                return new MetricsData(averageFirstResponse, averageResolutionTime, responseSLA, resolutionSLA);
+                return new MetricsData(averageFirstResponse, averageResolutionTime, responseSLA, resolutionSLA,
+                        firstResponsePercentiles, resolutionPercentiles, firstResponseSla, resolutionSla);
             }
         }
 
@@ -178,6 +247,38 @@ public class ResponseTimeAnalysisDTO {
         public void setResolutionSLA(String resolutionSLA) {
             this.resolutionSLA = resolutionSLA;
         }
+
+        public Map<String, Double> getFirstResponsePercentiles() {
+            return firstResponsePercentiles;
+        }
+
+        public void setFirstResponsePercentiles(Map<String, Double> firstResponsePercentiles) {
+            this.firstResponsePercentiles = firstResponsePercentiles;
+        }
+
+        public Map<String, Double> getResolutionPercentiles() {
+            return resolutionPercentiles;
+        }
+
+        public void setResolutionPercentiles(Map<String, Double> resolutionPercentiles) {
+            this.resolutionPercentiles = resolutionPercentiles;
+        }
+
+        public Map<String, String> getFirstResponseSla() {
+            return firstResponseSla;
+        }
+
+        public void setFirstResponseSla(Map<String, String> firstResponseSla) {
+            this.firstResponseSla = firstResponseSla;
+        }
+
+        public Map<String, String> getResolutionSla() {
+            return resolutionSla;
+        }
+
+        public void setResolutionSla(Map<String, String> resolutionSla) {
+            this.resolutionSla = resolutionSla;
+        }
     }
 
     public TimelineData getTimeline() {
@@ -0,0 +1,72 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.SlaBreach;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+public class SlaBreachDto {
+    private Long id;
+    private Long ticketId;
+    private SlaBreach.Type type;
+    private Ticket.Priority priority;
+    private Ticket.Priority escalatedTo;
+    private LocalDateTime deadline;
+    private LocalDateTime breachedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public SlaBreach.Type getType() {
+        return type;
+    }
+
+    public void setType(SlaBreach.Type type) {
+        this.type = type;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public Ticket.Priority getEscalatedTo() {
+        return escalatedTo;
+    }
+
+    public void setEscalatedTo(Ticket.Priority escalatedTo) {
+        this.escalatedTo = escalatedTo;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public LocalDateTime getBreachedAt() {
+        return breachedAt;
+    }
+
+    public void setBreachedAt(LocalDateTime breachedAt) {
+        this.breachedAt = breachedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import jakarta.validation.constraints.Min;
+
+public class SlaPolicyDto {
+    private Ticket.Priority priority;
+
+    @Min(value = 1, message = "First response target must be at least one minute")
+    private int firstResponseMinutes;
+
+    @Min(value = 1, message = "Resolution target must be at least one minute")
+    private int resolutionMinutes;
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public int getFirstResponseMinutes() {
+        return firstResponseMinutes;
+    }
+
+    public void setFirstResponseMinutes(int firstResponseMinutes) {
+        this.firstResponseMinutes = firstResponseMinutes;
+    }
+
+    public int getResolutionMinutes() {
+        return resolutionMinutes;
+    }
+
+    public void setResolutionMinutes(int resolutionMinutes) {
+        this.resolutionMinutes = resolutionMinutes;
+    }
+}
@@ -12,6 +12,9 @@ public class TicketDto {
     private Ticket.Status status;
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
+    private LocalDateTime firstResponseAt;
+    private LocalDateTime resolvedAt;
+    private LocalDateTime closedAt;
     private Long creatorId;
     private String creatorName;
     private Long assignedToId;
@@ -20,6 +23,7 @@ public class TicketDto {
     private String textContent;
     private String imagePath;
     private String audioPath;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -77,6 +81,30 @@ public class TicketDto {
         this.updatedDate = updatedDate;
     }
 
+    public LocalDateTime getFirstResponseAt() {
+        return firstResponseAt;
+    }
+
+    public void setFirstResponseAt(LocalDateTime firstResponseAt) {
+        this.firstResponseAt = firstResponseAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+
     public Long getCreatorId() {
         return creatorId;
     }
@@ -140,4 +168,12 @@ public class TicketDto {
     public void setAudioPath(String audioPath) {
         this.audioPath = audioPath;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
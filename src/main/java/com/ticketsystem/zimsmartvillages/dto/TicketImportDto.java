@@ -0,0 +1,146 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.TicketImport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a ticket import. Row counts cover every run under the same import id;
+ * {@code errors} lists the first rejected rows of the current run and is empty when the
+ * progress is read back later.
+ */
+public class TicketImportDto {
+
+    private String importId;
+    private TicketImport.Status status;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+    private List<RowError> errors;
+
+    public static TicketImportDto of(TicketImport ticketImport, List<RowError> errors) {
+        TicketImportDto dto = new TicketImportDto();
+        dto.setImportId(ticketImport.getId());
+        dto.setStatus(ticketImport.getStatus());
+        dto.setRowsRead(ticketImport.getRowsRead());
+        dto.setImported(ticketImport.getImported());
+        dto.setRejected(ticketImport.getRejected());
+        dto.setStartedAt(ticketImport.getStartedAt());
+        dto.setUpdatedAt(ticketImport.getUpdatedAt());
+        dto.setFinishedAt(ticketImport.getFinishedAt());
+        dto.setLastError(ticketImport.getLastError());
+        dto.setErrors(errors);
+        return dto;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public TicketImport.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(TicketImport.Status status) {
+        this.status = status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import java.time.LocalDateTime;
+
+public class TicketRatingDto {
+    private Long id;
+    private Long ticketId;
+    private int score;
+    private String comment;
+    private Long agentId;
+    private Long ratedById;
+    private String ratedByName;
+    private LocalDateTime ratedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public Long getRatedById() {
+        return ratedById;
+    }
+
+    public void setRatedById(Long ratedById) {
+        this.ratedById = ratedById;
+    }
+
+    public String getRatedByName() {
+        return ratedByName;
+    }
+
+    public void setRatedByName(String ratedByName) {
+        this.ratedByName = ratedByName;
+    }
+
+    public LocalDateTime getRatedAt() {
+        return ratedAt;
+    }
+
+    public void setRatedAt(LocalDateTime ratedAt) {
+        this.ratedAt = ratedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class TicketRatingRequest {
+
+    @NotNull(message = "Score is required")
+    @Min(value = 1, message = "Score must be between 1 and 5")
+    @Max(value = 5, message = "Score must be between 1 and 5")
+    private Integer score;
+
+    private String comment;
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+}
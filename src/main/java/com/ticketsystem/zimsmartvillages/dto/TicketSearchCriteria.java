@@ -0,0 +1,110 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters of a ticket search. A ticket matches when it meets every filter given; list filters
+ * match any of their values and date ranges are [from, to), either end optional.
+ */
+public class TicketSearchCriteria {
+
+    private List<Ticket.Status> statuses;
+    private List<Ticket.Priority> priorities;
+    private List<Ticket.ContentType> contentTypes;
+    private Long creatorId;
+    private Long assigneeId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    public boolean hasFilters() {
+        return (statuses != null && !statuses.isEmpty()) || (priorities != null && !priorities.isEmpty())
+                || (contentTypes != null && !contentTypes.isEmpty()) || creatorId != null || assigneeId != null
+                || createdFrom != null || createdTo != null || updatedFrom != null || updatedTo != null;
+    }
+
+    public List<Ticket.Status> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<Ticket.Status> statuses) {
+        this.statuses = statuses;
+    }
+
+    public List<Ticket.Priority> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(List<Ticket.Priority> priorities) {
+        this.priorities = priorities;
+    }
+
+    public List<Ticket.ContentType> getContentTypes() {
+        return contentTypes;
+    }
+
+    public void setContentTypes(List<Ticket.ContentType> contentTypes) {
+        this.contentTypes = contentTypes;
+    }
+
+    public Long getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(Long creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public void setAssigneeId(Long assigneeId) {
+        this.assigneeId = assigneeId;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public LocalDateTime getUpdatedFrom() {
+        return updatedFrom;
+    }
+
+    public void setUpdatedFrom(LocalDateTime updatedFrom) {
+        this.updatedFrom = updatedFrom;
+    }
+
+    public LocalDateTime getUpdatedTo() {
+        return updatedTo;
+    }
+
+    public void setUpdatedTo(LocalDateTime updatedTo) {
+        this.updatedTo = updatedTo;
+    }
+}
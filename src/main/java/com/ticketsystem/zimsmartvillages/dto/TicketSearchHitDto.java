@@ -0,0 +1,43 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import java.util.Map;
+
+/**
+ * One full-text search result: the ticket, its BM25 relevance score and, per matching field
+ * (title, description, textContent, comments), a snippet with the matched terms in {@code <b>}.
+ */
+public class TicketSearchHitDto {
+    private TicketDto ticket;
+    private float score;
+    private Map<String, String> highlights;
+
+    public TicketSearchHitDto(TicketDto ticket, float score, Map<String, String> highlights) {
+        this.ticket = ticket;
+        this.score = score;
+        this.highlights = highlights;
+    }
+
+    public TicketDto getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(TicketDto ticket) {
+        this.ticket = ticket;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public void setScore(float score) {
+        this.score = score;
+    }
+
+    public Map<String, String> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(Map<String, String> highlights) {
+        this.highlights = highlights;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ticketsystem.zimsmartvillages.dto;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+public class TicketStatusTransitionDto {
+    private Long id;
+    private Long ticketId;
+    private Ticket.Status fromStatus;
+    private Ticket.Status toStatus;
+    private Long changedById;
+    private String changedByName;
+    private LocalDateTime changedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Ticket.Status getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(Ticket.Status fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public Ticket.Status getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(Ticket.Status toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public Long getChangedById() {
+        return changedById;
+    }
+
+    public void setChangedById(Long changedById) {
+        this.changedById = changedById;
+    }
+
+    public String getChangedByName() {
+        return changedByName;
+    }
+
+    public void setChangedByName(String changedByName) {
+        this.changedByName = changedByName;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ticketsystem.zimsmartvillages.event;
+
+/**
+ * Published by {@code CommentService} when a comment is created, edited or deleted.
+ */
+public record CommentChangedEvent(Type type, Long commentId, Long ticketId, Long authorId, Long ticketAssigneeId) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,14 @@
+package com.ticketsystem.zimsmartvillages.event;
+
+import com.ticketsystem.zimsmartvillages.model.SlaBreach;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code SlaService} when a ticket misses an SLA deadline, in the transaction that
+ * records the breach. {@code escalatedTo} is {@code null} if the priority was already the highest.
+ */
+public record SlaBreachedEvent(Long ticketId, SlaBreach.Type type, Ticket.Priority priority,
+                               Ticket.Priority escalatedTo, LocalDateTime deadline) {
+}
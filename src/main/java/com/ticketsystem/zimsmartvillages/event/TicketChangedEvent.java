@@ -0,0 +1,14 @@
+package com.ticketsystem.zimsmartvillages.event;
+
+import com.ticketsystem.zimsmartvillages.service.TicketSnapshot;
+
+/**
+ * Published by {@code TicketService} for every ticket write. {@code before} is {@code null}
+ * for a new ticket and {@code after} is {@code null} for a deleted one.
+ */
+public record TicketChangedEvent(TicketSnapshot before, TicketSnapshot after) {
+
+    public Long ticketId() {
+        return after != null ? after.id() : before.id();
+    }
+}
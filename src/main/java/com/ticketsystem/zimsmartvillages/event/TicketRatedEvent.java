@@ -0,0 +1,8 @@
+package com.ticketsystem.zimsmartvillages.event;
+
+/**
+ * Published by {@code TicketRatingService} when a ticket is rated or re-rated.
+ * {@code previousAgentId} is the agent credited with the replaced rating, if any.
+ */
+public record TicketRatedEvent(Long ticketId, Long agentId, Long previousAgentId) {
+}
@@ -0,0 +1,12 @@
+package com.ticketsystem.zimsmartvillages.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReportTimeoutException extends RuntimeException {
+
+    public ReportTimeoutException(String message) {
+        super(message);
+    }
+}
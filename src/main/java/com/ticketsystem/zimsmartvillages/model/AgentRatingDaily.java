@@ -0,0 +1,60 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Satisfaction ratings given on {@code day} for tickets assigned to one agent. Maintained
+ * incrementally by {@code TicketRatingService}.
+ */
+@Entity
+@Table(name = "agent_rating_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_agent_rating_daily_key", columnNames = {"agent_id", "rating_date"}))
+public class AgentRatingDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "agent_id", nullable = false)
+    private Long agentId;
+
+    @Column(name = "rating_date", nullable = false)
+    private LocalDate day;
+
+    @Embedded
+    private RatingCounts counts = new RatingCounts();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public RatingCounts getCounts() {
+        return counts;
+    }
+
+    public void setCounts(RatingCounts counts) {
+        this.counts = counts;
+    }
+}
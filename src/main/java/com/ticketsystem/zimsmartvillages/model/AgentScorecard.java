@@ -0,0 +1,183 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialised performance figures for one support agent over a rolling window of days.
+ * A row with a {@code null} agent holds the team figures for that window. Rows are written
+ * by {@code AgentScorecardService}; {@code computedAt} records when they were last refreshed.
+ */
+@Entity
+@Table(name = "agent_scorecard",
+        uniqueConstraints = @UniqueConstraint(name = "uk_agent_scorecard_key",
+                columnNames = {"agent_id", "window_days"}))
+public class AgentScorecard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "agent_id")
+    private Long agentId;
+
+    @Column(name = "window_days", nullable = false)
+    private int windowDays;
+
+    @Column(name = "resolution_speed", nullable = false)
+    private int resolutionSpeed;
+
+    @Column(name = "first_response_time", nullable = false)
+    private int firstResponseTime;
+
+    @Column(name = "tickets_resolved_score", nullable = false)
+    private int ticketsResolvedScore;
+
+    @Column(name = "customer_satisfaction_score", nullable = false)
+    private int customerSatisfactionScore;
+
+    @Column(name = "communication_quality", nullable = false)
+    private int communicationQuality;
+
+    @Column(name = "ticket_quality", nullable = false)
+    private int ticketQuality;
+
+    @Column(name = "tickets_assigned", nullable = false)
+    private int ticketsAssigned;
+
+    @Column(name = "tickets_resolved", nullable = false)
+    private int ticketsResolved;
+
+    @Column(name = "average_resolution_time")
+    private String averageResolutionTime;
+
+    @Column(name = "customer_satisfaction")
+    private String customerSatisfaction;
+
+    @Column(name = "response_rate")
+    private String responseRate;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public void setWindowDays(int windowDays) {
+        this.windowDays = windowDays;
+    }
+
+    public int getResolutionSpeed() {
+        return resolutionSpeed;
+    }
+
+    public void setResolutionSpeed(int resolutionSpeed) {
+        this.resolutionSpeed = resolutionSpeed;
+    }
+
+    public int getFirstResponseTime() {
+        return firstResponseTime;
+    }
+
+    public void setFirstResponseTime(int firstResponseTime) {
+        this.firstResponseTime = firstResponseTime;
+    }
+
+    public int getTicketsResolvedScore() {
+        return ticketsResolvedScore;
+    }
+
+    public void setTicketsResolvedScore(int ticketsResolvedScore) {
+        this.ticketsResolvedScore = ticketsResolvedScore;
+    }
+
+    public int getCustomerSatisfactionScore() {
+        return customerSatisfactionScore;
+    }
+
+    public void setCustomerSatisfactionScore(int customerSatisfactionScore) {
+        this.customerSatisfactionScore = customerSatisfactionScore;
+    }
+
+    public int getCommunicationQuality() {
+        return communicationQuality;
+    }
+
+    public void setCommunicationQuality(int communicationQuality) {
+        this.communicationQuality = communicationQuality;
+    }
+
+    public int getTicketQuality() {
+        return ticketQuality;
+    }
+
+    public void setTicketQuality(int ticketQuality) {
+        this.ticketQuality = ticketQuality;
+    }
+
+    public int getTicketsAssigned() {
+        return ticketsAssigned;
+    }
+
+    public void setTicketsAssigned(int ticketsAssigned) {
+        this.ticketsAssigned = ticketsAssigned;
+    }
+
+    public int getTicketsResolved() {
+        return ticketsResolved;
+    }
+
+    public void setTicketsResolved(int ticketsResolved) {
+        this.ticketsResolved = ticketsResolved;
+    }
+
+    public String getAverageResolutionTime() {
+        return averageResolutionTime;
+    }
+
+    public void setAverageResolutionTime(String averageResolutionTime) {
+        this.averageResolutionTime = averageResolutionTime;
+    }
+
+    public String getCustomerSatisfaction() {
+        return customerSatisfaction;
+    }
+
+    public void setCustomerSatisfaction(String customerSatisfaction) {
+        this.customerSatisfaction = customerSatisfaction;
+    }
+
+    public String getResponseRate() {
+        return responseRate;
+    }
+
+    public void setResponseRate(String responseRate) {
+        this.responseRate = responseRate;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Comments one user wrote on {@code day} and their combined length in characters. Maintained
+ * incrementally by {@code CommentActivityService}.
+ */
+@Entity
+@Table(name = "author_comment_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_author_comment_daily_key", columnNames = {"author_id", "comment_date"}))
+public class AuthorCommentDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "comment_date", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Column(name = "character_count", nullable = false)
+    private long characterCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public long getCharacterCount() {
+        return characterCount;
+    }
+
+    public void setCharacterCount(long characterCount) {
+        this.characterCount = characterCount;
+    }
+}
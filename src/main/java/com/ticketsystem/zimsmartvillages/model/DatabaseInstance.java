@@ -0,0 +1,50 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single row naming this database, written the first time the application starts against
+ * it, so that state kept outside the database, such as the search index, can tell whether it
+ * was built from this database or another one.
+ */
+@Entity
+@Table(name = "database_instance")
+public class DatabaseInstance {
+
+    public static final long ID = 1;
+
+    @Id
+    private Long id;
+
+    @Column(name = "instance_id", nullable = false, length = 36)
+    private String instanceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running count, sum and 1-5 histogram of satisfaction ratings.
+ */
+@Embeddable
+public class RatingCounts {
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "score_1", nullable = false)
+    private long score1;
+
+    @Column(name = "score_2", nullable = false)
+    private long score2;
+
+    @Column(name = "score_3", nullable = false)
+    private long score3;
+
+    @Column(name = "score_4", nullable = false)
+    private long score4;
+
+    @Column(name = "score_5", nullable = false)
+    private long score5;
+
+    public static RatingCounts of(int score) {
+        RatingCounts counts = new RatingCounts();
+        counts.ratingCount = 1;
+        counts.ratingSum = score;
+        switch (score) {
+            case 1 -> counts.score1 = 1;
+            case 2 -> counts.score2 = 1;
+            case 3 -> counts.score3 = 1;
+            case 4 -> counts.score4 = 1;
+            case 5 -> counts.score5 = 1;
+            default -> throw new IllegalArgumentException("Score must be between 1 and 5");
+        }
+        return counts;
+    }
+
+    /**
+     * The counts keyed by column name, as added to a stored row.
+     */
+    public Map<String, Long> toColumns() {
+        Map<String, Long> columns = new LinkedHashMap<>();
+        columns.put("rating_count", ratingCount);
+        columns.put("rating_sum", ratingSum);
+        columns.put("score_1", score1);
+        columns.put("score_2", score2);
+        columns.put("score_3", score3);
+        columns.put("score_4", score4);
+        columns.put("score_5", score5);
+        return columns;
+    }
+
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getScore1() {
+        return score1;
+    }
+
+    public long getScore2() {
+        return score2;
+    }
+
+    public long getScore3() {
+        return score3;
+    }
+
+    public long getScore4() {
+        return score4;
+    }
+
+    public long getScore5() {
+        return score5;
+    }
+}
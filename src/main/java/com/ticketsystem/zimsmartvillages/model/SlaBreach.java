@@ -0,0 +1,102 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ticket that missed one of its SLA deadlines. Each ticket breaches each kind of deadline at
+ * most once; {@code escalatedTo} is the priority it was raised to, or {@code null} if it was
+ * already at the highest.
+ */
+@Entity
+@Table(name = "sla_breach",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sla_breach_ticket_type", columnNames = {"ticket_id", "type"}),
+        indexes = @Index(name = "idx_sla_breach_breached_at", columnList = "breached_at"))
+public class SlaBreach {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.Priority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "escalated_to")
+    private Ticket.Priority escalatedTo;
+
+    @Column(nullable = false)
+    private LocalDateTime deadline;
+
+    @Column(name = "breached_at", nullable = false)
+    private LocalDateTime breachedAt;
+
+    public enum Type {
+        FIRST_RESPONSE, RESOLUTION
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public Ticket.Priority getEscalatedTo() {
+        return escalatedTo;
+    }
+
+    public void setEscalatedTo(Ticket.Priority escalatedTo) {
+        this.escalatedTo = escalatedTo;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public LocalDateTime getBreachedAt() {
+        return breachedAt;
+    }
+
+    public void setBreachedAt(LocalDateTime breachedAt) {
+        this.breachedAt = breachedAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Service level targets for one ticket priority: how long after creation a ticket may wait for
+ * its first response and for its resolution.
+ */
+@Entity
+@Table(name = "sla_policy",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sla_policy_priority", columnNames = "priority"))
+public class SlaPolicy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.Priority priority;
+
+    @Column(name = "first_response_minutes", nullable = false)
+    private int firstResponseMinutes;
+
+    @Column(name = "resolution_minutes", nullable = false)
+    private int resolutionMinutes;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public int getFirstResponseMinutes() {
+        return firstResponseMinutes;
+    }
+
+    public void setFirstResponseMinutes(int firstResponseMinutes) {
+        this.firstResponseMinutes = firstResponseMinutes;
+    }
+
+    public int getResolutionMinutes() {
+        return resolutionMinutes;
+    }
+
+    public void setResolutionMinutes(int resolutionMinutes) {
+        this.resolutionMinutes = resolutionMinutes;
+    }
+}
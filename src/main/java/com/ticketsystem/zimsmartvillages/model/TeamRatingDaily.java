@@ -0,0 +1,49 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * All satisfaction ratings given on {@code day}. Maintained incrementally by
+ * {@code TicketRatingService}.
+ */
+@Entity
+@Table(name = "team_rating_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_team_rating_daily_date", columnNames = "rating_date"))
+public class TeamRatingDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rating_date", nullable = false)
+    private LocalDate day;
+
+    @Embedded
+    private RatingCounts counts = new RatingCounts();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public RatingCounts getCounts() {
+        return counts;
+    }
+
+    public void setCounts(RatingCounts counts) {
+        this.counts = counts;
+    }
+}
@@ -1,17 +1,36 @@
 package com.ticketsystem.zimsmartvillages.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_resolved_at_status", columnList = "resolved_at, status"),
+        // Covers the report scans by creation date, which read only these columns
+        @Index(name = "idx_tickets_created_report", columnList = "created_date, status, priority, first_response_at, resolved_at"),
+        // Keyset-paged listings, newest first, unfiltered and by each listing filter
+        @Index(name = "idx_tickets_created_seek", columnList = "created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_creator_seek", columnList = "creator_id, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_assignee_seek", columnList = "assigned_to_id, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_status_seek", columnList = "status, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_priority_seek", columnList = "priority, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_content_type_seek", columnList = "content_type, created_date DESC, id DESC"),
+        // Common search combinations; single filters use the listing indexes above
+        @Index(name = "idx_tickets_status_priority_seek", columnList = "status, priority, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_assignee_status_seek", columnList = "assigned_to_id, status, priority, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_creator_status_seek", columnList = "creator_id, status, created_date DESC, id DESC"),
+        @Index(name = "idx_tickets_updated_seek", columnList = "updated_date DESC, id DESC")
+})
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -32,6 +51,17 @@ public class Ticket {
     @Column(name = "updated_date")
     private LocalDateTime updatedDate;
 
+    // Set by the first comment from someone other than the creator
+    @Column(name = "first_response_at")
+    private LocalDateTime firstResponseAt;
+
+    // Set when the ticket enters RESOLVED or CLOSED, cleared when it is reopened
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "creator_id", nullable = false)
     private User creator;
@@ -56,6 +86,12 @@ public class Ticket {
     @Column(name = "audio_path")
     private String audioPath;
 
+    // Bumped on every write, including the JPQL updates in TicketRepository; served as the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public enum Priority {
         LOW, MEDIUM, HIGH, CRITICAL
     }
@@ -70,8 +106,13 @@ public class Ticket {
 
     @PrePersist
     protected void onCreate() {
-        createdDate = LocalDateTime.now();
-        updatedDate = LocalDateTime.now();
+        // Imported tickets arrive with their original dates
+        if (createdDate == null) {
+            createdDate = LocalDateTime.now();
+        }
+        if (updatedDate == null) {
+            updatedDate = createdDate;
+        }
         if (status == null) {
             status = Status.OPEN;
         }
@@ -96,6 +137,14 @@ public class Ticket {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -144,6 +193,30 @@ public class Ticket {
         this.updatedDate = updatedDate;
     }
 
+    public LocalDateTime getFirstResponseAt() {
+        return firstResponseAt;
+    }
+
+    public void setFirstResponseAt(LocalDateTime firstResponseAt) {
+        this.firstResponseAt = firstResponseAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+
     public User getCreator() {
         return creator;
     }
@@ -0,0 +1,101 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated ticket counts for one day and one (status, priority, contentType) combination.
+ * <p>
+ * {@code createdCount} counts tickets created on {@code day} that currently have this status,
+ * priority and content type; {@code resolvedCount} counts tickets resolved on {@code day} that
+ * currently have them. Rows are maintained incrementally by {@code TicketRollupService}.
+ */
+@Entity
+@Table(name = "ticket_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ticket_daily_rollup_key",
+                columnNames = {"rollup_date", "status", "priority", "content_type"}),
+        indexes = @Index(name = "idx_ticket_daily_rollup_date", columnList = "rollup_date"))
+public class TicketDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.Status status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.Priority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", nullable = false)
+    private Ticket.ContentType contentType;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    @Column(name = "resolved_count", nullable = false)
+    private long resolvedCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Ticket.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Ticket.Status status) {
+        this.status = status;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public Ticket.ContentType getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(Ticket.ContentType contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(long createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public long getResolvedCount() {
+        return resolvedCount;
+    }
+
+    public void setResolvedCount(long resolvedCount) {
+        this.resolvedCount = resolvedCount;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Encoded {@code LatencyHistogram} of first-response or resolution times, in seconds, for
+ * tickets created on {@code day} with the given priority. Rows are maintained incrementally
+ * by {@code TicketRollupService} and merged by day range for reports.
+ */
+@Entity
+@Table(name = "ticket_latency_histogram",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ticket_latency_histogram_key",
+                columnNames = {"histogram_date", "priority", "metric"}),
+        indexes = @Index(name = "idx_ticket_latency_histogram_date", columnList = "histogram_date"))
+public class TicketLatencyHistogram {
+
+    public enum Metric {
+        FIRST_RESPONSE, RESOLUTION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "histogram_date", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.Priority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Metric metric;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] counts;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    public byte[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(byte[] counts) {
+        this.counts = counts;
+    }
+}
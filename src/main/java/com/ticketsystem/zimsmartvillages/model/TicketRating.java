@@ -0,0 +1,94 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The creator's 1-5 satisfaction rating of a closed ticket. A ticket has at most one rating;
+ * rating it again replaces the score. {@code agentId} is the assignee when the rating was given.
+ */
+@Entity
+@Table(name = "ticket_rating",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ticket_rating_ticket", columnNames = "ticket_id"))
+public class TicketRating {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Column(name = "agent_id")
+    private Long agentId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rated_by_id", nullable = false)
+    private User ratedBy;
+
+    @Column(nullable = false)
+    private int score;
+
+    @Column(columnDefinition = "TEXT")
+    private String comment;
+
+    @Column(name = "rated_at", nullable = false)
+    private LocalDateTime ratedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public User getRatedBy() {
+        return ratedBy;
+    }
+
+    public void setRatedBy(User ratedBy) {
+        this.ratedBy = ratedBy;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public LocalDateTime getRatedAt() {
+        return ratedAt;
+    }
+
+    public void setRatedAt(LocalDateTime ratedAt) {
+        this.ratedAt = ratedAt;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ticketsystem.zimsmartvillages.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One status change of a ticket. Written by {@code TicketService} whenever a ticket is created
+ * or its status changes; {@code fromStatus} is {@code null} for the creation entry.
+ */
+@Entity
+@Table(name = "ticket_status_transition", indexes = {
+        @Index(name = "idx_ticket_status_transition_ticket_changed", columnList = "ticket_id, changed_at"),
+        @Index(name = "idx_ticket_status_transition_to_status_changed", columnList = "to_status, changed_at")
+})
+public class TicketStatusTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_status_transition_seq")
+    @SequenceGenerator(name = "ticket_status_transition_seq", sequenceName = "ticket_status_transition_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain column rather than an association so history can be written without loading the ticket
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private Ticket.Status fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private Ticket.Status toStatus;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "changed_by_id")
+    private User changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Ticket.Status getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(Ticket.Status fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public Ticket.Status getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(Ticket.Status toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public User getChangedBy() {
+        return changedBy;
+    }
+
+    public void setChangedBy(User changedBy) {
+        this.changedBy = changedBy;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
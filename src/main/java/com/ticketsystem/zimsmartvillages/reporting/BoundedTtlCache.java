@@ -0,0 +1,131 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small in-memory cache bounded by entry count, total weight and time to live, evicting the
+ * least recently used entries first.
+ * <p>
+ * Values are loaded outside the lock, so concurrent misses on one key may each compute it.
+ * A value whose load overlapped an invalidation is returned but not stored, so a result
+ * computed from data that was changing is never cached.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    public record Stats(long hits, long misses, long evictions, long expirations, long invalidations,
+                        int size, long weight) {
+    }
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public BoundedTtlCache(int maxEntries, long maxWeight, long ttlMillis, ToLongFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.weigher = weigher;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long loadVersion;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits++;
+                    return entry.value;
+                }
+                remove(key);
+                expirations++;
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        V value = loader.get();
+
+        synchronized (this) {
+            if (loadVersion == version) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes every entry whose key matches.
+     *
+     * @return the number of entries removed
+     */
+    public synchronized int invalidateIf(Predicate<K> predicate) {
+        version++;
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    public synchronized void clear() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, expirations, invalidations, entries.size(), weight);
+    }
+
+    private void put(K key, V value) {
+        long entryWeight = Math.max(1, weigher.applyAsLong(value));
+        if (entryWeight > maxWeight) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry<>(value, entryWeight, System.nanoTime() + ttlNanos));
+        weight += entryWeight;
+
+        // Access order puts the least recently used entry first
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    private record Entry<V>(V value, long weight, long expiresAt) {
+    }
+}
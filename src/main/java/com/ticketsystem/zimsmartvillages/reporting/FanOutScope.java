@@ -0,0 +1,108 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import com.ticketsystem.zimsmartvillages.exception.ReportTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs a group of subtasks on virtual threads and waits for all of them, in the manner of
+ * {@code StructuredTaskScope.ShutdownOnFailure} (still a preview API in Java 21).
+ * <p>
+ * Each subtask holds a permit from a shared semaphore while it runs, which bounds how many
+ * database connections concurrent scopes can take. The first failure cancels the remaining
+ * subtasks and is rethrown by {@link #join()}; so is a missed deadline, as a
+ * {@link ReportTimeoutException}. Closing the scope cancels whatever is still running and
+ * waits for its threads, so no subtask outlives the scope.
+ */
+public final class FanOutScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long deadlineNanos;
+    private final Duration timeout;
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    public FanOutScope(String name, Semaphore permits, Duration timeout) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.permits = permits;
+        this.timeout = timeout;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Starts a subtask. The returned supplier gives its result once {@link #join()} has returned.
+     */
+    public <T> Supplier<T> fork(Supplier<T> task) {
+        Future<T> future = executor.submit(() -> {
+            permits.acquire();
+            try {
+                return task.get();
+            } catch (RuntimeException e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            } finally {
+                permits.release();
+            }
+        });
+        synchronized (futures) {
+            futures.add(future);
+        }
+        return future::resultNow;
+    }
+
+    /**
+     * Waits for every subtask, failing fast on the first error or when the deadline passes.
+     */
+    public void join() {
+        List<Future<?>> forked;
+        synchronized (futures) {
+            forked = new ArrayList<>(futures);
+        }
+        try {
+            for (Future<?> future : forked) {
+                future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            cancelAll();
+            throw new ReportTimeoutException("Report did not complete within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException | CancellationException e) {
+            cancelAll();
+            RuntimeException first = failure.get();
+            if (first != null) {
+                throw first;
+            }
+            throw new IllegalStateException("Report subtask failed", e.getCause() != null ? e.getCause() : e);
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for report subtasks", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        synchronized (futures) {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+}
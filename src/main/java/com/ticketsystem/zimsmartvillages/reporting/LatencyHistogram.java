@@ -0,0 +1,195 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-size latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values are whole seconds. Values below 64 each get their own bucket. Above that, every
+ * power-of-two range is split into 32 equal buckets, so a recorded value is reported within
+ * about 3% of its true value. Values above {@link #MAX_VALUE} (about two years) are clamped.
+ * Histograms can be merged by adding their counts, and values can be removed again, which
+ * lets stored histograms follow ticket updates. The exact sum of the values is kept
+ * alongside the counts, so the mean is exact.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    public static final long MAX_VALUE = (1L << 26) - 1;
+
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalSum;
+
+    public void record(long value) {
+        long clamped = clamp(value);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        totalSum += clamped;
+    }
+
+    /**
+     * Removes one occurrence of a previously recorded value.
+     *
+     * @return {@code false} if the value's bucket was already empty, in which case nothing changes
+     */
+    public boolean remove(long value) {
+        long clamped = clamp(value);
+        int index = indexOf(clamped);
+        if (counts[index] == 0) {
+            return false;
+        }
+        counts[index]--;
+        totalCount--;
+        totalSum -= clamped;
+        return true;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalSum += other.totalSum;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalSum = 0;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalSum / totalCount;
+    }
+
+    /**
+     * Returns the highest value equivalent to the one at the given percentile (0-100), or 0
+     * when the histogram is empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double clampedPercentile = Math.min(Math.max(percentile, 0), 100);
+        long target = Math.max(1, (long) Math.ceil(clampedPercentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return highestValue(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    /**
+     * Counts the values at or below the given one. Values sharing its bucket are included.
+     */
+    public long countAtOrBelow(long value) {
+        if (value < 0) {
+            return 0;
+        }
+        int last = indexOf(clamp(value));
+        long count = 0;
+        for (int i = 0; i <= last; i++) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Encodes the sum and the non-empty buckets as variable-length integers.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarLong(out, totalSum);
+        int previous = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, counts[i]);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (bytes == null || bytes.length == 0) {
+            return histogram;
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        histogram.totalSum = readVarLong(in);
+        int index = 0;
+        while (in.hasRemaining()) {
+            index += (int) readVarLong(in);
+            long count = readVarLong(in);
+            histogram.counts[index] = count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Shift so the value lands in the upper half of the sub-buckets
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BUCKET_BITS + 1;
+        return shift * SUB_BUCKET_HALF + (int) (value >> shift);
+    }
+
+    static long lowestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        return (long) (index - shift * SUB_BUCKET_HALF) << shift;
+    }
+
+    static long highestValue(int index) {
+        return index + 1 >= BUCKET_COUNT ? MAX_VALUE : lowestValue(index + 1) - 1;
+    }
+
+    private static long clamp(long value) {
+        return Math.min(Math.max(value, 0), MAX_VALUE);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,311 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filters, groups and aggregates tickets given as primitive column values, one row at a time.
+ * <p>
+ * Used both to scan {@link TicketColumnStore} partitions in parallel and to aggregate rows
+ * streamed from the database when the store is not available. Each partition gets its own
+ * instance; partial results are combined with {@link #merge}. The group key of a row is packed
+ * into a single {@code long}, so the combination of grouped dimensions must fit in 63 bits, and
+ * groups are found through an open-addressing table of primitive keys so the per-row path does
+ * not allocate.
+ * <p>
+ * Enum columns are passed as {@code ordinal + 1} with 0 meaning unknown, user columns as the
+ * user id with -1 meaning none, and durations as whole minutes with -1 meaning not reached.
+ * User fields of the group key are sized for ids up to {@code maxUserId}; a row with a larger
+ * id in a grouped user column would spill into the neighbouring field, so it is left out.
+ */
+public final class TicketAggregation {
+
+    public enum Dimension {
+        STATUS, PRIORITY, CONTENT_TYPE, CREATOR, ASSIGNEE
+    }
+
+    public enum Measure {
+        FIRST_RESPONSE, RESOLUTION
+    }
+
+    private final Spec spec;
+    private final boolean[] statusFilter;
+    private final boolean[] priorityFilter;
+    private final boolean[] contentTypeFilter;
+    private final Dimension[] dimensions;
+    private final int[] shifts;
+    private final long[] cardinalities;
+    private final int bucketShift;
+    private long rowsMatched;
+
+    // Hash slots hold group indexes (-1 when free); group columns are indexed by group
+    private int[] slots = emptySlots(64);
+    private long[] groupKeys = new long[32];
+    private long[] counts = new long[32];
+    private long[] measuredCounts = new long[32];
+    private long[] sums = new long[32];
+    private LatencyHistogram[] histograms;
+    private int groupCount;
+
+    /**
+     * What to aggregate. Filters that are {@code null} (or -1 for user ids) match everything;
+     * {@code buckets} is {@code null} when results are not split by time, and {@code measure}
+     * is {@code null} when only counts are wanted.
+     */
+    public record Spec(long fromMinute, long toMinute, TimeBuckets buckets,
+                       Collection<Ticket.Status> statuses, Collection<Ticket.Priority> priorities,
+                       Collection<Ticket.ContentType> contentTypes, int creatorId, int assigneeId,
+                       List<Dimension> groupBy, Measure measure, boolean percentiles, int maxUserId) {
+    }
+
+    /**
+     * Totals of one group. {@code histogram} is {@code null} unless percentiles were requested.
+     */
+    public static final class Group {
+        private final long key;
+        private final long count;
+        private final long measured;
+        private final long sum;
+        private final LatencyHistogram histogram;
+
+        private Group(long key, long count, long measured, long sum, LatencyHistogram histogram) {
+            this.key = key;
+            this.count = count;
+            this.measured = measured;
+            this.sum = sum;
+            this.histogram = histogram;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMeasured() {
+            return measured;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    public TicketAggregation(Spec spec) {
+        this.spec = spec;
+        this.statusFilter = mask(spec.statuses(), Ticket.Status.values().length);
+        this.priorityFilter = mask(spec.priorities(), Ticket.Priority.values().length);
+        this.contentTypeFilter = mask(spec.contentTypes(), Ticket.ContentType.values().length);
+
+        this.histograms = spec.percentiles() ? new LatencyHistogram[32] : null;
+
+        // Bucket index occupies the high bits, each grouped dimension a field below it
+        this.dimensions = spec.groupBy().toArray(new Dimension[0]);
+        this.shifts = new int[dimensions.length];
+        this.cardinalities = new long[dimensions.length];
+        int bits = spec.buckets() != null ? bitsFor(spec.buckets().size()) : 0;
+        for (int i = 0; i < shifts.length; i++) {
+            cardinalities[i] = cardinality(dimensions[i]);
+            bits += bitsFor(cardinalities[i]);
+        }
+        if (bits > 63) {
+            throw new IllegalArgumentException("Too many group-by dimensions for this range and user count");
+        }
+        int shift = 0;
+        for (int i = shifts.length - 1; i >= 0; i--) {
+            shifts[i] = shift;
+            shift += bitsFor(cardinalities[i]);
+        }
+        this.bucketShift = shift;
+    }
+
+    public void add(int createdMinute, int status, int priority, int contentType,
+                    int creatorId, int assigneeId, int firstResponseMinutes, int resolutionMinutes) {
+        if (createdMinute < spec.fromMinute() || createdMinute >= spec.toMinute()
+                || !matches(statusFilter, status) || !matches(priorityFilter, priority)
+                || !matches(contentTypeFilter, contentType)
+                || (spec.creatorId() >= 0 && creatorId != spec.creatorId())
+                || (spec.assigneeId() >= 0 && assigneeId != spec.assigneeId())) {
+            return;
+        }
+
+        long key = 0;
+        if (spec.buckets() != null) {
+            int bucket = spec.buckets().indexOfEpochSecond(createdMinute * 60L);
+            if (bucket < 0) {
+                return;
+            }
+            key = (long) bucket << bucketShift;
+        }
+        for (int i = 0; i < dimensions.length; i++) {
+            long value = switch (dimensions[i]) {
+                case STATUS -> status;
+                case PRIORITY -> priority;
+                case CONTENT_TYPE -> contentType;
+                case CREATOR -> creatorId + 1L;
+                case ASSIGNEE -> assigneeId + 1L;
+            };
+            if (value >= cardinalities[i]) {
+                return;
+            }
+            key |= value << shifts[i];
+        }
+
+        rowsMatched++;
+        int group = groupIndex(key);
+        counts[group]++;
+
+        int value = spec.measure() == Measure.FIRST_RESPONSE ? firstResponseMinutes
+                : spec.measure() == Measure.RESOLUTION ? resolutionMinutes : -1;
+        if (value >= 0) {
+            measuredCounts[group]++;
+            sums[group] += value;
+            if (histograms != null) {
+                histograms[group].record(value);
+            }
+        }
+    }
+
+    public TicketAggregation merge(TicketAggregation other) {
+        rowsMatched += other.rowsMatched;
+        for (int theirs = 0; theirs < other.groupCount; theirs++) {
+            int ours = groupIndex(other.groupKeys[theirs]);
+            counts[ours] += other.counts[theirs];
+            measuredCounts[ours] += other.measuredCounts[theirs];
+            sums[ours] += other.sums[theirs];
+            if (histograms != null) {
+                histograms[ours].add(other.histograms[theirs]);
+            }
+        }
+        return this;
+    }
+
+    public long getRowsMatched() {
+        return rowsMatched;
+    }
+
+    /**
+     * Groups ordered by bucket, then by the grouped dimensions in the order requested.
+     */
+    public List<Group> getGroups() {
+        List<Group> sorted = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            sorted.add(new Group(groupKeys[i], counts[i], measuredCounts[i], sums[i],
+                    histograms != null ? histograms[i] : null));
+        }
+        sorted.sort((a, b) -> Long.compare(a.key, b.key));
+        return sorted;
+    }
+
+    public int bucketOf(Group group) {
+        return spec.buckets() != null ? (int) (group.key >>> bucketShift) : -1;
+    }
+
+    /**
+     * Value of the i-th grouped dimension: the enum constant, a user id, or {@code null} for
+     * unknown values and unassigned tickets.
+     */
+    public Object dimensionValue(Group group, int i) {
+        Dimension dimension = spec.groupBy().get(i);
+        long field = (group.key >>> shifts[i]) & ((1L << bitsFor(cardinalities[i])) - 1);
+        if (field == 0) {
+            return null;
+        }
+        return switch (dimension) {
+            case STATUS -> Ticket.Status.values()[(int) field - 1];
+            case PRIORITY -> Ticket.Priority.values()[(int) field - 1];
+            case CONTENT_TYPE -> Ticket.ContentType.values()[(int) field - 1];
+            case CREATOR, ASSIGNEE -> field - 1;
+        };
+    }
+
+    private int groupIndex(long key) {
+        int mask = slots.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (true) {
+            int group = slots[slot];
+            if (group < 0) {
+                return addGroup(key, slot);
+            }
+            if (groupKeys[group] == key) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int addGroup(long key, int slot) {
+        int group = groupCount++;
+        if (group == groupKeys.length) {
+            int capacity = group * 2;
+            groupKeys = Arrays.copyOf(groupKeys, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            measuredCounts = Arrays.copyOf(measuredCounts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            if (histograms != null) {
+                histograms = Arrays.copyOf(histograms, capacity);
+            }
+        }
+        groupKeys[group] = key;
+        if (histograms != null) {
+            histograms[group] = new LatencyHistogram();
+        }
+        slots[slot] = group;
+        // Keep the table at most half full
+        if (groupCount * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return group;
+    }
+
+    private void rehash(int size) {
+        slots = emptySlots(size);
+        int mask = size - 1;
+        for (int group = 0; group < groupCount; group++) {
+            int slot = (int) ((groupKeys[group] * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = group;
+        }
+    }
+
+    private static int[] emptySlots(int size) {
+        int[] slots = new int[size];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    private long cardinality(Dimension dimension) {
+        return switch (dimension) {
+            case STATUS -> Ticket.Status.values().length + 1L;
+            case PRIORITY -> Ticket.Priority.values().length + 1L;
+            case CONTENT_TYPE -> Ticket.ContentType.values().length + 1L;
+            case CREATOR, ASSIGNEE -> spec.maxUserId() + 2L;
+        };
+    }
+
+    // Bits needed to hold values 0 .. count - 1
+    private static int bitsFor(long count) {
+        return count <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(count - 1);
+    }
+
+    private static boolean matches(boolean[] filter, int value) {
+        return filter == null || (value > 0 && filter[value - 1]);
+    }
+
+    private static <E extends Enum<E>> boolean[] mask(Collection<E> values, int length) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        boolean[] mask = new boolean[length];
+        values.forEach(value -> mask[value.ordinal()] = true);
+        return mask;
+    }
+}
@@ -0,0 +1,205 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Tickets held column by column in primitive arrays for fast ad-hoc aggregation.
+ * <p>
+ * Ticket ids are generated sequentially, so a ticket's row is its id and no index is needed;
+ * rows of deleted or never-loaded tickets are skipped by scans. Values are encoded as
+ * {@link TicketAggregation} expects them. The arrays grow on demand but never past the row
+ * limit given at construction, which is how the memory budget is enforced: a write beyond it
+ * returns {@code false} and the store should be considered unusable.
+ * <p>
+ * Scans hold a read lock and run partitions in parallel on the common fork-join pool; writes
+ * take the write lock, so a scan always sees a consistent set of rows.
+ */
+public final class TicketColumnStore {
+
+    /** Bytes used by one row across all columns. */
+    public static final int BYTES_PER_ROW = 4 + 1 + 1 + 1 + 4 + 4 + 4 + 4;
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int MIN_PARTITION_ROWS = 1 << 16;
+
+    // Row states held in the status column alongside the encoded statuses (which are >= 0)
+    private static final byte EMPTY = 0;
+    private static final byte DELETED = -1;
+    private static final byte UNKNOWN_STATUS = Byte.MAX_VALUE;
+
+    private final long maxRows;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[] createdMinute = new int[0];
+    private byte[] status = new byte[0];
+    private byte[] priority = new byte[0];
+    private byte[] contentType = new byte[0];
+    private int[] creatorId = new int[0];
+    private int[] assigneeId = new int[0];
+    private int[] firstResponseMinutes = new int[0];
+    private int[] resolutionMinutes = new int[0];
+    private int rows;
+    private int liveRows;
+    // Highest creator or assignee id ever written, which sizes the user fields of group keys
+    private int maxUserId = -1;
+
+    public TicketColumnStore(long maxRows) {
+        this.maxRows = Math.min(maxRows, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Inserts or replaces a ticket. {@code status} is the encoded status, so 0 stands for unknown.
+     *
+     * @return {@code false} if the ticket's row lies beyond the memory budget
+     */
+    public boolean put(long ticketId, int createdMinute, int status, int priority, int contentType,
+                       int creatorId, int assigneeId, int firstResponseMinutes, int resolutionMinutes) {
+        return write(ticketId, false, createdMinute, status, priority, contentType, creatorId, assigneeId,
+                firstResponseMinutes, resolutionMinutes);
+    }
+
+    /**
+     * Like {@link #put} but leaves rows already written or deleted alone, so a bulk load does not
+     * overwrite changes that arrived while it was running.
+     */
+    public boolean putIfAbsent(long ticketId, int createdMinute, int status, int priority, int contentType,
+                               int creatorId, int assigneeId, int firstResponseMinutes, int resolutionMinutes) {
+        return write(ticketId, true, createdMinute, status, priority, contentType, creatorId, assigneeId,
+                firstResponseMinutes, resolutionMinutes);
+    }
+
+    public void remove(long ticketId) {
+        lock.writeLock().lock();
+        try {
+            if (ticketId < 1 || ticketId > maxRows) {
+                return;
+            }
+            int row = (int) ticketId - 1;
+            ensureCapacity(row + 1);
+            if (status[row] != EMPTY && status[row] != DELETED) {
+                liveRows--;
+            }
+            status[row] = DELETED;
+            rows = Math.max(rows, row + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Feeds every live row to aggregations created by {@code factory}, one per partition, and
+     * merges the results. The factory is given the highest user id among the rows, as the
+     * aggregations' {@code maxUserId}.
+     */
+    public TicketAggregation scan(IntFunction<TicketAggregation> factory) {
+        lock.readLock().lock();
+        try {
+            int users = maxUserId;
+            // Partitions read these locals; the read lock keeps writers from replacing the arrays
+            int[] created = createdMinute;
+            byte[] statuses = status;
+            byte[] priorities = priority;
+            byte[] contentTypes = contentType;
+            int[] creators = creatorId;
+            int[] assignees = assigneeId;
+            int[] firstResponses = firstResponseMinutes;
+            int[] resolutions = resolutionMinutes;
+            int size = rows;
+
+            int partitions = (int) Math.max(1, Math.min((long) size / MIN_PARTITION_ROWS,
+                    Runtime.getRuntime().availableProcessors() * 4L));
+            IntStream range = IntStream.range(0, partitions);
+            return (partitions > 1 ? range.parallel() : range)
+                    .mapToObj(partition -> {
+                        TicketAggregation aggregation = factory.apply(users);
+                        int from = (int) ((long) size * partition / partitions);
+                        int to = (int) ((long) size * (partition + 1) / partitions);
+                        for (int i = from; i < to; i++) {
+                            byte encodedStatus = statuses[i];
+                            if (encodedStatus == EMPTY || encodedStatus == DELETED) {
+                                continue;
+                            }
+                            aggregation.add(created[i], encodedStatus == UNKNOWN_STATUS ? 0 : encodedStatus,
+                                    priorities[i], contentTypes[i], creators[i], assignees[i],
+                                    firstResponses[i], resolutions[i]);
+                        }
+                        return aggregation;
+                    })
+                    .reduce(TicketAggregation::merge)
+                    .orElseGet(() -> factory.apply(users));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getLiveRows() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) createdMinute.length * BYTES_PER_ROW;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean write(long ticketId, boolean ifAbsent, int createdMinute, int status, int priority,
+                          int contentType, int creatorId, int assigneeId, int firstResponseMinutes,
+                          int resolutionMinutes) {
+        lock.writeLock().lock();
+        try {
+            if (ticketId < 1 || ticketId > maxRows) {
+                return false;
+            }
+            int row = (int) ticketId - 1;
+            ensureCapacity(row + 1);
+            if (ifAbsent && this.status[row] != EMPTY) {
+                return true;
+            }
+            if (this.status[row] == EMPTY || this.status[row] == DELETED) {
+                liveRows++;
+            }
+            this.createdMinute[row] = createdMinute;
+            // 0 marks an empty row, so an unknown status gets its own marker
+            this.status[row] = status == 0 ? UNKNOWN_STATUS : (byte) status;
+            this.priority[row] = (byte) priority;
+            this.contentType[row] = (byte) contentType;
+            this.creatorId[row] = creatorId;
+            this.assigneeId[row] = assigneeId;
+            this.firstResponseMinutes[row] = firstResponseMinutes;
+            this.resolutionMinutes[row] = resolutionMinutes;
+            rows = Math.max(rows, row + 1);
+            maxUserId = Math.max(maxUserId, Math.max(creatorId, assigneeId));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= createdMinute.length) {
+            return;
+        }
+        long grown = Math.max(INITIAL_CAPACITY, (long) createdMinute.length + (createdMinute.length >> 1));
+        int capacity = (int) Math.min(Math.max(grown, required), maxRows);
+        createdMinute = Arrays.copyOf(createdMinute, capacity);
+        status = Arrays.copyOf(status, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        contentType = Arrays.copyOf(contentType, capacity);
+        creatorId = Arrays.copyOf(creatorId, capacity);
+        assigneeId = Arrays.copyOf(assigneeId, capacity);
+        firstResponseMinutes = Arrays.copyOf(firstResponseMinutes, capacity);
+        resolutionMinutes = Arrays.copyOf(resolutionMinutes, capacity);
+    }
+}
@@ -0,0 +1,176 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a date range into consecutive buckets of one {@link TimeGranularity} and maps any
+ * timestamp to its bucket index arithmetically, without searching.
+ * <p>
+ * Buckets are aligned to calendar boundaries (start of the hour, day, ISO week, month or
+ * quarter), so the first bucket may start before the requested range.
+ */
+public final class TimeBuckets {
+
+    static final int MAX_BUCKETS = 1_000;
+
+    private final TimeGranularity granularity;
+    private final LocalDateTime origin;
+    private final long originEpochSecond;
+    private final long originMonth;
+    private final long widthSeconds;
+    private final int size;
+    // Bucket start times as UTC epoch seconds, for calendar buckets of uneven width
+    private final long[] boundaries;
+
+    private TimeBuckets(TimeGranularity granularity, LocalDateTime startDate, LocalDateTime endDate) {
+        this.granularity = granularity;
+        this.origin = align(startDate, granularity);
+        this.originEpochSecond = origin.toEpochSecond(ZoneOffset.UTC);
+        this.originMonth = monthIndex(origin);
+        this.widthSeconds = switch (granularity) {
+            case HOUR -> Duration.ofHours(1).getSeconds();
+            case DAY -> Duration.ofDays(1).getSeconds();
+            case WEEK -> Duration.ofDays(7).getSeconds();
+            case MONTH, QUARTER -> 0;
+        };
+        this.size = (int) Math.max(1, rawIndexOf(endDate) + 1);
+        this.boundaries = widthSeconds > 0 ? null : boundaries();
+    }
+
+    /**
+     * Buckets covering {@code startDate} to {@code endDate}. A {@code null} granularity is chosen
+     * from the length of the range; a requested granularity that would produce an unreasonable
+     * number of buckets is coarsened.
+     */
+    public static TimeBuckets of(LocalDateTime startDate, LocalDateTime endDate, TimeGranularity granularity) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+
+        TimeGranularity chosen = granularity != null ? granularity : autoGranularity(startDate, endDate);
+        TimeBuckets buckets = new TimeBuckets(chosen, startDate, endDate);
+        while (buckets.size > MAX_BUCKETS && chosen != TimeGranularity.QUARTER) {
+            chosen = TimeGranularity.values()[chosen.ordinal() + 1];
+            buckets = new TimeBuckets(chosen, startDate, endDate);
+        }
+        return buckets;
+    }
+
+    static TimeGranularity autoGranularity(LocalDateTime startDate, LocalDateTime endDate) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate);
+        if (days <= 2) {
+            return TimeGranularity.HOUR;
+        } else if (days <= 62) {
+            return TimeGranularity.DAY;
+        } else if (days <= 182) {
+            return TimeGranularity.WEEK;
+        } else if (days <= 3 * 366) {
+            return TimeGranularity.MONTH;
+        }
+        return TimeGranularity.QUARTER;
+    }
+
+    /**
+     * @return the bucket index for {@code date}, or -1 if it falls outside the buckets
+     */
+    public int indexOf(LocalDateTime date) {
+        if (date == null) {
+            return -1;
+        }
+        long index = rawIndexOf(date);
+        return index >= 0 && index < size ? (int) index : -1;
+    }
+
+    /**
+     * Same as {@link #indexOf(LocalDateTime)} for a timestamp given as seconds since the epoch,
+     * reading the local date-time as UTC. Avoids creating date objects in tight loops.
+     */
+    public int indexOfEpochSecond(long epochSecond) {
+        long index;
+        if (widthSeconds > 0) {
+            index = Math.floorDiv(epochSecond - originEpochSecond, widthSeconds);
+        } else {
+            int position = Arrays.binarySearch(boundaries, epochSecond);
+            index = position >= 0 ? position : -position - 2;
+        }
+        return index >= 0 && index < size ? (int) index : -1;
+    }
+
+    public int indexOf(LocalDate date) {
+        return date == null ? -1 : indexOf(date.atStartOfDay());
+    }
+
+    public LocalDateTime bucketStart(int index) {
+        return switch (granularity) {
+            case HOUR -> origin.plusHours(index);
+            case DAY -> origin.plusDays(index);
+            case WEEK -> origin.plusWeeks(index);
+            case MONTH -> origin.plusMonths(index);
+            case QUARTER -> origin.plusMonths(3L * index);
+        };
+    }
+
+    public List<String> labels() {
+        List<String> labels = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            labels.add(bucketStart(i).format(granularity.getLabelFormat()));
+        }
+        return labels;
+    }
+
+    public TimeGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDateTime getStart() {
+        return origin;
+    }
+
+    public LocalDateTime getEnd() {
+        return bucketStart(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private long rawIndexOf(LocalDateTime date) {
+        return switch (granularity) {
+            case HOUR, DAY, WEEK -> Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC) - originEpochSecond, widthSeconds);
+            case MONTH -> monthIndex(date) - originMonth;
+            case QUARTER -> Math.floorDiv(monthIndex(date) - originMonth, 3);
+        };
+    }
+
+    private long[] boundaries() {
+        long[] starts = new long[size + 1];
+        for (int i = 0; i <= size; i++) {
+            starts[i] = bucketStart(i).toEpochSecond(ZoneOffset.UTC);
+        }
+        return starts;
+    }
+
+    private static long monthIndex(LocalDateTime date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    private static LocalDateTime align(LocalDateTime date, TimeGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> date.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> date.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> date.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            case QUARTER -> date.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1)
+                    .withMonth(((date.getMonthValue() - 1) / 3) * 3 + 1);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import java.time.format.DateTimeFormatter;
+
+public enum TimeGranularity {
+    HOUR("MMM d HH:mm"),
+    DAY("MMM d"),
+    WEEK("MMM d"),
+    MONTH("MMM yyyy"),
+    QUARTER("'Q'Q yyyy");
+
+    private final DateTimeFormatter labelFormat;
+
+    TimeGranularity(String labelPattern) {
+        this.labelFormat = DateTimeFormatter.ofPattern(labelPattern);
+    }
+
+    public DateTimeFormatter getLabelFormat() {
+        return labelFormat;
+    }
+}
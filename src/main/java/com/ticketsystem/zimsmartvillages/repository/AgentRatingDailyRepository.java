@@ -0,0 +1,35 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.AgentRatingDaily;
+import com.ticketsystem.zimsmartvillages.repository.projection.RatingTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface AgentRatingDailyRepository extends JpaRepository<AgentRatingDaily, Long> {
+
+    // Adds (delta = 1) or removes (delta = -1) one rating; returns 0 when the agent has no row for the day yet
+    @Modifying
+    @Query("UPDATE AgentRatingDaily r SET r.counts.ratingCount = r.counts.ratingCount + :delta, " +
+            "r.counts.ratingSum = r.counts.ratingSum + :delta * :score, " +
+            "r.counts.score1 = r.counts.score1 + CASE WHEN :score = 1 THEN :delta ELSE 0 END, " +
+            "r.counts.score2 = r.counts.score2 + CASE WHEN :score = 2 THEN :delta ELSE 0 END, " +
+            "r.counts.score3 = r.counts.score3 + CASE WHEN :score = 3 THEN :delta ELSE 0 END, " +
+            "r.counts.score4 = r.counts.score4 + CASE WHEN :score = 4 THEN :delta ELSE 0 END, " +
+            "r.counts.score5 = r.counts.score5 + CASE WHEN :score = 5 THEN :delta ELSE 0 END " +
+            "WHERE r.agentId = :agentId AND r.day = :day")
+    int increment(@Param("agentId") Long agentId, @Param("day") LocalDate day,
+                  @Param("score") int score, @Param("delta") int delta);
+
+    @Query("SELECT COALESCE(SUM(r.counts.ratingCount), 0) AS count, COALESCE(SUM(r.counts.ratingSum), 0) AS sum, " +
+            "COALESCE(SUM(r.counts.score1), 0) AS score1, COALESCE(SUM(r.counts.score2), 0) AS score2, " +
+            "COALESCE(SUM(r.counts.score3), 0) AS score3, COALESCE(SUM(r.counts.score4), 0) AS score4, " +
+            "COALESCE(SUM(r.counts.score5), 0) AS score5 " +
+            "FROM AgentRatingDaily r WHERE r.agentId = :agentId AND r.day >= :since")
+    RatingTotals sumSince(@Param("agentId") Long agentId, @Param("since") LocalDate since);
+}
@@ -0,0 +1,21 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.AgentScorecard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AgentScorecardRepository extends JpaRepository<AgentScorecard, Long> {
+
+    Optional<AgentScorecard> findByAgentIdAndWindowDays(Long agentId, int windowDays);
+
+    Optional<AgentScorecard> findByAgentIdIsNullAndWindowDays(int windowDays);
+
+    List<AgentScorecard> findByWindowDaysAndAgentIdIn(int windowDays, Collection<Long> agentIds);
+
+    boolean existsByAgentId(Long agentId);
+}
@@ -0,0 +1,26 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.AuthorCommentDaily;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface AuthorCommentDailyRepository extends JpaRepository<AuthorCommentDaily, Long> {
+
+    // Returns 0 when the author has no row for the day yet
+    @Modifying
+    @Query("UPDATE AuthorCommentDaily c SET c.commentCount = c.commentCount + :comments, " +
+            "c.characterCount = c.characterCount + :characters WHERE c.authorId = :authorId AND c.day = :day")
+    int increment(@Param("authorId") Long authorId, @Param("day") LocalDate day,
+                  @Param("comments") long comments, @Param("characters") long characters);
+
+    @Query("SELECT COALESCE(SUM(c.commentCount), 0) AS count, COALESCE(SUM(c.characterCount), 0) AS characters " +
+            "FROM AuthorCommentDaily c WHERE c.authorId = :authorId AND c.day >= :since")
+    CommentTotals sumSince(@Param("authorId") Long authorId, @Param("since") LocalDate since);
+}
@@ -3,19 +3,52 @@ package com.ticketsystem.zimsmartvillages.repository;
 import com.ticketsystem.zimsmartvillages.model.Comment;
 import com.ticketsystem.zimsmartvillages.model.Ticket;
 import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.projection.AuthorCommentDayCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentExportRow;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentText;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByTicketOrderByCreatedDateDesc(Ticket ticket);
 
-    List<Comment> findByAuthorAndCreatedDateAfter(User user, LocalDateTime startDate);
-
     List<Comment> findByTicketOrderByCreatedDateAsc(Ticket ticket);
 
     List<Comment> findByTicketAndAuthorOrderByCreatedDateAsc(Ticket ticket, User agent);
+
+    @Query("SELECT c.author.id AS authorId, cast(c.createdDate as LocalDate) AS day, COUNT(c) AS count, " +
+            "COALESCE(SUM(LENGTH(c.content)), 0) AS characters FROM Comment c " +
+            "GROUP BY c.author.id, cast(c.createdDate as LocalDate)")
+    List<AuthorCommentDayCount> countByAuthorAndDay();
+
+    @Query("SELECT c.author.id AS authorId, cast(c.createdDate as LocalDate) AS day, COUNT(c) AS count, " +
+            "COALESCE(SUM(LENGTH(c.content)), 0) AS characters FROM Comment c WHERE c.ticket.id IN :ticketIds " +
+            "GROUP BY c.author.id, cast(c.createdDate as LocalDate)")
+    List<AuthorCommentDayCount> countByAuthorAndDayForTickets(@Param("ticketIds") Collection<Long> ticketIds);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.ticket.id IN :ticketIds")
+    int deleteByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds);
+
+    @Query("SELECT c.ticket.id AS ticketId, c.content AS content FROM Comment c " +
+            "WHERE c.ticket.id IN :ticketIds ORDER BY c.id")
+    List<CommentText> findTextByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    // Scalar rows, so nothing accumulates in the persistence context while streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c.id AS id, c.ticket.id AS ticketId, a.username AS author, c.content AS content, " +
+            "c.createdDate AS createdDate FROM Comment c JOIN c.author a " +
+            "WHERE (:ticketId IS NULL OR c.ticket.id = :ticketId) ORDER BY c.id")
+    Stream<CommentExportRow> streamForExport(@Param("ticketId") Long ticketId);
 }
@@ -0,0 +1,98 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Atomic add-or-insert for aggregate rows identified by a unique key, such as the per-day
+ * counter tables.
+ * <p>
+ * Each write is a single {@code MERGE}, so a row that does not exist yet is created and counted
+ * in one statement. When two transactions create the same row at once, the one that loses gets a
+ * duplicate key error as soon as the other commits; H2 rolls back only the failed statement, so
+ * the {@code MERGE} is run again and this time matches the committed row. The statements go
+ * through JDBC on the transaction's own connection, so that error does not mark the surrounding
+ * JPA transaction rollback-only.
+ * <p>
+ * Table and column names are written into the SQL as given and must be constants, never input.
+ */
+@Repository
+public class CounterUpserts {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CounterUpserts(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds each delta to its column of the row with the given key, creating the row with the
+     * deltas as its values when there is none.
+     */
+    public void add(String table, Map<String, ?> key, Map<String, ? extends Number> deltas) {
+        StringJoiner updates = new StringJoiner(", ");
+        List<Object> updateArgs = new ArrayList<>();
+        deltas.forEach((column, delta) -> {
+            updates.add(column + " = t." + column + " + ?");
+            updateArgs.add(delta);
+        });
+
+        StringBuilder sql = new StringBuilder(mergeHead(table, key))
+                .append(" WHEN MATCHED THEN UPDATE SET ").append(updates)
+                .append(" WHEN NOT MATCHED THEN ").append(insert(key, deltas));
+
+        List<Object> args = new ArrayList<>(key.values());
+        args.addAll(updateArgs);
+        args.addAll(key.values());
+        args.addAll(deltas.values());
+        merge(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Creates the row with the given key and values unless one already exists, so that it can
+     * then be locked and read.
+     */
+    public void insertIfAbsent(String table, Map<String, ?> key, Map<String, ?> values) {
+        String sql = mergeHead(table, key) + " WHEN NOT MATCHED THEN " + insert(key, values);
+
+        List<Object> args = new ArrayList<>(key.values());
+        args.addAll(key.values());
+        args.addAll(values.values());
+        merge(sql, args.toArray());
+    }
+
+    private void merge(String sql, Object[] args) {
+        try {
+            jdbcTemplate.update(sql, args);
+        } catch (DuplicateKeyException e) {
+            // Another transaction inserted the row first and has committed it
+            jdbcTemplate.update(sql, args);
+        }
+    }
+
+    private static String mergeHead(String table, Map<String, ?> key) {
+        StringJoiner on = new StringJoiner(" AND ");
+        key.keySet().forEach(column -> on.add("t." + column + " = ?"));
+        return "MERGE INTO " + table + " t USING (VALUES (1)) AS s(x) ON " + on;
+    }
+
+    private static String insert(Map<String, ?> key, Map<String, ?> values) {
+        StringJoiner columns = new StringJoiner(", ", "(", ")");
+        StringJoiner params = new StringJoiner(", ", "(", ")");
+        key.keySet().forEach(column -> {
+            columns.add(column);
+            params.add("?");
+        });
+        values.keySet().forEach(column -> {
+            columns.add(column);
+            params.add("?");
+        });
+        return "INSERT " + columns + " VALUES " + params;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.DatabaseInstance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DatabaseInstanceRepository extends JpaRepository<DatabaseInstance, Long> {
+}
@@ -0,0 +1,30 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.SlaBreach;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.repository.projection.SlaBreachKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SlaBreachRepository extends JpaRepository<SlaBreach, Long> {
+
+    boolean existsByTicketIdAndType(Long ticketId, SlaBreach.Type type);
+
+    List<SlaBreach> findByTicketIdOrderByBreachedAt(Long ticketId);
+
+    // Breaches of tickets still open, whose deadlines must not be scheduled again
+    @Query("SELECT b.ticketId AS ticketId, b.type AS type FROM SlaBreach b " +
+            "WHERE b.ticketId IN (SELECT t.id FROM Ticket t WHERE t.status NOT IN :resolvedStatuses)")
+    List<SlaBreachKey> findKeysOfOpenTickets(@Param("resolvedStatuses") Collection<Ticket.Status> resolvedStatuses);
+
+    @Modifying
+    @Query("DELETE FROM SlaBreach b WHERE b.ticketId IN :ticketIds")
+    int deleteByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds);
+}
@@ -0,0 +1,14 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.SlaPolicy;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SlaPolicyRepository extends JpaRepository<SlaPolicy, Long> {
+
+    Optional<SlaPolicy> findByPriority(Ticket.Priority priority);
+}
@@ -0,0 +1,37 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketDailyRollup;
+import com.ticketsystem.zimsmartvillages.repository.projection.DailyTicketCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TicketDailyRollupRepository extends JpaRepository<TicketDailyRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE TicketDailyRollup r SET r.createdCount = r.createdCount + :created, " +
+            "r.resolvedCount = r.resolvedCount + :resolved " +
+            "WHERE r.day = :day AND r.status = :status AND r.priority = :priority AND r.contentType = :contentType")
+    int increment(@Param("day") LocalDate day,
+                  @Param("status") Ticket.Status status,
+                  @Param("priority") Ticket.Priority priority,
+                  @Param("contentType") Ticket.ContentType contentType,
+                  @Param("created") long created,
+                  @Param("resolved") long resolved);
+
+    @Query("SELECT r.day AS day, SUM(r.createdCount) AS created, SUM(r.resolvedCount) AS resolved " +
+            "FROM TicketDailyRollup r WHERE r.day BETWEEN :start AND :end GROUP BY r.day ORDER BY r.day")
+    List<DailyTicketCount> sumByDayBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT COALESCE(SUM(r.createdCount), 0) FROM TicketDailyRollup r " +
+            "WHERE r.day BETWEEN :start AND :end AND (:priority IS NULL OR r.priority = :priority)")
+    long sumCreatedBetween(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                           @Param("priority") Ticket.Priority priority);
+}
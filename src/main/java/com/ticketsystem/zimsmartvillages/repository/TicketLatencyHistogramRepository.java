@@ -0,0 +1,23 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketLatencyHistogram;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TicketLatencyHistogramRepository extends JpaRepository<TicketLatencyHistogram, Long> {
+
+    // Locked so concurrent ticket writes do not lose each other's counts
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TicketLatencyHistogram> findByDayAndPriorityAndMetric(LocalDate day, Ticket.Priority priority,
+                                                                   TicketLatencyHistogram.Metric metric);
+
+    List<TicketLatencyHistogram> findByDayBetweenOrderByDay(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,24 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.TicketRating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TicketRatingRepository extends JpaRepository<TicketRating, Long> {
+
+    Optional<TicketRating> findByTicketId(Long ticketId);
+
+    // Locked so a concurrent re-rating cannot subtract the same old score twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TicketRating> findForUpdateByTicketId(Long ticketId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TicketRating> findForUpdateByTicketIdIn(Collection<Long> ticketIds);
+}
@@ -4,14 +4,35 @@ import com.ticketsystem.zimsmartvillages.model.User;
 import org.springframework.data.domain.Page;
 import com.ticketsystem.zimsmartvillages.model.Ticket;
 import org.springframework.data.domain.Pageable;
+import com.ticketsystem.zimsmartvillages.repository.projection.ColumnarTicketRow;
+import com.ticketsystem.zimsmartvillages.repository.projection.LatencySource;
+import com.ticketsystem.zimsmartvillages.repository.projection.PriorityCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.RollupSourceCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.SlaCandidateRow;
+import com.ticketsystem.zimsmartvillages.repository.projection.StatusCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.StatusPriorityCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.TicketExportRow;
+import com.ticketsystem.zimsmartvillages.repository.projection.TicketTextSource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
     Page<Ticket> findByCreator(User creator, Pageable pageable);
     Page<Ticket> findByAssignedTo(User assignedTo, Pageable pageable);
     Page<Ticket> findByStatus(Ticket.Status status, Pageable pageable);
@@ -26,6 +47,129 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     List<Ticket> findByAssignedToAndCreatedDateAfter(User agent, LocalDateTime thirtyDaysAgo);
 
-    List<Ticket> findByCreatedDateAfter(LocalDateTime thirtyDaysAgo);
-}
+    // Bulk operations load a chunk of tickets with their users in one query, locked so that
+    // concurrent writes to them wait rather than being overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.creator LEFT JOIN FETCH t.assignedTo WHERE t.id IN :ids")
+    List<Ticket> findWithUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Full-text indexing reads the searchable columns of one batch of tickets at a time
+    @Query("SELECT t.id FROM Ticket t WHERE t.id > :afterId ORDER BY t.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.textContent AS textContent " +
+            "FROM Ticket t WHERE t.id IN :ids")
+    List<TicketTextSource> findTextSources(@Param("ids") Collection<Long> ids);
+
+    // Report scans read scalar columns only, covered by idx_tickets_created_report and idx_tickets_resolved_at_status
+    @Query("SELECT t.createdDate FROM Ticket t WHERE t.createdDate BETWEEN :start AND :end")
+    List<LocalDateTime> findCreatedDatesBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT t.resolvedAt FROM Ticket t WHERE t.resolvedAt BETWEEN :start AND :end AND t.status IN :statuses")
+    List<LocalDateTime> findResolvedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                              @Param("statuses") List<Ticket.Status> statuses);
+
+    @Query("SELECT t.createdDate AS createdDate, t.priority AS priority, t.status AS status, " +
+            "t.firstResponseAt AS firstResponseAt, t.resolvedAt AS resolvedAt FROM Ticket t " +
+            "WHERE t.createdDate BETWEEN :start AND :end AND (:priority IS NULL OR t.priority = :priority) " +
+            "ORDER BY t.createdDate")
+    List<LatencySource> findLatencySourcesCreatedBetween(@Param("start") LocalDateTime start,
+                                                         @Param("end") LocalDateTime end,
+                                                         @Param("priority") Ticket.Priority priority);
+
+    @Query("SELECT t.createdDate AS createdDate, t.priority AS priority, t.status AS status, " +
+            "t.firstResponseAt AS firstResponseAt, t.resolvedAt AS resolvedAt FROM Ticket t " +
+            "WHERE t.createdDate > :since")
+    List<LatencySource> findLatencySourcesCreatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM Ticket t GROUP BY t.status")
+    List<StatusCount> countByStatus();
+
+    @Query("SELECT t.status AS status, t.priority AS priority, COUNT(t) AS count " +
+            "FROM Ticket t GROUP BY t.status, t.priority")
+    List<StatusPriorityCount> countByStatusAndPriority();
+
+    @Query("SELECT t.priority AS priority, " +
+            "SUM(CASE WHEN t.createdDate > :since THEN 1 ELSE 0 END) AS created, " +
+            "SUM(CASE WHEN t.status IN :resolvedStatuses AND t.resolvedAt > :since THEN 1 ELSE 0 END) AS resolved " +
+            "FROM Ticket t WHERE t.createdDate > :since OR t.resolvedAt > :since GROUP BY t.priority")
+    List<PriorityCount> countByPrioritySince(@Param("since") LocalDateTime since,
+                                             @Param("resolvedStatuses") List<Ticket.Status> resolvedStatuses);
+
+    @Query("SELECT cast(t.createdDate as LocalDate) AS day, t.status AS status, t.priority AS priority, " +
+            "t.contentType AS contentType, COUNT(t) AS count FROM Ticket t " +
+            "GROUP BY cast(t.createdDate as LocalDate), t.status, t.priority, t.contentType")
+    List<RollupSourceCount> countCreatedByDay();
+
+    // Ordered by creation so callers can process one day at a time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.createdDate AS createdDate, t.priority AS priority, t.status AS status, " +
+            "t.firstResponseAt AS firstResponseAt, t.resolvedAt AS resolvedAt FROM Ticket t " +
+            "WHERE t.priority IS NOT NULL ORDER BY t.createdDate")
+    Stream<LatencySource> streamLatencySources();
 
+    // Tickets created in [from, to), or all tickets when both are null
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.createdDate AS createdDate, t.status AS status, t.priority AS priority, " +
+            "t.contentType AS contentType, t.creator.id AS creatorId, a.id AS assigneeId, " +
+            "t.firstResponseAt AS firstResponseAt, t.resolvedAt AS resolvedAt " +
+            "FROM Ticket t LEFT JOIN t.assignedTo a " +
+            "WHERE (:from IS NULL OR t.createdDate >= :from) AND (:to IS NULL OR t.createdDate < :to) ORDER BY t.id")
+    Stream<ColumnarTicketRow> streamColumnarRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.priority AS priority, t.createdDate AS createdDate, " +
+            "t.firstResponseAt AS firstResponseAt FROM Ticket t WHERE t.status NOT IN :resolvedStatuses")
+    Stream<SlaCandidateRow> streamSlaCandidates(@Param("resolvedStatuses") Collection<Ticket.Status> resolvedStatuses);
+
+    @Query("SELECT cast(t.resolvedAt as LocalDate) AS day, t.status AS status, t.priority AS priority, " +
+            "t.contentType AS contentType, COUNT(t) AS count FROM Ticket t " +
+            "WHERE t.status IN :statuses AND t.resolvedAt IS NOT NULL " +
+            "GROUP BY cast(t.resolvedAt as LocalDate), t.status, t.priority, t.contentType")
+    List<RollupSourceCount> countResolvedByDay(@Param("statuses") List<Ticket.Status> statuses);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.firstResponseAt = :respondedAt, t.version = t.version + 1 WHERE t.id = :id AND t.firstResponseAt IS NULL")
+    int markFirstResponse(@Param("id") Long id, @Param("respondedAt") LocalDateTime respondedAt);
+
+    @Query("SELECT MAX(t.id) FROM Ticket t")
+    Long findMaxId();
+
+    @Query("SELECT t.version FROM Ticket t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id")
+    Optional<Ticket> findForUpdateById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.firstResponseAt = " +
+            "(SELECT MIN(c.createdDate) FROM Comment c WHERE c.ticket = t AND c.author <> t.creator), " +
+            "t.version = t.version + 1 WHERE t.firstResponseAt IS NULL AND t.id BETWEEN :fromId AND :toId")
+    int backfillFirstResponse(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.resolvedAt = t.updatedDate, t.version = t.version + 1 " +
+            "WHERE t.resolvedAt IS NULL AND t.status IN :statuses AND t.id BETWEEN :fromId AND :toId")
+    int backfillResolvedAt(@Param("statuses") List<Ticket.Status> statuses,
+                           @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.closedAt = t.updatedDate, t.version = t.version + 1 " +
+            "WHERE t.closedAt IS NULL AND t.status = :status AND t.id BETWEEN :fromId AND :toId")
+    int backfillClosedAt(@Param("status") Ticket.Status status,
+                         @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Scalar rows with the usernames joined in, so no users are loaded while streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.status AS status, " +
+            "t.priority AS priority, t.contentType AS contentType, c.username AS creator, a.username AS assignedTo, " +
+            "t.createdDate AS createdDate, t.updatedDate AS updatedDate, t.firstResponseAt AS firstResponseAt, " +
+            "t.resolvedAt AS resolvedAt, t.closedAt AS closedAt FROM Ticket t LEFT JOIN t.creator c LEFT JOIN t.assignedTo a " +
+            "WHERE (:status IS NULL OR t.status = :status) " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:contentType IS NULL OR t.contentType = :contentType) ORDER BY t.id")
+    Stream<TicketExportRow> streamForExport(@Param("status") Ticket.Status status,
+                                            @Param("priority") Ticket.Priority priority,
+                                            @Param("contentType") Ticket.ContentType contentType);
+}
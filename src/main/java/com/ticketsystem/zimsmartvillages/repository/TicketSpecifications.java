@@ -0,0 +1,83 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Ticket filters for {@link TicketRepository}'s specification queries.
+ */
+public final class TicketSpecifications {
+
+    /** Newest first, the order keyset-paged ticket listings are read in. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id"));
+
+    private TicketSpecifications() {
+    }
+
+    public static Specification<Ticket> createdBy(User creator) {
+        return (root, query, cb) -> cb.equal(root.get("creator"), creator);
+    }
+
+    public static Specification<Ticket> assignedTo(User assignee) {
+        return (root, query, cb) -> cb.equal(root.get("assignedTo"), assignee);
+    }
+
+    public static Specification<Ticket> hasStatus(Ticket.Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Ticket> hasPriority(Ticket.Priority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Ticket> hasContentType(Ticket.ContentType contentType) {
+        return (root, query, cb) -> cb.equal(root.get("contentType"), contentType);
+    }
+
+    public static Specification<Ticket> createdById(Long creatorId) {
+        return (root, query, cb) -> cb.equal(root.get("creator").get("id"), creatorId);
+    }
+
+    public static Specification<Ticket> assignedToId(Long assigneeId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedTo").get("id"), assigneeId);
+    }
+
+    public static Specification<Ticket> statusIn(Collection<Ticket.Status> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Ticket> priorityIn(Collection<Ticket.Priority> priorities) {
+        return (root, query, cb) -> root.get("priority").in(priorities);
+    }
+
+    public static Specification<Ticket> contentTypeIn(Collection<Ticket.ContentType> contentTypes) {
+        return (root, query, cb) -> root.get("contentType").in(contentTypes);
+    }
+
+    /**
+     * Tickets whose {@code attribute} lies in [from, to); a null end leaves that side open.
+     */
+    public static Specification<Ticket> between(String attribute, LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(root.get(attribute), from), cb.lessThan(root.get(attribute), to));
+            }
+            return from != null ? cb.greaterThanOrEqualTo(root.get(attribute), from)
+                    : to != null ? cb.lessThan(root.get(attribute), to) : null;
+        };
+    }
+
+    /**
+     * Keyset continuation for {@link #NEWEST_FIRST}: tickets strictly after (createdDate, id).
+     */
+    public static Specification<Ticket> olderThan(LocalDateTime createdDate, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdDate"), createdDate),
+                cb.and(cb.equal(root.get("createdDate"), createdDate), cb.lessThan(root.get("id"), id)));
+    }
+}
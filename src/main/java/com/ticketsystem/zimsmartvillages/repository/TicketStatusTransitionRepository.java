@@ -0,0 +1,51 @@
+package com.ticketsystem.zimsmartvillages.repository;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketStatusTransition;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.projection.ReopenCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketStatusTransitionRepository extends JpaRepository<TicketStatusTransition, Long> {
+
+    @Query("SELECT tr FROM TicketStatusTransition tr LEFT JOIN FETCH tr.changedBy " +
+            "WHERE tr.ticketId = :ticketId ORDER BY tr.changedAt, tr.id")
+    List<TicketStatusTransition> findHistory(@Param("ticketId") Long ticketId, Pageable limit);
+
+    // Keyset continuation: rows strictly after (changedAt, id) in timeline order
+    @Query("SELECT tr FROM TicketStatusTransition tr LEFT JOIN FETCH tr.changedBy " +
+            "WHERE tr.ticketId = :ticketId " +
+            "AND (tr.changedAt > :changedAt OR (tr.changedAt = :changedAt AND tr.id > :id)) " +
+            "ORDER BY tr.changedAt, tr.id")
+    List<TicketStatusTransition> findHistoryAfter(@Param("ticketId") Long ticketId,
+                                                  @Param("changedAt") LocalDateTime changedAt,
+                                                  @Param("id") Long id,
+                                                  Pageable limit);
+
+    /**
+     * Of the agent's tickets created after {@code since}, how many were ever resolved and how
+     * many were reopened at least once, that is moved from a resolved status back to any other.
+     */
+    @Query("SELECT COUNT(DISTINCT CASE WHEN tr.toStatus IN :resolvedStatuses THEN tr.ticketId END) AS resolved, " +
+            "COUNT(DISTINCT CASE WHEN tr.fromStatus IN :resolvedStatuses AND tr.toStatus NOT IN :resolvedStatuses " +
+            "THEN tr.ticketId END) AS reopened " +
+            "FROM TicketStatusTransition tr, Ticket t " +
+            "WHERE t.id = tr.ticketId AND t.assignedTo = :agent AND t.createdDate > :since")
+    ReopenCount countReopens(@Param("agent") User agent,
+                             @Param("since") LocalDateTime since,
+                             @Param("resolvedStatuses") Collection<Ticket.Status> resolvedStatuses);
+
+    @Modifying
+    @Query("DELETE FROM TicketStatusTransition tr WHERE tr.ticketId IN :ticketIds")
+    int deleteByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds);
+}
@@ -1,10 +1,18 @@
 package com.ticketsystem.zimsmartvillages.repository;
 
 import com.ticketsystem.zimsmartvillages.model.Role;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
 import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.projection.UserActivityRow;
+import com.ticketsystem.zimsmartvillages.repository.projection.UserSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,4 +25,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     List<User> findByRoles(Set<Role> roles);
+
+    List<User> findDistinctByRolesName(String roleName);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.fullName AS fullName FROM User u ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+
+    // Most active first by tickets resolved plus comments written since the given time. Each count
+    // is grouped once over its table, and the database ranks and pages the users.
+    @Query("SELECT u.username AS username, u.fullName AS fullName, COALESCE(cr.count, 0) AS created, " +
+            "COALESCE(rs.count, 0) AS resolved, COALESCE(cm.count, 0) AS comments, " +
+            "rs.lastAt AS lastResolvedAt, cm.lastAt AS lastCommentAt FROM User u " +
+            "LEFT JOIN (SELECT t.creator.id AS userId, COUNT(t) AS count FROM Ticket t " +
+            "WHERE t.createdDate > :since GROUP BY t.creator.id) cr ON cr.userId = u.id " +
+            "LEFT JOIN (SELECT t.assignedTo.id AS userId, COUNT(t) AS count, MAX(t.resolvedAt) AS lastAt FROM Ticket t " +
+            "WHERE t.status IN :resolvedStatuses AND t.resolvedAt > :since GROUP BY t.assignedTo.id) rs ON rs.userId = u.id " +
+            "LEFT JOIN (SELECT c.author.id AS userId, COUNT(c) AS count, MAX(c.createdDate) AS lastAt FROM Comment c " +
+            "WHERE c.createdDate > :since GROUP BY c.author.id) cm ON cm.userId = u.id " +
+            "ORDER BY COALESCE(rs.count, 0) + COALESCE(cm.count, 0) DESC, u.id")
+    List<UserActivityRow> findActivityRanking(@Param("since") LocalDateTime since,
+                                              @Param("resolvedStatuses") Collection<Ticket.Status> resolvedStatuses,
+                                              Pageable page);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
 }
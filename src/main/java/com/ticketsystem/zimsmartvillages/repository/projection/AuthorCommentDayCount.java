@@ -0,0 +1,13 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import java.time.LocalDate;
+
+public interface AuthorCommentDayCount {
+    Long getAuthorId();
+
+    LocalDate getDay();
+
+    long getCount();
+
+    long getCharacters();
+}
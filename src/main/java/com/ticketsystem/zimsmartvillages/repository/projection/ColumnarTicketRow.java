@@ -0,0 +1,25 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+public interface ColumnarTicketRow {
+    Long getId();
+
+    LocalDateTime getCreatedDate();
+
+    Ticket.Status getStatus();
+
+    Ticket.Priority getPriority();
+
+    Ticket.ContentType getContentType();
+
+    Long getCreatorId();
+
+    Long getAssigneeId();
+
+    LocalDateTime getFirstResponseAt();
+
+    LocalDateTime getResolvedAt();
+}
@@ -0,0 +1,15 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface CommentExportRow {
+    Long getId();
+
+    Long getTicketId();
+
+    String getAuthor();
+
+    String getContent();
+
+    LocalDateTime getCreatedDate();
+}
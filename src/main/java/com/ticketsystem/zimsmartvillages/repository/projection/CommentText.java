@@ -0,0 +1,7 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+public interface CommentText {
+    Long getTicketId();
+
+    String getContent();
+}
@@ -0,0 +1,7 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+public interface CommentTotals {
+    long getCount();
+
+    long getCharacters();
+}
@@ -0,0 +1,11 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import java.time.LocalDate;
+
+public interface DailyTicketCount {
+    LocalDate getDay();
+
+    long getCreated();
+
+    long getResolved();
+}
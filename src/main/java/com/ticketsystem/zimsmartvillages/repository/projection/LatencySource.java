@@ -0,0 +1,17 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+public interface LatencySource {
+    LocalDateTime getCreatedDate();
+
+    Ticket.Priority getPriority();
+
+    Ticket.Status getStatus();
+
+    LocalDateTime getFirstResponseAt();
+
+    LocalDateTime getResolvedAt();
+}
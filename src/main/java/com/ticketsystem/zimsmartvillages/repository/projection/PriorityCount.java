@@ -0,0 +1,11 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+public interface PriorityCount {
+    Ticket.Priority getPriority();
+
+    long getCreated();
+
+    long getResolved();
+}
@@ -0,0 +1,17 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+public interface RatingTotals {
+    long getCount();
+
+    long getSum();
+
+    long getScore1();
+
+    long getScore2();
+
+    long getScore3();
+
+    long getScore4();
+
+    long getScore5();
+}
@@ -0,0 +1,17 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDate;
+
+public interface RollupSourceCount {
+    LocalDate getDay();
+
+    Ticket.Status getStatus();
+
+    Ticket.Priority getPriority();
+
+    Ticket.ContentType getContentType();
+
+    long getCount();
+}
@@ -0,0 +1,9 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.SlaBreach;
+
+public interface SlaBreachKey {
+    Long getTicketId();
+
+    SlaBreach.Type getType();
+}
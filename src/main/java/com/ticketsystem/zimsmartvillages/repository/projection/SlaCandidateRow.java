@@ -0,0 +1,15 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+public interface SlaCandidateRow {
+    Long getId();
+
+    Ticket.Priority getPriority();
+
+    LocalDateTime getCreatedDate();
+
+    LocalDateTime getFirstResponseAt();
+}
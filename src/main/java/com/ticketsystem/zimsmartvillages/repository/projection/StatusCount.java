@@ -0,0 +1,9 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+public interface StatusCount {
+    Ticket.Status getStatus();
+
+    long getCount();
+}
@@ -0,0 +1,11 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+public interface StatusPriorityCount {
+    Ticket.Status getStatus();
+
+    Ticket.Priority getPriority();
+
+    long getCount();
+}
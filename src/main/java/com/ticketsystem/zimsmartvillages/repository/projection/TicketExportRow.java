@@ -0,0 +1,33 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+public interface TicketExportRow {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    Ticket.Status getStatus();
+
+    Ticket.Priority getPriority();
+
+    Ticket.ContentType getContentType();
+
+    String getCreator();
+
+    String getAssignedTo();
+
+    LocalDateTime getCreatedDate();
+
+    LocalDateTime getUpdatedDate();
+
+    LocalDateTime getFirstResponseAt();
+
+    LocalDateTime getResolvedAt();
+
+    LocalDateTime getClosedAt();
+}
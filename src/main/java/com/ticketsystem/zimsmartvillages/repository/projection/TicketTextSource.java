@@ -0,0 +1,11 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+public interface TicketTextSource {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getTextContent();
+}
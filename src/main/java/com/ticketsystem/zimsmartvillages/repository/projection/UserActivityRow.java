@@ -0,0 +1,19 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface UserActivityRow {
+    String getUsername();
+
+    String getFullName();
+
+    long getCreated();
+
+    long getResolved();
+
+    long getComments();
+
+    LocalDateTime getLastResolvedAt();
+
+    LocalDateTime getLastCommentAt();
+}
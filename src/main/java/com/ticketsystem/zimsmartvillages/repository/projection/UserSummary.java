@@ -0,0 +1,9 @@
+package com.ticketsystem.zimsmartvillages.repository.projection;
+
+public interface UserSummary {
+    Long getId();
+
+    String getUsername();
+
+    String getFullName();
+}
@@ -0,0 +1,183 @@
+package com.ticketsystem.zimsmartvillages.scheduling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pending deadlines keyed by a {@code long}, in a hierarchical timing wheel.
+ * <p>
+ * Time is counted in ticks. There are four levels of 64 slots: level 0 holds deadlines due
+ * within 64 ticks, one slot per tick, and each level above covers 64 times the span of the one
+ * below, so with one-second ticks the wheel reaches about 194 days. Deadlines further out wait
+ * in the top level and are placed again when their slot comes round. As time advances, the
+ * slots of a higher level are emptied into the levels below when the wheel reaches them, so
+ * every deadline is moved at most once per level.
+ * <p>
+ * Scheduling, rescheduling and cancelling a key are constant time: each slot is a doubly linked
+ * list and a hash map finds a key's entry. Not thread-safe; callers synchronize.
+ */
+public final class HierarchicalTimerWheel {
+
+    /** Receives each deadline as it expires. */
+    @FunctionalInterface
+    public interface ExpiryHandler {
+        void expired(long key, long deadlineTick);
+    }
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final Entry[][] wheels = new Entry[LEVELS][SLOTS];
+    // Deadlines at or before the current tick, expired by the next advance
+    private final Entry due = Entry.sentinel();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    private static final class Entry {
+        private final long key;
+        private long deadlineTick;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(long key) {
+            this.key = key;
+        }
+
+        private static Entry sentinel() {
+            Entry sentinel = new Entry(0);
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+    }
+
+    public HierarchicalTimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (Entry[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = Entry.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Sets the deadline of {@code key}, replacing any deadline it already had. A deadline that
+     * is not in the future expires on the next {@link #advance}.
+     */
+    public void schedule(long key, long deadlineTick) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.deadlineTick = deadlineTick;
+        place(entry);
+    }
+
+    /**
+     * @return {@code false} if the key had no deadline
+     */
+    public boolean cancel(long key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    public boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return the deadline of {@code key}, or -1 if it has none
+     */
+    public long deadlineOf(long key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.deadlineTick : -1;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowTick}, handing every deadline reached on the way to
+     * {@code handler}. Expired keys are removed before the handler sees them, so it may schedule
+     * them again; a deadline that is still not in the future then expires again in this call.
+     */
+    public void advance(long nowTick, ExpiryHandler handler) {
+        expire(due, handler);
+        while (currentTick < nowTick) {
+            currentTick++;
+            // Higher levels first, so their deadlines for this tick reach level 0 before it expires
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(wheels[level][(int) (currentTick >>> shift) & SLOT_MASK]);
+                }
+            }
+            expire(wheels[0][(int) currentTick & SLOT_MASK], handler);
+            expire(due, handler);
+        }
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            link(due, entry);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Beyond the wheel's span, wait in the last top-level slot before coming round again
+        long tick = delta < SPAN ? entry.deadlineTick : currentTick + SPAN - 1;
+        link(wheels[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK], entry);
+    }
+
+    private void cascade(Entry slot) {
+        Entry entry = slot.next;
+        slot.next = slot;
+        slot.previous = slot;
+        while (entry != slot) {
+            Entry next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void expire(Entry slot, ExpiryHandler handler) {
+        while (slot.next != slot) {
+            Entry entry = slot.next;
+            unlink(entry);
+            entries.remove(entry.key);
+            handler.expired(entry.key, entry.deadlineTick);
+        }
+    }
+
+    private static void link(Entry slot, Entry entry) {
+        entry.previous = slot.previous;
+        entry.next = slot;
+        slot.previous.next = entry;
+        slot.previous = entry;
+    }
+
+    private static void unlink(Entry entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+        entry.previous = null;
+        entry.next = null;
+    }
+}
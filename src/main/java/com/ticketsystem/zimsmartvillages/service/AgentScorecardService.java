@@ -0,0 +1,307 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.PerformanceMetricsDTO;
+import com.ticketsystem.zimsmartvillages.event.CommentChangedEvent;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.event.TicketRatedEvent;
+import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
+import com.ticketsystem.zimsmartvillages.model.AgentScorecard;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.reporting.FanOutScope;
+import com.ticketsystem.zimsmartvillages.repository.AgentScorecardRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link AgentScorecard} table so performance reports are a single row lookup.
+ * <p>
+ * Every configured window is recomputed in full on a schedule, which also ages tickets out of
+ * the rolling windows. Between full runs, committed ticket and comment changes mark the agents
+ * they touch as dirty and a short-interval job recomputes just those agents and the team row.
+ * A scorecard that has never been computed is built on first request.
+ * <p>
+ * Each agent's metrics and stats, from one load of its tickets, and the team stats are computed
+ * concurrently on virtual threads in their own read-only transactions. At most
+ * {@code parallelism} computations run at once across all refreshes, which bounds the connections
+ * taken from the pool; a failure cancels the rest of the refresh, and one that overruns its
+ * deadline is abandoned.
+ */
+@Service
+public class AgentScorecardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentScorecardService.class);
+
+    private final AgentScorecardRepository scorecardRepository;
+    private final UserRepository userRepository;
+    private final PerformanceMetricsCalculator calculator;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Set<Integer> windows;
+    private final Semaphore computePermits;
+    private final Duration deadline;
+
+    private final Set<Long> dirtyAgents = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean teamDirty = new AtomicBoolean();
+
+    public AgentScorecardService(AgentScorecardRepository scorecardRepository, UserRepository userRepository,
+                                 PerformanceMetricsCalculator calculator, PlatformTransactionManager transactionManager,
+                                 @Value("${app.reports.scorecard.windows:30}") List<Integer> windows,
+                                 @Value("${app.reports.scorecard.parallelism:4}") int parallelism,
+                                 @Value("${app.reports.scorecard.deadline-ms:30000}") long deadlineMs) {
+        this.scorecardRepository = scorecardRepository;
+        this.userRepository = userRepository;
+        this.calculator = calculator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windows = Set.copyOf(windows);
+        this.computePermits = new Semaphore(Math.max(1, parallelism), true);
+        this.deadline = Duration.ofMillis(deadlineMs);
+    }
+
+    public AgentScorecard getAgentScorecard(Long agentId, int windowDays) {
+        checkWindow(windowDays);
+        return scorecardRepository.findByAgentIdAndWindowDays(agentId, windowDays)
+                .orElseGet(() -> {
+                    User agent = userRepository.findById(agentId)
+                            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + agentId));
+                    return refreshAgent(agent, windowDays);
+                });
+    }
+
+    public AgentScorecard getTeamScorecard(int windowDays) {
+        checkWindow(windowDays);
+        return scorecardRepository.findByAgentIdIsNullAndWindowDays(windowDays)
+                .orElseGet(() -> refreshTeam(windowDays));
+    }
+
+    /**
+     * Recomputes every support agent and the team for all configured windows.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.scorecard.refresh-ms:900000}",
+            initialDelayString = "${app.reports.scorecard.initial-delay-ms:60000}")
+    public void refreshAll() {
+        // Anything marked before this point is covered by the full run
+        dirtyAgents.clear();
+        teamDirty.set(false);
+
+        List<User> agents = calculator.findSupportAgents();
+        for (int windowDays : windows) {
+            try (FanOutScope scope = newScope()) {
+                Map<User, Supplier<Computed>> computed = new LinkedHashMap<>();
+                for (User agent : agents) {
+                    computed.put(agent, forkAgent(scope, agent, windowDays));
+                }
+                Supplier<PerformanceMetricsDTO.StatsData> teamStats = forkTeamStats(scope, windowDays);
+                scope.join();
+
+                List<PerformanceMetricsDTO.MetricsData> agentMetrics = new ArrayList<>(agents.size());
+                computed.forEach((agent, result) -> {
+                    save(agent.getId(), windowDays, result.get());
+                    agentMetrics.add(result.get().metrics());
+                });
+                save(null, windowDays, new Computed(calculator.averageMetrics(agentMetrics), teamStats.get()));
+            }
+        }
+        logger.info("Refreshed scorecards for {} agents over windows {}", agents.size(), windows);
+    }
+
+    /**
+     * Recomputes the agents touched by changes since the last run, then the team row.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.scorecard.dirty-refresh-ms:30000}")
+    public void refreshDirty() {
+        if (!teamDirty.getAndSet(false)) {
+            return;
+        }
+
+        Set<Long> agentIds = new HashSet<>(dirtyAgents);
+        dirtyAgents.removeAll(agentIds);
+
+        // Agents without a scorecard are computed when first requested
+        List<User> agents = userRepository.findAllById(agentIds).stream()
+                .filter(agent -> scorecardRepository.existsByAgentId(agent.getId()))
+                .collect(Collectors.toList());
+        for (int windowDays : windows) {
+            try (FanOutScope scope = newScope()) {
+                Map<User, Supplier<Computed>> computed = new LinkedHashMap<>();
+                for (User agent : agents) {
+                    computed.put(agent, forkAgent(scope, agent, windowDays));
+                }
+                scope.join();
+                computed.forEach((agent, result) -> save(agent.getId(), windowDays, result.get()));
+            }
+            refreshTeam(windowDays);
+        }
+        logger.debug("Refreshed scorecards for {} changed agents", agents.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        markDirty(event.before());
+        markDirty(event.after());
+        teamDirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        // Comments feed the author's communication score and the assignee's ticket scores
+        dirtyAgents.add(event.authorId());
+        if (event.ticketAssigneeId() != null) {
+            dirtyAgents.add(event.ticketAssigneeId());
+        }
+        teamDirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketRated(TicketRatedEvent event) {
+        if (event.agentId() != null) {
+            dirtyAgents.add(event.agentId());
+        }
+        if (event.previousAgentId() != null) {
+            dirtyAgents.add(event.previousAgentId());
+        }
+        teamDirty.set(true);
+    }
+
+    private void markDirty(TicketSnapshot snapshot) {
+        if (snapshot != null && snapshot.assigneeId() != null) {
+            dirtyAgents.add(snapshot.assigneeId());
+        }
+    }
+
+    private AgentScorecard refreshAgent(User agent, int windowDays) {
+        try (FanOutScope scope = newScope()) {
+            Supplier<Computed> computed = forkAgent(scope, agent, windowDays);
+            scope.join();
+            return save(agent.getId(), windowDays, computed.get());
+        }
+    }
+
+    // Team scores are the average of the stored agent scorecards; missing ones are computed first
+    private AgentScorecard refreshTeam(int windowDays) {
+        List<User> agents = calculator.findSupportAgents();
+        List<Long> agentIds = agents.stream().map(User::getId).collect(Collectors.toList());
+        Map<Long, AgentScorecard> stored = new HashMap<>();
+        for (AgentScorecard scorecard : scorecardRepository.findByWindowDaysAndAgentIdIn(windowDays, agentIds)) {
+            stored.put(scorecard.getAgentId(), scorecard);
+        }
+
+        try (FanOutScope scope = newScope()) {
+            Map<User, Supplier<Computed>> missing = new LinkedHashMap<>();
+            for (User agent : agents) {
+                if (!stored.containsKey(agent.getId())) {
+                    missing.put(agent, forkAgent(scope, agent, windowDays));
+                }
+            }
+            Supplier<PerformanceMetricsDTO.StatsData> teamStats = forkTeamStats(scope, windowDays);
+            scope.join();
+
+            missing.forEach((agent, computed) -> stored.put(agent.getId(), save(agent.getId(), windowDays, computed.get())));
+            List<PerformanceMetricsDTO.MetricsData> agentMetrics = new ArrayList<>(agents.size());
+            for (User agent : agents) {
+                agentMetrics.add(toMetrics(stored.get(agent.getId())));
+            }
+            return save(null, windowDays, new Computed(calculator.averageMetrics(agentMetrics), teamStats.get()));
+        }
+    }
+
+    // Metrics and stats share one load of the agent's tickets, so they are computed in the same subtask
+    private Supplier<Computed> forkAgent(FanOutScope scope, User agent, int windowDays) {
+        return scope.fork(() -> readOnlyTransaction.execute(status -> {
+            PerformanceMetricsCalculator.AgentTickets tickets = calculator.loadAgentTickets(agent, windowDays);
+            return new Computed(calculator.calculateAgentMetrics(tickets), calculator.calculateAgentStats(tickets));
+        }));
+    }
+
+    private Supplier<PerformanceMetricsDTO.StatsData> forkTeamStats(FanOutScope scope, int windowDays) {
+        return scope.fork(() -> readOnlyTransaction.execute(status -> calculator.calculateTeamStats(windowDays)));
+    }
+
+    private FanOutScope newScope() {
+        return new FanOutScope("scorecard", computePermits, deadline);
+    }
+
+    // Writes are serialised so a cold-miss request and a scheduled run cannot insert the same key twice
+    private synchronized AgentScorecard save(Long agentId, int windowDays, Computed computed) {
+        return transactionTemplate.execute(status -> store(agentId, windowDays, computed.metrics(), computed.stats()));
+    }
+
+    private AgentScorecard store(Long agentId, int windowDays, PerformanceMetricsDTO.MetricsData metrics,
+                                              PerformanceMetricsDTO.StatsData stats) {
+        AgentScorecard scorecard = (agentId == null
+                ? scorecardRepository.findByAgentIdIsNullAndWindowDays(windowDays)
+                : scorecardRepository.findByAgentIdAndWindowDays(agentId, windowDays))
+                .orElseGet(AgentScorecard::new);
+
+        scorecard.setAgentId(agentId);
+        scorecard.setWindowDays(windowDays);
+        scorecard.setResolutionSpeed(metrics.getResolutionSpeed());
+        scorecard.setFirstResponseTime(metrics.getFirstResponseTime());
+        scorecard.setTicketsResolvedScore(metrics.getTicketsResolved());
+        scorecard.setCustomerSatisfactionScore(metrics.getCustomerSatisfaction());
+        scorecard.setCommunicationQuality(metrics.getCommunicationQuality());
+        scorecard.setTicketQuality(metrics.getTicketQuality());
+        scorecard.setTicketsAssigned(stats.getTicketsAssigned());
+        scorecard.setTicketsResolved(stats.getTicketsResolved());
+        scorecard.setAverageResolutionTime(stats.getAverageResolutionTime());
+        scorecard.setCustomerSatisfaction(stats.getCustomerSatisfaction());
+        scorecard.setResponseRate(stats.getResponseRate());
+        scorecard.setComputedAt(LocalDateTime.now());
+        return scorecardRepository.save(scorecard);
+    }
+
+    private void checkWindow(int windowDays) {
+        if (!windows.contains(windowDays)) {
+            throw new IllegalArgumentException("Unsupported scorecard window: " + windowDays
+                    + " days (configured: " + windows + ")");
+        }
+    }
+
+    public static PerformanceMetricsDTO.MetricsData toMetrics(AgentScorecard scorecard) {
+        return PerformanceMetricsDTO.MetricsData.builder()
+                .resolutionSpeed(scorecard.getResolutionSpeed())
+                .firstResponseTime(scorecard.getFirstResponseTime())
+                .ticketsResolved(scorecard.getTicketsResolvedScore())
+                .customerSatisfaction(scorecard.getCustomerSatisfactionScore())
+                .communicationQuality(scorecard.getCommunicationQuality())
+                .ticketQuality(scorecard.getTicketQuality())
+                .build();
+    }
+
+    public static PerformanceMetricsDTO.StatsData toStats(AgentScorecard scorecard) {
+        return PerformanceMetricsDTO.StatsData.builder()
+                .ticketsAssigned(scorecard.getTicketsAssigned())
+                .ticketsResolved(scorecard.getTicketsResolved())
+                .averageResolutionTime(scorecard.getAverageResolutionTime())
+                .customerSatisfaction(scorecard.getCustomerSatisfaction())
+                .responseRate(scorecard.getResponseRate())
+                .build();
+    }
+
+    private record Computed(PerformanceMetricsDTO.MetricsData metrics, PerformanceMetricsDTO.StatsData stats) {
+    }
+}
@@ -0,0 +1,308 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.AnalyticsQueryRequest;
+import com.ticketsystem.zimsmartvillages.dto.AnalyticsQueryResultDto;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.reporting.TicketAggregation;
+import com.ticketsystem.zimsmartvillages.reporting.TicketColumnStore;
+import com.ticketsystem.zimsmartvillages.reporting.TimeBuckets;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.ColumnarTicketRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Answers ad-hoc group-by queries over tickets from an in-memory {@link TicketColumnStore}.
+ * <p>
+ * The store is loaded from the database in the background at startup and kept current from
+ * {@link TicketChangedEvent}s after each commit. Until it is loaded, or if the tickets no longer
+ * fit in the configured memory budget, queries stream the matching rows from the database
+ * instead and aggregate them the same way, so results only differ in speed.
+ */
+@Service
+public class ColumnarAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarAnalyticsService.class);
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long budgetMb;
+    private final long maxRows;
+
+    // The store queries read, or null while cold; a store being loaded receives changes too
+    private volatile TicketColumnStore store;
+    private volatile TicketColumnStore loading;
+
+    public ColumnarAnalyticsService(TicketRepository ticketRepository, UserRepository userRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.reports.columnar.enabled:true}") boolean enabled,
+                                    @Value("${app.reports.columnar.memory-budget-mb:256}") long budgetMb) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.budgetMb = budgetMb;
+        this.maxRows = budgetMb * 1024 * 1024 / TicketColumnStore.BYTES_PER_ROW;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("columnar-store-load").start(this::reload);
+        }
+    }
+
+    /**
+     * Builds a fresh store from the ticket table and swaps it in. The current store, if any,
+     * keeps serving queries meanwhile.
+     */
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        TicketColumnStore fresh = new TicketColumnStore(maxRows);
+        loading = fresh;
+        try {
+            Boolean fits = transactionTemplate.execute(status -> {
+                try (Stream<ColumnarTicketRow> rows = ticketRepository.streamColumnarRows(null, null)) {
+                    Iterator<ColumnarTicketRow> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        ColumnarTicketRow row = iterator.next();
+                        if (!write(fresh, true, row.getId(), row.getCreatedDate(), row.getStatus(), row.getPriority(),
+                                row.getContentType(), row.getCreatorId(), row.getAssigneeId(),
+                                row.getFirstResponseAt(), row.getResolvedAt())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            });
+            if (Boolean.TRUE.equals(fits)) {
+                store = fresh;
+                logger.info("Loaded {} tickets into the columnar store in {} ms", fresh.getLiveRows(),
+                        (System.nanoTime() - started) / 1_000_000);
+            } else {
+                store = null;
+                logger.warn("Tickets exceed the columnar store budget of {} MB; ad-hoc queries will use the database",
+                        budgetMb);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to load the columnar store; ad-hoc queries will use the database", e);
+        } finally {
+            loading = null;
+        }
+    }
+
+    public boolean isReady() {
+        return store != null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketColumnStore current = store;
+        if (current != null && !apply(current, event)) {
+            store = null;
+            logger.warn("Tickets outgrew the columnar store budget of {} MB; ad-hoc queries will use the database",
+                    budgetMb);
+        }
+        TicketColumnStore pending = loading;
+        if (pending != null) {
+            apply(pending, event);
+        }
+    }
+
+    public AnalyticsQueryResultDto query(AnalyticsQueryRequest request) {
+        long started = System.nanoTime();
+        List<TicketAggregation.Dimension> groupBy = validate(request);
+
+        TimeBuckets buckets = request.getGranularity() != null
+                ? TimeBuckets.of(request.getStartDate(), request.getEndDate(), request.getGranularity())
+                : null;
+        List<Integer> percentiles = request.getMeasure() != null && request.getPercentiles() != null
+                ? request.getPercentiles() : List.of();
+        // The store sizes user fields for the highest user id it holds, the database path for the highest one there is
+        IntFunction<TicketAggregation.Spec> spec = maxUserId -> new TicketAggregation.Spec(
+                epochMinute(request.getStartDate()), epochMinute(request.getEndDate()), buckets,
+                request.getStatuses(), request.getPriorities(), request.getContentTypes(),
+                userCode(request.getCreatorId()), userCode(request.getAssigneeId()),
+                groupBy, request.getMeasure(), !percentiles.isEmpty(), maxUserId);
+
+        TicketColumnStore current = store;
+        TicketAggregation aggregation;
+        AnalyticsQueryResultDto.Source source;
+        if (current != null) {
+            aggregation = current.scan(maxUserId -> new TicketAggregation(spec.apply(maxUserId)));
+            source = AnalyticsQueryResultDto.Source.COLUMNAR;
+        } else {
+            aggregation = queryDatabase(request, spec.apply(Math.toIntExact(userRepository.findMaxId())));
+            source = AnalyticsQueryResultDto.Source.DATABASE;
+        }
+
+        List<AnalyticsQueryResultDto.Row> rows = new ArrayList<>();
+        for (TicketAggregation.Group group : aggregation.getGroups()) {
+            rows.add(toRow(aggregation, group, groupBy, buckets, request.getMeasure(), percentiles));
+        }
+        return new AnalyticsQueryResultDto(source, buckets != null ? buckets.getGranularity() : null,
+                aggregation.getRowsMatched(), (System.nanoTime() - started) / 1_000_000, rows);
+    }
+
+    private TicketAggregation queryDatabase(AnalyticsQueryRequest request, TicketAggregation.Spec spec) {
+        return transactionTemplate.execute(status -> {
+            TicketAggregation aggregation = new TicketAggregation(spec);
+            try (Stream<ColumnarTicketRow> rows = ticketRepository.streamColumnarRows(
+                    request.getStartDate(), request.getEndDate())) {
+                Iterator<ColumnarTicketRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    ColumnarTicketRow row = iterator.next();
+                    if (row.getCreatedDate() == null) {
+                        continue;
+                    }
+                    aggregation.add(epochMinute(row.getCreatedDate()), code(row.getStatus()), code(row.getPriority()),
+                            code(row.getContentType()), userCode(row.getCreatorId()), userCode(row.getAssigneeId()),
+                            minutesBetween(row.getCreatedDate(), row.getFirstResponseAt()),
+                            minutesBetween(row.getCreatedDate(), row.getResolvedAt()));
+                }
+            }
+            return aggregation;
+        });
+    }
+
+    private static boolean apply(TicketColumnStore target, TicketChangedEvent event) {
+        TicketSnapshot after = event.after();
+        if (after == null) {
+            if (event.before() != null) {
+                target.remove(event.before().id());
+            }
+            return true;
+        }
+        return write(target, false, after.id(), after.createdDate(), after.status(), after.priority(),
+                after.contentType(), after.creatorId(), after.assigneeId(), after.firstResponseAt(),
+                after.resolvedAt());
+    }
+
+    private static boolean write(TicketColumnStore target, boolean ifAbsent, Long id, LocalDateTime createdDate,
+                                 Ticket.Status status, Ticket.Priority priority, Ticket.ContentType contentType,
+                                 Long creatorId, Long assigneeId, LocalDateTime firstResponseAt,
+                                 LocalDateTime resolvedAt) {
+        if (createdDate == null) {
+            return true;
+        }
+        int created = epochMinute(createdDate);
+        int firstResponse = minutesBetween(createdDate, firstResponseAt);
+        int resolution = minutesBetween(createdDate, resolvedAt);
+        return ifAbsent
+                ? target.putIfAbsent(id, created, code(status), code(priority), code(contentType),
+                userCode(creatorId), userCode(assigneeId), firstResponse, resolution)
+                : target.put(id, created, code(status), code(priority), code(contentType),
+                userCode(creatorId), userCode(assigneeId), firstResponse, resolution);
+    }
+
+    private AnalyticsQueryResultDto.Row toRow(TicketAggregation aggregation, TicketAggregation.Group group,
+                                              List<TicketAggregation.Dimension> groupBy, TimeBuckets buckets,
+                                              TicketAggregation.Measure measure, List<Integer> percentiles) {
+        AnalyticsQueryResultDto.Row row = new AnalyticsQueryResultDto.Row();
+        Map<String, Object> dimensions = new LinkedHashMap<>();
+        for (int i = 0; i < groupBy.size(); i++) {
+            dimensions.put(fieldName(groupBy.get(i)), aggregation.dimensionValue(group, i));
+        }
+        row.setDimensions(dimensions);
+        if (buckets != null) {
+            int bucket = aggregation.bucketOf(group);
+            row.setBucketStart(buckets.bucketStart(bucket));
+            row.setBucket(buckets.bucketStart(bucket).format(buckets.getGranularity().getLabelFormat()));
+        }
+        row.setCount(group.getCount());
+        if (measure != null) {
+            row.setMeasuredCount(group.getMeasured());
+            row.setSumHours(group.getSum() / 60.0);
+            row.setAverageHours(group.getMeasured() == 0 ? 0 : group.getSum() / 60.0 / group.getMeasured());
+            if (!percentiles.isEmpty()) {
+                Map<String, Double> values = new LinkedHashMap<>();
+                for (int percentile : percentiles) {
+                    values.put("p" + percentile, group.getHistogram().valueAtPercentile(percentile) / 60.0);
+                }
+                row.setPercentileHours(values);
+            }
+        }
+        return row;
+    }
+
+    private static List<TicketAggregation.Dimension> validate(AnalyticsQueryRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException("startDate and endDate are required");
+        }
+        if (!request.getEndDate().isAfter(request.getStartDate())) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        if (request.getPercentiles() != null) {
+            if (request.getMeasure() == null && !request.getPercentiles().isEmpty()) {
+                throw new IllegalArgumentException("percentiles require a measure");
+            }
+            for (Integer percentile : request.getPercentiles()) {
+                if (percentile == null || percentile < 0 || percentile > 100) {
+                    throw new IllegalArgumentException("percentiles must be between 0 and 100");
+                }
+            }
+        }
+        List<TicketAggregation.Dimension> groupBy = request.getGroupBy() != null ? request.getGroupBy() : List.of();
+        if (groupBy.stream().distinct().count() != groupBy.size()) {
+            throw new IllegalArgumentException("groupBy must not repeat a dimension");
+        }
+        return groupBy;
+    }
+
+    private static String fieldName(TicketAggregation.Dimension dimension) {
+        return switch (dimension) {
+            case STATUS -> "status";
+            case PRIORITY -> "priority";
+            case CONTENT_TYPE -> "contentType";
+            case CREATOR -> "creatorId";
+            case ASSIGNEE -> "assigneeId";
+        };
+    }
+
+    // Local date-times are read as UTC, as TimeBuckets does
+    private static int epochMinute(LocalDateTime date) {
+        return (int) Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static int minutesBetween(LocalDateTime from, LocalDateTime to) {
+        if (to == null) {
+            return -1;
+        }
+        long minutes = ReportUtils.secondsBetween(from, to) / 60;
+        return (int) Math.min(Math.max(minutes, 0), Integer.MAX_VALUE);
+    }
+
+    private static int code(Enum<?> value) {
+        return value == null ? 0 : value.ordinal() + 1;
+    }
+
+    private static int userCode(Long userId) {
+        return userId == null ? -1 : Math.toIntExact(userId);
+    }
+}
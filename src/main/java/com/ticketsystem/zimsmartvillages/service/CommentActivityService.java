@@ -0,0 +1,116 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.model.AuthorCommentDaily;
+import com.ticketsystem.zimsmartvillages.model.Comment;
+import com.ticketsystem.zimsmartvillages.repository.AuthorCommentDailyRepository;
+import com.ticketsystem.zimsmartvillages.repository.CommentRepository;
+import com.ticketsystem.zimsmartvillages.repository.CounterUpserts;
+import com.ticketsystem.zimsmartvillages.repository.projection.AuthorCommentDayCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-author, per-day comment counts and lengths.
+ * <p>
+ * {@link CommentService} adjusts the row for a comment's author and creation day in the same
+ * transaction as every create, edit and delete, so an author's activity over a window is a sum
+ * over at most one row per day rather than a load of every comment they wrote.
+ */
+@Service
+public class CommentActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentActivityService.class);
+
+    private final AuthorCommentDailyRepository dailyRepository;
+    private final CommentRepository commentRepository;
+    private final CounterUpserts counterUpserts;
+
+    public CommentActivityService(AuthorCommentDailyRepository dailyRepository, CommentRepository commentRepository,
+                                  CounterUpserts counterUpserts) {
+        this.dailyRepository = dailyRepository;
+        this.commentRepository = commentRepository;
+        this.counterUpserts = counterUpserts;
+    }
+
+    public void recordCreated(Comment comment) {
+        adjust(comment.getAuthor().getId(), comment.getCreatedDate().toLocalDate(), 1, lengthOf(comment.getContent()));
+    }
+
+    public void recordEdited(Comment comment, String previousContent) {
+        long change = lengthOf(comment.getContent()) - lengthOf(previousContent);
+        if (change != 0) {
+            adjust(comment.getAuthor().getId(), comment.getCreatedDate().toLocalDate(), 0, change);
+        }
+    }
+
+    public void recordDeleted(Comment comment) {
+        adjust(comment.getAuthor().getId(), comment.getCreatedDate().toLocalDate(), -1, -lengthOf(comment.getContent()));
+    }
+
+    /**
+     * Removes the comments of tickets about to be deleted, which go with them.
+     */
+    public void deleteForTickets(Collection<Long> ticketIds) {
+        for (AuthorCommentDayCount row : commentRepository.countByAuthorAndDayForTickets(ticketIds)) {
+            adjust(row.getAuthorId(), row.getDay(), -row.getCount(), -row.getCharacters());
+        }
+    }
+
+    public CommentTotals getAuthorTotals(Long authorId, LocalDate since) {
+        return dailyRepository.sumSince(authorId, since);
+    }
+
+    /**
+     * Recomputes every row from the comment table, for comments written before the counters
+     * existed or written around the service.
+     *
+     * @return the number of rows written
+     */
+    @Transactional
+    public int rebuild() {
+        dailyRepository.deleteAllInBatch();
+
+        List<AuthorCommentDaily> rows = new ArrayList<>();
+        for (AuthorCommentDayCount count : commentRepository.countByAuthorAndDay()) {
+            AuthorCommentDaily row = new AuthorCommentDaily();
+            row.setAuthorId(count.getAuthorId());
+            row.setDay(count.getDay());
+            row.setCommentCount(count.getCount());
+            row.setCharacterCount(count.getCharacters());
+            rows.add(row);
+        }
+        dailyRepository.saveAll(rows);
+
+        logger.info("Rebuilt {} author comment daily rows", rows.size());
+        return rows.size();
+    }
+
+    private void adjust(Long authorId, LocalDate day, long comments, long characters) {
+        // Only a new comment starts a row; edits and deletes of comments never counted are dropped
+        if (comments > 0 && characters >= 0) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("author_id", authorId);
+            key.put("comment_date", day);
+            counterUpserts.add("author_comment_daily", key,
+                    Map.of("comment_count", comments, "character_count", characters));
+            return;
+        }
+        if (dailyRepository.increment(authorId, day, comments, characters) == 0) {
+            logger.warn("Comment aggregate missing for author {} on {}; their counts for that day are off", authorId, day);
+        }
+    }
+
+    private static long lengthOf(String content) {
+        return content != null ? content.length() : 0;
+    }
+}
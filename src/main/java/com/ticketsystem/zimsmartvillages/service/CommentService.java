@@ -1,12 +1,15 @@
 package com.ticketsystem.zimsmartvillages.service;
 
 import com.ticketsystem.zimsmartvillages.dto.CommentDto;
+import com.ticketsystem.zimsmartvillages.event.CommentChangedEvent;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
 import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
 import com.ticketsystem.zimsmartvillages.model.Comment;
 import com.ticketsystem.zimsmartvillages.model.Ticket;
 import com.ticketsystem.zimsmartvillages.model.User;
 import com.ticketsystem.zimsmartvillages.repository.CommentRepository;
 import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,10 +22,18 @@ public class CommentService {
 
     private final CommentRepository commentRepository;
     private final TicketRepository ticketRepository;
+    private final TicketRollupService ticketRollupService;
+    private final CommentActivityService commentActivityService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CommentService(CommentRepository commentRepository, TicketRepository ticketRepository) {
+    public CommentService(CommentRepository commentRepository, TicketRepository ticketRepository,
+                          TicketRollupService ticketRollupService, CommentActivityService commentActivityService,
+                          ApplicationEventPublisher eventPublisher) {
         this.commentRepository = commentRepository;
         this.ticketRepository = ticketRepository;
+        this.ticketRollupService = ticketRollupService;
+        this.commentActivityService = commentActivityService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<CommentDto> getCommentsByTicketId(Long ticketId) {
@@ -44,8 +55,20 @@ public class CommentService {
         comment.setContent(commentDto.getContent());
         comment.setTicket(ticket);
         comment.setAuthor(currentUser);
+        Comment saved = commentRepository.save(comment);
+        commentActivityService.recordCreated(saved);
+
+        // The first comment from anyone but the creator is the ticket's first response
+        if (ticket.getFirstResponseAt() == null && !ticket.getCreator().getId().equals(currentUser.getId())
+                && ticketRepository.markFirstResponse(ticket.getId(), saved.getCreatedDate()) > 0) {
+            TicketSnapshot before = TicketSnapshot.of(ticket);
+            TicketSnapshot after = before.withFirstResponseAt(saved.getCreatedDate());
+            ticketRollupService.apply(before, after);
+            eventPublisher.publishEvent(new TicketChangedEvent(before, after));
+        }
 
-        return convertToDto(commentRepository.save(comment));
+        publishChange(CommentChangedEvent.Type.CREATED, saved);
+        return convertToDto(saved);
     }
 
     @Transactional
@@ -59,8 +82,12 @@ public class CommentService {
             throw new AccessDeniedException("You are not authorized to update this comment");
         }
 
+        String previousContent = comment.getContent();
         comment.setContent(commentDto.getContent());
-        return convertToDto(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        commentActivityService.recordEdited(saved, previousContent);
+        publishChange(CommentChangedEvent.Type.UPDATED, saved);
+        return convertToDto(saved);
     }
 
     @Transactional
@@ -75,6 +102,15 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        commentActivityService.recordDeleted(comment);
+        publishChange(CommentChangedEvent.Type.DELETED, comment);
+    }
+
+    private void publishChange(CommentChangedEvent.Type type, Comment comment) {
+        Ticket ticket = comment.getTicket();
+        Long assigneeId = ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+        eventPublisher.publishEvent(new CommentChangedEvent(type, comment.getId(), ticket.getId(),
+                comment.getAuthor().getId(), assigneeId));
     }
 
     private CommentDto convertToDto(Comment comment) {
@@ -0,0 +1,314 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.dto.DashboardDeltaDto;
+import com.ticketsystem.zimsmartvillages.dto.DashboardSnapshotDto;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.exception.TooManyRequestsException;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.StatusPriorityCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes live dashboard counts to clients over Server-Sent Events.
+ * <p>
+ * Running status and priority totals are loaded once at startup and then kept current from
+ * {@link TicketChangedEvent}s after each commit, so a connecting client gets a snapshot without
+ * a database query. Every change is turned into a small delta event with an increasing id and
+ * kept in a ring buffer; a client reconnecting with {@code Last-Event-ID} is sent the deltas it
+ * missed, or a fresh snapshot if they are no longer buffered. Event ids carry the server's start
+ * time, so ids from before a restart are never mistaken for current ones.
+ * <p>
+ * Events are serialized once and queued to each client; a virtual thread per client writes its
+ * queue to the connection, so one slow client never holds up the others. A client whose queue
+ * fills up is disconnected and expected to resume from its last event.
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    private static final String SNAPSHOT = "snapshot";
+    private static final String DELTA = "delta";
+
+    private final TicketRepository ticketRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxConnections;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this: totals, sequence and buffer change together so snapshots and deltas line up
+    private final long[] statusTotals = new long[Ticket.Status.values().length];
+    private final long[] priorityTotals = new long[Ticket.Priority.values().length];
+    private long total;
+    private boolean loaded;
+    private long sequence;
+    private final StreamEvent[] buffer;
+
+    private record StreamEvent(String id, String name, String json) {
+    }
+
+    public DashboardStreamService(TicketRepository ticketRepository, ObjectMapper objectMapper,
+                                  @Value("${app.reports.stream.buffer-size:1024}") int bufferSize,
+                                  @Value("${app.reports.stream.queue-capacity:256}") int queueCapacity,
+                                  @Value("${app.reports.stream.max-connections:1000}") int maxConnections,
+                                  @Value("${app.reports.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.ticketRepository = ticketRepository;
+        this.objectMapper = objectMapper;
+        this.buffer = new StreamEvent[Math.max(1, bufferSize)];
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxConnections = maxConnections;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadTotals() {
+        if (loaded) {
+            return;
+        }
+        for (StatusPriorityCount count : ticketRepository.countByStatusAndPriority()) {
+            if (count.getStatus() != null) {
+                statusTotals[count.getStatus().ordinal()] += count.getCount();
+            }
+            if (count.getPriority() != null) {
+                priorityTotals[count.getPriority().ordinal()] += count.getCount();
+            }
+            total += count.getCount();
+        }
+        loaded = true;
+    }
+
+    /**
+     * Opens a stream for a dashboard. {@code lastEventId} is the id of the last event the client
+     * saw, or {@code null} for a new connection.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxConnections) {
+            throw new TooManyRequestsException("Too many dashboard connections, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (this) {
+            loadTotals();
+            List<StreamEvent> missed = missedSince(lastEventId);
+            if (missed != null && missed.size() <= queueCapacity) {
+                missed.forEach(subscriber.queue::add);
+            } else {
+                subscriber.queue.add(snapshot());
+            }
+            // Registered while holding the lock, so no delta falls between the first event and the rest
+            subscribers.add(subscriber);
+        }
+        subscriber.start();
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketSnapshot before = event.before();
+        TicketSnapshot after = event.after();
+
+        Map<String, Integer> status = new LinkedHashMap<>();
+        Map<String, Integer> priority = new LinkedHashMap<>();
+        Map<String, Integer> created = new LinkedHashMap<>();
+        if (before != null && (after == null || before.status() != after.status())) {
+            adjust(status, before.status(), -1);
+        }
+        if (after != null && (before == null || before.status() != after.status())) {
+            adjust(status, after.status(), 1);
+        }
+        if (before != null && (after == null || before.priority() != after.priority())) {
+            adjust(priority, before.priority(), -1);
+        }
+        if (after != null && (before == null || before.priority() != after.priority())) {
+            adjust(priority, after.priority(), 1);
+        }
+        if (before == null && after != null) {
+            adjust(created, after.priority(), 1);
+        }
+        if (status.isEmpty() && priority.isEmpty() && created.isEmpty()) {
+            return;
+        }
+
+        String json = toJson(new DashboardDeltaDto(event.ticketId(), status, priority, created));
+        synchronized (this) {
+            // Before the totals are loaded the database count will already include this change
+            if (loaded) {
+                status.forEach((name, delta) -> statusTotals[Ticket.Status.valueOf(name).ordinal()] += delta);
+                priority.forEach((name, delta) -> priorityTotals[Ticket.Priority.valueOf(name).ordinal()] += delta);
+                total += (before == null ? 1 : 0) - (after == null ? 1 : 0);
+            }
+
+            long next = ++sequence;
+            StreamEvent delta = new StreamEvent(eventId(next), DELTA, json);
+            buffer[(int) (next % buffer.length)] = delta;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(delta)) {
+                    logger.debug("Dashboard stream client fell behind; disconnecting it");
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a comment line to every client, keeping idle connections open through proxies and
+     * noticing clients that have gone away.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.stream.heartbeat-ms:15000}",
+            initialDelayString = "${app.reports.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        StreamEvent ping = new StreamEvent(null, null, null);
+        for (Subscriber subscriber : subscribers) {
+            // A full queue means events are already on their way, which serves as well
+            subscriber.queue.offer(ping);
+        }
+    }
+
+    public int getConnectionCount() {
+        return subscribers.size();
+    }
+
+    // Deltas after lastEventId, or null when the client must start again from a snapshot
+    private List<StreamEvent> missedSince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(1, sequence - buffer.length + 1);
+        if (last > sequence || last < oldest - 1) {
+            return null;
+        }
+        List<StreamEvent> missed = new ArrayList<>((int) (sequence - last));
+        for (long next = last + 1; next <= sequence; next++) {
+            missed.add(buffer[(int) (next % buffer.length)]);
+        }
+        return missed;
+    }
+
+    private StreamEvent snapshot() {
+        Map<String, Long> status = new LinkedHashMap<>();
+        for (Ticket.Status value : Ticket.Status.values()) {
+            status.put(value.name(), statusTotals[value.ordinal()]);
+        }
+        Map<String, Long> priority = new LinkedHashMap<>();
+        for (Ticket.Priority value : Ticket.Priority.values()) {
+            priority.put(value.name(), priorityTotals[value.ordinal()]);
+        }
+        return new StreamEvent(eventId(sequence), SNAPSHOT,
+                toJson(new DashboardSnapshotDto(status, priority, total)));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dashboard event", e);
+        }
+    }
+
+    private static void adjust(Map<String, Integer> deltas, Enum<?> key, int delta) {
+        if (key != null) {
+            deltas.merge(key.name(), delta, Integer::sum);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private volatile Thread writer;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<StreamEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private void start() {
+            writer = Thread.ofVirtual().name("dashboard-stream").start(this::run);
+            if (closed) {
+                writer.interrupt();
+            }
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    StreamEvent event = queue.take();
+                    if (event.name() == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(event.id()).name(event.name())
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                logger.debug("Dashboard stream closed: {}", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                detach();
+                emitter.complete();
+            }
+        }
+
+        // Stops delivery without completing the emitter, for when the connection has already ended
+        private void detach() {
+            closed = true;
+            subscribers.remove(this);
+            Thread current = writer;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
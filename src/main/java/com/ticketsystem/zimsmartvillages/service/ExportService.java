@@ -0,0 +1,196 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.repository.CommentRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentExportRow;
+import com.ticketsystem.zimsmartvillages.repository.projection.TicketExportRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams tickets and comments as CSV or NDJSON straight from a database cursor.
+ * <p>
+ * The body runs after the controller returns, in its own read-only transaction. Rows are
+ * fetched as scalar projections, so no entities build up in the persistence context, and are
+ * written as they arrive with a flush every {@value #FLUSH_INTERVAL} rows, so memory use does not
+ * grow with the size of the export.
+ */
+@Service
+public class ExportService {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final String[] TICKET_COLUMNS = {"id", "title", "description", "status", "priority", "contentType",
+            "creator", "assignedTo", "createdDate", "updatedDate", "firstResponseAt", "resolvedAt", "closedAt"};
+    private static final String[] COMMENT_COLUMNS = {"id", "ticketId", "author", "content", "createdDate"};
+
+    private final TicketRepository ticketRepository;
+    private final CommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportService(TicketRepository ticketRepository, CommentRepository commentRepository,
+                         ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Tickets matching every filter that is not {@code null}, in id order.
+     */
+    public StreamingResponseBody exportTickets(Ticket.Status status, Ticket.Priority priority,
+                                               Ticket.ContentType contentType, ExportFormat format) {
+        return out -> write(out, format, TICKET_COLUMNS, rows -> {
+            try (Stream<TicketExportRow> tickets = ticketRepository.streamForExport(status, priority, contentType)) {
+                Iterator<TicketExportRow> iterator = tickets.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    TicketExportRow ticket = iterator.next();
+                    rows.write(ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getStatus(),
+                            ticket.getPriority(), ticket.getContentType(), ticket.getCreator(), ticket.getAssignedTo(),
+                            ticket.getCreatedDate(), ticket.getUpdatedDate(), ticket.getFirstResponseAt(),
+                            ticket.getResolvedAt(), ticket.getClosedAt());
+                    if (++count % FLUSH_INTERVAL == 0) {
+                        rows.flush();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Comments, optionally for one ticket, in id order.
+     */
+    public StreamingResponseBody exportComments(Long ticketId, ExportFormat format) {
+        return out -> write(out, format, COMMENT_COLUMNS, rows -> {
+            try (Stream<CommentExportRow> comments = commentRepository.streamForExport(ticketId)) {
+                Iterator<CommentExportRow> iterator = comments.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    CommentExportRow comment = iterator.next();
+                    rows.write(comment.getId(), comment.getTicketId(), comment.getAuthor(), comment.getContent(),
+                            comment.getCreatedDate());
+                    if (++count % FLUSH_INTERVAL == 0) {
+                        rows.flush();
+                    }
+                }
+            }
+        });
+    }
+
+    private void write(OutputStream out, ExportFormat format, String[] columns, RowSource source) throws IOException {
+        RowWriter rows = format == ExportFormat.CSV
+                ? new CsvRowWriter(out, columns)
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out), columns);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    source.writeTo(rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rows.flush();
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void writeTo(RowWriter rows) throws IOException;
+    }
+
+    private interface RowWriter {
+        void write(Object... values) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out, String[] columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            write((Object[]) columns);
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final String[] columns;
+
+        NdjsonRowWriter(JsonGenerator generator, String[] columns) {
+            // Rows are separated by our own newlines rather than Jackson's root value separator
+            this.generator = generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNullField(columns[i]);
+                } else if (value instanceof Long number) {
+                    generator.writeNumberField(columns[i], number);
+                } else {
+                    generator.writeStringField(columns[i], value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.PerformanceMetricsDTO;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketStatusTransitionRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentTotals;
+import com.ticketsystem.zimsmartvillages.repository.projection.LatencySource;
+import com.ticketsystem.zimsmartvillages.repository.projection.ReopenCount;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes agent and team performance figures over a rolling window of days from the
+ * ticket, status history, comment activity and rating tables. Results are materialised by {@link AgentScorecardService};
+ * reports should read the scorecards rather than call this directly.
+ */
+@Component
+public class PerformanceMetricsCalculator {
+
+    static final String SUPPORT_ROLE = "ROLE_SUPPORT";
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final CommentActivityService commentActivityService;
+    private final TicketStatusTransitionRepository transitionRepository;
+    private final TicketRatingService ticketRatingService;
+
+    public PerformanceMetricsCalculator(TicketRepository ticketRepository, UserRepository userRepository,
+                                        CommentActivityService commentActivityService,
+                                        TicketStatusTransitionRepository transitionRepository,
+                                        TicketRatingService ticketRatingService) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.commentActivityService = commentActivityService;
+        this.transitionRepository = transitionRepository;
+        this.ticketRatingService = ticketRatingService;
+    }
+
+    public List<User> findSupportAgents() {
+        return userRepository.findDistinctByRolesName(SUPPORT_ROLE);
+    }
+
+    /**
+     * Loads the tickets assigned to the agent in the window once, for both
+     * {@link #calculateAgentMetrics} and {@link #calculateAgentStats}.
+     */
+    public AgentTickets loadAgentTickets(User agent, int windowDays) {
+        LocalDateTime windowStart = LocalDateTime.now().minusDays(windowDays);
+        List<Ticket> assignedTickets = ticketRepository.findByAssignedToAndCreatedDateAfter(agent, windowStart);
+        List<Ticket> resolvedTickets = assignedTickets.stream()
+                .filter(ReportUtils::isResolved)
+                .collect(Collectors.toList());
+        return new AgentTickets(agent, windowStart, assignedTickets, resolvedTickets);
+    }
+
+    public PerformanceMetricsDTO.MetricsData calculateAgentMetrics(AgentTickets tickets) {
+        User agent = tickets.agent();
+        LocalDateTime windowStart = tickets.windowStart();
+        List<Ticket> assignedTickets = tickets.assigned();
+        List<Ticket> resolvedTickets = tickets.resolved();
+
+        // Calculate metrics
+        int resolutionSpeed = calculateResolutionSpeedScore(resolvedTickets);
+        int firstResponseTime = calculateFirstResponseTimeScore(assignedTickets);
+        int ticketsResolved = calculateTicketsResolvedScore(resolvedTickets.size());
+        int customerSatisfaction = calculateCustomerSatisfactionScore(
+                ticketRatingService.getAgentSummary(agent.getId(), windowStart.toLocalDate()));
+        int communicationQuality = calculateCommunicationQualityScore(agent, windowStart, assignedTickets.size());
+        int ticketQuality = calculateTicketQualityScore(agent, windowStart, resolvedTickets.size());
+
+        return PerformanceMetricsDTO.MetricsData.builder()
+                .resolutionSpeed(resolutionSpeed)
+                .firstResponseTime(firstResponseTime)
+                .ticketsResolved(ticketsResolved)
+                .customerSatisfaction(customerSatisfaction)
+                .communicationQuality(communicationQuality)
+                .ticketQuality(ticketQuality)
+                .build();
+    }
+
+    /**
+     * Averages per-agent metrics into the team figures; an empty list yields all zeros.
+     */
+    public PerformanceMetricsDTO.MetricsData averageMetrics(List<PerformanceMetricsDTO.MetricsData> agentMetricsList) {
+        if (agentMetricsList.isEmpty()) {
+            return PerformanceMetricsDTO.MetricsData.builder()
+                    .resolutionSpeed(0)
+                    .firstResponseTime(0)
+                    .ticketsResolved(0)
+                    .customerSatisfaction(0)
+                    .communicationQuality(0)
+                    .ticketQuality(0)
+                    .build();
+        }
+
+        int totalResolutionSpeed = 0;
+        int totalFirstResponseTime = 0;
+        int totalTicketsResolved = 0;
+        int totalCustomerSatisfaction = 0;
+        int totalCommunicationQuality = 0;
+        int totalTicketQuality = 0;
+
+        for (PerformanceMetricsDTO.MetricsData agentMetrics : agentMetricsList) {
+            totalResolutionSpeed += agentMetrics.getResolutionSpeed();
+            totalFirstResponseTime += agentMetrics.getFirstResponseTime();
+            totalTicketsResolved += agentMetrics.getTicketsResolved();
+            totalCustomerSatisfaction += agentMetrics.getCustomerSatisfaction();
+            totalCommunicationQuality += agentMetrics.getCommunicationQuality();
+            totalTicketQuality += agentMetrics.getTicketQuality();
+        }
+
+        int agentCount = agentMetricsList.size();
+
+        return PerformanceMetricsDTO.MetricsData.builder()
+                .resolutionSpeed(totalResolutionSpeed / agentCount)
+                .firstResponseTime(totalFirstResponseTime / agentCount)
+                .ticketsResolved(totalTicketsResolved / agentCount)
+                .customerSatisfaction(totalCustomerSatisfaction / agentCount)
+                .communicationQuality(totalCommunicationQuality / agentCount)
+                .ticketQuality(totalTicketQuality / agentCount)
+                .build();
+    }
+
+    public PerformanceMetricsDTO.StatsData calculateAgentStats(AgentTickets tickets) {
+        User agent = tickets.agent();
+        LocalDateTime windowStart = tickets.windowStart();
+        List<Ticket> assignedTickets = tickets.assigned();
+        List<Ticket> resolvedTickets = tickets.resolved();
+
+        // Calculate average resolution time
+        String avgResolutionTime = "0 hours";
+        if (!resolvedTickets.isEmpty()) {
+            double totalHours = 0;
+            for (Ticket ticket : resolvedTickets) {
+                totalHours += ReportUtils.hoursBetween(ticket.getCreatedDate(), ticket.getResolvedAt());
+            }
+            avgResolutionTime = ReportUtils.formatDuration(totalHours / resolvedTickets.size());
+        }
+
+        String customerSatisfaction = formatSatisfaction(
+                ticketRatingService.getAgentSummary(agent.getId(), windowStart.toLocalDate()));
+
+        // Response rate (percentage of tickets with first response within 4 hours)
+        int responseCount = 0;
+        for (Ticket ticket : assignedTickets) {
+            if (ticket.getFirstResponseAt() != null
+                    && ChronoUnit.HOURS.between(ticket.getCreatedDate(), ticket.getFirstResponseAt()) <= 4) {
+                responseCount++;
+            }
+        }
+        String responseRate = assignedTickets.isEmpty() ? "0%" :
+                String.format("%d%%", (responseCount * 100) / assignedTickets.size());
+
+        return PerformanceMetricsDTO.StatsData.builder()
+                .ticketsAssigned(assignedTickets.size())
+                .ticketsResolved(resolvedTickets.size())
+                .averageResolutionTime(avgResolutionTime)
+                .customerSatisfaction(customerSatisfaction)
+                .responseRate(responseRate)
+                .build();
+    }
+
+    public PerformanceMetricsDTO.StatsData calculateTeamStats(int windowDays) {
+        LocalDateTime windowStart = LocalDateTime.now().minusDays(windowDays);
+
+        // Get all tickets in the window
+        List<LatencySource> recentTickets = ticketRepository.findLatencySourcesCreatedAfter(windowStart);
+        List<LatencySource> resolvedTickets = recentTickets.stream()
+                .filter(ticket -> ReportUtils.isResolved(ticket.getStatus(), ticket.getResolvedAt()))
+                .collect(Collectors.toList());
+
+        // Calculate average resolution time
+        String avgResolutionTime = "0 hours";
+        if (!resolvedTickets.isEmpty()) {
+            double totalHours = 0;
+            for (LatencySource ticket : resolvedTickets) {
+                totalHours += ReportUtils.hoursBetween(ticket.getCreatedDate(), ticket.getResolvedAt());
+            }
+            avgResolutionTime = ReportUtils.formatDuration(totalHours / resolvedTickets.size());
+        }
+
+        String customerSatisfaction = formatSatisfaction(ticketRatingService.getTeamSummary(windowStart.toLocalDate()));
+
+        // Response rate (percentage of tickets with first response within SLA)
+        int responseSLAMet = 0;
+        for (LatencySource ticket : recentTickets) {
+            if (ticket.getFirstResponseAt() != null
+                    && ChronoUnit.HOURS.between(ticket.getCreatedDate(), ticket.getFirstResponseAt()) <= 4) {
+                responseSLAMet++;
+            }
+        }
+        String responseRate = recentTickets.isEmpty() ? "0%" :
+                String.format("%d%%", (responseSLAMet * 100) / recentTickets.size());
+
+        return PerformanceMetricsDTO.StatsData.builder()
+                .ticketsAssigned(recentTickets.size())
+                .ticketsResolved(resolvedTickets.size())
+                .averageResolutionTime(avgResolutionTime)
+                .customerSatisfaction(customerSatisfaction)
+                .responseRate(responseRate)
+                .build();
+    }
+
+    // Helper methods for performance metric calculations
+
+    private int calculateResolutionSpeedScore(List<Ticket> resolvedTickets) {
+        if (resolvedTickets.isEmpty()) {
+            return 50; // Neutral score for no data
+        }
+
+        // Calculate average resolution time in hours
+        double totalHours = 0;
+        for (Ticket ticket : resolvedTickets) {
+            totalHours += ReportUtils.hoursBetween(ticket.getCreatedDate(), ticket.getResolvedAt());
+        }
+        double avgHours = totalHours / resolvedTickets.size();
+
+        // Score based on average hours (example scoring system)
+        // Lower is better: <8 hours = 90-100, 8-24 hours = 70-89, 24-48 hours = 50-69, >48 hours = below 50
+        if (avgHours < 4) return 100;
+        if (avgHours < 8) return 90;
+        if (avgHours < 16) return 80;
+        if (avgHours < 24) return 70;
+        if (avgHours < 36) return 60;
+        if (avgHours < 48) return 50;
+        if (avgHours < 72) return 40;
+        return 30;
+    }
+
+    private int calculateFirstResponseTimeScore(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return 50; // Neutral score for no data
+        }
+
+        int ticketsWithResponses = 0;
+        double totalResponseHours = 0;
+
+        for (Ticket ticket : tickets) {
+            if (ticket.getFirstResponseAt() != null) {
+                totalResponseHours += ReportUtils.hoursBetween(ticket.getCreatedDate(), ticket.getFirstResponseAt());
+                ticketsWithResponses++;
+            }
+        }
+
+        if (ticketsWithResponses == 0) {
+            return 50; // No responses yet
+        }
+
+        double avgHours = totalResponseHours / ticketsWithResponses;
+
+        // Score based on average hours (example scoring system)
+        // Lower is better: <1 hour = 90-100, 1-4 hours = 70-89, 4-8 hours = 50-69, >8 hours = below 50
+        if (avgHours < 0.5) return 100;
+        if (avgHours < 1) return 90;
+        if (avgHours < 2) return 80;
+        if (avgHours < 4) return 70;
+        if (avgHours < 6) return 60;
+        if (avgHours < 8) return 50;
+        if (avgHours < 12) return 40;
+        return 30;
+    }
+
+    private int calculateTicketsResolvedScore(int resolvedCount) {
+        // Score based on number of tickets resolved (example scoring system)
+        // Higher is better: >30 = 90-100, 20-30 = 70-89, 10-20 = 50-69, <10 = below 50
+        if (resolvedCount >= 40) return 100;
+        if (resolvedCount >= 30) return 90;
+        if (resolvedCount >= 25) return 80;
+        if (resolvedCount >= 20) return 70;
+        if (resolvedCount >= 15) return 60;
+        if (resolvedCount >= 10) return 50;
+        if (resolvedCount >= 5) return 40;
+        return 30;
+    }
+
+    private int calculateCustomerSatisfactionScore(RatingSummary ratings) {
+        if (ratings.isEmpty()) {
+            return 50; // Neutral score for no data
+        }
+
+        // Score based on average rating: 5 = 100, 4 = 80, 3 = 60, 2 = 40, 1 = 20
+        return (int) (ratings.average() * 20);
+    }
+
+    private static String formatSatisfaction(RatingSummary ratings) {
+        return ratings.isEmpty() ? "N/A" : String.format("%.1f/5", ratings.average());
+    }
+
+    private int calculateCommunicationQualityScore(User agent, LocalDateTime windowStart, int assignedTicketCount) {
+        // This could be based on number of comments, updates, etc.
+        CommentTotals comments = commentActivityService.getAuthorTotals(agent.getId(), windowStart.toLocalDate());
+
+        if (comments.getCount() == 0) {
+            return 50; // Neutral score for no data
+        }
+
+        // Frequency: comments per ticket
+        double commentsPerTicket = assignedTicketCount == 0 ? 0 :
+                (double) comments.getCount() / assignedTicketCount;
+
+        double avgLength = (double) comments.getCharacters() / comments.getCount();
+
+        // Combined score based on frequency and length
+        int frequencyScore = calculateFrequencyScore(commentsPerTicket);
+        int lengthScore = calculateLengthScore(avgLength);
+
+        return (frequencyScore + lengthScore) / 2;
+    }
+
+    private int calculateFrequencyScore(double commentsPerTicket) {
+        if (commentsPerTicket >= 5) return 100;
+        if (commentsPerTicket >= 4) return 90;
+        if (commentsPerTicket >= 3) return 80;
+        if (commentsPerTicket >= 2.5) return 70;
+        if (commentsPerTicket >= 2) return 60;
+        if (commentsPerTicket >= 1.5) return 50;
+        if (commentsPerTicket >= 1) return 40;
+        return 30;
+    }
+
+    private int calculateLengthScore(double avgLength) {
+        if (avgLength >= 200) return 100;
+        if (avgLength >= 150) return 90;
+        if (avgLength >= 120) return 80;
+        if (avgLength >= 100) return 70;
+        if (avgLength >= 80) return 60;
+        if (avgLength >= 60) return 50;
+        if (avgLength >= 40) return 40;
+        return 30;
+    }
+
+    private int calculateTicketQualityScore(User agent, LocalDateTime windowStart, int resolvedCount) {
+        if (resolvedCount == 0) {
+            return 50; // Neutral score for no data
+        }
+
+        // Reopen rate from the status history: tickets ever reopened over tickets ever resolved
+        ReopenCount counts = transitionRepository.countReopens(agent, windowStart,
+                ReportUtils.RESOLVED_STATUSES);
+        double reopenRate = (double) counts.getReopened() / Math.max(counts.getResolved(), resolvedCount);
+
+        // Score based on reopen rate (lower is better)
+        if (reopenRate <= 0.01) return 100; // Less than 1%
+        if (reopenRate <= 0.03) return 90;  // Less than 3%
+        if (reopenRate <= 0.05) return 80;  // Less than 5%
+        if (reopenRate <= 0.08) return 70;  // Less than 8%
+        if (reopenRate <= 0.12) return 60;  // Less than 12%
+        if (reopenRate <= 0.15) return 50;  // Less than 15%
+        if (reopenRate <= 0.20) return 40;  // Less than 20%
+        return 30;                          // 20% or higher
+    }
+
+    /**
+     * Tickets assigned to an agent since {@code windowStart}, and those of them that are resolved.
+     */
+    public record AgentTickets(User agent, LocalDateTime windowStart, List<Ticket> assigned, List<Ticket> resolved) {
+    }
+}
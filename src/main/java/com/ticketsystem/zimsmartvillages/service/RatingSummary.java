@@ -0,0 +1,22 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.repository.projection.RatingTotals;
+
+/**
+ * Satisfaction ratings summed over a period. {@code histogram[i]} counts ratings of {@code i + 1}.
+ */
+public record RatingSummary(long count, long sum, long[] histogram) {
+
+    public static RatingSummary of(RatingTotals totals) {
+        return new RatingSummary(totals.getCount(), totals.getSum(), new long[]{
+                totals.getScore1(), totals.getScore2(), totals.getScore3(), totals.getScore4(), totals.getScore5()});
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double average() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
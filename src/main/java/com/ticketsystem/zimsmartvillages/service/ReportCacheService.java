@@ -0,0 +1,136 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.ReportCacheStatsDto;
+import com.ticketsystem.zimsmartvillages.dto.ResponseTimeAnalysisDTO;
+import com.ticketsystem.zimsmartvillages.dto.TicketTrendsDTO;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.reporting.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caches report results keyed by their normalised parameters.
+ * <p>
+ * Keys for date-ranged reports carry the range of days the result depends on. A committed
+ * ticket change only drops entries whose range contains a day the change touched (the
+ * creation or resolution day, before or after). Reports over all tickets are dropped on any
+ * change that affects report data. Entries also expire after the TTL, which covers reports
+ * relative to the current time.
+ */
+@Service
+public class ReportCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheService.class);
+
+    /**
+     * A {@code null} range means the result depends on every ticket.
+     */
+    public record Key(String report, List<Object> params, LocalDate from, LocalDate to) {
+
+        public static Key global(String report, Object... params) {
+            return new Key(report, Arrays.asList(params), null, null);
+        }
+
+        public static Key ranged(String report, LocalDate from, LocalDate to, Object... params) {
+            return new Key(report, Arrays.asList(params), from, to);
+        }
+
+        boolean isAffectedBy(Set<LocalDate> days) {
+            if (from == null) {
+                return true;
+            }
+            for (LocalDate day : days) {
+                if (!day.isBefore(from) && !day.isAfter(to)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final BoundedTtlCache<Key, Object> cache;
+
+    public ReportCacheService(@Value("${app.reports.cache.max-entries:500}") int maxEntries,
+                              @Value("${app.reports.cache.max-weight:200000}") long maxWeight,
+                              @Value("${app.reports.cache.ttl-ms:300000}") long ttlMs) {
+        this.cache = new BoundedTtlCache<>(maxEntries, maxWeight, ttlMs, ReportCacheService::weigh);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        return (T) cache.get(key, (Supplier<Object>) loader);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public ReportCacheStatsDto getStats() {
+        BoundedTtlCache.Stats stats = cache.stats();
+        return new ReportCacheStatsDto(stats.hits(), stats.misses(), stats.evictions(), stats.expirations(),
+                stats.invalidations(), stats.size(), stats.weight());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketSnapshot before = event.before();
+        TicketSnapshot after = event.after();
+        if (before != null && after != null && !affectsReports(before, after)) {
+            return;
+        }
+
+        Set<LocalDate> days = new HashSet<>();
+        addDays(days, before);
+        addDays(days, after);
+        int removed = cache.invalidateIf(key -> key.isAffectedBy(days));
+        logger.debug("Ticket {} change invalidated {} cached reports", event.ticketId(), removed);
+    }
+
+    // Edits to titles, descriptions or assignment leave every cached report unchanged
+    private static boolean affectsReports(TicketSnapshot before, TicketSnapshot after) {
+        return before.status() != after.status()
+                || before.priority() != after.priority()
+                || before.contentType() != after.contentType()
+                || !Objects.equals(before.createdDate(), after.createdDate())
+                || !Objects.equals(before.firstResponseAt(), after.firstResponseAt())
+                || !Objects.equals(before.resolvedAt(), after.resolvedAt());
+    }
+
+    private static void addDays(Set<LocalDate> days, TicketSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        addDay(days, snapshot.createdDate());
+        addDay(days, snapshot.resolvedAt());
+    }
+
+    private static void addDay(Set<LocalDate> days, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            days.add(dateTime.toLocalDate());
+        }
+    }
+
+    // Roughly the number of data points held by the result
+    private static long weigh(Object value) {
+        if (value instanceof TicketTrendsDTO trends) {
+            return 3L * trends.getLabels().size();
+        }
+        if (value instanceof ResponseTimeAnalysisDTO responseTime) {
+            return 5L * responseTime.getTimeline().getLabels().size() + 20;
+        }
+        return 10;
+    }
+}
@@ -0,0 +1,223 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.ReportJobDto;
+import com.ticketsystem.zimsmartvillages.dto.ReportJobRequest;
+import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
+import com.ticketsystem.zimsmartvillages.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs reports in the background so analytics never hold a request thread.
+ * <p>
+ * Each job gets its own virtual thread, but at most {@code max-concurrent} of them run a report
+ * at once; the rest wait on a semaphore. Keeping that limit below the connection pool size leaves
+ * connections free for interactive ticket traffic. Each user may have a limited number of
+ * unfinished jobs, jobs can be cancelled while queued or running, and finished jobs are kept
+ * for the retention period before they are dropped.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private final ReportsService reportsService;
+    private final Semaphore runningJobs;
+    private final int perUserLimit;
+    private final long retentionMs;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("report-job-", 0).factory());
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportsService reportsService,
+                            @Value("${app.reports.jobs.max-concurrent:4}") int maxConcurrent,
+                            @Value("${app.reports.jobs.per-user-limit:3}") int perUserLimit,
+                            @Value("${app.reports.jobs.retention-ms:600000}") long retentionMs) {
+        this.reportsService = reportsService;
+        this.runningJobs = new Semaphore(maxConcurrent, true);
+        this.perUserLimit = perUserLimit;
+        this.retentionMs = retentionMs;
+    }
+
+    public ReportJobDto submit(ReportJobRequest request, String owner) {
+        validate(request);
+
+        ReportJob job;
+        synchronized (this) {
+            long unfinished = jobs.values().stream()
+                    .filter(existing -> existing.owner.equals(owner) && !existing.status.isFinished())
+                    .count();
+            if (unfinished >= perUserLimit) {
+                throw new TooManyRequestsException("Too many report jobs in progress (limit " + perUserLimit + ")");
+            }
+            job = new ReportJob(UUID.randomUUID().toString(), owner, request);
+            jobs.put(job.id, job);
+        }
+
+        ReportJob submitted = job;
+        job.future = executor.submit(() -> run(submitted));
+        return submitted.toDto();
+    }
+
+    public ReportJobDto getJob(String id, String owner) {
+        return find(id, owner).toDto();
+    }
+
+    /**
+     * Completes with the job's final state once it has finished.
+     */
+    public CompletableFuture<ReportJobDto> whenFinished(String id, String owner) {
+        ReportJob job = find(id, owner);
+        return job.finished.thenApply(ignored -> job.toDto());
+    }
+
+    public ReportJobDto cancel(String id, String owner) {
+        ReportJob job = find(id, owner);
+        if (job.finish(ReportJobDto.Status.CANCELLED, null, null) && job.future != null) {
+            job.future.cancel(true);
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.jobs.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        try {
+            runningJobs.acquire();
+        } catch (InterruptedException e) {
+            job.finish(ReportJobDto.Status.CANCELLED, null, null);
+            return;
+        }
+        try {
+            if (!job.start()) {
+                return;
+            }
+            Object result = execute(job.request);
+            job.finish(ReportJobDto.Status.SUCCEEDED, result, null);
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                job.finish(ReportJobDto.Status.CANCELLED, null, null);
+            } else {
+                logger.warn("Report job {} failed", job.id, e);
+                job.finish(ReportJobDto.Status.FAILED, null, e.getMessage());
+            }
+        } finally {
+            runningJobs.release();
+        }
+    }
+
+    private Object execute(ReportJobRequest request) {
+        return switch (request.getType()) {
+            case TICKET_TRENDS -> reportsService.getTicketTrends(
+                    request.getStartDate(), request.getEndDate(), request.getGranularity());
+            case STATUS_DISTRIBUTION -> reportsService.getStatusDistribution();
+            case PRIORITY_ANALYSIS -> reportsService.getPriorityAnalysis();
+            case USER_ACTIVITY -> reportsService.getUserActivity(
+                    request.getDays() != null ? request.getDays() : 30);
+            case PERFORMANCE_METRICS -> reportsService.getPerformanceMetrics(request.getUserId(),
+                    request.getWindowDays() != null ? request.getWindowDays() : ReportsService.DEFAULT_SCORECARD_WINDOW_DAYS);
+            case RESPONSE_TIME -> reportsService.getResponseTimeAnalysis(
+                    request.getStartDate(), request.getEndDate(), request.getGranularity(), request.getPriority(),
+                    request.getSlaHours() != null ? request.getSlaHours() : ReportsService.DEFAULT_SLA_HOURS);
+        };
+    }
+
+    // Rejects bad specs at submit time rather than as a failed job
+    private void validate(ReportJobRequest request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Report type is required");
+        }
+        boolean needsRange = request.getType() == ReportJobRequest.ReportType.TICKET_TRENDS
+                || request.getType() == ReportJobRequest.ReportType.RESPONSE_TIME;
+        if (needsRange && (request.getStartDate() == null || request.getEndDate() == null)) {
+            throw new IllegalArgumentException("startDate and endDate are required for " + request.getType());
+        }
+    }
+
+    // Jobs belonging to someone else are reported as missing
+    private ReportJob find(String id, String owner) {
+        ReportJob job = jobs.get(id);
+        if (job == null || !job.owner.equals(owner)) {
+            throw new ResourceNotFoundException("Report job not found with id: " + id);
+        }
+        return job;
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final String owner;
+        private final ReportJobRequest request;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private volatile Future<?> future;
+        private volatile ReportJobDto.Status status = ReportJobDto.Status.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        ReportJob(String id, String owner, ReportJobRequest request) {
+            this.id = id;
+            this.owner = owner;
+            this.request = request;
+        }
+
+        synchronized boolean start() {
+            if (status != ReportJobDto.Status.QUEUED) {
+                return false;
+            }
+            status = ReportJobDto.Status.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        // Only the first transition to a final state counts
+        synchronized boolean finish(ReportJobDto.Status finalStatus, Object result, String error) {
+            if (status.isFinished()) {
+                return false;
+            }
+            this.result = result;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+            finished.complete(null);
+            return true;
+        }
+
+        synchronized ReportJobDto toDto() {
+            return ReportJobDto.builder()
+                    .id(id)
+                    .type(request.getType())
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .result(result)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Small helpers shared by the report services
+final class ReportUtils {
+
+    private ReportUtils() {
+    }
+
+    static final List<Ticket.Status> RESOLVED_STATUSES = List.of(Ticket.Status.RESOLVED, Ticket.Status.CLOSED);
+
+    static boolean isResolved(Ticket ticket) {
+        return isResolved(ticket.getStatus(), ticket.getResolvedAt());
+    }
+
+    static boolean isResolved(Ticket.Status status, LocalDateTime resolvedAt) {
+        return (status == Ticket.Status.RESOLVED || status == Ticket.Status.CLOSED) && resolvedAt != null;
+    }
+
+    static double hoursBetween(LocalDateTime from, LocalDateTime to) {
+        return ChronoUnit.MINUTES.between(from, to) / 60.0;
+    }
+
+    static long secondsBetween(LocalDateTime from, LocalDateTime to) {
+        return ChronoUnit.SECONDS.between(from, to);
+    }
+
+    static String formatDuration(double hours) {
+        if (hours < 1) {
+            return String.format("%.0f minutes", hours * 60);
+        } else if (hours < 24) {
+            return String.format("%.1f hours", hours);
+        } else {
+            return String.format("%.1f days", hours / 24);
+        }
+    }
+}
@@ -1,78 +1,121 @@
 package com.ticketsystem.zimsmartvillages.service;
 
 import com.ticketsystem.zimsmartvillages.dto.*;
-import com.ticketsystem.zimsmartvillages.model.Comment;
-import com.ticketsystem.zimsmartvillages.model.Role;
+import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
+import com.ticketsystem.zimsmartvillages.model.AgentScorecard;
 import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketLatencyHistogram;
+import com.ticketsystem.zimsmartvillages.reporting.LatencyHistogram;
 import com.ticketsystem.zimsmartvillages.model.User;
-import com.ticketsystem.zimsmartvillages.repository.CommentRepository;
+import com.ticketsystem.zimsmartvillages.reporting.TimeBuckets;
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+import com.ticketsystem.zimsmartvillages.repository.TicketDailyRollupRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketLatencyHistogramRepository;
 import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
 import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.DailyTicketCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.LatencySource;
+import com.ticketsystem.zimsmartvillages.repository.projection.PriorityCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.StatusCount;
+import com.ticketsystem.zimsmartvillages.repository.projection.UserActivityRow;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class ReportsService {
 
+    public static final int DEFAULT_SCORECARD_WINDOW_DAYS = 30;
+    public static final List<Double> DEFAULT_SLA_HOURS = List.of(4.0, 24.0);
+    public static final int MAX_USER_ACTIVITY_PAGE_SIZE = 100;
+
+    private static final double RESPONSE_SLA_HOURS = 4;
+    private static final double RESOLUTION_SLA_HOURS = 24;
+    private static final int[] REPORTED_PERCENTILES = {50, 90, 95, 99};
+
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
-    private final CommentRepository commentRepository;
+    private final TicketDailyRollupRepository ticketDailyRollupRepository;
+    private final TicketLatencyHistogramRepository latencyHistogramRepository;
+    private final AgentScorecardService agentScorecardService;
+    private final ReportCacheService reportCacheService;
 
     @Autowired
-    public ReportsService(TicketRepository ticketRepository, UserRepository userRepository, CommentRepository commentRepository) {
+    public ReportsService(TicketRepository ticketRepository, UserRepository userRepository,
+                          TicketDailyRollupRepository ticketDailyRollupRepository,
+                          TicketLatencyHistogramRepository latencyHistogramRepository,
+                          AgentScorecardService agentScorecardService, ReportCacheService reportCacheService) {
         this.ticketRepository = ticketRepository;
         this.userRepository = userRepository;
-        this.commentRepository = commentRepository;
+        this.ticketDailyRollupRepository = ticketDailyRollupRepository;
+        this.latencyHistogramRepository = latencyHistogramRepository;
+        this.agentScorecardService = agentScorecardService;
+        this.reportCacheService = reportCacheService;
     }
 
     public TicketTrendsDTO getTicketTrends(LocalDateTime startDate, LocalDateTime endDate) {
-        Page<Ticket> ticketsPage = ticketRepository.findByCreatedDateBetween(startDate, endDate, Pageable.unpaged());
-        List<Ticket> tickets = ticketsPage.getContent();
-
-        // Calculate date intervals for the chart
-        List<LocalDateTime> datePoints = calculateDatePoints(startDate, endDate);
-        List<String> labels = datePoints.stream()
-                .map(date -> date.format(DateTimeFormatter.ofPattern("MMM d")))
-                .collect(Collectors.toList());
-
-        // Initialize counts
-        List<Integer> created = new ArrayList<>(Collections.nCopies(datePoints.size(), 0));
-        List<Integer> resolved = new ArrayList<>(Collections.nCopies(datePoints.size(), 0));
-
-        // Group tickets by date
-        for (Ticket ticket : tickets) {
-            int createdIndex = findDateIndex(datePoints, ticket.getCreatedDate());
-            if (createdIndex >= 0) {
-                created.set(createdIndex, created.get(createdIndex) + 1);
-            }
+        return getTicketTrends(startDate, endDate, null);
+    }
 
-            // For resolved tickets
-            if (ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED) {
-                int resolvedIndex = findDateIndex(datePoints, ticket.getUpdatedDate());
-                if (resolvedIndex >= 0) {
-                    resolved.set(resolvedIndex, resolved.get(resolvedIndex) + 1);
+    /**
+     * Created and resolved counts per time bucket. Day and coarser buckets are summed from the
+     * daily rollups; hourly buckets need the raw timestamps and are counted from the tickets.
+     */
+    public TicketTrendsDTO getTicketTrends(LocalDateTime startDate, LocalDateTime endDate, TimeGranularity granularity) {
+        TimeBuckets buckets = TimeBuckets.of(startDate, endDate, granularity);
+        return reportCacheService.get(rangeKey("ticket-trends", buckets, startDate, endDate),
+                () -> computeTicketTrends(buckets, startDate, endDate));
+    }
+
+    private TicketTrendsDTO computeTicketTrends(TimeBuckets buckets, LocalDateTime startDate, LocalDateTime endDate) {
+        int[] created = new int[buckets.size()];
+        int[] resolved = new int[buckets.size()];
+
+        if (buckets.getGranularity() == TimeGranularity.HOUR) {
+            for (LocalDateTime createdDate : ticketRepository.findCreatedDatesBetween(startDate, endDate)) {
+                int index = buckets.indexOf(createdDate);
+                if (index >= 0) {
+                    created[index]++;
+                }
+            }
+            for (LocalDateTime resolvedAt : ticketRepository.findResolvedAtBetween(startDate, endDate,
+                    ReportUtils.RESOLVED_STATUSES)) {
+                int index = buckets.indexOf(resolvedAt);
+                if (index >= 0) {
+                    resolved[index]++;
+                }
+            }
+        } else {
+            List<DailyTicketCount> dailyCounts = ticketDailyRollupRepository.sumByDayBetween(
+                    buckets.getStart().toLocalDate(), endDate.toLocalDate());
+            for (DailyTicketCount dailyCount : dailyCounts) {
+                int index = buckets.indexOf(dailyCount.getDay());
+                if (index >= 0) {
+                    created[index] += (int) dailyCount.getCreated();
+                    resolved[index] += (int) dailyCount.getResolved();
                 }
             }
         }
 
         return TicketTrendsDTO.builder()
-                .labels(labels)
-                .created(created)
-                .resolved(resolved)
+                .labels(buckets.labels())
+                .created(toList(created))
+                .resolved(toList(resolved))
                 .build();
     }
 
     public StatusDistributionDTO getStatusDistribution() {
-        List<Ticket> tickets = ticketRepository.findAll();
+        return reportCacheService.get(ReportCacheService.Key.global("status-distribution"),
+                this::computeStatusDistribution);
+    }
+
+    private StatusDistributionDTO computeStatusDistribution() {
         Map<String, Integer> statusCounts = new HashMap<>();
 
         // Initialize all possible statuses with 0 count
@@ -80,10 +123,9 @@ public class ReportsService {
             statusCounts.put(status.name(), 0);
         }
 
-        // Count tickets by status
-        for (Ticket ticket : tickets) {
-            String status = ticket.getStatus().name();
-            statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
+        // Counted by the database, one row per status
+        for (StatusCount statusCount : ticketRepository.countByStatus()) {
+            statusCounts.put(statusCount.getStatus().name(), (int) statusCount.getCount());
         }
 
         return StatusDistributionDTO.builder()
@@ -92,8 +134,11 @@ public class ReportsService {
     }
 
     public PriorityAnalysisDTO getPriorityAnalysis() {
-        List<Ticket> tickets = ticketRepository.findAll();
+        return reportCacheService.get(ReportCacheService.Key.global("priority-analysis"),
+                this::computePriorityAnalysis);
+    }
 
+    private PriorityAnalysisDTO computePriorityAnalysis() {
         Map<String, Integer> newTickets = new HashMap<>();
         Map<String, Integer> resolvedTickets = new HashMap<>();
 
@@ -105,19 +150,16 @@ public class ReportsService {
 
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
 
-        for (Ticket ticket : tickets) {
-            String priority = ticket.getPriority().name();
-
-            // Count new tickets from last 30 days
-            if (ticket.getCreatedDate().isAfter(thirtyDaysAgo)) {
-                newTickets.put(priority, newTickets.getOrDefault(priority, 0) + 1);
-            }
-
-            // Count resolved tickets from last 30 days
-            if ((ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED)
-                    && ticket.getUpdatedDate().isAfter(thirtyDaysAgo)) {
-                resolvedTickets.put(priority, resolvedTickets.getOrDefault(priority, 0) + 1);
+        // New and resolved tickets from the last 30 days, counted by the database per priority
+        List<PriorityCount> priorityCounts = ticketRepository.countByPrioritySince(
+                thirtyDaysAgo, ReportUtils.RESOLVED_STATUSES);
+        for (PriorityCount priorityCount : priorityCounts) {
+            if (priorityCount.getPriority() == null) {
+                continue;
             }
+            String priority = priorityCount.getPriority().name();
+            newTickets.put(priority, (int) priorityCount.getCreated());
+            resolvedTickets.put(priority, (int) priorityCount.getResolved());
         }
 
         return PriorityAnalysisDTO.builder()
@@ -127,184 +169,172 @@ public class ReportsService {
     }
 
     public List<UserActivityDTO> getUserActivity(int days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-
-        List<User> users = userRepository.findAll();
-        List<UserActivityDTO> result = new ArrayList<>();
-
-        for (User user : users) {
-            List<Ticket> createdTickets = ticketRepository.findByCreatorAndCreatedDateAfter(user, startDate);
-            List<Ticket> resolvedTickets = ticketRepository.findByAssignedToAndStatusInAndUpdatedDateAfter(
-                    user,
-                    Arrays.asList(Ticket.Status.RESOLVED, Ticket.Status.CLOSED),
-                    startDate);
-            List<Comment> comments = commentRepository.findByAuthorAndCreatedDateAfter(user, startDate);
-
-            // Find last active date
-            LocalDateTime lastActive = startDate;
-            if (!comments.isEmpty()) {
-                LocalDateTime lastCommentDate = comments.stream()
-                        .map(Comment::getCreatedDate)
-                        .max(LocalDateTime::compareTo)
-                        .orElse(startDate);
-                lastActive = lastCommentDate.isAfter(lastActive) ? lastCommentDate : lastActive;
-            }
+        return userActivity(days, Pageable.unpaged());
+    }
 
-            if (!resolvedTickets.isEmpty()) {
-                LocalDateTime lastResolvedDate = resolvedTickets.stream()
-                        .map(Ticket::getUpdatedDate)
-                        .max(LocalDateTime::compareTo)
-                        .orElse(startDate);
-                lastActive = lastResolvedDate.isAfter(lastActive) ? lastResolvedDate : lastActive;
-            }
+    /**
+     * One page of activity per user over the last {@code days}, most active first. The users are
+     * ranked and paged by a single query, so only the requested page is read.
+     */
+    public List<UserActivityDTO> getUserActivity(int days, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_USER_ACTIVITY_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_USER_ACTIVITY_PAGE_SIZE);
+        }
+        // Query offsets are ints; no page starts beyond that
+        if ((long) page * size > Integer.MAX_VALUE) {
+            return List.of();
+        }
+        return userActivity(days, PageRequest.of(page, size));
+    }
 
+    private List<UserActivityDTO> userActivity(int days, Pageable page) {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        List<UserActivityDTO> result = new ArrayList<>();
+        for (UserActivityRow row : userRepository.findActivityRanking(
+                startDate, ReportUtils.RESOLVED_STATUSES, page)) {
             result.add(UserActivityDTO.builder()
-                    .username(user.getUsername())
-                    .fullName(user.getFullName())
-                    .ticketsCreated(createdTickets.size())
-                    .ticketsResolved(resolvedTickets.size())
-                    .commentsAdded(comments.size())
-                    .lastActive(lastActive)
+                    .username(row.getUsername())
+                    .fullName(row.getFullName())
+                    .ticketsCreated((int) row.getCreated())
+                    .ticketsResolved((int) row.getResolved())
+                    .commentsAdded((int) row.getComments())
+                    .lastActive(latest(startDate, row.getLastResolvedAt(), row.getLastCommentAt()))
                     .build());
         }
-
-        // Sort by activity level (tickets resolved + comments)
-        result.sort((a, b) -> Integer.compare(
-                b.getTicketsResolved() + b.getCommentsAdded(),
-                a.getTicketsResolved() + a.getCommentsAdded()));
-
         return result;
     }
 
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime... others) {
+        LocalDateTime latest = first;
+        for (LocalDateTime other : others) {
+            if (other != null && other.isAfter(latest)) {
+                latest = other;
+            }
+        }
+        return latest;
+    }
+
     public PerformanceMetricsDTO getPerformanceMetrics(Long userId) {
+        return getPerformanceMetrics(userId, DEFAULT_SCORECARD_WINDOW_DAYS);
+    }
+
+    /**
+     * Serves agent or team performance from the materialised scorecards for the given window.
+     * For an agent, {@code computedAt} is when that agent's scorecard was last refreshed.
+     */
+    public PerformanceMetricsDTO getPerformanceMetrics(Long userId, int windowDays) {
+        AgentScorecard team = agentScorecardService.getTeamScorecard(windowDays);
+        PerformanceMetricsDTO.MetricsData teamMetrics = AgentScorecardService.toMetrics(team);
+
         if (userId != null) {
             // Individual agent metrics
-            User agent = userRepository.findById(userId).orElse(null);
-            if (agent == null) {
-                throw new RuntimeException("User not found with ID: " + userId);
-            }
-
-            PerformanceMetricsDTO.MetricsData agentMetrics = calculateAgentMetrics(agent);
-            PerformanceMetricsDTO.MetricsData teamAverage = calculateTeamAverageMetrics();
-            PerformanceMetricsDTO.StatsData agentStats = calculateAgentStats(agent);
+            User agent = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+            AgentScorecard scorecard = agentScorecardService.getAgentScorecard(userId, windowDays);
 
             return PerformanceMetricsDTO.builder()
                     .agentName(agent.getFullName())
-                    .metrics(agentMetrics)
-                    .teamAverage(teamAverage)
-                    .stats(agentStats)
+                    .metrics(AgentScorecardService.toMetrics(scorecard))
+                    .teamAverage(teamMetrics)
+                    .stats(AgentScorecardService.toStats(scorecard))
+                    .computedAt(scorecard.getComputedAt())
                     .build();
         } else {
             // Team metrics
-            PerformanceMetricsDTO.MetricsData teamMetrics = calculateTeamAverageMetrics();
-            PerformanceMetricsDTO.StatsData teamStats = calculateTeamStats();
-
             return PerformanceMetricsDTO.builder()
                     .agentName("Team")
                     .metrics(teamMetrics)
                     .teamAverage(teamMetrics) // Same values for comparison
-                    .stats(teamStats)
+                    .stats(AgentScorecardService.toStats(team))
+                    .computedAt(team.getComputedAt())
                     .build();
         }
     }
 
     public ResponseTimeAnalysisDTO getResponseTimeAnalysis(LocalDateTime startDate, LocalDateTime endDate) {
-        Page<Ticket> ticketsPage = ticketRepository.findByCreatedDateBetween(startDate, endDate, Pageable.unpaged());
-        List<Ticket> tickets = ticketsPage.getContent();
-
-        // Calculate date intervals for the chart
-        List<LocalDateTime> datePoints = calculateDatePoints(startDate, endDate);
-        List<String> labels = datePoints.stream()
-                .map(date -> date.format(DateTimeFormatter.ofPattern("MMM d")))
-                .collect(Collectors.toList());
-
-        // Initialize data arrays
-        List<Double> firstResponseTimes = new ArrayList<>(Collections.nCopies(datePoints.size(), 0.0));
-        List<Double> resolutionTimes = new ArrayList<>(Collections.nCopies(datePoints.size(), 0.0));
-        int[] firstResponseCounts = new int[datePoints.size()];
-        int[] resolutionCounts = new int[datePoints.size()];
-
-        // Calculate total metrics for SLA
-        int totalTickets = tickets.size();
-        int responseSLAMet = 0;
-        int resolutionSLAMet = 0;
-        double totalFirstResponseHours = 0;
-        double totalResolutionHours = 0;
-        int ticketsWithFirstResponse = 0;
-        int ticketsResolved = 0;
-
-        for (Ticket ticket : tickets) {
-            int dateIndex = findDateIndex(datePoints, ticket.getCreatedDate());
-            if (dateIndex < 0) continue;
-
-            // Calculate first response time (using the first comment as a proxy)
-            List<Comment> comments = commentRepository.findByTicketOrderByCreatedDateAsc(ticket);
-            if (!comments.isEmpty()) {
-                Comment firstComment = comments.get(0);
-                double hoursToFirstResponse = ChronoUnit.MINUTES.between(
-                        ticket.getCreatedDate(), firstComment.getCreatedDate()) / 60.0;
-
-                firstResponseTimes.set(dateIndex, firstResponseTimes.get(dateIndex) + hoursToFirstResponse);
-                firstResponseCounts[dateIndex]++;
-
-                totalFirstResponseHours += hoursToFirstResponse;
-                ticketsWithFirstResponse++;
-
-                // Check if first response SLA was met (e.g., within 4 hours)
-                if (hoursToFirstResponse <= 4) {
-                    responseSLAMet++;
-                }
-            }
-
-            // Calculate resolution time
-            if (ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED) {
-                double hoursToResolution = ChronoUnit.MINUTES.between(
-                        ticket.getCreatedDate(), ticket.getUpdatedDate()) / 60.0;
+        return getResponseTimeAnalysis(startDate, endDate, null);
+    }
 
-                resolutionTimes.set(dateIndex, resolutionTimes.get(dateIndex) + hoursToResolution);
-                resolutionCounts[dateIndex]++;
+    public ResponseTimeAnalysisDTO getResponseTimeAnalysis(LocalDateTime startDate, LocalDateTime endDate,
+                                                           TimeGranularity granularity) {
+        return getResponseTimeAnalysis(startDate, endDate, granularity, null, DEFAULT_SLA_HOURS);
+    }
 
-                totalResolutionHours += hoursToResolution;
-                ticketsResolved++;
+    /**
+     * First-response and resolution times of tickets created in the range, optionally for one
+     * priority. Day and coarser buckets merge the stored daily latency histograms; hourly
+     * buckets are built from the tickets. Percentiles are in hours, and each SLA threshold
+     * reports the share of tickets created in the range that met it.
+     */
+    public ResponseTimeAnalysisDTO getResponseTimeAnalysis(LocalDateTime startDate, LocalDateTime endDate,
+                                                           TimeGranularity granularity, Ticket.Priority priority,
+                                                           List<Double> slaHours) {
+        TimeBuckets buckets = TimeBuckets.of(startDate, endDate, granularity);
+        return reportCacheService.get(rangeKey("response-time", buckets, startDate, endDate, priority, List.copyOf(slaHours)),
+                () -> computeResponseTimeAnalysis(buckets, startDate, endDate, priority, slaHours));
+    }
 
-                // Check if resolution SLA was met (e.g., within 24 hours)
-                if (hoursToResolution <= 24) {
-                    resolutionSLAMet++;
+    private ResponseTimeAnalysisDTO computeResponseTimeAnalysis(TimeBuckets buckets, LocalDateTime startDate,
+                                                                LocalDateTime endDate, Ticket.Priority priority,
+                                                                List<Double> slaHours) {
+        LatencySeries firstResponse = new LatencySeries(buckets.size());
+        LatencySeries resolution = new LatencySeries(buckets.size());
+        long totalTickets = 0;
+
+        if (buckets.getGranularity() == TimeGranularity.HOUR) {
+            for (LatencySource ticket : ticketRepository.findLatencySourcesCreatedBetween(startDate, endDate, priority)) {
+                int index = buckets.indexOf(ticket.getCreatedDate());
+                if (index < 0) {
+                    continue;
+                }
+                totalTickets++;
+                if (ticket.getFirstResponseAt() != null) {
+                    firstResponse.record(index, ReportUtils.secondsBetween(ticket.getCreatedDate(), ticket.getFirstResponseAt()));
+                }
+                if (ReportUtils.isResolved(ticket.getStatus(), ticket.getResolvedAt())) {
+                    resolution.record(index, ReportUtils.secondsBetween(ticket.getCreatedDate(), ticket.getResolvedAt()));
                 }
             }
-        }
-
-        // Calculate averages for each date point
-        for (int i = 0; i < datePoints.size(); i++) {
-            if (firstResponseCounts[i] > 0) {
-                firstResponseTimes.set(i, firstResponseTimes.get(i) / firstResponseCounts[i]);
-            }
-            if (resolutionCounts[i] > 0) {
-                resolutionTimes.set(i, resolutionTimes.get(i) / resolutionCounts[i]);
+        } else {
+            LocalDate firstDay = buckets.getStart().toLocalDate();
+            LocalDate lastDay = endDate.toLocalDate();
+            totalTickets = ticketDailyRollupRepository.sumCreatedBetween(firstDay, lastDay, priority);
+            for (TicketLatencyHistogram row : latencyHistogramRepository.findByDayBetweenOrderByDay(firstDay, lastDay)) {
+                int index = buckets.indexOf(row.getDay());
+                if (index < 0 || (priority != null && row.getPriority() != priority)) {
+                    continue;
+                }
+                LatencyHistogram histogram = LatencyHistogram.fromBytes(row.getCounts());
+                if (row.getMetric() == TicketLatencyHistogram.Metric.FIRST_RESPONSE) {
+                    firstResponse.add(index, histogram);
+                } else {
+                    resolution.add(index, histogram);
+                }
             }
         }
-
-        // Calculate overall metrics
-        String avgFirstResponse = ticketsWithFirstResponse > 0 ?
-                formatDuration(totalFirstResponseHours / ticketsWithFirstResponse) : "0 hours";
-        String avgResolutionTime = ticketsResolved > 0 ?
-                formatDuration(totalResolutionHours / ticketsResolved) : "0 hours";
-        String responseSLA = totalTickets > 0 ?
-                String.format("%d%%", (responseSLAMet * 100) / totalTickets) : "0%";
-        String resolutionSLA = totalTickets > 0 ?
-                String.format("%d%%", (resolutionSLAMet * 100) / totalTickets) : "0%";
+        firstResponse.finish();
+        resolution.finish();
 
         ResponseTimeAnalysisDTO.TimelineData timeline = ResponseTimeAnalysisDTO.TimelineData.builder()
-                .labels(labels)
-                .firstResponseTime(firstResponseTimes)
-                .resolutionTime(resolutionTimes)
+                .labels(buckets.labels())
+                .firstResponseTime(toList(firstResponse.meanHours))
+                .resolutionTime(toList(resolution.meanHours))
+                .firstResponseP90(toList(firstResponse.p90Hours))
+                .resolutionP90(toList(resolution.p90Hours))
                 .build();
 
         ResponseTimeAnalysisDTO.MetricsData metrics = ResponseTimeAnalysisDTO.MetricsData.builder()
-                .averageFirstResponse(avgFirstResponse)
-                .averageResolutionTime(avgResolutionTime)
-                .responseSLA(responseSLA)
-                .resolutionSLA(resolutionSLA)
+                .averageFirstResponse(formatMean(firstResponse.total))
+                .averageResolutionTime(formatMean(resolution.total))
+                .responseSLA(slaPercentage(firstResponse.total, RESPONSE_SLA_HOURS, totalTickets))
+                .resolutionSLA(slaPercentage(resolution.total, RESOLUTION_SLA_HOURS, totalTickets))
+                .firstResponsePercentiles(percentiles(firstResponse.total))
+                .resolutionPercentiles(percentiles(resolution.total))
+                .firstResponseSla(slaPercentages(firstResponse.total, slaHours, totalTickets))
+                .resolutionSla(slaPercentages(resolution.total, slaHours, totalTickets))
                 .build();
 
         return ResponseTimeAnalysisDTO.builder()
@@ -313,444 +343,104 @@ public class ReportsService {
                 .build();
     }
 
-    // Helper methods
-
-    private List<LocalDateTime> calculateDatePoints(LocalDateTime startDate, LocalDateTime endDate) {
-        List<LocalDateTime> datePoints = new ArrayList<>();
-        LocalDateTime current = startDate;
-
-        // Determine appropriate intervals based on date range
-        long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
-        int intervalDays;
-
-        if (daysBetween <= 14) {
-            intervalDays = 1; // Daily intervals for short ranges
-        } else if (daysBetween <= 60) {
-            intervalDays = 5; // 5-day intervals for medium ranges
+    /**
+     * Cache key for a bucketed report. Day and coarser results depend only on the aligned bucket
+     * range and the end day; hourly results depend on the exact range.
+     */
+    private static ReportCacheService.Key rangeKey(String report, TimeBuckets buckets, LocalDateTime startDate,
+                                                   LocalDateTime endDate, Object... params) {
+        List<Object> keyParams = new ArrayList<>(Arrays.asList(params));
+        keyParams.add(buckets.getGranularity());
+        if (buckets.getGranularity() == TimeGranularity.HOUR) {
+            keyParams.add(startDate);
+            keyParams.add(endDate);
         } else {
-            intervalDays = 10; // 10-day intervals for longer ranges
-        }
-
-        while (!current.isAfter(endDate)) {
-            datePoints.add(current);
-            current = current.plusDays(intervalDays);
-        }
-
-        return datePoints;
-    }
-
-    private int findDateIndex(List<LocalDateTime> datePoints, LocalDateTime date) {
-        if (date.isBefore(datePoints.get(0)) || date.isAfter(datePoints.get(datePoints.size() - 1))) {
-            return -1;
-        }
-
-        for (int i = 0; i < datePoints.size() - 1; i++) {
-            if ((date.isEqual(datePoints.get(i)) || date.isAfter(datePoints.get(i))) &&
-                    date.isBefore(datePoints.get(i + 1))) {
-                return i;
-            }
+            keyParams.add(buckets.getEnd());
         }
-
-        return datePoints.size() - 1;
+        return ReportCacheService.Key.ranged(report, buckets.getStart().toLocalDate(), endDate.toLocalDate(),
+                keyParams.toArray());
     }
 
-    private PerformanceMetricsDTO.MetricsData calculateAgentMetrics(User agent) {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-
-        // Get tickets assigned to this agent in the last 30 days
-        List<Ticket> assignedTickets = ticketRepository.findByAssignedToAndCreatedDateAfter(agent, thirtyDaysAgo);
-        List<Ticket> resolvedTickets = assignedTickets.stream()
-                .filter(ticket -> ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED)
-                .collect(Collectors.toList());
-
-        // Calculate metrics
-        int resolutionSpeed = calculateResolutionSpeedScore(resolvedTickets);
-        int firstResponseTime = calculateFirstResponseTimeScore(assignedTickets);
-        int ticketsResolved = calculateTicketsResolvedScore(resolvedTickets.size());
-        int customerSatisfaction = calculateCustomerSatisfactionScore(resolvedTickets);
-        int communicationQuality = calculateCommunicationQualityScore(agent);
-        int ticketQuality = calculateTicketQualityScore(resolvedTickets);
-
-        return PerformanceMetricsDTO.MetricsData.builder()
-                .resolutionSpeed(resolutionSpeed)
-                .firstResponseTime(firstResponseTime)
-                .ticketsResolved(ticketsResolved)
-                .customerSatisfaction(customerSatisfaction)
-                .communicationQuality(communicationQuality)
-                .ticketQuality(ticketQuality)
-                .build();
+    private static String formatMean(LatencyHistogram histogram) {
+        return histogram.isEmpty() ? "0 hours" : ReportUtils.formatDuration(histogram.getMean() / 3600);
     }
 
-    private PerformanceMetricsDTO.MetricsData calculateTeamAverageMetrics() {
-        // Replace with a query that fits your data model
-        Set<Role> roles = new HashSet<>();
-        Role r = new Role();
-        r.setName("SUPPORT");
-        roles.add(r);
-        List<User> supportAgents = userRepository.findByRoles(roles); // Assuming there's a role field
-        // Alternatively, get all users and filter if no specific finder method exists
-        // List<User> allUsers = userRepository.findAll();
-        // List<User> supportAgents = allUsers.stream().filter(user -> "SUPPORT".equals(user.getRole())).collect(Collectors.toList());
-
-        if (supportAgents.isEmpty()) {
-            return PerformanceMetricsDTO.MetricsData.builder()
-                    .resolutionSpeed(0)
-                    .firstResponseTime(0)
-                    .ticketsResolved(0)
-                    .customerSatisfaction(0)
-                    .communicationQuality(0)
-                    .ticketQuality(0)
-                    .build();
-        }
-
-        int totalResolutionSpeed = 0;
-        int totalFirstResponseTime = 0;
-        int totalTicketsResolved = 0;
-        int totalCustomerSatisfaction = 0;
-        int totalCommunicationQuality = 0;
-        int totalTicketQuality = 0;
-
-        for (User agent : supportAgents) {
-            PerformanceMetricsDTO.MetricsData agentMetrics = calculateAgentMetrics(agent);
-            totalResolutionSpeed += agentMetrics.getResolutionSpeed();
-            totalFirstResponseTime += agentMetrics.getFirstResponseTime();
-            totalTicketsResolved += agentMetrics.getTicketsResolved();
-            totalCustomerSatisfaction += agentMetrics.getCustomerSatisfaction();
-            totalCommunicationQuality += agentMetrics.getCommunicationQuality();
-            totalTicketQuality += agentMetrics.getTicketQuality();
+    private static Map<String, Double> percentiles(LatencyHistogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (int percentile : REPORTED_PERCENTILES) {
+            percentiles.put("p" + percentile, histogram.valueAtPercentile(percentile) / 3600.0);
         }
-
-        int agentCount = supportAgents.size();
-
-        return PerformanceMetricsDTO.MetricsData.builder()
-                .resolutionSpeed(totalResolutionSpeed / agentCount)
-                .firstResponseTime(totalFirstResponseTime / agentCount)
-                .ticketsResolved(totalTicketsResolved / agentCount)
-                .customerSatisfaction(totalCustomerSatisfaction / agentCount)
-                .communicationQuality(totalCommunicationQuality / agentCount)
-                .ticketQuality(totalTicketQuality / agentCount)
-                .build();
+        return percentiles;
     }
 
-    private PerformanceMetricsDTO.StatsData calculateAgentStats(User agent) {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-
-        // Get tickets assigned to this agent in the last 30 days
-        List<Ticket> assignedTickets = ticketRepository.findByAssignedToAndCreatedDateAfter(agent, thirtyDaysAgo);
-        List<Ticket> resolvedTickets = assignedTickets.stream()
-                .filter(ticket -> ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED)
-                .collect(Collectors.toList());
-
-        // Calculate average resolution time
-        String avgResolutionTime = "0 hours";
-        if (!resolvedTickets.isEmpty()) {
-            double totalHours = 0;
-            for (Ticket ticket : resolvedTickets) {
-                totalHours += ChronoUnit.MINUTES.between(
-                        ticket.getCreatedDate(), ticket.getUpdatedDate()) / 60.0;
-            }
-            avgResolutionTime = formatDuration(totalHours / resolvedTickets.size());
+    private static Map<String, String> slaPercentages(LatencyHistogram histogram, List<Double> slaHours, long totalTickets) {
+        Map<String, String> percentages = new LinkedHashMap<>();
+        for (Double hours : slaHours) {
+            String label = (hours == Math.floor(hours) ? String.valueOf(hours.longValue()) : String.valueOf(hours)) + "h";
+            percentages.put(label, slaPercentage(histogram, hours, totalTickets));
         }
-
-        // Customer satisfaction (mock for now)
-        String customerSatisfaction = String.format("%.1f/5", 4 + Math.random());
-
-        // Response rate (percentage of tickets with first response within 4 hours)
-        int responseCount = 0;
-        for (Ticket ticket : assignedTickets) {
-            List<Comment> comments = commentRepository.findByTicketAndAuthorOrderByCreatedDateAsc(ticket, agent);
-            if (!comments.isEmpty()) {
-                Comment firstComment = comments.get(0);
-                if (ChronoUnit.HOURS.between(ticket.getCreatedDate(), firstComment.getCreatedDate()) <= 4) {
-                    responseCount++;
-                }
-            }
-        }
-        String responseRate = assignedTickets.isEmpty() ? "0%" :
-                String.format("%d%%", (responseCount * 100) / assignedTickets.size());
-
-        return PerformanceMetricsDTO.StatsData.builder()
-                .ticketsAssigned(assignedTickets.size())
-                .ticketsResolved(resolvedTickets.size())
-                .averageResolutionTime(avgResolutionTime)
-                .customerSatisfaction(customerSatisfaction)
-                .responseRate(responseRate)
-                .build();
+        return percentages;
     }
 
-    private PerformanceMetricsDTO.StatsData calculateTeamStats() {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-
-        // Get all tickets in the last 30 days
-        List<Ticket> recentTickets = ticketRepository.findByCreatedDateAfter(thirtyDaysAgo);
-        List<Ticket> resolvedTickets = recentTickets.stream()
-                .filter(ticket -> ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED)
-                .collect(Collectors.toList());
-
-        // Calculate average resolution time
-        String avgResolutionTime = "0 hours";
-        if (!resolvedTickets.isEmpty()) {
-            double totalHours = 0;
-            for (Ticket ticket : resolvedTickets) {
-                totalHours += ChronoUnit.MINUTES.between(
-                        ticket.getCreatedDate(), ticket.getUpdatedDate()) / 60.0;
-            }
-            avgResolutionTime = formatDuration(totalHours / resolvedTickets.size());
-        }
-
-        // Customer satisfaction (mock or aggregate for now)
-        String customerSatisfaction = String.format("%.1f/5", 4.2); // Example value
-
-        // Response rate (percentage of tickets with first response within SLA)
-        int responseSLAMet = 0;
-        for (Ticket ticket : recentTickets) {
-            List<Comment> comments = commentRepository.findByTicketOrderByCreatedDateAsc(ticket);
-            if (!comments.isEmpty()) {
-                Comment firstComment = comments.get(0);
-                if (ChronoUnit.HOURS.between(ticket.getCreatedDate(), firstComment.getCreatedDate()) <= 4) {
-                    responseSLAMet++;
-                }
-            }
+    private static String slaPercentage(LatencyHistogram histogram, double hours, long totalTickets) {
+        if (totalTickets == 0) {
+            return "0%";
         }
-        String responseRate = recentTickets.isEmpty() ? "0%" :
-                String.format("%d%%", (responseSLAMet * 100) / recentTickets.size());
-
-        return PerformanceMetricsDTO.StatsData.builder()
-                .ticketsAssigned(recentTickets.size())
-                .ticketsResolved(resolvedTickets.size())
-                .averageResolutionTime(avgResolutionTime)
-                .customerSatisfaction(customerSatisfaction)
-                .responseRate(responseRate)
-                .build();
-    }
-
-    // Helper methods for performance metric calculations
-
-    private int calculateResolutionSpeedScore(List<Ticket> resolvedTickets) {
-        if (resolvedTickets.isEmpty()) {
-            return 50; // Neutral score for no data
-        }
-
-        // Calculate average resolution time in hours
-        double totalHours = 0;
-        for (Ticket ticket : resolvedTickets) {
-            totalHours += ChronoUnit.MINUTES.between(
-                    ticket.getCreatedDate(), ticket.getUpdatedDate()) / 60.0;
-        }
-        double avgHours = totalHours / resolvedTickets.size();
-
-        // Score based on average hours (example scoring system)
-        // Lower is better: <8 hours = 90-100, 8-24 hours = 70-89, 24-48 hours = 50-69, >48 hours = below 50
-        if (avgHours < 4) return 100;
-        if (avgHours < 8) return 90;
-        if (avgHours < 16) return 80;
-        if (avgHours < 24) return 70;
-        if (avgHours < 36) return 60;
-        if (avgHours < 48) return 50;
-        if (avgHours < 72) return 40;
-        return 30;
+        long met = histogram.countAtOrBelow((long) (hours * 3600));
+        return String.format("%d%%", (met * 100) / totalTickets);
     }
 
-    private int calculateFirstResponseTimeScore(List<Ticket> tickets) {
-        if (tickets.isEmpty()) {
-            return 50; // Neutral score for no data
-        }
-
-        int ticketsWithResponses = 0;
-        double totalResponseHours = 0;
-
-        for (Ticket ticket : tickets) {
-            List<Comment> comments = commentRepository.findByTicketOrderByCreatedDateAsc(ticket);
-            if (!comments.isEmpty()) {
-                Comment firstComment = comments.get(0);
-                totalResponseHours += ChronoUnit.MINUTES.between(
-                        ticket.getCreatedDate(), firstComment.getCreatedDate()) / 60.0;
-                ticketsWithResponses++;
-            }
-        }
-
-        if (ticketsWithResponses == 0) {
-            return 50; // No responses yet
-        }
+    // Helper methods
 
-        double avgHours = totalResponseHours / ticketsWithResponses;
-
-        // Score based on average hours (example scoring system)
-        // Lower is better: <1 hour = 90-100, 1-4 hours = 70-89, 4-8 hours = 50-69, >8 hours = below 50
-        if (avgHours < 0.5) return 100;
-        if (avgHours < 1) return 90;
-        if (avgHours < 2) return 80;
-        if (avgHours < 4) return 70;
-        if (avgHours < 6) return 60;
-        if (avgHours < 8) return 50;
-        if (avgHours < 12) return 40;
-        return 30;
+    private List<Integer> toList(int[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toList());
     }
 
-    private int calculateTicketsResolvedScore(int resolvedCount) {
-        // Score based on number of tickets resolved (example scoring system)
-        // Higher is better: >30 = 90-100, 20-30 = 70-89, 10-20 = 50-69, <10 = below 50
-        if (resolvedCount >= 40) return 100;
-        if (resolvedCount >= 30) return 90;
-        if (resolvedCount >= 25) return 80;
-        if (resolvedCount >= 20) return 70;
-        if (resolvedCount >= 15) return 60;
-        if (resolvedCount >= 10) return 50;
-        if (resolvedCount >= 5) return 40;
-        return 30;
+    private List<Double> toList(double[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toList());
     }
 
-    private int calculateCustomerSatisfactionScore(List<Ticket> resolvedTickets) {
-        if (resolvedTickets.isEmpty()) {
-            return 50; // Neutral score for no data
-        }
+    /**
+     * Per-bucket mean and p90 plus an overall histogram. Values must arrive in bucket order,
+     * so only the current bucket's histogram is held in memory.
+     */
+    private static final class LatencySeries {
+        private final double[] meanHours;
+        private final double[] p90Hours;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram current = new LatencyHistogram();
+        private int currentIndex = -1;
 
-        // In a real implementation, you would retrieve customer satisfaction ratings
-        // This is a placeholder implementation
-        int totalRatings = 0;
-        int ticketsWithRatings = 0;
-
-        for (Ticket ticket : resolvedTickets) {
-            // Assuming tickets might have a rating field or related rating entity
-            // For this example, we'll create a mock rating between 1-5
-            if (ticket.getStatus() == Ticket.Status.CLOSED) {
-                // Mock a satisfaction rating
-                int rating = 3 + (ticket.getId().hashCode() % 3); // Generates 1-5 based on ticket ID
-                if (rating < 1) rating = 3; // Ensure a reasonable rating
-                if (rating > 5) rating = 5;
-
-                totalRatings += rating;
-                ticketsWithRatings++;
-            }
+        LatencySeries(int size) {
+            this.meanHours = new double[size];
+            this.p90Hours = new double[size];
         }
 
-        if (ticketsWithRatings == 0) {
-            return 50; // No ratings yet
+        void record(int index, long seconds) {
+            moveTo(index);
+            current.record(seconds);
         }
 
-        double avgRating = (double) totalRatings / ticketsWithRatings;
-
-        // Score based on average rating (example scoring system)
-        // 5 = 100, 4 = 80, 3 = 60, 2 = 40, 1 = 20
-        return (int) (avgRating * 20);
-    }
-
-    private int calculateCommunicationQualityScore(User agent) {
-        // This could be based on number of comments, updates, etc.
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Comment> comments = commentRepository.findByAuthorAndCreatedDateAfter(agent, thirtyDaysAgo);
-
-        if (comments.isEmpty()) {
-            return 50; // Neutral score for no data
-        }
-
-        // Calculate average comment length and frequency
-        List<Ticket> assignedTickets = ticketRepository.findByAssignedToAndCreatedDateAfter(agent, thirtyDaysAgo);
-
-        // Frequency: comments per ticket
-        double commentsPerTicket = assignedTickets.isEmpty() ? 0 :
-                (double) comments.size() / assignedTickets.size();
-
-        // Average length (assume comments have a content field)
-        int totalLength = 0;
-        for (Comment comment : comments) {
-            if (comment.getContent() != null) {
-                totalLength += comment.getContent().length();
-            }
+        void add(int index, LatencyHistogram histogram) {
+            moveTo(index);
+            current.add(histogram);
         }
-        double avgLength = comments.isEmpty() ? 0 : (double) totalLength / comments.size();
-
-        // Combined score based on frequency and length
-        int frequencyScore = calculateFrequencyScore(commentsPerTicket);
-        int lengthScore = calculateLengthScore(avgLength);
-
-        return (frequencyScore + lengthScore) / 2;
-    }
-
-    private int calculateFrequencyScore(double commentsPerTicket) {
-        if (commentsPerTicket >= 5) return 100;
-        if (commentsPerTicket >= 4) return 90;
-        if (commentsPerTicket >= 3) return 80;
-        if (commentsPerTicket >= 2.5) return 70;
-        if (commentsPerTicket >= 2) return 60;
-        if (commentsPerTicket >= 1.5) return 50;
-        if (commentsPerTicket >= 1) return 40;
-        return 30;
-    }
-
-    private int calculateLengthScore(double avgLength) {
-        if (avgLength >= 200) return 100;
-        if (avgLength >= 150) return 90;
-        if (avgLength >= 120) return 80;
-        if (avgLength >= 100) return 70;
-        if (avgLength >= 80) return 60;
-        if (avgLength >= 60) return 50;
-        if (avgLength >= 40) return 40;
-        return 30;
-    }
 
-    private int calculateTicketQualityScore(List<Ticket> resolvedTickets) {
-        if (resolvedTickets.isEmpty()) {
-            return 50; // Neutral score for no data
+        void finish() {
+            moveTo(-1);
         }
 
-        // Factors that could indicate quality:
-        // 1. No reopening of tickets
-        // 2. Resolution matches actual issue category
-        // 3. Clear documentation in resolution notes
-
-        // For this example, we'll focus on reopening rate
-        int reopenedCount = 0;
-        for (Ticket ticket : resolvedTickets) {
-            // Check if ticket has been reopened (simplified)
-            // In a real implementation, you would check ticket history
-            if (ticket.getStatus() == Ticket.Status.REOPENED ||
-                    (ticket.getStatus() == Ticket.Status.RESOLVED && hasMultipleStatusChanges(ticket))) {
-                reopenedCount++;
+        private void moveTo(int index) {
+            if (index == currentIndex) {
+                return;
             }
-        }
-
-        double reopenRate = (double) reopenedCount / resolvedTickets.size();
-
-        // Score based on reopen rate (lower is better)
-        if (reopenRate <= 0.01) return 100; // Less than 1%
-        if (reopenRate <= 0.03) return 90;  // Less than 3%
-        if (reopenRate <= 0.05) return 80;  // Less than 5%
-        if (reopenRate <= 0.08) return 70;  // Less than 8%
-        if (reopenRate <= 0.12) return 60;  // Less than 12%
-        if (reopenRate <= 0.15) return 50;  // Less than 15%
-        if (reopenRate <= 0.20) return 40;  // Less than 20%
-        return 30;                          // 20% or higher
-    }
-
-    // Helper method to determine if a ticket has multiple status changes
-    private boolean hasMultipleStatusChanges(Ticket ticket) {
-        // This implementation depends on your data model
-        // Option 1: If you have a history or audit table
-        // return ticketHistoryRepository.countStatusChangesByTicketId(ticket.getId()) > 2;
-
-        // Option 2: If you can check comments for status changes
-        List<Comment> comments = commentRepository.findByTicketOrderByCreatedDateAsc(ticket);
-        int statusChangeComments = 0;
-        for (Comment comment : comments) {
-            // Assuming comments might have a type or content that indicates status change
-            // This is just an example, adjust based on your actual data model
-            if (comment.getContent() != null &&
-                    (comment.getContent().contains("changed status") ||
-                            comment.getContent().contains("status update"))) {
-                statusChangeComments++;
+            if (currentIndex >= 0 && !current.isEmpty()) {
+                meanHours[currentIndex] = current.getMean() / 3600;
+                p90Hours[currentIndex] = current.valueAtPercentile(90) / 3600.0;
+                total.add(current);
             }
-        }
-        return statusChangeComments > 2;
-    }
-
-    private String formatDuration(double hours) {
-        if (hours < 1) {
-            return String.format("%.0f minutes", hours * 60);
-        } else if (hours < 24) {
-            return String.format("%.1f hours", hours);
-        } else {
-            return String.format("%.1f days", hours / 24);
+            current.reset();
+            currentIndex = index;
         }
     }
-}
\ No newline at end of file
+}
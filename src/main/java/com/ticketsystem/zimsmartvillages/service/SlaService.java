@@ -0,0 +1,392 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.SlaBreachDto;
+import com.ticketsystem.zimsmartvillages.dto.SlaPolicyDto;
+import com.ticketsystem.zimsmartvillages.event.SlaBreachedEvent;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
+import com.ticketsystem.zimsmartvillages.model.SlaBreach;
+import com.ticketsystem.zimsmartvillages.model.SlaPolicy;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.repository.SlaBreachRepository;
+import com.ticketsystem.zimsmartvillages.repository.SlaPolicyRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.SlaBreachKey;
+import com.ticketsystem.zimsmartvillages.repository.projection.SlaCandidateRow;
+import com.ticketsystem.zimsmartvillages.scheduling.HierarchicalTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Tracks first-response and resolution deadlines of open tickets against per-priority
+ * {@link SlaPolicy} targets, and escalates tickets that miss them.
+ * <p>
+ * Pending deadlines live in a {@link HierarchicalTimerWheel} that is rebuilt from the database at
+ * startup and kept current from {@link TicketChangedEvent}s after each commit, so no query runs
+ * until a deadline actually passes. The wheel is advanced once a tick; each expired deadline is
+ * checked against the ticket as it is now, and if it was really missed a {@link SlaBreach} is
+ * recorded, the ticket's priority is raised one step and a {@link SlaBreachedEvent} is published.
+ * Deadlines are measured from the ticket's creation using the targets of its current priority.
+ */
+@Service
+public class SlaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaService.class);
+
+    private static final SlaBreach.Type[] TYPES = SlaBreach.Type.values();
+
+    // Targets used until an administrator changes them: first response and resolution, in minutes
+    private static final Map<Ticket.Priority, int[]> DEFAULT_TARGETS = Map.of(
+            Ticket.Priority.LOW, new int[]{8 * 60, 72 * 60},
+            Ticket.Priority.MEDIUM, new int[]{4 * 60, 24 * 60},
+            Ticket.Priority.HIGH, new int[]{60, 8 * 60},
+            Ticket.Priority.CRITICAL, new int[]{30, 4 * 60});
+
+    private final TicketRepository ticketRepository;
+    private final SlaPolicyRepository slaPolicyRepository;
+    private final SlaBreachRepository slaBreachRepository;
+    private final TicketService ticketService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long tickMs;
+    private final Object rebuildLock = new Object();
+
+    // Minutes by priority ordinal, replaced whole when a policy changes
+    private volatile int[][] targets;
+
+    // Guarded by this. While a rebuild runs, changes are also kept in pending (null to cancel)
+    // and replayed onto the new wheel, since its rows may have been read before they happened.
+    private HierarchicalTimerWheel wheel;
+    private Map<Long, Long> pending;
+
+    public SlaService(TicketRepository ticketRepository, SlaPolicyRepository slaPolicyRepository,
+                      SlaBreachRepository slaBreachRepository, TicketService ticketService,
+                      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                      @Value("${app.sla.enabled:true}") boolean enabled,
+                      @Value("${app.sla.tick-ms:1000}") long tickMs) {
+        this.ticketRepository = ticketRepository;
+        this.slaPolicyRepository = slaPolicyRepository;
+        this.slaBreachRepository = slaBreachRepository;
+        this.ticketService = ticketService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.tickMs = tickMs;
+        this.wheel = new HierarchicalTimerWheel(currentTick());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        loadPolicies();
+        Thread.ofVirtual().name("sla-wheel-rebuild").start(this::rebuild);
+    }
+
+    /**
+     * Replaces the pending deadlines with ones computed from the open tickets in the database.
+     *
+     * @return the number of deadlines scheduled
+     */
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new HashMap<>();
+            }
+            HierarchicalTimerWheel rebuilt;
+            try {
+                rebuilt = readOnlyTransaction.execute(status -> loadWheel());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach((key, deadline) -> {
+                    if (deadline != null) {
+                        rebuilt.schedule(key, deadline);
+                    } else {
+                        rebuilt.cancel(key);
+                    }
+                });
+                pending = null;
+                wheel = rebuilt;
+            }
+            logger.info("Scheduled {} SLA deadlines", rebuilt.size());
+            return rebuilt.size();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketSnapshot before = event.before();
+        TicketSnapshot after = event.after();
+        if (before != null && after != null && before.status() == after.status()
+                && before.priority() == after.priority()
+                && Objects.equals(before.firstResponseAt(), after.firstResponseAt())) {
+            return;
+        }
+
+        if (!enabled || targets == null) {
+            // Not started yet; the rebuild at startup reads this change from the database
+            return;
+        }
+        long ticketId = event.ticketId();
+        synchronized (this) {
+            if (after == null || after.isResolved() || after.createdDate() == null) {
+                apply(key(ticketId, SlaBreach.Type.FIRST_RESPONSE), null);
+                apply(key(ticketId, SlaBreach.Type.RESOLUTION), null);
+                return;
+            }
+            apply(key(ticketId, SlaBreach.Type.FIRST_RESPONSE), after.firstResponseAt() == null
+                    ? tickOf(deadline(after.createdDate(), after.priority(), SlaBreach.Type.FIRST_RESPONSE)) : null);
+            apply(key(ticketId, SlaBreach.Type.RESOLUTION),
+                    tickOf(deadline(after.createdDate(), after.priority(), SlaBreach.Type.RESOLUTION)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sla.tick-ms:1000}")
+    public void tick() {
+        if (!enabled || targets == null) {
+            return;
+        }
+        List<Long> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(currentTick(), (key, deadlineTick) -> expired.add(key));
+        }
+        for (Long key : expired) {
+            try {
+                handleExpired(key);
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("SLA breach of key {} was already recorded", key);
+            } catch (OptimisticLockingFailureException e) {
+                // The ticket was written while being escalated; check it again on the next tick
+                synchronized (this) {
+                    apply(key, currentTick() + 1);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Could not process SLA deadline of ticket {}", key >>> 1, e);
+            }
+        }
+    }
+
+    public List<SlaPolicyDto> getPolicies() {
+        return slaPolicyRepository.findAll().stream()
+                .sorted((a, b) -> a.getPriority().compareTo(b.getPriority()))
+                .map(this::convertToDto)
+                .toList();
+    }
+
+    /**
+     * Changes the targets of one priority. Pending deadlines are recomputed in the background.
+     */
+    public SlaPolicyDto updatePolicy(Ticket.Priority priority, SlaPolicyDto dto) {
+        SlaPolicy policy = slaPolicyRepository.findByPriority(priority).orElseGet(() -> {
+            SlaPolicy created = new SlaPolicy();
+            created.setPriority(priority);
+            return created;
+        });
+        policy.setFirstResponseMinutes(dto.getFirstResponseMinutes());
+        policy.setResolutionMinutes(dto.getResolutionMinutes());
+        SlaPolicy saved = slaPolicyRepository.save(policy);
+
+        loadPolicies();
+        if (enabled) {
+            Thread.ofVirtual().name("sla-wheel-rebuild").start(this::rebuild);
+        }
+        return convertToDto(saved);
+    }
+
+    public List<SlaBreachDto> getBreaches(Long ticketId) {
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new ResourceNotFoundException("Ticket not found with id: " + ticketId);
+        }
+        return slaBreachRepository.findByTicketIdOrderByBreachedAt(ticketId).stream()
+                .map(this::convertToDto)
+                .toList();
+    }
+
+    public synchronized int getPendingDeadlines() {
+        return wheel.size();
+    }
+
+    // Creates missing policies with the default targets and caches all of them
+    private void loadPolicies() {
+        int[][] loaded = new int[Ticket.Priority.values().length][];
+        for (SlaPolicy policy : slaPolicyRepository.findAll()) {
+            loaded[policy.getPriority().ordinal()] =
+                    new int[]{policy.getFirstResponseMinutes(), policy.getResolutionMinutes()};
+        }
+        for (Ticket.Priority priority : Ticket.Priority.values()) {
+            if (loaded[priority.ordinal()] == null) {
+                int[] defaults = DEFAULT_TARGETS.get(priority);
+                SlaPolicy policy = new SlaPolicy();
+                policy.setPriority(priority);
+                policy.setFirstResponseMinutes(defaults[0]);
+                policy.setResolutionMinutes(defaults[1]);
+                slaPolicyRepository.save(policy);
+                loaded[priority.ordinal()] = defaults.clone();
+            }
+        }
+        targets = loaded;
+    }
+
+    private HierarchicalTimerWheel loadWheel() {
+        Set<Long> breached = new HashSet<>();
+        for (SlaBreachKey breach : slaBreachRepository.findKeysOfOpenTickets(ReportUtils.RESOLVED_STATUSES)) {
+            breached.add(key(breach.getTicketId(), breach.getType()));
+        }
+
+        HierarchicalTimerWheel rebuilt = new HierarchicalTimerWheel(currentTick());
+        try (Stream<SlaCandidateRow> rows = ticketRepository.streamSlaCandidates(ReportUtils.RESOLVED_STATUSES)) {
+            rows.forEach(row -> {
+                if (row.getCreatedDate() == null) {
+                    return;
+                }
+                long firstResponse = key(row.getId(), SlaBreach.Type.FIRST_RESPONSE);
+                if (row.getFirstResponseAt() == null && !breached.contains(firstResponse)) {
+                    rebuilt.schedule(firstResponse,
+                            tickOf(deadline(row.getCreatedDate(), row.getPriority(), SlaBreach.Type.FIRST_RESPONSE)));
+                }
+                long resolution = key(row.getId(), SlaBreach.Type.RESOLUTION);
+                if (!breached.contains(resolution)) {
+                    rebuilt.schedule(resolution,
+                            tickOf(deadline(row.getCreatedDate(), row.getPriority(), SlaBreach.Type.RESOLUTION)));
+                }
+            });
+        }
+        return rebuilt;
+    }
+
+    // Re-checks an expired deadline against the ticket and records the breach if it still stands
+    private void handleExpired(long key) {
+        long ticketId = key >>> 1;
+        SlaBreach.Type type = TYPES[(int) (key & 1)];
+        transactionTemplate.executeWithoutResult(status -> {
+            Ticket ticket = ticketRepository.findById(ticketId).orElse(null);
+            if (ticket == null || ticket.getCreatedDate() == null
+                    || ReportUtils.RESOLVED_STATUSES.contains(ticket.getStatus())
+                    || (type == SlaBreach.Type.FIRST_RESPONSE && ticket.getFirstResponseAt() != null)) {
+                return;
+            }
+            LocalDateTime deadline = deadline(ticket.getCreatedDate(), ticket.getPriority(), type);
+            if (tickOf(deadline) > currentTick()) {
+                // Targets or priority changed after the deadline was scheduled
+                synchronized (this) {
+                    apply(key, tickOf(deadline));
+                }
+                return;
+            }
+            if (slaBreachRepository.existsByTicketIdAndType(ticketId, type)) {
+                return;
+            }
+
+            Ticket.Priority priority = ticket.getPriority();
+            Ticket.Priority escalatedTo = escalationOf(priority);
+            SlaBreach breach = new SlaBreach();
+            breach.setTicketId(ticketId);
+            breach.setType(type);
+            breach.setPriority(priority);
+            breach.setEscalatedTo(escalatedTo);
+            breach.setDeadline(deadline);
+            breach.setBreachedAt(LocalDateTime.now());
+            slaBreachRepository.saveAndFlush(breach);
+
+            if (escalatedTo != null) {
+                ticketService.escalatePriority(ticketId, escalatedTo);
+            }
+            eventPublisher.publishEvent(new SlaBreachedEvent(ticketId, type, priority, escalatedTo, deadline));
+            logger.info("Ticket {} missed its {} deadline of {}; priority {} -> {}",
+                    ticketId, type, deadline, priority, escalatedTo != null ? escalatedTo : priority);
+        });
+    }
+
+    // Caller holds the lock
+    private void apply(long key, Long deadlineTick) {
+        if (deadlineTick != null) {
+            wheel.schedule(key, deadlineTick);
+        } else {
+            wheel.cancel(key);
+        }
+        if (pending != null) {
+            pending.put(key, deadlineTick);
+        }
+    }
+
+    private LocalDateTime deadline(LocalDateTime createdDate, Ticket.Priority priority, SlaBreach.Type type) {
+        // Tickets without a priority are held to the MEDIUM targets
+        int[] minutes = targets[(priority != null ? priority : Ticket.Priority.MEDIUM).ordinal()];
+        return createdDate.plusMinutes(minutes[type == SlaBreach.Type.FIRST_RESPONSE ? 0 : 1]);
+    }
+
+    private static Ticket.Priority escalationOf(Ticket.Priority priority) {
+        if (priority == null) {
+            return Ticket.Priority.HIGH;
+        }
+        Ticket.Priority[] priorities = Ticket.Priority.values();
+        return priority.ordinal() + 1 < priorities.length ? priorities[priority.ordinal() + 1] : null;
+    }
+
+    private static long key(long ticketId, SlaBreach.Type type) {
+        return ticketId << 1 | type.ordinal();
+    }
+
+    private long currentTick() {
+        return System.currentTimeMillis() / tickMs;
+    }
+
+    // Rounded up, so a deadline never fires before it has passed
+    private long tickOf(LocalDateTime dateTime) {
+        long millis = dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(millis + tickMs - 1, tickMs);
+    }
+
+    private SlaPolicyDto convertToDto(SlaPolicy policy) {
+        SlaPolicyDto dto = new SlaPolicyDto();
+        dto.setPriority(policy.getPriority());
+        dto.setFirstResponseMinutes(policy.getFirstResponseMinutes());
+        dto.setResolutionMinutes(policy.getResolutionMinutes());
+        return dto;
+    }
+
+    private SlaBreachDto convertToDto(SlaBreach breach) {
+        SlaBreachDto dto = new SlaBreachDto();
+        dto.setId(breach.getId());
+        dto.setTicketId(breach.getTicketId());
+        dto.setType(breach.getType());
+        dto.setPriority(breach.getPriority());
+        dto.setEscalatedTo(breach.getEscalatedTo());
+        dto.setDeadline(breach.getDeadline());
+        dto.setBreachedAt(breach.getBreachedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,515 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.dto.TicketImportDto;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.exception.ConflictException;
+import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketImport;
+import com.ticketsystem.zimsmartvillages.model.TicketStatusTransition;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.TicketImportRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketStatusTransitionRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.UserSummary;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Imports tickets from CSV or NDJSON in the layout {@link ExportService} writes; the export's
+ * {@code id} column is ignored and an optional {@code textContent} column is read.
+ * <p>
+ * The body is parsed and validated a row at a time and never held in memory. Creator and
+ * assignee usernames are resolved through a map loaded once per import. Each chunk of valid
+ * rows is inserted as JDBC batches in its own transaction, together with its status history,
+ * rollups and the import's checkpoint, so a failed import sent again under the same id skips
+ * the rows already committed. Invalid rows are rejected and counted; the rest still import.
+ * <p>
+ * Imported tickets get the same events as created ones, so open tickets enter SLA tracking with
+ * deadlines counted from their {@code createdDate}, and any that are already overdue escalate.
+ */
+@Service
+public class TicketImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketImportService.class);
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final TicketImportRepository importRepository;
+    private final UserRepository userRepository;
+    private final TicketStatusTransitionRepository transitionRepository;
+    private final TicketRollupService ticketRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    // Imports in progress on this instance; a second request for the same id is refused
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public TicketImportService(TicketImportRepository importRepository, UserRepository userRepository,
+                               TicketStatusTransitionRepository transitionRepository,
+                               TicketRollupService ticketRollupService, ApplicationEventPublisher eventPublisher,
+                               EntityManager entityManager, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.tickets.import.chunk-size:1000}") int chunkSize) {
+        this.importRepository = importRepository;
+        this.userRepository = userRepository;
+        this.transitionRepository = transitionRepository;
+        this.ticketRollupService = ticketRollupService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports every row of {@code body}. Without an import id a new one is generated; with the
+     * id of a completed import nothing is read and its totals are returned.
+     */
+    public TicketImportDto importTickets(InputStream body, ExportFormat format, String importId) throws IOException {
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        if (!IMPORT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("importId must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+        if (!running.add(id)) {
+            throw new ConflictException("Import " + id + " is already running");
+        }
+        try {
+            TicketImport checkpoint = transactionTemplate.execute(status -> start(id));
+            if (checkpoint.getStatus() == TicketImport.Status.COMPLETED) {
+                return TicketImportDto.of(checkpoint, List.of());
+            }
+            try {
+                return run(body, format, checkpoint);
+            } catch (IOException | RuntimeException e) {
+                markFailed(id, e);
+                throw e;
+            }
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    public TicketImportDto getImport(String importId) {
+        return importRepository.findById(importId)
+                .map(ticketImport -> TicketImportDto.of(ticketImport, List.of()))
+                .orElseThrow(() -> new ResourceNotFoundException("Import not found with id: " + importId));
+    }
+
+    private TicketImport start(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        TicketImport checkpoint = importRepository.findById(id).orElseGet(() -> {
+            TicketImport created = new TicketImport();
+            created.setId(id);
+            created.setStartedAt(now);
+            return created;
+        });
+        if (checkpoint.getStatus() != TicketImport.Status.COMPLETED) {
+            checkpoint.setStatus(TicketImport.Status.RUNNING);
+            checkpoint.setUpdatedAt(now);
+            checkpoint.setFinishedAt(null);
+            checkpoint.setLastError(null);
+        }
+        return importRepository.save(checkpoint);
+    }
+
+    private TicketImportDto run(InputStream body, ExportFormat format, TicketImport checkpoint) throws IOException {
+        long startedAt = System.nanoTime();
+        long skip = checkpoint.getRowsRead();
+        Map<String, Long> userIds = new HashMap<>();
+        for (UserSummary user : userRepository.findAllSummaries()) {
+            userIds.put(user.getUsername(), user.getId());
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowReader rows = format == ExportFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader, objectMapper);
+        List<TicketImportDto.RowError> errors = new ArrayList<>();
+        List<PendingTicket> pending = new ArrayList<>(chunkSize);
+        int rejected = 0;
+        long row = 0;
+        while (true) {
+            Map<String, String> values;
+            String error = null;
+            try {
+                values = rows.next();
+            } catch (IllegalArgumentException e) {
+                // A malformed record still counts as a row, so the count stays in step with the body
+                values = Map.of();
+                error = e.getMessage();
+            }
+            if (values == null) {
+                break;
+            }
+            if (++row <= skip) {
+                continue;
+            }
+            if (error == null) {
+                try {
+                    pending.add(parse(values, userIds));
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new TicketImportDto.RowError(row, error));
+                }
+            }
+            if (pending.size() + rejected == chunkSize) {
+                checkpoint = writeChunk(checkpoint.getId(), pending, rejected, row, false);
+                pending.clear();
+                rejected = 0;
+            }
+        }
+        checkpoint = writeChunk(checkpoint.getId(), pending, rejected, Math.max(row, skip), true);
+
+        logger.info("Import {} finished: {} rows read, {} imported, {} rejected in {} ms", checkpoint.getId(),
+                checkpoint.getRowsRead(), checkpoint.getImported(), checkpoint.getRejected(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return TicketImportDto.of(checkpoint, errors);
+    }
+
+    // Inserts one chunk and moves the checkpoint past it in the same transaction
+    private TicketImport writeChunk(String id, List<PendingTicket> pending, int rejected, long rowsRead, boolean last) {
+        TicketImport checkpoint = transactionTemplate.execute(status -> {
+            List<Ticket> tickets = new ArrayList<>(pending.size());
+            for (PendingTicket p : pending) {
+                Ticket ticket = p.ticket();
+                ticket.setCreator(entityManager.getReference(User.class, p.creatorId()));
+                if (p.assigneeId() != null) {
+                    ticket.setAssignedTo(entityManager.getReference(User.class, p.assigneeId()));
+                }
+                entityManager.persist(ticket);
+                tickets.add(ticket);
+            }
+
+            List<TicketStatusTransition> transitions = new ArrayList<>(tickets.size());
+            List<TicketChangedEvent> changes = new ArrayList<>(tickets.size());
+            for (Ticket ticket : tickets) {
+                // Only the imported status is known, so the history starts there
+                TicketStatusTransition transition = new TicketStatusTransition();
+                transition.setTicketId(ticket.getId());
+                transition.setToStatus(ticket.getStatus());
+                transition.setChangedBy(ticket.getCreator());
+                transition.setChangedAt(ticket.getCreatedDate());
+                transitions.add(transition);
+                changes.add(new TicketChangedEvent(null, TicketSnapshot.of(ticket)));
+            }
+            transitionRepository.saveAll(transitions);
+            // Written out now so the rollup queries' auto-flush has no entities left to dirty-check
+            entityManager.flush();
+            entityManager.clear();
+            ticketRollupService.applyAll(changes);
+            changes.forEach(eventPublisher::publishEvent);
+
+            TicketImport current = importRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Import not found with id: " + id));
+            LocalDateTime now = LocalDateTime.now();
+            current.setRowsRead(rowsRead);
+            current.setImported(current.getImported() + tickets.size());
+            current.setRejected(current.getRejected() + rejected);
+            current.setUpdatedAt(now);
+            if (last) {
+                current.setStatus(TicketImport.Status.COMPLETED);
+                current.setFinishedAt(now);
+            }
+            return current;
+        });
+        logger.debug("Import {}: {} rows read, {} imported", id, checkpoint.getRowsRead(), checkpoint.getImported());
+        return checkpoint;
+    }
+
+    private void markFailed(String id, Exception cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> importRepository.findById(id).ifPresent(checkpoint -> {
+                String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+                LocalDateTime now = LocalDateTime.now();
+                checkpoint.setStatus(TicketImport.Status.FAILED);
+                checkpoint.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                checkpoint.setUpdatedAt(now);
+                checkpoint.setFinishedAt(now);
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Could not record the failure of import {}", id, e);
+        }
+        logger.warn("Import {} failed: {}", id, cause.toString());
+    }
+
+    private static PendingTicket parse(Map<String, String> values, Map<String, Long> userIds) {
+        String title = values.get("title");
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        String creator = values.get("creator");
+        if (creator == null) {
+            throw new IllegalArgumentException("creator is required");
+        }
+        Long creatorId = userIds.get(creator);
+        if (creatorId == null) {
+            throw new IllegalArgumentException("User not found with username: " + creator);
+        }
+        String assignee = values.get("assignedTo");
+        Long assigneeId = null;
+        if (assignee != null) {
+            assigneeId = userIds.get(assignee);
+            if (assigneeId == null) {
+                throw new IllegalArgumentException("User not found with username: " + assignee);
+            }
+        }
+
+        Ticket ticket = new Ticket();
+        ticket.setTitle(title);
+        ticket.setDescription(values.get("description"));
+        ticket.setStatus(enumValue(Ticket.Status.class, values, "status", Ticket.Status.OPEN));
+        ticket.setPriority(enumValue(Ticket.Priority.class, values, "priority", Ticket.Priority.MEDIUM));
+        ticket.setContentType(enumValue(Ticket.ContentType.class, values, "contentType", Ticket.ContentType.TEXT));
+        String textContent = values.get("textContent");
+        ticket.setTextContent(textContent == null && ticket.getContentType() == Ticket.ContentType.TEXT
+                ? ticket.getDescription() : textContent);
+
+        LocalDateTime created = dateValue(values, "createdDate");
+        LocalDateTime updated = dateValue(values, "updatedDate");
+        if (created != null && updated != null && updated.isBefore(created)) {
+            throw new IllegalArgumentException("updatedDate is before createdDate");
+        }
+        ticket.setCreatedDate(created);
+        ticket.setUpdatedDate(updated);
+        ticket.setFirstResponseAt(dateValue(values, "firstResponseAt"));
+        // Resolved tickets without their timestamps are taken to have been resolved when last updated
+        LocalDateTime lastChange = updated != null ? updated : created != null ? created : LocalDateTime.now();
+        LocalDateTime resolved = dateValue(values, "resolvedAt");
+        LocalDateTime closed = dateValue(values, "closedAt");
+        if (ticket.getStatus() == Ticket.Status.RESOLVED || ticket.getStatus() == Ticket.Status.CLOSED) {
+            resolved = resolved != null ? resolved : lastChange;
+        }
+        if (ticket.getStatus() == Ticket.Status.CLOSED) {
+            closed = closed != null ? closed : lastChange;
+        }
+        ticket.setResolvedAt(resolved);
+        ticket.setClosedAt(closed);
+        return new PendingTicket(ticket, creatorId, assigneeId);
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, Map<String, String> values, String column, E fallback) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static LocalDateTime dateValue(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    // A validated row waiting for its chunk; users are attached inside the chunk's transaction
+    private record PendingTicket(Ticket ticket, Long creatorId, Long assigneeId) {
+    }
+
+    private interface RowReader {
+        /**
+         * The next row by column name, or {@code null} at the end of the body. A malformed row is
+         * consumed and reported with an {@link IllegalArgumentException}.
+         */
+        Map<String, String> next() throws IOException;
+    }
+
+    /**
+     * RFC 4180 records, the first naming the columns. Empty unquoted fields read as
+     * {@code null}, matching how the export writes them.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean ended;
+        private final String[] columns;
+
+        CsvRowReader(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                columns = new String[0];
+                return;
+            }
+            columns = new String[header.size()];
+            for (int i = 0; i < columns.length; i++) {
+                String column = header.get(i) != null ? header.get(i).trim() : "";
+                columns[i] = i == 0 && column.startsWith("\uFEFF") ? column.substring(1) : column;
+            }
+            List<String> names = Arrays.asList(columns);
+            if (!names.contains("title") || !names.contains("creator")) {
+                throw new IllegalArgumentException("CSV header must include the title and creator columns");
+            }
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0) == null);
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " fields but found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                values.put(columns[i], fields.get(i));
+            }
+            return values;
+        }
+
+        private List<String> readRecord() throws IOException {
+            if (ended) {
+                return null;
+            }
+            int c = read();
+            if (skipLineFeed && c == '\n') {
+                c = read();
+            }
+            skipLineFeed = false;
+            if (c == -1) {
+                ended = true;
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        ended = true;
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',' || c == '\r' || c == '\n' || c == -1) {
+                    fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                    if (c != ',') {
+                        skipLineFeed = c == '\r';
+                        ended = c == -1;
+                        return fields;
+                    }
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+
+    // One JSON object per line; blank lines are skipped
+    private static final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+
+        NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            node.fields().forEachRemaining(field ->
+                    values.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText()));
+            return values;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills in {@code firstResponseAt}, {@code resolvedAt} and {@code closedAt} for tickets written
+ * before those columns existed. Tickets are processed in id ranges, one transaction per range,
+ * and only columns that are still empty are touched, so the job can be re-run safely.
+ * <p>
+ * First response comes from the earliest comment by someone other than the creator. For
+ * resolution and closing the best record available is the ticket's last update.
+ */
+@Service
+public class TicketLifecycleBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketLifecycleBackfillService.class);
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final TicketRepository ticketRepository;
+    private final TicketRollupService ticketRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    public TicketLifecycleBackfillService(TicketRepository ticketRepository, TicketRollupService ticketRollupService,
+                                          PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.ticketRollupService = ticketRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return the number of ticket rows updated
+     */
+    public int backfill() {
+        Long maxId = ticketRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+
+        int updated = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += CHUNK_SIZE) {
+            long from = fromId;
+            long to = fromId + CHUNK_SIZE - 1;
+            Integer chunkUpdated = transactionTemplate.execute(status ->
+                    ticketRepository.backfillFirstResponse(from, to)
+                            + ticketRepository.backfillResolvedAt(ReportUtils.RESOLVED_STATUSES, from, to)
+                            + ticketRepository.backfillClosedAt(Ticket.Status.CLOSED, from, to));
+            updated += chunkUpdated != null ? chunkUpdated : 0;
+        }
+        logger.info("Backfilled lifecycle timestamps on {} ticket rows", updated);
+
+        // Resolved rollups are keyed by resolvedAt, so they have to follow the backfill
+        ticketRollupService.rebuild();
+        return updated;
+    }
+}
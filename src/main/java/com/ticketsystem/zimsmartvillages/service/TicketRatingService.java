@@ -0,0 +1,163 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.TicketRatingDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketRatingRequest;
+import com.ticketsystem.zimsmartvillages.event.TicketRatedEvent;
+import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
+import com.ticketsystem.zimsmartvillages.model.RatingCounts;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketRating;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.AgentRatingDailyRepository;
+import com.ticketsystem.zimsmartvillages.repository.CounterUpserts;
+import com.ticketsystem.zimsmartvillages.repository.TeamRatingDailyRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketRatingRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Customer satisfaction ratings of closed tickets.
+ * <p>
+ * Every rating is also counted in a per-day team row and a per-day row for the assigned agent,
+ * in the same transaction, so satisfaction over a window is a sum over at most one row per day
+ * rather than a scan of rated tickets.
+ */
+@Service
+public class TicketRatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketRatingService.class);
+
+    private final TicketRatingRepository ratingRepository;
+    private final TeamRatingDailyRepository teamRepository;
+    private final AgentRatingDailyRepository agentRepository;
+    private final TicketRepository ticketRepository;
+    private final CounterUpserts counterUpserts;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TicketRatingService(TicketRatingRepository ratingRepository, TeamRatingDailyRepository teamRepository,
+                               AgentRatingDailyRepository agentRepository, TicketRepository ticketRepository,
+                               CounterUpserts counterUpserts, ApplicationEventPublisher eventPublisher) {
+        this.ratingRepository = ratingRepository;
+        this.teamRepository = teamRepository;
+        this.agentRepository = agentRepository;
+        this.ticketRepository = ticketRepository;
+        this.counterUpserts = counterUpserts;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Rates a closed ticket on behalf of its creator, replacing any earlier rating.
+     */
+    @Transactional
+    public TicketRatingDto rateTicket(Long ticketId, TicketRatingRequest request, User currentUser) {
+        // Locked so concurrent ratings queue, including a first one that has no rating row to lock
+        Ticket ticket = ticketRepository.findForUpdateById(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
+        if (!ticket.getCreator().getId().equals(currentUser.getId())) {
+            throw new AccessDeniedException("Only the ticket creator can rate it");
+        }
+        if (ticket.getStatus() != Ticket.Status.CLOSED) {
+            throw new IllegalArgumentException("Only closed tickets can be rated");
+        }
+
+        TicketRating rating = ratingRepository.findForUpdateByTicketId(ticketId).orElse(null);
+        Long previousAgentId = null;
+        if (rating != null) {
+            previousAgentId = rating.getAgentId();
+            count(rating, -1);
+        } else {
+            rating = new TicketRating();
+            rating.setTicketId(ticketId);
+        }
+
+        rating.setAgentId(ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null);
+        rating.setRatedBy(currentUser);
+        rating.setScore(request.getScore());
+        rating.setComment(request.getComment());
+        rating.setRatedAt(LocalDateTime.now());
+        TicketRating saved = ratingRepository.save(rating);
+        count(saved, 1);
+
+        eventPublisher.publishEvent(new TicketRatedEvent(ticketId, saved.getAgentId(), previousAgentId));
+        return convertToDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public TicketRatingDto getRating(Long ticketId) {
+        return ratingRepository.findByTicketId(ticketId)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Rating not found for ticket id: " + ticketId));
+    }
+
+    /**
+     * Removes the ratings of tickets, if any, as part of deleting them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForTickets(Collection<Long> ticketIds) {
+        List<TicketRating> ratings = ratingRepository.findForUpdateByTicketIdIn(ticketIds);
+        for (TicketRating rating : ratings) {
+            count(rating, -1);
+        }
+        ratingRepository.deleteAllInBatch(ratings);
+    }
+
+    public RatingSummary getAgentSummary(Long agentId, LocalDate since) {
+        return RatingSummary.of(agentRepository.sumSince(agentId, since));
+    }
+
+    public RatingSummary getTeamSummary(LocalDate since) {
+        return RatingSummary.of(teamRepository.sumSince(since));
+    }
+
+    // Adds or removes the rating's contribution to its day's team and agent rows
+    private void count(TicketRating rating, int delta) {
+        LocalDate day = rating.getRatedAt().toLocalDate();
+        int score = rating.getScore();
+        Long agentId = rating.getAgentId();
+
+        if (delta > 0) {
+            Map<String, Long> counts = RatingCounts.of(score).toColumns();
+            counterUpserts.add("team_rating_daily", Map.of("rating_date", day), counts);
+            if (agentId != null) {
+                Map<String, Object> key = new LinkedHashMap<>();
+                key.put("agent_id", agentId);
+                key.put("rating_date", day);
+                counterUpserts.add("agent_rating_daily", key, counts);
+            }
+            return;
+        }
+
+        if (teamRepository.increment(day, score, delta) == 0) {
+            logger.warn("Team rating aggregate missing for {}; ratings for that day are off", day);
+        }
+        if (agentId != null && agentRepository.increment(agentId, day, score, delta) == 0) {
+            logger.warn("Agent rating aggregate missing for agent {} on {}", agentId, day);
+        }
+    }
+
+    private TicketRatingDto convertToDto(TicketRating rating) {
+        TicketRatingDto dto = new TicketRatingDto();
+        dto.setId(rating.getId());
+        dto.setTicketId(rating.getTicketId());
+        dto.setScore(rating.getScore());
+        dto.setComment(rating.getComment());
+        dto.setAgentId(rating.getAgentId());
+        dto.setRatedById(rating.getRatedBy().getId());
+        dto.setRatedByName(rating.getRatedBy().getFullName());
+        dto.setRatedAt(rating.getRatedAt());
+        return dto;
+    }
+}
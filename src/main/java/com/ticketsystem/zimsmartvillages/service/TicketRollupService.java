@@ -0,0 +1,315 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketDailyRollup;
+import com.ticketsystem.zimsmartvillages.model.TicketLatencyHistogram;
+import com.ticketsystem.zimsmartvillages.reporting.LatencyHistogram;
+import com.ticketsystem.zimsmartvillages.repository.CounterUpserts;
+import com.ticketsystem.zimsmartvillages.repository.TicketDailyRollupRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketLatencyHistogramRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.LatencySource;
+import com.ticketsystem.zimsmartvillages.repository.projection.RollupSourceCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link TicketDailyRollup} and {@link TicketLatencyHistogram} rows in step with the
+ * ticket table.
+ * <p>
+ * Every ticket contributes one "created" unit on the day it was created and, while it is
+ * resolved or closed, one "resolved" unit on the day it was resolved, both keyed by its current
+ * status, priority and content type. A write is applied as the difference between the ticket's
+ * contribution before and after the change, so the rollups always match what
+ * {@link #rebuild()} would compute from the raw table.
+ * <p>
+ * Latency histograms work the same way: a ticket contributes its first-response time once it
+ * has one, and its resolution time while it is resolved, to the histograms for its creation day
+ * and priority.
+ */
+@Service
+public class TicketRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketRollupService.class);
+
+
+    private final TicketDailyRollupRepository rollupRepository;
+    private final TicketRepository ticketRepository;
+    private final TicketLatencyHistogramRepository histogramRepository;
+    private final CounterUpserts counterUpserts;
+
+    public TicketRollupService(TicketDailyRollupRepository rollupRepository, TicketRepository ticketRepository,
+                               TicketLatencyHistogramRepository histogramRepository, CounterUpserts counterUpserts) {
+        this.rollupRepository = rollupRepository;
+        this.ticketRepository = ticketRepository;
+        this.histogramRepository = histogramRepository;
+        this.counterUpserts = counterUpserts;
+    }
+
+    /**
+     * Applies a single ticket change. Either side may be {@code null} for creates and deletes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(TicketSnapshot before, TicketSnapshot after) {
+        Map<RollupKey, long[]> deltas = new HashMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        write(deltas);
+
+        Map<HistogramKey, Map<Long, Integer>> latencyDeltas = new HashMap<>();
+        accumulateLatency(latencyDeltas, before, -1);
+        accumulateLatency(latencyDeltas, after, 1);
+        writeLatency(latencyDeltas);
+    }
+
+    /**
+     * Applies many ticket changes at once, writing each affected row a single time.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Collection<TicketChangedEvent> changes) {
+        Map<RollupKey, long[]> deltas = new HashMap<>();
+        Map<HistogramKey, Map<Long, Integer>> latencyDeltas = new HashMap<>();
+        for (TicketChangedEvent change : changes) {
+            accumulate(deltas, change.before(), -1);
+            accumulate(deltas, change.after(), 1);
+            accumulateLatency(latencyDeltas, change.before(), -1);
+            accumulateLatency(latencyDeltas, change.after(), 1);
+        }
+        write(deltas);
+        writeLatency(latencyDeltas);
+    }
+
+    /**
+     * Recomputes all rollup and latency histogram rows from the ticket table, replacing
+     * whatever is stored.
+     *
+     * @return the number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        Map<RollupKey, long[]> counts = new HashMap<>();
+        for (RollupSourceCount row : ticketRepository.countCreatedByDay()) {
+            counts.computeIfAbsent(RollupKey.of(row), k -> new long[2])[0] += row.getCount();
+        }
+        for (RollupSourceCount row : ticketRepository.countResolvedByDay(ReportUtils.RESOLVED_STATUSES)) {
+            counts.computeIfAbsent(RollupKey.of(row), k -> new long[2])[1] += row.getCount();
+        }
+
+        rollupRepository.deleteAllInBatch();
+
+        List<TicketDailyRollup> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, values) -> rows.add(key.toEntity(values[0], values[1])));
+        rollupRepository.saveAll(rows);
+
+        int histograms = rebuildLatencyHistograms();
+
+        logger.info("Rebuilt {} ticket daily rollup rows and {} latency histograms", rows.size(), histograms);
+        return rows.size();
+    }
+
+    // Tickets arrive ordered by creation, so only one day's histograms are held at a time
+    private int rebuildLatencyHistograms() {
+        histogramRepository.deleteAllInBatch();
+
+        Map<HistogramKey, LatencyHistogram> day = new HashMap<>();
+        LocalDate currentDay = null;
+        int written = 0;
+        try (Stream<LatencySource> sources = ticketRepository.streamLatencySources()) {
+            Iterator<LatencySource> iterator = sources.iterator();
+            while (iterator.hasNext()) {
+                LatencySource source = iterator.next();
+                LocalDate createdDay = source.getCreatedDate().toLocalDate();
+                if (!createdDay.equals(currentDay)) {
+                    written += saveHistograms(day);
+                    currentDay = createdDay;
+                }
+
+                if (source.getFirstResponseAt() != null) {
+                    day.computeIfAbsent(new HistogramKey(createdDay, source.getPriority(),
+                                    TicketLatencyHistogram.Metric.FIRST_RESPONSE), k -> new LatencyHistogram())
+                            .record(ReportUtils.secondsBetween(source.getCreatedDate(), source.getFirstResponseAt()));
+                }
+                if (ReportUtils.RESOLVED_STATUSES.contains(source.getStatus()) && source.getResolvedAt() != null) {
+                    day.computeIfAbsent(new HistogramKey(createdDay, source.getPriority(),
+                                    TicketLatencyHistogram.Metric.RESOLUTION), k -> new LatencyHistogram())
+                            .record(ReportUtils.secondsBetween(source.getCreatedDate(), source.getResolvedAt()));
+                }
+            }
+        }
+        return written + saveHistograms(day);
+    }
+
+    private int saveHistograms(Map<HistogramKey, LatencyHistogram> histograms) {
+        List<TicketLatencyHistogram> rows = new ArrayList<>(histograms.size());
+        histograms.forEach((key, histogram) -> rows.add(key.toEntity(histogram)));
+        histogramRepository.saveAll(rows);
+        histograms.clear();
+        return rows.size();
+    }
+
+    private void accumulate(Map<RollupKey, long[]> deltas, TicketSnapshot snapshot, int sign) {
+        if (snapshot == null || snapshot.createdDate() == null) {
+            return;
+        }
+
+        RollupKey createdKey = new RollupKey(snapshot.createdDate().toLocalDate(),
+                snapshot.status(), snapshot.priority(), snapshot.contentType());
+        deltas.computeIfAbsent(createdKey, k -> new long[2])[0] += sign;
+
+        LocalDateTime resolvedAt = snapshot.resolvedAt();
+        if (snapshot.isResolved() && resolvedAt != null) {
+            RollupKey resolvedKey = new RollupKey(resolvedAt.toLocalDate(),
+                    snapshot.status(), snapshot.priority(), snapshot.contentType());
+            deltas.computeIfAbsent(resolvedKey, k -> new long[2])[1] += sign;
+        }
+    }
+
+    private void write(Map<RollupKey, long[]> deltas) {
+        deltas.forEach((key, values) -> {
+            long created = values[0];
+            long resolved = values[1];
+            if (created == 0 && resolved == 0) {
+                return;
+            }
+
+            if (created >= 0 && resolved >= 0) {
+                counterUpserts.add("ticket_daily_rollup", key.columns(),
+                        Map.of("created_count", created, "resolved_count", resolved));
+                return;
+            }
+            if (rollupRepository.increment(key.day(), key.status(), key.priority(), key.contentType(),
+                    created, resolved) == 0) {
+                // The row we are decrementing does not exist; only a rebuild can repair that.
+                logger.warn("Ticket rollup drift detected for {}; run a rollup rebuild", key);
+            }
+        });
+    }
+
+    private void accumulateLatency(Map<HistogramKey, Map<Long, Integer>> deltas, TicketSnapshot snapshot, int sign) {
+        if (snapshot == null || snapshot.createdDate() == null) {
+            return;
+        }
+
+        LocalDate createdDay = snapshot.createdDate().toLocalDate();
+        if (snapshot.firstResponseAt() != null) {
+            long seconds = ReportUtils.secondsBetween(snapshot.createdDate(), snapshot.firstResponseAt());
+            deltas.computeIfAbsent(new HistogramKey(createdDay, snapshot.priority(),
+                    TicketLatencyHistogram.Metric.FIRST_RESPONSE), k -> new HashMap<>()).merge(seconds, sign, Integer::sum);
+        }
+        if (snapshot.isResolved() && snapshot.resolvedAt() != null) {
+            long seconds = ReportUtils.secondsBetween(snapshot.createdDate(), snapshot.resolvedAt());
+            deltas.computeIfAbsent(new HistogramKey(createdDay, snapshot.priority(),
+                    TicketLatencyHistogram.Metric.RESOLUTION), k -> new HashMap<>()).merge(seconds, sign, Integer::sum);
+        }
+    }
+
+    private void writeLatency(Map<HistogramKey, Map<Long, Integer>> deltas) {
+        deltas.forEach((key, values) -> {
+            values.values().removeIf(count -> count == 0);
+            if (values.isEmpty()) {
+                return;
+            }
+
+            // Make sure there is a row to lock, so concurrent writers queue on it instead of both inserting
+            counterUpserts.insertIfAbsent("ticket_latency_histogram", key.columns(),
+                    Map.of("counts", new LatencyHistogram().toBytes()));
+            TicketLatencyHistogram row = histogramRepository
+                    .findByDayAndPriorityAndMetric(key.day(), key.priority(), key.metric())
+                    .orElseThrow();
+            LatencyHistogram histogram = LatencyHistogram.fromBytes(row.getCounts());
+
+            boolean drift = false;
+            for (Map.Entry<Long, Integer> entry : values.entrySet()) {
+                for (int i = 0; i < Math.abs(entry.getValue()); i++) {
+                    if (entry.getValue() > 0) {
+                        histogram.record(entry.getKey());
+                    } else if (!histogram.remove(entry.getKey())) {
+                        drift = true;
+                    }
+                }
+            }
+            if (drift) {
+                logger.warn("Latency histogram drift detected for {}; run a rollup rebuild", key);
+            }
+
+            row.setCounts(histogram.toBytes());
+            histogramRepository.save(row);
+        });
+    }
+
+    // Tickets without a priority are counted as MEDIUM, the priority a new ticket defaults to
+    private static Ticket.Priority bucket(Ticket.Priority priority) {
+        return priority != null ? priority : Ticket.Priority.MEDIUM;
+    }
+
+    private record HistogramKey(LocalDate day, Ticket.Priority priority, TicketLatencyHistogram.Metric metric) {
+
+        HistogramKey {
+            priority = bucket(priority);
+        }
+
+        Map<String, Object> columns() {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("histogram_date", day);
+            columns.put("priority", priority.name());
+            columns.put("metric", metric.name());
+            return columns;
+        }
+
+        TicketLatencyHistogram toEntity(LatencyHistogram histogram) {
+            TicketLatencyHistogram row = new TicketLatencyHistogram();
+            row.setDay(day);
+            row.setPriority(priority);
+            row.setMetric(metric);
+            row.setCounts(histogram.toBytes());
+            return row;
+        }
+    }
+
+    private record RollupKey(LocalDate day, Ticket.Status status, Ticket.Priority priority,
+                             Ticket.ContentType contentType) {
+
+        RollupKey {
+            priority = bucket(priority);
+        }
+
+        static RollupKey of(RollupSourceCount row) {
+            return new RollupKey(row.getDay(), row.getStatus(), row.getPriority(), row.getContentType());
+        }
+
+        Map<String, Object> columns() {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("rollup_date", day);
+            columns.put("status", status.name());
+            columns.put("priority", priority.name());
+            columns.put("content_type", contentType.name());
+            return columns;
+        }
+
+        TicketDailyRollup toEntity(long created, long resolved) {
+            TicketDailyRollup rollup = new TicketDailyRollup();
+            rollup.setDay(day);
+            rollup.setStatus(status);
+            rollup.setPriority(priority);
+            rollup.setContentType(contentType);
+            rollup.setCreatedCount(created);
+            rollup.setResolvedCount(resolved);
+            return rollup;
+        }
+    }
+}
@@ -1,29 +1,90 @@
 package com.ticketsystem.zimsmartvillages.service;
 
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketRequest;
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketResultDto;
+import com.ticketsystem.zimsmartvillages.dto.CursorPageDto;
 import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketSearchCriteria;
+import com.ticketsystem.zimsmartvillages.dto.TicketStatusTransitionDto;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.exception.PreconditionFailedException;
 import com.ticketsystem.zimsmartvillages.exception.ResourceNotFoundException;
 import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.TicketStatusTransition;
 import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.CommentRepository;
+import com.ticketsystem.zimsmartvillages.repository.SlaBreachRepository;
 import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketSpecifications;
+import com.ticketsystem.zimsmartvillages.repository.TicketStatusTransitionRepository;
 import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 public class TicketService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("createdDate", "updatedDate", "id");
+    // Operations applied between flushes; bounds the persistence context and the IN lists
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final TicketRollupService ticketRollupService;
+    private final TicketStatusTransitionRepository transitionRepository;
+    private final SlaBreachRepository slaBreachRepository;
+    private final TicketRatingService ticketRatingService;
+    private final CommentActivityService commentActivityService;
+    private final CommentRepository commentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final int maxBulkOperations;
 
     public TicketService(TicketRepository ticketRepository, UserRepository userRepository,
-                         FileStorageService fileStorageService) {
+                         FileStorageService fileStorageService, TicketRollupService ticketRollupService,
+                         TicketStatusTransitionRepository transitionRepository,
+                         SlaBreachRepository slaBreachRepository, TicketRatingService ticketRatingService,
+                         CommentActivityService commentActivityService, CommentRepository commentRepository,
+                         ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                         @Value("${app.tickets.bulk.max-operations:10000}") int maxBulkOperations) {
         this.ticketRepository = ticketRepository;
         this.userRepository = userRepository;
         this.fileStorageService = fileStorageService;
+        this.ticketRollupService = ticketRollupService;
+        this.transitionRepository = transitionRepository;
+        this.slaBreachRepository = slaBreachRepository;
+        this.ticketRatingService = ticketRatingService;
+        this.commentActivityService = commentActivityService;
+        this.commentRepository = commentRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.maxBulkOperations = maxBulkOperations;
     }
 
     public Page<TicketDto> getAllTickets(Pageable pageable) {
@@ -31,6 +92,38 @@ public class TicketService {
                 .map(this::convertToDto);
     }
 
+    /**
+     * Keyset-paged listing, newest first: {@code after} is the {@code nextCursor} of the previous
+     * page, or empty for the first. Unlike the offset listings, there is no count query and the
+     * cost of a page does not grow with its depth.
+     */
+    public CursorPageDto<TicketDto> getAllTickets(String after, int size) {
+        return seek(null, after, size);
+    }
+
+    /**
+     * The tickets with the given ids that still exist, in the order of {@code ids}.
+     */
+    public List<TicketDto> getTicketsByIds(List<Long> ids) {
+        Map<Long, Ticket> tickets = new HashMap<>();
+        for (Ticket ticket : ticketRepository.findAllById(ids)) {
+            tickets.put(ticket.getId(), ticket);
+        }
+        return ids.stream()
+                .map(tickets::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .toList();
+    }
+
+    /**
+     * The ticket's current version, read without loading the ticket.
+     */
+    public long getTicketVersion(Long id) {
+        return ticketRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+    }
+
     public TicketDto getTicketById(Long id) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
@@ -62,7 +155,9 @@ public class TicketService {
             ticket.setAssignedTo(assignedUser);
         }
 
-        return convertToDto(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.saveAndFlush(ticket);
+        recordChange(null, TicketSnapshot.of(saved), currentUser);
+        return convertToDto(saved);
     }
 
     @Transactional
@@ -86,20 +181,29 @@ public class TicketService {
             ticket.setTextContent(description);
         }
 
-        return convertToDto(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.saveAndFlush(ticket);
+        recordChange(null, TicketSnapshot.of(saved), currentUser);
+        return convertToDto(saved);
     }
 
+    /**
+     * Replaces the ticket's fields. With an {@code expectedVersion} the update only applies if the
+     * ticket is still at that version; the same holds for the status and assignment updates below.
+     */
     @Transactional
-    public TicketDto updateTicket(Long id, TicketDto ticketDto) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+    public TicketDto updateTicket(Long id, TicketDto ticketDto, User currentUser, Long expectedVersion) {
+        Ticket ticket = findForWrite(id, expectedVersion);
+        TicketSnapshot before = TicketSnapshot.of(ticket);
 
         ticket.setTitle(ticketDto.getTitle());
         ticket.setDescription(ticketDto.getDescription());
-        ticket.setPriority(ticketDto.getPriority());
+
+        if (ticketDto.getPriority() != null) {
+            ticket.setPriority(ticketDto.getPriority());
+        }
 
         if (ticketDto.getStatus() != null) {
-            ticket.setStatus(ticketDto.getStatus());
+            applyStatus(ticket, ticketDto.getStatus());
         }
 
         // Update content fields if provided
@@ -123,34 +227,219 @@ public class TicketService {
             ticket.setAssignedTo(null);
         }
 
-        return convertToDto(ticketRepository.save(ticket));
+        return convertToDto(saveAndRollup(ticket, before, currentUser));
     }
 
     @Transactional
     public void deleteTicket(Long id) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        TicketSnapshot before = TicketSnapshot.of(ticket);
+        deleteDependents(List.of(id));
         ticketRepository.delete(ticket);
+        recordChange(before, null, null);
     }
 
     @Transactional
-    public TicketDto updateTicketStatus(Long id, Ticket.Status status) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
-        ticket.setStatus(status);
-        return convertToDto(ticketRepository.save(ticket));
+    public TicketDto updateTicketStatus(Long id, Ticket.Status status, User currentUser, Long expectedVersion) {
+        Ticket ticket = findForWrite(id, expectedVersion);
+        TicketSnapshot before = TicketSnapshot.of(ticket);
+        applyStatus(ticket, status);
+        return convertToDto(saveAndRollup(ticket, before, currentUser));
     }
 
+    /**
+     * Raises a ticket's priority on behalf of the system, as SLA escalation does.
+     */
     @Transactional
-    public TicketDto assignTicket(Long id, Long userId) {
+    public TicketDto escalatePriority(Long id, Ticket.Priority priority) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        TicketSnapshot before = TicketSnapshot.of(ticket);
+        ticket.setPriority(priority);
+        return convertToDto(saveAndRollup(ticket, before, null));
+    }
+
+    @Transactional
+    public TicketDto assignTicket(Long id, Long userId, User currentUser, Long expectedVersion) {
+        Ticket ticket = findForWrite(id, expectedVersion);
+        TicketSnapshot before = TicketSnapshot.of(ticket);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         ticket.setAssignedTo(user);
-        return convertToDto(ticketRepository.save(ticket));
+        return convertToDto(saveAndRollup(ticket, before, currentUser));
+    }
+
+    /**
+     * Applies status, priority, assignment and delete operations to many tickets in one
+     * transaction. Operations that cannot apply, such as those naming a missing ticket, are
+     * reported as failed and the rest still go through. Tickets are loaded and their updates
+     * flushed as JDBC batches a chunk at a time; rollups are written once for the whole request.
+     */
+    @Transactional
+    public BulkTicketResultDto applyBulk(BulkTicketRequest request, User currentUser) {
+        long startedAt = System.nanoTime();
+        List<BulkTicketRequest.Operation> operations = request.getOperations();
+        if (operations.size() > maxBulkOperations) {
+            throw new IllegalArgumentException("At most " + maxBulkOperations + " operations per request");
+        }
+        boolean deletes = operations.stream().anyMatch(op -> op.getType() == BulkTicketRequest.OperationType.DELETE);
+        if (deletes && currentUser.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            throw new AccessDeniedException("Only administrators can delete tickets");
+        }
+
+        List<BulkTicketResultDto.Item> results = new ArrayList<>(operations.size());
+        List<TicketChangedEvent> changes = new ArrayList<>();
+        for (int from = 0; from < operations.size(); from += BULK_CHUNK_SIZE) {
+            List<BulkTicketRequest.Operation> chunk =
+                    operations.subList(from, Math.min(from + BULK_CHUNK_SIZE, operations.size()));
+            applyBulkChunk(chunk, from, currentUser, results, changes);
+        }
+        ticketRollupService.applyAll(changes);
+
+        int applied = 0;
+        int unchanged = 0;
+        for (BulkTicketResultDto.Item result : results) {
+            if (result.getOutcome() == BulkTicketResultDto.Outcome.APPLIED) {
+                applied++;
+            } else if (result.getOutcome() == BulkTicketResultDto.Outcome.UNCHANGED) {
+                unchanged++;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        return new BulkTicketResultDto(applied, unchanged, results.size() - applied - unchanged, elapsedMs, results);
+    }
+
+    private void applyBulkChunk(List<BulkTicketRequest.Operation> chunk, int offset, User currentUser,
+                                List<BulkTicketResultDto.Item> results, List<TicketChangedEvent> changes) {
+        Set<Long> ticketIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (BulkTicketRequest.Operation op : chunk) {
+            ticketIds.add(op.getTicketId());
+            if (op.getUserId() != null) {
+                userIds.add(op.getUserId());
+            }
+        }
+        Map<Long, Ticket> tickets = new HashMap<>();
+        for (Ticket ticket : ticketRepository.findWithUsersByIdIn(ticketIds)) {
+            tickets.put(ticket.getId(), ticket);
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+
+        // State of each ticket before its first operation in this chunk
+        Map<Long, TicketSnapshot> before = new LinkedHashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkTicketRequest.Operation op = chunk.get(i);
+            Ticket ticket = deleted.contains(op.getTicketId()) ? null : tickets.get(op.getTicketId());
+            String error = ticket == null ? "Ticket not found with id: " + op.getTicketId() : checkOperation(op, users);
+            if (error != null) {
+                results.add(new BulkTicketResultDto.Item(offset + i, op.getTicketId(), BulkTicketResultDto.Outcome.FAILED, error));
+                continue;
+            }
+
+            before.putIfAbsent(ticket.getId(), TicketSnapshot.of(ticket));
+            boolean changed = switch (op.getType()) {
+                case STATUS -> {
+                    boolean differs = ticket.getStatus() != op.getStatus();
+                    applyStatus(ticket, op.getStatus());
+                    yield differs;
+                }
+                case PRIORITY -> {
+                    boolean differs = ticket.getPriority() != op.getPriority();
+                    ticket.setPriority(op.getPriority());
+                    yield differs;
+                }
+                case ASSIGN -> {
+                    boolean differs = ticket.getAssignedTo() == null
+                            || !ticket.getAssignedTo().getId().equals(op.getUserId());
+                    ticket.setAssignedTo(users.get(op.getUserId()));
+                    yield differs;
+                }
+                case DELETE -> deleted.add(ticket.getId());
+            };
+            results.add(new BulkTicketResultDto.Item(offset + i, op.getTicketId(),
+                    changed ? BulkTicketResultDto.Outcome.APPLIED : BulkTicketResultDto.Outcome.UNCHANGED, null));
+        }
+
+        // Flushing runs @PreUpdate, so the snapshots taken afterwards carry the real updatedDate
+        ticketRepository.flush();
+        List<TicketStatusTransition> transitions = new ArrayList<>();
+        before.forEach((id, snapshot) -> {
+            TicketSnapshot after = deleted.contains(id) ? null : TicketSnapshot.of(tickets.get(id));
+            if (snapshot.equals(after)) {
+                return;
+            }
+            TicketStatusTransition transition = transitionFor(snapshot, after, currentUser);
+            if (transition != null) {
+                transitions.add(transition);
+            }
+            TicketChangedEvent change = new TicketChangedEvent(snapshot, after);
+            changes.add(change);
+            eventPublisher.publishEvent(change);
+        });
+        if (!deleted.isEmpty()) {
+            deleteDependents(deleted);
+            commentRepository.deleteByTicketIdIn(deleted);
+            ticketRepository.deleteAllByIdInBatch(deleted);
+        }
+        transitionRepository.saveAll(transitions);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String checkOperation(BulkTicketRequest.Operation op, Map<Long, User> users) {
+        return switch (op.getType()) {
+            case STATUS -> op.getStatus() == null ? "status is required" : null;
+            case PRIORITY -> op.getPriority() == null ? "priority is required" : null;
+            case ASSIGN -> op.getUserId() == null ? "userId is required"
+                    : users.containsKey(op.getUserId()) ? null : "User not found with id: " + op.getUserId();
+            case DELETE -> null;
+        };
+    }
+
+    // Rows keyed by ticket id outside the ticket's own table, removed along with the tickets
+    private void deleteDependents(Collection<Long> ticketIds) {
+        // Before the comments go, since the counters are read from them
+        commentActivityService.deleteForTickets(ticketIds);
+        transitionRepository.deleteByTicketIdIn(ticketIds);
+        slaBreachRepository.deleteByTicketIdIn(ticketIds);
+        ticketRatingService.deleteForTickets(ticketIds);
+    }
+
+    /**
+     * Status timeline of a ticket, oldest first, paged by an opaque cursor taken from the
+     * previous page rather than by offset.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TicketStatusTransitionDto> getTicketHistory(Long id, String cursor, int size) {
+        if (!ticketRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Ticket not found with id: " + id);
+        }
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+
+        // One extra row tells us whether another page follows without a count query
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<TicketStatusTransition> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transitionRepository.findHistory(id, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = transitionRepository.findHistoryAfter(id, after.at(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<TicketStatusTransition> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? KeysetCursor.of(page.get(size - 1)).encode() : null;
+        return new CursorPageDto<>(page.stream().map(this::convertToDto).toList(), nextCursor);
     }
 
     public Page<TicketDto> getTicketsByCreator(User creator, Pageable pageable) {
@@ -158,26 +447,209 @@ public class TicketService {
                 .map(this::convertToDto);
     }
 
+    public CursorPageDto<TicketDto> getTicketsByCreator(User creator, String after, int size) {
+        return seek(TicketSpecifications.createdBy(creator), after, size);
+    }
+
     public Page<TicketDto> getTicketsByContentType(Ticket.ContentType contentType, Pageable pageable) {
         return ticketRepository.findByContentType(contentType, pageable)
                 .map(this::convertToDto);
     }
 
+    public CursorPageDto<TicketDto> getTicketsByContentType(Ticket.ContentType contentType, String after, int size) {
+        return seek(TicketSpecifications.hasContentType(contentType), after, size);
+    }
+
     public Page<TicketDto> getTicketsAssignedTo(User assignedTo, Pageable pageable) {
         return ticketRepository.findByAssignedTo(assignedTo, pageable)
                 .map(this::convertToDto);
     }
 
+    public CursorPageDto<TicketDto> getTicketsAssignedTo(User assignedTo, String after, int size) {
+        return seek(TicketSpecifications.assignedTo(assignedTo), after, size);
+    }
+
     public Page<TicketDto> getTicketsByStatus(Ticket.Status status, Pageable pageable) {
         return ticketRepository.findByStatus(status, pageable)
                 .map(this::convertToDto);
     }
 
+    public CursorPageDto<TicketDto> getTicketsByStatus(Ticket.Status status, String after, int size) {
+        return seek(TicketSpecifications.hasStatus(status), after, size);
+    }
+
     public Page<TicketDto> getTicketsByPriority(Ticket.Priority priority, Pageable pageable) {
         return ticketRepository.findByPriority(priority, pageable)
                 .map(this::convertToDto);
     }
 
+    public CursorPageDto<TicketDto> getTicketsByPriority(Ticket.Priority priority, String after, int size) {
+        return seek(TicketSpecifications.hasPriority(priority), after, size);
+    }
+
+    /**
+     * Tickets matching every filter of {@code criteria}, offset-paged. Sorts by creation date,
+     * newest first, unless the pageable names one of the sortable properties.
+     */
+    public Page<TicketDto> searchTickets(TicketSearchCriteria criteria, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty()
+                        + "; sortable properties are " + SEARCH_SORT_PROPERTIES);
+            }
+        }
+        if (sort.isUnsorted()) {
+            sort = TicketSpecifications.NEWEST_FIRST;
+        } else if (sort.getOrderFor("id") == null) {
+            // Ties would otherwise come back in no particular order and pages could overlap
+            sort = sort.and(Sort.by("id"));
+        }
+
+        return ticketRepository.findAll(searchSpecification(criteria),
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort))
+                .map(this::convertToDto);
+    }
+
+    public CursorPageDto<TicketDto> searchTickets(TicketSearchCriteria criteria, String after, int size) {
+        return seek(searchSpecification(criteria), after, size);
+    }
+
+    private static Specification<Ticket> searchSpecification(TicketSearchCriteria criteria) {
+        checkRange("created", criteria.getCreatedFrom(), criteria.getCreatedTo());
+        checkRange("updated", criteria.getUpdatedFrom(), criteria.getUpdatedTo());
+
+        List<Specification<Ticket>> filters = new ArrayList<>();
+        if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+            filters.add(TicketSpecifications.statusIn(criteria.getStatuses()));
+        }
+        if (criteria.getPriorities() != null && !criteria.getPriorities().isEmpty()) {
+            filters.add(TicketSpecifications.priorityIn(criteria.getPriorities()));
+        }
+        if (criteria.getContentTypes() != null && !criteria.getContentTypes().isEmpty()) {
+            filters.add(TicketSpecifications.contentTypeIn(criteria.getContentTypes()));
+        }
+        if (criteria.getCreatorId() != null) {
+            filters.add(TicketSpecifications.createdById(criteria.getCreatorId()));
+        }
+        if (criteria.getAssigneeId() != null) {
+            filters.add(TicketSpecifications.assignedToId(criteria.getAssigneeId()));
+        }
+        filters.add(TicketSpecifications.between("createdDate", criteria.getCreatedFrom(), criteria.getCreatedTo()));
+        filters.add(TicketSpecifications.between("updatedDate", criteria.getUpdatedFrom(), criteria.getUpdatedTo()));
+        return Specification.allOf(filters);
+    }
+
+    private static void checkRange(String name, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException(name + "From must be before " + name + "To");
+        }
+    }
+
+    private CursorPageDto<TicketDto> seek(Specification<Ticket> filter, String after, int size) {
+        if (size < 1 || size > MAX_LIST_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_LIST_PAGE_SIZE);
+        }
+
+        Specification<Ticket> spec = Specification.where(filter);
+        if (after != null && !after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            spec = spec.and(TicketSpecifications.olderThan(cursor.at(), cursor.id()));
+        }
+
+        // One extra row tells us whether another page follows without a count query
+        List<Ticket> rows = ticketRepository.findBy(spec,
+                query -> query.sortBy(TicketSpecifications.NEWEST_FIRST).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<Ticket> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? KeysetCursor.of(page.get(size - 1)).encode() : null;
+        return new CursorPageDto<>(page.stream().map(this::convertToDto).toList(), nextCursor);
+    }
+
+    // Keeps the lifecycle timestamps consistent with the status change
+    private void applyStatus(Ticket ticket, Ticket.Status status) {
+        if (ticket.getStatus() == status) {
+            return;
+        }
+        ticket.setStatus(status);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (status == Ticket.Status.RESOLVED || status == Ticket.Status.CLOSED) {
+            if (ticket.getResolvedAt() == null) {
+                ticket.setResolvedAt(now);
+            }
+        } else {
+            ticket.setResolvedAt(null);
+        }
+
+        if (status == Ticket.Status.CLOSED) {
+            ticket.setClosedAt(now);
+        } else {
+            ticket.setClosedAt(null);
+        }
+    }
+
+    // A conditional write locks the row, so the version cannot move between the check and the commit.
+    // Unconditional writes rely on @Version alone and fail if another write commits first.
+    private Ticket findForWrite(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return ticketRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        }
+        Ticket ticket = ticketRepository.findForUpdateById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        if (!expectedVersion.equals(ticket.getVersion())) {
+            throw new PreconditionFailedException("Ticket " + id + " has changed; its current version is "
+                    + ticket.getVersion());
+        }
+        return ticket;
+    }
+
+    // Flushing runs @PreUpdate, so the snapshot taken afterwards carries the real updatedDate.
+    private Ticket saveAndRollup(Ticket ticket, TicketSnapshot before, User changedBy) {
+        Ticket saved = ticketRepository.saveAndFlush(ticket);
+        recordChange(before, TicketSnapshot.of(saved), changedBy);
+        return saved;
+    }
+
+    // Updates the rollups and status history in this transaction and notifies listeners of the change
+    private void recordChange(TicketSnapshot before, TicketSnapshot after, User changedBy) {
+        ticketRollupService.apply(before, after);
+        TicketStatusTransition transition = transitionFor(before, after, changedBy);
+        if (transition != null) {
+            transitionRepository.save(transition);
+        }
+        eventPublisher.publishEvent(new TicketChangedEvent(before, after));
+    }
+
+    private static TicketStatusTransition transitionFor(TicketSnapshot before, TicketSnapshot after, User changedBy) {
+        if (after == null || (before != null && before.status() == after.status())) {
+            return null;
+        }
+        TicketStatusTransition transition = new TicketStatusTransition();
+        transition.setTicketId(after.id());
+        transition.setFromStatus(before != null ? before.status() : null);
+        transition.setToStatus(after.status());
+        transition.setChangedBy(changedBy);
+        transition.setChangedAt(after.updatedDate() != null ? after.updatedDate() : LocalDateTime.now());
+        return transition;
+    }
+
+    private TicketStatusTransitionDto convertToDto(TicketStatusTransition transition) {
+        TicketStatusTransitionDto dto = new TicketStatusTransitionDto();
+        dto.setId(transition.getId());
+        dto.setTicketId(transition.getTicketId());
+        dto.setFromStatus(transition.getFromStatus());
+        dto.setToStatus(transition.getToStatus());
+        dto.setChangedAt(transition.getChangedAt());
+        if (transition.getChangedBy() != null) {
+            dto.setChangedById(transition.getChangedBy().getId());
+            dto.setChangedByName(transition.getChangedBy().getFullName());
+        }
+        return dto;
+    }
+
     private TicketDto convertToDto(Ticket ticket) {
         TicketDto dto = new TicketDto();
         dto.setId(ticket.getId());
@@ -187,10 +659,14 @@ public class TicketService {
         dto.setStatus(ticket.getStatus());
         dto.setCreatedDate(ticket.getCreatedDate());
         dto.setUpdatedDate(ticket.getUpdatedDate());
+        dto.setFirstResponseAt(ticket.getFirstResponseAt());
+        dto.setResolvedAt(ticket.getResolvedAt());
+        dto.setClosedAt(ticket.getClosedAt());
         dto.setContentType(ticket.getContentType());
         dto.setTextContent(ticket.getTextContent());
         dto.setImagePath(ticket.getImagePath());
         dto.setAudioPath(ticket.getAudioPath());
+        dto.setVersion(ticket.getVersion());
 
         dto.setCreatorId(ticket.getCreator().getId());
         dto.setCreatorName(ticket.getCreator().getFullName());
@@ -202,4 +678,31 @@ public class TicketService {
 
         return dto;
     }
+
+    // Position of the last row on a keyset page, as "timestamp_id" in URL-safe base64
+    private record KeysetCursor(LocalDateTime at, Long id) {
+        static KeysetCursor of(TicketStatusTransition transition) {
+            return new KeysetCursor(transition.getChangedAt(), transition.getId());
+        }
+
+        static KeysetCursor of(Ticket ticket) {
+            return new KeysetCursor(ticket.getCreatedDate(), ticket.getId());
+        }
+
+        static KeysetCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('_');
+                return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        String encode() {
+            String raw = at + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
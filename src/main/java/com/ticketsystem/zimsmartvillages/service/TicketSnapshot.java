@@ -0,0 +1,44 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the ticket fields that derived report data depends on, taken before and
+ * after a write so that aggregates can be adjusted by the difference.
+ */
+public record TicketSnapshot(Long id,
+                             Ticket.Status status,
+                             Ticket.Priority priority,
+                             Ticket.ContentType contentType,
+                             Long creatorId,
+                             Long assigneeId,
+                             LocalDateTime createdDate,
+                             LocalDateTime updatedDate,
+                             LocalDateTime firstResponseAt,
+                             LocalDateTime resolvedAt) {
+
+    public static TicketSnapshot of(Ticket ticket) {
+        return new TicketSnapshot(
+                ticket.getId(),
+                ticket.getStatus(),
+                ticket.getPriority(),
+                ticket.getContentType(),
+                ticket.getCreator() != null ? ticket.getCreator().getId() : null,
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+                ticket.getCreatedDate(),
+                ticket.getUpdatedDate(),
+                ticket.getFirstResponseAt(),
+                ticket.getResolvedAt());
+    }
+
+    public TicketSnapshot withFirstResponseAt(LocalDateTime respondedAt) {
+        return new TicketSnapshot(id, status, priority, contentType, creatorId, assigneeId,
+                createdDate, updatedDate, respondedAt, resolvedAt);
+    }
+
+    public boolean isResolved() {
+        return status == Ticket.Status.RESOLVED || status == Ticket.Status.CLOSED;
+    }
+}
@@ -0,0 +1,545 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.CursorPageDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketSearchHitDto;
+import com.ticketsystem.zimsmartvillages.event.CommentChangedEvent;
+import com.ticketsystem.zimsmartvillages.event.TicketChangedEvent;
+import com.ticketsystem.zimsmartvillages.exception.SearchUnavailableException;
+import com.ticketsystem.zimsmartvillages.model.DatabaseInstance;
+import com.ticketsystem.zimsmartvillages.repository.CommentRepository;
+import com.ticketsystem.zimsmartvillages.repository.CounterUpserts;
+import com.ticketsystem.zimsmartvillages.repository.DatabaseInstanceRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentText;
+import com.ticketsystem.zimsmartvillages.repository.projection.TicketTextSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text search over ticket titles, descriptions, text content and comments.
+ * <p>
+ * Each ticket is one Lucene document holding its text and that of its comments, kept on local
+ * disk in memory-mapped segments under {@code app.search.index-dir}. After each commit a ticket
+ * or comment change queues the ticket for reindexing; one indexer thread reloads its text from
+ * the database and replaces the document, so the index converges on the committed state whatever
+ * order changes arrive in. Changes become searchable within {@code refresh-ms} and are flushed to
+ * disk every {@code commit-ms}. A bulk rebuild runs on the same indexer thread, which holds back
+ * incremental updates and commits until it finishes, and indexes batches of tickets in parallel.
+ * It replaces documents in place, so searches during a rebuild still see every ticket.
+ * <p>
+ * Each commit records the {@link DatabaseInstance} it was built from. An index left behind by
+ * another database, such as the in-memory database of an earlier run, is rebuilt at startup and
+ * not searched until then.
+ * <p>
+ * Results are ranked by BM25, Lucene's default similarity, with title matches weighted highest,
+ * and paged by a (score, ticket id) cursor.
+ */
+@Service
+public class TicketTextSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketTextSearchService.class);
+
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String TEXT_CONTENT = "textContent";
+    static final String COMMENTS = "comments";
+
+    private static final String ID = "id";
+    private static final String ID_SORT = "idSort";
+    private static final String GENERATION = "generation";
+    private static final String DATABASE_ID = "databaseId";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(
+            TITLE, 3f, DESCRIPTION, 1f, TEXT_CONTENT, 1f, COMMENTS, 0.5f);
+    private static final String[] HIGHLIGHT_FIELDS = {TITLE, DESCRIPTION, TEXT_CONTENT, COMMENTS};
+    private static final int[] HIGHLIGHT_PASSAGES = {1, 2, 2, 2};
+    // Highest score first; equal scores newest ticket first, so every hit has a distinct position
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG, true));
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final TicketRepository ticketRepository;
+    private final CommentRepository commentRepository;
+    private final TicketService ticketService;
+    private final DatabaseInstanceRepository databaseInstanceRepository;
+    private final CounterUpserts counterUpserts;
+    private final boolean enabled;
+    private final Path indexDir;
+    private final int indexerThreads;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    // Writes and rebuilds run here one at a time; tickets queued for reindexing are in queued
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("search-indexer").factory());
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile String databaseId;
+    // False while an index of another database is being replaced
+    private volatile boolean ready = true;
+
+    public TicketTextSearchService(TicketRepository ticketRepository, CommentRepository commentRepository,
+                                   TicketService ticketService, DatabaseInstanceRepository databaseInstanceRepository,
+                                   CounterUpserts counterUpserts,
+                                   @Value("${app.search.enabled:true}") boolean enabled,
+                                   @Value("${app.search.index-dir:./search-index}") Path indexDir,
+                                   @Value("${app.search.indexer-threads:4}") int indexerThreads) {
+        this.ticketRepository = ticketRepository;
+        this.commentRepository = commentRepository;
+        this.ticketService = ticketService;
+        this.databaseInstanceRepository = databaseInstanceRepository;
+        this.counterUpserts = counterUpserts;
+        this.enabled = enabled;
+        this.indexDir = indexDir;
+        this.indexerThreads = Math.max(1, indexerThreads);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            directory = new MMapDirectory(indexDir);
+            IndexWriterConfig config = new IndexWriterConfig(analyzer);
+            config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            writer = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            // Most likely another process holds the index; the rest of the application still works
+            logger.error("Could not open the search index in {}; full-text search is unavailable", indexDir, e);
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Rebuilds the index in the background when it is new, was built from another database or
+     * does not hold one document per ticket.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (writer == null) {
+            return;
+        }
+        databaseId = loadDatabaseId();
+        boolean otherDatabase = !databaseId.equals(commitData().get(DATABASE_ID));
+        long documents = writer.getDocStats().numDocs;
+        long tickets = ticketRepository.count();
+        if (otherDatabase || documents != tickets) {
+            logger.info("Search index holds {} documents for {} tickets{}; rebuilding", documents, tickets,
+                    otherDatabase ? " of another database" : "");
+            // Hits from an index of another database would name the wrong tickets
+            ready = !otherDatabase;
+            indexer.execute(() -> {
+                try {
+                    rebuildIndex();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Search index rebuild failed", e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        indexer.shutdown();
+        try {
+            if (!indexer.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Search indexer did not finish; unindexed changes are picked up by the next rebuild");
+                indexer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer != null) {
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                logger.warn("Could not commit the search index on shutdown", e);
+            }
+        }
+        closeQuietly();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        enqueue(event.ticketId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        enqueue(event.ticketId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.refresh-ms:1000}")
+    public void refresh() {
+        if (searcherManager == null) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.warn("Could not refresh the search index", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-ms:30000}")
+    public void commit() {
+        if (writer == null || indexer.isShutdown()) {
+            return;
+        }
+        indexer.execute(() -> {
+            try {
+                if (writer.hasUncommittedChanges()) {
+                    writer.commit();
+                }
+            } catch (IOException e) {
+                logger.warn("Could not commit the search index", e);
+            }
+        });
+    }
+
+    /**
+     * Tickets matching {@code text}, most relevant first. Every term must occur in one of the
+     * searched fields; quotes, {@code -term}, {@code a | b} and {@code prefix*} work as usual.
+     */
+    public CursorPageDto<TicketSearchHitDto> search(String text, String after, int size) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (searcherManager == null) {
+            throw new SearchUnavailableException("Full-text search is unavailable");
+        }
+        if (!ready) {
+            throw new SearchUnavailableException("The search index is being rebuilt");
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+        SearchCursor cursor = after == null || after.isBlank() ? null : SearchCursor.decode(after);
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // One extra hit tells us whether another page follows
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                if (maxDoc == 0) {
+                    return new CursorPageDto<>(List.of(), null);
+                }
+                TopDocs topDocs = cursor == null
+                        ? searcher.search(query, size + 1, RELEVANCE, true)
+                        : searcher.searchAfter(cursor.toFieldDoc(maxDoc - 1), query, size + 1, RELEVANCE, true);
+                boolean hasMore = topDocs.scoreDocs.length > size;
+                ScoreDoc[] page = Arrays.copyOf(topDocs.scoreDocs, Math.min(size, topDocs.scoreDocs.length));
+                if (page.length == 0) {
+                    return new CursorPageDto<>(List.of(), null);
+                }
+
+                Map<String, String[]> highlights = UnifiedHighlighter.builder(searcher, analyzer).build()
+                        .highlightFields(HIGHLIGHT_FIELDS, query, new TopDocs(topDocs.totalHits, page), HIGHLIGHT_PASSAGES);
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>(page.length);
+                for (ScoreDoc hit : page) {
+                    ids.add(Long.parseLong(storedFields.document(hit.doc, Set.of(ID)).get(ID)));
+                }
+
+                // Tickets deleted since the last refresh are left out
+                Map<Long, TicketDto> tickets = new HashMap<>();
+                for (TicketDto ticket : ticketService.getTicketsByIds(ids)) {
+                    tickets.put(ticket.getId(), ticket);
+                }
+                List<TicketSearchHitDto> hits = new ArrayList<>(page.length);
+                for (int i = 0; i < page.length; i++) {
+                    TicketDto ticket = tickets.get(ids.get(i));
+                    if (ticket != null) {
+                        hits.add(new TicketSearchHitDto(ticket, page[i].score, highlightsOf(highlights, i)));
+                    }
+                }
+
+                FieldDoc last = (FieldDoc) page[page.length - 1];
+                String nextCursor = hasMore ? new SearchCursor(last.score, ids.get(page.length - 1)).encode() : null;
+                return new CursorPageDto<>(hits, nextCursor);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replaces the whole index with documents built from the database, waiting for earlier
+     * queued changes first.
+     *
+     * @return the number of tickets indexed
+     */
+    public int rebuild() {
+        if (writer == null) {
+            throw new SearchUnavailableException("Full-text search is unavailable");
+        }
+        try {
+            return indexer.submit(this::rebuildIndex).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the search index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index rebuild failed", e.getCause());
+        }
+    }
+
+    // Runs on the indexer thread, so incremental updates and commits queue up behind it. Each
+    // ticket's document is replaced and tagged with this pass's generation, and whatever is left
+    // untagged at the end belongs to deleted tickets, so a refresh midway never shows a part-built index.
+    private int rebuildIndex() throws IOException {
+        long startedAt = System.nanoTime();
+        String generation = UUID.randomUUID().toString();
+        queued.clear();
+
+        ExecutorService workers = Executors.newFixedThreadPool(indexerThreads,
+                Thread.ofPlatform().name("search-rebuild-", 0).factory());
+        // Bounds the batches read from the database but not yet indexed
+        Semaphore inFlight = new Semaphore(indexerThreads * 2);
+        List<Future<Integer>> batches = new ArrayList<>();
+        int indexed = 0;
+        try {
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = ticketRepository.findIdsAfter(afterId, PageRequest.ofSize(REBUILD_BATCH_SIZE))).isEmpty()) {
+                afterId = ids.get(ids.size() - 1);
+                List<Long> batch = ids;
+                inFlight.acquire();
+                batches.add(workers.submit(() -> {
+                    try {
+                        List<Document> documents = buildDocuments(batch);
+                        for (Document document : documents) {
+                            document.add(new StringField(GENERATION, generation, Field.Store.NO));
+                            writer.updateDocument(new Term(ID, document.get(ID)), document);
+                        }
+                        return documents.size();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<Integer> batch : batches) {
+                indexed += batch.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the search index", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Search index rebuild failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        writer.deleteDocuments(new BooleanQuery.Builder()
+                .add(new MatchAllDocsQuery(), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(GENERATION, generation)), BooleanClause.Occur.MUST_NOT)
+                .build());
+        if (databaseId != null) {
+            writer.setLiveCommitData(Map.of(DATABASE_ID, databaseId).entrySet());
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+        ready = true;
+        logger.info("Indexed {} tickets for search in {} ms", indexed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return indexed;
+    }
+
+    // Created by whichever instance first starts against a new database
+    private String loadDatabaseId() {
+        counterUpserts.insertIfAbsent("database_instance", Map.of("id", DatabaseInstance.ID),
+                Map.of("instance_id", UUID.randomUUID().toString(), "created_at", LocalDateTime.now()));
+        return databaseInstanceRepository.findById(DatabaseInstance.ID).orElseThrow().getInstanceId();
+    }
+
+    private Map<String, String> commitData() {
+        Map<String, String> data = new HashMap<>();
+        Iterable<Map.Entry<String, String>> live = writer.getLiveCommitData();
+        if (live != null) {
+            live.forEach(entry -> data.put(entry.getKey(), entry.getValue()));
+        }
+        return data;
+    }
+
+    private void enqueue(Long ticketId) {
+        if (writer == null || ticketId == null || indexer.isShutdown()) {
+            return;
+        }
+        // A ticket already waiting is reindexed from its latest state anyway
+        if (queued.add(ticketId)) {
+            indexer.execute(() -> reindex(ticketId));
+        }
+    }
+
+    private void reindex(Long ticketId) {
+        // Before reading, so a change committed after the read queues another pass
+        queued.remove(ticketId);
+        try {
+            List<Document> documents = buildDocuments(List.of(ticketId));
+            Term idTerm = new Term(ID, ticketId.toString());
+            if (documents.isEmpty()) {
+                writer.deleteDocuments(idTerm);
+            } else {
+                writer.updateDocument(idTerm, documents.get(0));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not index ticket {}; it is corrected by the next change or rebuild", ticketId, e);
+        }
+    }
+
+    private List<Document> buildDocuments(List<Long> ticketIds) {
+        Map<Long, List<String>> comments = new HashMap<>();
+        for (CommentText comment : commentRepository.findTextByTicketIds(ticketIds)) {
+            comments.computeIfAbsent(comment.getTicketId(), id -> new ArrayList<>()).add(comment.getContent());
+        }
+
+        List<Document> documents = new ArrayList<>(ticketIds.size());
+        for (TicketTextSource ticket : ticketRepository.findTextSources(ticketIds)) {
+            Document document = new Document();
+            document.add(new StringField(ID, ticket.getId().toString(), Field.Store.YES));
+            document.add(new NumericDocValuesField(ID_SORT, ticket.getId()));
+            addText(document, TITLE, ticket.getTitle());
+            addText(document, DESCRIPTION, ticket.getDescription());
+            addText(document, TEXT_CONTENT, ticket.getTextContent());
+            for (String comment : comments.getOrDefault(ticket.getId(), List.of())) {
+                addText(document, COMMENTS, comment);
+            }
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    private static void addText(Document document, String field, String text) {
+        if (text != null && !text.isBlank()) {
+            document.add(new TextField(field, text, Field.Store.YES));
+        }
+    }
+
+    private static Map<String, String> highlightsOf(Map<String, String[]> highlights, int hit) {
+        Map<String, String> snippets = new LinkedHashMap<>();
+        for (String field : HIGHLIGHT_FIELDS) {
+            String snippet = highlights.get(field)[hit];
+            // Fields without a match have no <b> in their snippet, or no snippet at all
+            if (snippet != null && snippet.contains("<b>")) {
+                snippets.put(field, snippet);
+            }
+        }
+        return snippets;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+            if (directory != null) {
+                directory.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not close the search index", e);
+        } finally {
+            searcherManager = null;
+            writer = null;
+            directory = null;
+        }
+    }
+
+    // Position of the last hit on a page, as "score_id" in URL-safe base64
+    private record SearchCursor(float score, long id) {
+        static SearchCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('_');
+                return new SearchCursor(Float.parseFloat(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Ticket ids are unique, so the doc id only decides for the cursor's own ticket, which the
+        // highest doc id excludes
+        FieldDoc toFieldDoc(int lastDoc) {
+            return new FieldDoc(lastDoc, score, new Object[]{score, id});
+        }
+
+        String encode() {
+            String raw = score + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -3,7 +3,8 @@ package com.ticketsystem.zimsmartvillages;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Search is off so the test does not write an index into the working tree
+@SpringBootTest(properties = "app.search.enabled=false")
 class ZimsmartvillagesApplicationTests {
 
 	@Test
@@ -0,0 +1,271 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketRequest;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.reporting.LatencyHistogram;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.service.TicketRollupService;
+import com.ticketsystem.zimsmartvillages.service.TicketService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkTicketOperationsTest {
+
+    private static final String SEEDED_TITLE = "bulk-operations-test";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+    private User support;
+
+    @BeforeAll
+    void loadUsers() {
+        admin = userRepository.findByUsername("admin").orElseThrow();
+        support = userRepository.findByUsername("support").orElseThrow();
+    }
+
+    @AfterAll
+    void removeTickets() {
+        BulkTicketRequest request = new BulkTicketRequest();
+        request.setOperations(jdbcTemplate.queryForList("SELECT id FROM tickets WHERE title = ?", Long.class, SEEDED_TITLE)
+                .stream().map(id -> delete(id)).toList());
+        if (!request.getOperations().isEmpty()) {
+            ticketService.applyBulk(request, admin);
+        }
+    }
+
+    // The failures sit in both 500-operation chunks, around operations on the same tickets that still apply
+    @Test
+    void failedOperationsAreReportedAndTheRestApply() throws Exception {
+        List<Long> tickets = seedTickets(520);
+        List<BulkTicketRequest.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 260; i++) {
+            operations.add(statusChange(tickets.get(i), Ticket.Status.RESOLVED));
+        }
+        operations.add(statusChange(Long.MAX_VALUE, Ticket.Status.RESOLVED));
+        operations.add(assignment(tickets.get(0), Long.MAX_VALUE));
+        operations.add(statusChange(tickets.get(1), null));
+        operations.add(statusChange(tickets.get(2), Ticket.Status.RESOLVED));
+        operations.add(delete(tickets.get(3)));
+        operations.add(priorityChange(tickets.get(3), Ticket.Priority.HIGH));
+        for (int i = 260; i < 500; i++) {
+            operations.add(assignment(tickets.get(i), support.getId()));
+        }
+        for (int i = 500; i < 520; i++) {
+            operations.add(priorityChange(tickets.get(i), Ticket.Priority.CRITICAL));
+        }
+        operations.add(delete(tickets.get(3)));
+        operations.add(statusChange(tickets.get(504), Ticket.Status.CLOSED));
+
+        JsonNode result = readBody(bulk(operations, admin).andExpect(status().isOk()));
+
+        assertEquals(522, result.get("applied").asInt());
+        assertEquals(1, result.get("unchanged").asInt());
+        assertEquals(5, result.get("failed").asInt());
+        JsonNode items = result.get("results");
+        assertEquals(operations.size(), items.size());
+        Map<Integer, String> notApplied = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            JsonNode item = items.get(i);
+            assertEquals(i, item.get("index").asInt());
+            if (!item.get("outcome").asText().equals("APPLIED")) {
+                notApplied.put(item.get("index").asInt(), item.get("outcome").asText());
+            }
+        }
+        assertEquals(Map.of(260, "FAILED", 261, "FAILED", 262, "FAILED", 263, "UNCHANGED", 265, "FAILED",
+                526, "FAILED"), notApplied);
+        assertEquals("User not found with id: " + Long.MAX_VALUE, items.get(261).get("message").asText());
+        assertEquals("status is required", items.get(262).get("message").asText());
+
+        assertEquals("RESOLVED", column("status", tickets.get(0)));
+        assertNull(column("assigned_to_id", tickets.get(0)));
+        assertEquals(0, count(tickets.get(3)));
+        assertEquals(String.valueOf(support.getId()), column("assigned_to_id", tickets.get(499)));
+        assertEquals("CRITICAL", column("priority", tickets.get(504)));
+        assertEquals("CLOSED", column("status", tickets.get(504)));
+    }
+
+    @Test
+    void onlyAdministratorsCanDelete() throws Exception {
+        List<Long> tickets = seedTickets(2);
+        List<BulkTicketRequest.Operation> operations = List.of(priorityChange(tickets.get(0), Ticket.Priority.HIGH),
+                delete(tickets.get(1)));
+
+        bulk(operations, support).andExpect(status().isForbidden());
+        assertEquals("LOW", column("priority", tickets.get(0)));
+        assertEquals(1, count(tickets.get(1)));
+
+        bulk(operations, admin).andExpect(status().isOk());
+        assertEquals("HIGH", column("priority", tickets.get(0)));
+        assertEquals(0, count(tickets.get(1)));
+    }
+
+    // applyAll writes the deltas of the whole request at once; they must match a recount from the tickets
+    @Test
+    void rollupsMatchARebuildAfterBulkChanges() throws Exception {
+        List<Long> tickets = seedTickets(40);
+        rollupService.rebuild();
+
+        // Half start out resolved, so the second request also moves and removes existing counts
+        List<BulkTicketRequest.Operation> resolve = new ArrayList<>();
+        for (int i = 0; i < 40; i += 2) {
+            resolve.add(statusChange(tickets.get(i), Ticket.Status.RESOLVED));
+        }
+        bulk(resolve, admin).andExpect(status().isOk());
+
+        List<BulkTicketRequest.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Long ticket = tickets.get(i);
+            switch (i % 5) {
+                case 0 -> operations.add(statusChange(ticket, Ticket.Status.CLOSED));
+                case 1 -> {
+                    operations.add(statusChange(ticket, Ticket.Status.CLOSED));
+                    operations.add(statusChange(ticket, Ticket.Status.REOPENED));
+                }
+                case 2 -> {
+                    operations.add(priorityChange(ticket, Ticket.Priority.HIGH));
+                    operations.add(statusChange(ticket, Ticket.Status.CLOSED));
+                }
+                case 3 -> operations.add(delete(ticket));
+                default -> {
+                    operations.add(statusChange(ticket, Ticket.Status.IN_PROGRESS));
+                    operations.add(assignment(ticket, support.getId()));
+                }
+            }
+        }
+        bulk(operations, admin).andExpect(status().isOk());
+
+        Map<String, String> incremental = recentRollupRows();
+        assertFalse(incremental.isEmpty());
+        rollupService.rebuild();
+        assertEquals(recentRollupRows(), incremental);
+    }
+
+    // Created within the last hour, so no SLA deadline falls due and escalates them during a test
+    private List<Long> seedTickets(int count) {
+        Long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tickets", Long.class);
+        LocalDateTime createdDate = LocalDateTime.now().minusHours(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{SEEDED_TITLE, createdDate, createdDate, admin.getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (id, title, priority, status, content_type, created_date, " +
+                "updated_date, creator_id) VALUES (NEXT VALUE FOR tickets_seq, ?, 'LOW', 'OPEN', 'TEXT', ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM tickets WHERE title = ? AND id > ? ORDER BY id",
+                Long.class, SEEDED_TITLE, lastId);
+    }
+
+    // Non-empty rollup and histogram rows since yesterday, which cover every ticket seeded here
+    private Map<String, String> recentRollupRows() {
+        LocalDate since = LocalDate.now().minusDays(1);
+        Map<String, String> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT * FROM ticket_daily_rollup WHERE rollup_date >= ? " +
+                "AND (created_count <> 0 OR resolved_count <> 0)", rs -> {
+            rows.put(rs.getDate("rollup_date") + " " + rs.getString("status") + " " + rs.getString("priority")
+                            + " " + rs.getString("content_type"),
+                    rs.getLong("created_count") + " created, " + rs.getLong("resolved_count") + " resolved");
+        }, since);
+        jdbcTemplate.query("SELECT * FROM ticket_latency_histogram WHERE histogram_date >= ?", rs -> {
+            LatencyHistogram histogram = LatencyHistogram.fromBytes(rs.getBytes("counts"));
+            if (!histogram.isEmpty()) {
+                rows.put(rs.getDate("histogram_date") + " " + rs.getString("priority") + " " + rs.getString("metric"),
+                        histogram.getCount() + " at " + histogram.getMean());
+            }
+        }, since);
+        return rows;
+    }
+
+    private ResultActions bulk(List<BulkTicketRequest.Operation> operations, User user) throws Exception {
+        BulkTicketRequest request = new BulkTicketRequest();
+        request.setOperations(operations);
+        return mockMvc.perform(post("/api/tickets/bulk").with(user(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private JsonNode readBody(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+
+    private String column(String column, Long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM tickets WHERE id = ?", String.class, ticketId);
+    }
+
+    private int count(Long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets WHERE id = ?", Integer.class, ticketId);
+    }
+
+    private static BulkTicketRequest.Operation operation(BulkTicketRequest.OperationType type, Long ticketId) {
+        BulkTicketRequest.Operation operation = new BulkTicketRequest.Operation();
+        operation.setType(type);
+        operation.setTicketId(ticketId);
+        return operation;
+    }
+
+    private static BulkTicketRequest.Operation delete(Long ticketId) {
+        return operation(BulkTicketRequest.OperationType.DELETE, ticketId);
+    }
+
+    private static BulkTicketRequest.Operation statusChange(Long ticketId, Ticket.Status status) {
+        BulkTicketRequest.Operation operation = operation(BulkTicketRequest.OperationType.STATUS, ticketId);
+        operation.setStatus(status);
+        return operation;
+    }
+
+    private static BulkTicketRequest.Operation priorityChange(Long ticketId, Ticket.Priority priority) {
+        BulkTicketRequest.Operation operation = operation(BulkTicketRequest.OperationType.PRIORITY, ticketId);
+        operation.setPriority(priority);
+        return operation;
+    }
+
+    private static BulkTicketRequest.Operation assignment(Long ticketId, Long userId) {
+        BulkTicketRequest.Operation operation = operation(BulkTicketRequest.OperationType.ASSIGN, ticketId);
+        operation.setUserId(userId);
+        return operation;
+    }
+}
@@ -0,0 +1,206 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.service.TicketService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<Long> created = new ArrayList<>();
+    private User admin;
+
+    @BeforeAll
+    void loadAdmin() {
+        admin = userRepository.findByUsername("admin").orElseThrow();
+    }
+
+    @AfterAll
+    void removeTickets() {
+        executor.shutdownNow();
+        created.forEach(ticketService::deleteTicket);
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModifiedUntilTheTicketChanges() throws Exception {
+        Long id = createTicket();
+        String etag = mockMvc.perform(get("/api/tickets/{id}", id).with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/tickets/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(admin)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        ticketService.updateTicketStatus(id, Ticket.Status.IN_PROGRESS, admin, null);
+        String changed = mockMvc.perform(get("/api/tickets/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void unchangedListingPageGetsNotModified() throws Exception {
+        createTicket();
+        MvcResult first = mockMvc.perform(get("/api/tickets").param("after", "").param("size", "5").with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("W/"), etag);
+
+        mockMvc.perform(get("/api/tickets").param("after", "").param("size", "5")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag).with(user(admin)))
+                .andExpect(status().isNotModified());
+
+        createTicket();
+        mockMvc.perform(get("/api/tickets").param("after", "").param("size", "5")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag).with(user(admin)))
+                .andExpect(status().isOk());
+    }
+
+    // Renaming a user leaves the ticket versions alone but changes the names in the listing
+    @Test
+    void renamingTheCreatorChangesTheListingTag() throws Exception {
+        createTicket();
+        String etag = mockMvc.perform(get("/api/tickets").param("after", "").param("size", "5").with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE users SET full_name = ? WHERE id = ?", "Renamed Admin", admin.getId());
+        try {
+            mockMvc.perform(get("/api/tickets").param("after", "").param("size", "5")
+                            .header(HttpHeaders.IF_NONE_MATCH, etag).with(user(admin)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("Renamed Admin")));
+        } finally {
+            jdbcTemplate.update("UPDATE users SET full_name = ? WHERE id = ?", admin.getFullName(), admin.getId());
+        }
+    }
+
+    @Test
+    void staleIfMatchFailsThePreconditionAndChangesNothing() throws Exception {
+        Long id = createTicket();
+        String etag = mockMvc.perform(put("/api/tickets/{id}/status", id).param("status", "IN_PROGRESS")
+                        .header(HttpHeaders.IF_MATCH, TicketETags.of(0)).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, TicketETags.of(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/tickets/{id}/status", id).param("status", "RESOLVED")
+                        .header(HttpHeaders.IF_MATCH, TicketETags.of(0)).with(user(admin)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/tickets/{id}/status", id).param("status", "RESOLVED")
+                        .header(HttpHeaders.IF_MATCH, "W/" + etag).with(user(admin)))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("IN_PROGRESS", jdbcTemplate.queryForObject("SELECT status FROM tickets WHERE id = ?",
+                String.class, id));
+
+        mockMvc.perform(put("/api/tickets/{id}/status", id).param("status", "RESOLVED")
+                        .header(HttpHeaders.IF_MATCH, etag).with(user(admin)))
+                .andExpect(status().isOk());
+    }
+
+    // The request reads the ticket while another transaction holds an uncommitted write to it, so
+    // its versioned update waits for that write and then finds the version it read is gone
+    @Test
+    void unconditionalWriteThatLosesARaceGetsConflict() throws Exception {
+        Long id = createTicket();
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement update = other.prepareStatement(
+                    "UPDATE tickets SET description = 'changed elsewhere', version = version + 1 WHERE id = ?")) {
+                update.setLong(1, id);
+                update.executeUpdate();
+            }
+
+            CompletableFuture<Integer> response = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return mockMvc.perform(put("/api/tickets/{id}/status", id).param("status", "IN_PROGRESS")
+                            .with(user(admin))).andReturn().getResponse().getStatus();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+            awaitBlockedSession();
+            other.commit();
+
+            assertEquals(409, response.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals("OPEN", jdbcTemplate.queryForObject("SELECT status FROM tickets WHERE id = ?", String.class, id));
+    }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            Integer blocked = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL", Integer.class);
+            if (blocked > 0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("The request never waited for the uncommitted write");
+    }
+
+    private Long createTicket() {
+        TicketDto dto = new TicketDto();
+        dto.setTitle("conditional-request-test");
+        dto.setPriority(Ticket.Priority.LOW);
+        dto.setContentType(Ticket.ContentType.TEXT);
+        Long id = ticketService.createTicket(dto, admin).getId();
+        created.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.service.TicketService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User admin;
+    private Long ticketId;
+
+    @BeforeAll
+    void createTicket() {
+        admin = userRepository.findByUsername("admin").orElseThrow();
+        TicketDto dto = new TicketDto();
+        dto.setTitle("export-test, \"quoted\"");
+        dto.setPriority(Ticket.Priority.LOW);
+        dto.setContentType(Ticket.ContentType.TEXT);
+        dto.setAssignedToId(userRepository.findByUsername("support").orElseThrow().getId());
+        ticketId = ticketService.createTicket(dto, admin).getId();
+    }
+
+    @AfterAll
+    void removeTicket() {
+        ticketService.deleteTicket(ticketId);
+    }
+
+    @Test
+    void csvExportWritesCreatorAndAssigneeUsernames() throws Exception {
+        String body = export("/api/tickets/export?format=CSV&priority=LOW");
+
+        String row = Arrays.stream(body.split("\r\n"))
+                .filter(line -> line.startsWith(ticketId + ",")).findFirst().orElseThrow();
+        assertTrue(row.startsWith(ticketId + ",\"export-test, \"\"quoted\"\"\","), row);
+        assertTrue(row.contains(",OPEN,LOW,TEXT,admin,support,"), row);
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerTicket() throws Exception {
+        String body = export("/api/tickets/export?format=NDJSON&priority=LOW");
+
+        String row = Arrays.stream(body.split("\n"))
+                .filter(line -> line.startsWith("{\"id\":" + ticketId + ",")).findFirst().orElseThrow();
+        assertTrue(row.contains("\"creator\":\"admin\",\"assignedTo\":\"support\""), row);
+    }
+
+    private String export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).with(user(admin)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.TicketStatusTransitionRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.ReopenCount;
+import com.ticketsystem.zimsmartvillages.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@AutoConfigureMockMvc
+class TicketHistoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketStatusTransitionRepository transitionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void statusChangesAreRecordedPagedAndCountedAsReopens() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User support = userRepository.findByUsername("support").orElseThrow();
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+        TicketDto dto = new TicketDto();
+        dto.setTitle("history-test");
+        dto.setPriority(Ticket.Priority.LOW);
+        dto.setContentType(Ticket.ContentType.TEXT);
+        dto.setAssignedToId(support.getId());
+        Long id = ticketService.createTicket(dto, admin).getId();
+        try {
+            ticketService.updateTicketStatus(id, Ticket.Status.RESOLVED, support, null);
+            // Only status changes are history; this one leaves the status as it is
+            ticketService.escalatePriority(id, Ticket.Priority.HIGH);
+            ticketService.updateTicketStatus(id, Ticket.Status.OPEN, admin, null);
+
+            List<String> history = new ArrayList<>();
+            JsonNode page = history(id, null);
+            assertTrue(page.get("hasMore").asBoolean());
+            page.get("items").forEach(item -> history.add(describe(item)));
+            page = history(id, page.get("nextCursor").asText());
+            assertTrue(page.get("nextCursor").isNull());
+            page.get("items").forEach(item -> history.add(describe(item)));
+
+            assertEquals(List.of(
+                    "null>OPEN by " + admin.getFullName(),
+                    "OPEN>RESOLVED by " + support.getFullName(),
+                    "RESOLVED>OPEN by " + admin.getFullName()), history);
+
+            ReopenCount counts = transitionRepository.countReopens(support, since,
+                    List.of(Ticket.Status.RESOLVED, Ticket.Status.CLOSED));
+            assertEquals(1, counts.getResolved());
+            assertEquals(1, counts.getReopened());
+        } finally {
+            ticketService.deleteTicket(id);
+        }
+    }
+
+    private JsonNode history(Long id, String cursor) throws Exception {
+        String body = mockMvc.perform(get("/api/tickets/{id}/history", id)
+                        .param("size", "2")
+                        .param("cursor", cursor)
+                        .with(user(userRepository.findByUsername("admin").orElseThrow())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static String describe(JsonNode transition) {
+        return transition.get("fromStatus").asText() + ">" + transition.get("toStatus").asText()
+                + " by " + transition.get("changedByName").asText();
+    }
+}
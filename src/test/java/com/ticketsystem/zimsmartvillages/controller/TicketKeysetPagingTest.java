@@ -0,0 +1,116 @@
+package com.ticketsystem.zimsmartvillages.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketKeysetPagingTest {
+
+    private static final String SEEDED_TITLE = "keyset-paging-test";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+
+    // Runs of tickets sharing a creation time, longer than a page, so pages end inside a run
+    @BeforeAll
+    void seedTickets() {
+        admin = userRepository.findByUsername("admin").orElseThrow();
+        LocalDateTime[] createdDates = {LocalDateTime.of(2001, 5, 1, 12, 0), LocalDateTime.of(2001, 5, 2, 8, 30)};
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            rows.add(new Object[]{SEEDED_TITLE, i % 3 == 0 ? Ticket.Status.CLOSED.name() : Ticket.Status.OPEN.name(),
+                    createdDates[i % 2], createdDates[i % 2], admin.getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (id, title, priority, status, content_type, created_date, " +
+                "updated_date, creator_id) VALUES (NEXT VALUE FOR tickets_seq, ?, 'LOW', ?, 'TEXT', ?, ?, ?)", rows);
+    }
+
+    @AfterAll
+    void removeTickets() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE title = ?", SEEDED_TITLE);
+    }
+
+    @Test
+    void pagesThroughEveryTicketOnceNewestFirst() throws Exception {
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM tickets ORDER BY created_date DESC, id DESC", Long.class);
+
+        assertEquals(expected, pageThrough("/api/tickets", request -> request, 7));
+    }
+
+    @Test
+    void filteredPagesThroughEveryMatchingTicketOnce() throws Exception {
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM tickets WHERE status = 'CLOSED' " +
+                "ORDER BY created_date DESC, id DESC", Long.class);
+
+        assertEquals(expected, pageThrough("/api/tickets/by-status", request -> request.param("status", "CLOSED"), 4));
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/tickets").param("after", "not-a-cursor").with(user(admin)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tickets").param("after", "bm9zZXBhcmF0b3I").with(user(admin)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void outOfRangeSizeIsRejected() throws Exception {
+        mockMvc.perform(get("/api/tickets").param("after", "").param("size", "0").with(user(admin)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tickets").param("after", "").param("size", "101").with(user(admin)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> pageThrough(String path, UnaryOperator<MockHttpServletRequestBuilder> filter, int size)
+            throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String after = "";
+        while (after != null) {
+            String body = mockMvc.perform(filter.apply(get(path)).param("after", after).param("size", String.valueOf(size))
+                            .with(user(admin)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoundedTtlCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    @Test
+    void hitsAreServedWithoutLoading() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1_000, 60_000, String::length);
+
+        assertEquals("a1", cache.get("a", () -> load("a1")));
+        assertEquals("a1", cache.get("a", () -> load("a2")));
+
+        assertEquals(1, loads.get());
+        BoundedTtlCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+        assertEquals(2, stats.weight());
+    }
+
+    @Test
+    void valueLoadedAcrossAnInvalidationIsReturnedButNotStored() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1_000, 60_000, String::length);
+
+        String value = cache.get("a", () -> {
+            cache.invalidateIf(key -> true);
+            return load("stale");
+        });
+
+        assertEquals("stale", value);
+        assertEquals(0, cache.stats().size());
+        assertEquals("fresh", cache.get("a", () -> load("fresh")));
+        assertEquals("fresh", cache.get("a", () -> load("other")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void valueLoadedAcrossAClearIsNotStored() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1_000, 60_000, String::length);
+        cache.get("b", () -> load("b"));
+
+        cache.get("a", () -> {
+            cache.clear();
+            return load("stale");
+        });
+
+        assertEquals(0, cache.stats().size());
+        assertEquals(0, cache.stats().weight());
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void invalidateIfRemovesOnlyMatchingKeys() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1_000, 60_000, String::length);
+        cache.get("report:1", () -> load("x"));
+        cache.get("report:2", () -> load("yy"));
+        cache.get("other", () -> load("zzz"));
+
+        assertEquals(2, cache.invalidateIf(key -> key.startsWith("report:")));
+        assertEquals(1, cache.stats().size());
+        assertEquals(3, cache.stats().weight());
+        assertEquals("zzz", cache.get("other", () -> load("new")));
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedByCountAndWeight() {
+        BoundedTtlCache<String, String> byCount = new BoundedTtlCache<>(2, 1_000, 60_000, String::length);
+        byCount.get("a", () -> "a");
+        byCount.get("b", () -> "b");
+        byCount.get("a", () -> "a");
+        byCount.get("c", () -> "c");
+
+        assertEquals(1, byCount.stats().evictions());
+        assertEquals("a", byCount.get("a", () -> load("reloaded")));
+        assertEquals("reloaded", byCount.get("b", () -> load("reloaded")));
+
+        BoundedTtlCache<String, String> byWeight = new BoundedTtlCache<>(10, 5, 60_000, String::length);
+        byWeight.get("a", () -> "aa");
+        byWeight.get("b", () -> "bbb");
+        byWeight.get("c", () -> "cc");
+        assertEquals(1, byWeight.stats().evictions());
+        assertEquals(5, byWeight.stats().weight());
+
+        // Heavier than the whole cache, so never stored and nothing is evicted for it
+        byWeight.get("d", () -> "dddddd");
+        assertEquals(2, byWeight.stats().size());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1_000, 0, String::length);
+        cache.get("a", () -> load("a1"));
+
+        assertEquals("a2", cache.get("a", () -> load("a2")));
+        assertEquals(1, cache.stats().expirations());
+        assertEquals(2, loads.get());
+    }
+}
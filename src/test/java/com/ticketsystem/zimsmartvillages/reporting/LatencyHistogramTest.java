@@ -0,0 +1,138 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesGetTheirOwnBucket() {
+        for (long value = 0; value < 64; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertEquals(value, index);
+            assertEquals(value, LatencyHistogram.lowestValue(index));
+            assertEquals(value, LatencyHistogram.highestValue(index));
+        }
+    }
+
+    @Test
+    void largerValuesSplitEachPowerOfTwoIntoThirtyTwoBuckets() {
+        assertEquals(64, LatencyHistogram.indexOf(64));
+        assertEquals(64, LatencyHistogram.indexOf(65));
+        assertEquals(65, LatencyHistogram.highestValue(64));
+        assertEquals(95, LatencyHistogram.indexOf(127));
+        assertEquals(96, LatencyHistogram.indexOf(128));
+        assertEquals(128, LatencyHistogram.lowestValue(96));
+        assertEquals(131, LatencyHistogram.highestValue(96));
+
+        int previous = -1;
+        for (long value = 0; value <= LatencyHistogram.MAX_VALUE; value += 1 + value / 100) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= previous, "buckets out of order at " + value);
+            long lowest = LatencyHistogram.lowestValue(index);
+            long highest = LatencyHistogram.highestValue(index);
+            assertTrue(lowest <= value && value <= highest, value + " outside bucket " + index);
+            assertTrue(highest - lowest <= Math.max(0, value / 32), "bucket " + index + " too wide for " + value);
+            previous = index;
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE,
+                LatencyHistogram.highestValue(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesReportTheHighestValueOfTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.valueAtPercentile(50));
+
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean());
+        assertEquals(1, histogram.valueAtPercentile(0));
+        assertEquals(50, histogram.valueAtPercentile(50));
+        assertEquals(99, histogram.valueAtPercentile(99));
+        assertEquals(101, histogram.valueAtPercentile(100));
+        assertEquals(101, histogram.valueAtPercentile(250));
+        assertEquals(10, histogram.countAtOrBelow(10));
+        assertEquals(0, histogram.countAtOrBelow(-1));
+    }
+
+    @Test
+    void valuesOutsideTheRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_VALUE + 1000);
+
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.valueAtPercentile(100));
+        assertEquals(LatencyHistogram.MAX_VALUE / 2.0, histogram.getMean());
+    }
+
+    @Test
+    void removeUndoesRecordAndReportsEmptyBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(1000);
+
+        assertTrue(histogram.remove(1000));
+        assertEquals(1, histogram.getCount());
+        assertEquals(10.0, histogram.getMean());
+
+        assertFalse(histogram.remove(1000));
+        assertFalse(histogram.remove(11));
+        assertEquals(1, histogram.getCount());
+        assertEquals(10.0, histogram.getMean());
+
+        assertTrue(histogram.remove(10));
+        assertTrue(histogram.isEmpty());
+        assertEquals(0, histogram.getMean());
+    }
+
+    @Test
+    void addMergesCountsAndSums() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.record(10);
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(30);
+        second.record(5000);
+
+        first.add(second);
+
+        assertEquals(3, first.getCount());
+        assertEquals(5040 / 3.0, first.getMean());
+        assertEquals(30, first.valueAtPercentile(50));
+    }
+
+    @Test
+    void bytesRoundTripKeepsEveryBucketAndTheSum() {
+        Random random = new Random(7);
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record((long) Math.exp(random.nextDouble() * 18));
+        }
+
+        LatencyHistogram copy = LatencyHistogram.fromBytes(histogram.toBytes());
+
+        assertEquals(histogram.getCount(), copy.getCount());
+        assertEquals(histogram.getMean(), copy.getMean());
+        for (double percentile = 0; percentile <= 100; percentile += 0.5) {
+            assertEquals(histogram.valueAtPercentile(percentile), copy.valueAtPercentile(percentile));
+        }
+        for (long value = 0; value <= LatencyHistogram.MAX_VALUE; value = value * 2 + 1) {
+            assertEquals(histogram.countAtOrBelow(value), copy.countAtOrBelow(value));
+        }
+    }
+
+    @Test
+    void emptyHistogramsRoundTrip() {
+        assertTrue(LatencyHistogram.fromBytes(new LatencyHistogram().toBytes()).isEmpty());
+        assertTrue(LatencyHistogram.fromBytes(null).isEmpty());
+        assertTrue(LatencyHistogram.fromBytes(new byte[0]).isEmpty());
+    }
+}
@@ -0,0 +1,150 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TicketAggregationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 8, 0, 0);
+    private static final int HIGH = Ticket.Priority.HIGH.ordinal() + 1;
+    private static final int LOW = Ticket.Priority.LOW.ordinal() + 1;
+    private static final int OPEN = Ticket.Status.OPEN.ordinal() + 1;
+    private static final int CLOSED = Ticket.Status.CLOSED.ordinal() + 1;
+    private static final int TEXT = Ticket.ContentType.TEXT.ordinal() + 1;
+
+    @Test
+    void groupKeyPacksBucketAndEveryDimension() {
+        TicketAggregation aggregation = new TicketAggregation(spec(TimeBuckets.of(START, END, TimeGranularity.DAY),
+                List.of(TicketAggregation.Dimension.STATUS, TicketAggregation.Dimension.CREATOR,
+                        TicketAggregation.Dimension.ASSIGNEE), 500));
+
+        aggregation.add(minute(START.plusHours(1)), OPEN, LOW, TEXT, 500, -1, 30, -1);
+        aggregation.add(minute(START.plusHours(2)), OPEN, LOW, TEXT, 500, -1, 60, -1);
+        aggregation.add(minute(START.plusDays(2)), CLOSED, HIGH, TEXT, 1, 500, -1, 600);
+        aggregation.add(minute(START.plusDays(2)), 0, HIGH, TEXT, 0, 0, -1, -1);
+
+        List<TicketAggregation.Group> groups = aggregation.getGroups();
+        assertEquals(3, groups.size());
+        assertEquals(4, aggregation.getRowsMatched());
+
+        TicketAggregation.Group first = groups.get(0);
+        assertEquals(0, aggregation.bucketOf(first));
+        assertEquals(Ticket.Status.OPEN, aggregation.dimensionValue(first, 0));
+        assertEquals(500L, aggregation.dimensionValue(first, 1));
+        assertNull(aggregation.dimensionValue(first, 2));
+        assertEquals(2, first.getCount());
+        assertEquals(2, first.getMeasured());
+        assertEquals(90, first.getSum());
+        assertEquals(60, first.getHistogram().valueAtPercentile(100));
+
+        // Unknown status sorts before known ones within a bucket
+        TicketAggregation.Group unknown = groups.get(1);
+        assertEquals(2, aggregation.bucketOf(unknown));
+        assertNull(aggregation.dimensionValue(unknown, 0));
+        assertEquals(0L, aggregation.dimensionValue(unknown, 1));
+        assertEquals(0L, aggregation.dimensionValue(unknown, 2));
+
+        TicketAggregation.Group closed = groups.get(2);
+        assertEquals(Ticket.Status.CLOSED, aggregation.dimensionValue(closed, 0));
+        assertEquals(1L, aggregation.dimensionValue(closed, 1));
+        assertEquals(500L, aggregation.dimensionValue(closed, 2));
+        assertEquals(0, closed.getMeasured());
+    }
+
+    @Test
+    void userIdsAboveMaxUserIdAreLeftOutInsteadOfCorruptingNeighbours() {
+        TicketAggregation aggregation = new TicketAggregation(spec(null,
+                List.of(TicketAggregation.Dimension.CREATOR, TicketAggregation.Dimension.PRIORITY), 6));
+
+        aggregation.add(minute(START), OPEN, LOW, TEXT, 6, -1, -1, -1);
+        aggregation.add(minute(START), OPEN, LOW, TEXT, 7, -1, -1, -1);
+        aggregation.add(minute(START), OPEN, LOW, TEXT, 1_000, -1, -1, -1);
+
+        List<TicketAggregation.Group> groups = aggregation.getGroups();
+        assertEquals(1, groups.size());
+        assertEquals(6L, aggregation.dimensionValue(groups.get(0), 0));
+        assertEquals(Ticket.Priority.LOW, aggregation.dimensionValue(groups.get(0), 1));
+        assertEquals(1, aggregation.getRowsMatched());
+    }
+
+    @Test
+    void filtersAndRangeApplyBeforeGrouping() {
+        TicketAggregation.Spec spec = new TicketAggregation.Spec(minute(START), minute(END), null,
+                List.of(Ticket.Status.OPEN), List.of(Ticket.Priority.LOW), null, 3, -1,
+                List.of(), TicketAggregation.Measure.RESOLUTION, false, 10);
+        TicketAggregation aggregation = new TicketAggregation(spec);
+
+        aggregation.add(minute(START), OPEN, LOW, TEXT, 3, -1, -1, 60);
+        aggregation.add(minute(START.minusMinutes(1)), OPEN, LOW, TEXT, 3, -1, -1, -1);
+        aggregation.add(minute(END), OPEN, LOW, TEXT, 3, -1, -1, -1);
+        aggregation.add(minute(START), CLOSED, LOW, TEXT, 3, -1, -1, -1);
+        aggregation.add(minute(START), OPEN, HIGH, TEXT, 3, -1, -1, -1);
+        aggregation.add(minute(START), OPEN, LOW, TEXT, 4, -1, -1, -1);
+        aggregation.add(minute(START), 0, 0, 0, 3, -1, -1, -1);
+
+        assertEquals(1, aggregation.getRowsMatched());
+        assertEquals(60, aggregation.getGroups().get(0).getSum());
+        assertNull(aggregation.getGroups().get(0).getHistogram());
+    }
+
+    @Test
+    void mergingPartitionsMatchesAggregatingAllRowsAtOnce() {
+        TicketAggregation.Spec spec = spec(TimeBuckets.of(START, END, TimeGranularity.HOUR),
+                List.of(TicketAggregation.Dimension.PRIORITY, TicketAggregation.Dimension.ASSIGNEE), 50);
+        TicketAggregation whole = new TicketAggregation(spec);
+        TicketAggregation[] partitions = {new TicketAggregation(spec), new TicketAggregation(spec), new TicketAggregation(spec)};
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            int created = minute(START) + random.nextInt(7 * 24 * 60);
+            int priority = 1 + random.nextInt(Ticket.Priority.values().length);
+            int assignee = random.nextInt(52) - 1;
+            int firstResponse = random.nextInt(4) == 0 ? -1 : random.nextInt(5_000);
+            whole.add(created, OPEN, priority, TEXT, 1, assignee, firstResponse, -1);
+            partitions[i % 3].add(created, OPEN, priority, TEXT, 1, assignee, firstResponse, -1);
+        }
+        TicketAggregation merged = partitions[0].merge(partitions[1]).merge(partitions[2]);
+
+        List<TicketAggregation.Group> expected = whole.getGroups();
+        List<TicketAggregation.Group> actual = merged.getGroups();
+        assertEquals(whole.getRowsMatched(), merged.getRowsMatched());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(whole.bucketOf(expected.get(i)), merged.bucketOf(actual.get(i)));
+            assertEquals(whole.dimensionValue(expected.get(i), 0), merged.dimensionValue(actual.get(i), 0));
+            assertEquals(whole.dimensionValue(expected.get(i), 1), merged.dimensionValue(actual.get(i), 1));
+            assertEquals(expected.get(i).getCount(), actual.get(i).getCount());
+            assertEquals(expected.get(i).getMeasured(), actual.get(i).getMeasured());
+            assertEquals(expected.get(i).getSum(), actual.get(i).getSum());
+            assertEquals(expected.get(i).getHistogram().valueAtPercentile(90),
+                    actual.get(i).getHistogram().valueAtPercentile(90));
+        }
+    }
+
+    @Test
+    void groupKeysThatCannotFitAreRejected() {
+        TimeBuckets buckets = TimeBuckets.of(START, END, TimeGranularity.HOUR);
+        assertThrows(IllegalArgumentException.class, () -> new TicketAggregation(spec(buckets,
+                List.of(TicketAggregation.Dimension.CREATOR, TicketAggregation.Dimension.ASSIGNEE), Integer.MAX_VALUE)));
+    }
+
+    private static TicketAggregation.Spec spec(TimeBuckets buckets, List<TicketAggregation.Dimension> groupBy,
+                                               int maxUserId) {
+        return new TicketAggregation.Spec(minute(START), minute(END), buckets, null, null, null, -1, -1,
+                groupBy, TicketAggregation.Measure.FIRST_RESPONSE, true, maxUserId);
+    }
+
+    private static int minute(LocalDateTime date) {
+        return (int) (date.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+}
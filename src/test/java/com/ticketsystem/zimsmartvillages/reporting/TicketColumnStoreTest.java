@@ -0,0 +1,105 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketColumnStoreTest {
+
+    private static final int OPEN = Ticket.Status.OPEN.ordinal() + 1;
+    private static final int LOW = Ticket.Priority.LOW.ordinal() + 1;
+    private static final int TEXT = Ticket.ContentType.TEXT.ordinal() + 1;
+
+    @Test
+    void parallelScanMatchesAggregatingEveryRowOnce() {
+        TicketColumnStore store = new TicketColumnStore(1_000_000);
+        TicketAggregation.Spec spec = spec(List.of(TicketAggregation.Dimension.STATUS,
+                TicketAggregation.Dimension.PRIORITY), 100);
+        TicketAggregation expected = new TicketAggregation(spec);
+
+        // Enough rows for the scan to split into several partitions
+        Random random = new Random(11);
+        for (int id = 1; id <= 300_000; id++) {
+            int status = random.nextInt(Ticket.Status.values().length + 1);
+            int priority = 1 + random.nextInt(Ticket.Priority.values().length);
+            int firstResponse = random.nextInt(1_000) - 1;
+            assertTrue(store.put(id, id % 10_000, status, priority, TEXT, 1, -1, firstResponse, -1));
+            expected.add(id % 10_000, status, priority, TEXT, 1, -1, firstResponse, -1);
+        }
+
+        TicketAggregation scanned = store.scan(maxUserId -> new TicketAggregation(spec));
+
+        assertEquals(300_000, store.getLiveRows());
+        assertEquals(expected.getRowsMatched(), scanned.getRowsMatched());
+        List<TicketAggregation.Group> expectedGroups = expected.getGroups();
+        List<TicketAggregation.Group> scannedGroups = scanned.getGroups();
+        assertEquals(expectedGroups.size(), scannedGroups.size());
+        for (int i = 0; i < expectedGroups.size(); i++) {
+            assertEquals(expectedGroups.get(i).getCount(), scannedGroups.get(i).getCount());
+            assertEquals(expectedGroups.get(i).getSum(), scannedGroups.get(i).getSum());
+        }
+    }
+
+    @Test
+    void removedAndReplacedRowsAreScannedInTheirLatestState() {
+        TicketColumnStore store = new TicketColumnStore(100);
+        store.put(1, 0, OPEN, LOW, TEXT, 1, -1, -1, -1);
+        store.put(2, 0, OPEN, LOW, TEXT, 1, -1, -1, -1);
+        store.put(3, 0, OPEN, LOW, TEXT, 1, -1, -1, -1);
+        store.remove(2);
+        store.put(3, 0, OPEN, LOW, TEXT, 2, -1, -1, -1);
+        // A bulk load leaves rows written or deleted since it started alone
+        store.putIfAbsent(2, 0, OPEN, LOW, TEXT, 9, -1, -1, -1);
+        store.putIfAbsent(3, 0, OPEN, LOW, TEXT, 9, -1, -1, -1);
+        store.putIfAbsent(4, 0, OPEN, LOW, TEXT, 3, -1, -1, -1);
+
+        TicketAggregation scanned = store.scan(maxUserId -> new TicketAggregation(
+                spec(List.of(TicketAggregation.Dimension.CREATOR), maxUserId)));
+
+        assertEquals(3, store.getLiveRows());
+        List<TicketAggregation.Group> groups = scanned.getGroups();
+        assertEquals(3, groups.size());
+        assertEquals(1L, scanned.dimensionValue(groups.get(0), 0));
+        assertEquals(2L, scanned.dimensionValue(groups.get(1), 0));
+        assertEquals(3L, scanned.dimensionValue(groups.get(2), 0));
+    }
+
+    @Test
+    void scanSizesUserFieldsForTheHighestUserIdStored() {
+        TicketColumnStore store = new TicketColumnStore(100);
+        store.put(1, 0, OPEN, LOW, TEXT, 5, -1, -1, -1);
+        store.put(2, 0, OPEN, LOW, TEXT, 70_000, 4_000, -1, -1);
+
+        int[] seen = new int[1];
+        TicketAggregation scanned = store.scan(maxUserId -> {
+            seen[0] = maxUserId;
+            return new TicketAggregation(spec(List.of(TicketAggregation.Dimension.CREATOR,
+                    TicketAggregation.Dimension.PRIORITY), maxUserId));
+        });
+
+        assertEquals(70_000, seen[0]);
+        List<TicketAggregation.Group> groups = scanned.getGroups();
+        assertEquals(2, groups.size());
+        assertEquals(70_000L, scanned.dimensionValue(groups.get(1), 0));
+        assertEquals(Ticket.Priority.LOW, scanned.dimensionValue(groups.get(1), 1));
+    }
+
+    @Test
+    void writesBeyondTheRowBudgetAreRefused() {
+        TicketColumnStore store = new TicketColumnStore(10);
+        assertTrue(store.put(10, 0, OPEN, LOW, TEXT, 1, -1, -1, -1));
+        assertFalse(store.put(11, 0, OPEN, LOW, TEXT, 1, -1, -1, -1));
+        assertEquals(10L * TicketColumnStore.BYTES_PER_ROW, store.getAllocatedBytes());
+    }
+
+    private static TicketAggregation.Spec spec(List<TicketAggregation.Dimension> groupBy, int maxUserId) {
+        return new TicketAggregation.Spec(Integer.MIN_VALUE, Integer.MAX_VALUE, null, null, null, null, -1, -1,
+                groupBy, TicketAggregation.Measure.FIRST_RESPONSE, false, maxUserId);
+    }
+}
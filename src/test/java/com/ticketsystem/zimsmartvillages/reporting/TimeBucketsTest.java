@@ -0,0 +1,106 @@
+package com.ticketsystem.zimsmartvillages.reporting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeBucketsTest {
+
+    @Test
+    void dayBucketsStartAtMidnightAndEndAfterTheLastDay() {
+        TimeBuckets buckets = TimeBuckets.of(LocalDateTime.of(2024, 3, 10, 15, 0),
+                LocalDateTime.of(2024, 3, 12, 9, 0), TimeGranularity.DAY);
+
+        assertEquals(3, buckets.size());
+        assertEquals(LocalDateTime.of(2024, 3, 10, 0, 0), buckets.getStart());
+        assertEquals(LocalDateTime.of(2024, 3, 13, 0, 0), buckets.getEnd());
+        assertEquals(-1, buckets.indexOf(LocalDateTime.of(2024, 3, 9, 23, 59, 59)));
+        assertEquals(0, buckets.indexOf(LocalDateTime.of(2024, 3, 10, 0, 0)));
+        assertEquals(0, buckets.indexOf(LocalDateTime.of(2024, 3, 10, 23, 59, 59)));
+        assertEquals(1, buckets.indexOf(LocalDateTime.of(2024, 3, 11, 0, 0)));
+        assertEquals(2, buckets.indexOf(LocalDate.of(2024, 3, 12)));
+        assertEquals(-1, buckets.indexOf(LocalDateTime.of(2024, 3, 13, 0, 0)));
+        assertEquals(-1, buckets.indexOf((LocalDateTime) null));
+    }
+
+    @Test
+    void weekBucketsStartOnMonday() {
+        TimeBuckets buckets = TimeBuckets.of(LocalDateTime.of(2024, 1, 3, 12, 0),
+                LocalDateTime.of(2024, 1, 20, 0, 0), TimeGranularity.WEEK);
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), buckets.getStart());
+        assertEquals(3, buckets.size());
+        assertEquals(0, buckets.indexOf(LocalDateTime.of(2024, 1, 7, 23, 59, 59)));
+        assertEquals(1, buckets.indexOf(LocalDateTime.of(2024, 1, 8, 0, 0)));
+        assertEquals(2, buckets.indexOf(LocalDateTime.of(2024, 1, 21, 23, 59, 59)));
+        assertEquals(-1, buckets.indexOf(LocalDateTime.of(2024, 1, 22, 0, 0)));
+    }
+
+    @Test
+    void monthAndQuarterBucketsFollowTheCalendar() {
+        TimeBuckets months = TimeBuckets.of(LocalDateTime.of(2024, 1, 15, 8, 0),
+                LocalDateTime.of(2024, 3, 1, 0, 0), TimeGranularity.MONTH);
+        assertEquals(3, months.size());
+        assertEquals(0, months.indexOf(LocalDateTime.of(2024, 1, 1, 0, 0)));
+        assertEquals(1, months.indexOf(LocalDateTime.of(2024, 2, 29, 23, 59, 59)));
+        assertEquals(2, months.indexOf(LocalDateTime.of(2024, 3, 31, 23, 59, 59)));
+        assertEquals(-1, months.indexOf(LocalDateTime.of(2024, 4, 1, 0, 0)));
+
+        TimeBuckets quarters = TimeBuckets.of(LocalDateTime.of(2024, 5, 10, 0, 0),
+                LocalDateTime.of(2024, 11, 2, 0, 0), TimeGranularity.QUARTER);
+        assertEquals(LocalDateTime.of(2024, 4, 1, 0, 0), quarters.getStart());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), quarters.getEnd());
+        assertEquals(0, quarters.indexOf(LocalDateTime.of(2024, 6, 30, 23, 59, 59)));
+        assertEquals(1, quarters.indexOf(LocalDateTime.of(2024, 7, 1, 0, 0)));
+        assertEquals(2, quarters.indexOf(LocalDateTime.of(2024, 12, 31, 23, 59, 59)));
+        assertEquals("Q2 2024", quarters.labels().get(0));
+    }
+
+    @Test
+    void epochSecondIndexMatchesDateIndexAroundEveryEdge() {
+        LocalDateTime start = LocalDateTime.of(2023, 11, 17, 13, 45);
+        LocalDateTime end = LocalDateTime.of(2024, 4, 2, 6, 0);
+        for (TimeGranularity granularity : TimeGranularity.values()) {
+            TimeBuckets buckets = TimeBuckets.of(start, end, granularity);
+            for (int i = 0; i <= buckets.size(); i++) {
+                LocalDateTime edge = buckets.bucketStart(i);
+                for (LocalDateTime date : new LocalDateTime[]{edge.minusSeconds(1), edge, edge.plusSeconds(1)}) {
+                    assertEquals(buckets.indexOf(date), buckets.indexOfEpochSecond(date.toEpochSecond(ZoneOffset.UTC)),
+                            granularity + " at " + date);
+                }
+                if (i < buckets.size()) {
+                    assertEquals(i, buckets.indexOf(edge), granularity + " at " + edge);
+                }
+            }
+        }
+    }
+
+    @Test
+    void granularityIsChosenFromTheRangeAndCoarsenedWhenTooFine() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        assertEquals(TimeGranularity.HOUR, TimeBuckets.of(start, start.plusDays(2), null).getGranularity());
+        assertEquals(TimeGranularity.DAY, TimeBuckets.of(start, start.plusDays(62), null).getGranularity());
+        assertEquals(TimeGranularity.WEEK, TimeBuckets.of(start, start.plusDays(63), null).getGranularity());
+        assertEquals(TimeGranularity.MONTH, TimeBuckets.of(start, start.plusDays(183), null).getGranularity());
+        assertEquals(TimeGranularity.QUARTER, TimeBuckets.of(start, start.plusYears(4), null).getGranularity());
+
+        TimeBuckets coarsened = TimeBuckets.of(start, start.plusDays(100), TimeGranularity.HOUR);
+        assertEquals(TimeGranularity.DAY, coarsened.getGranularity());
+        assertEquals(101, coarsened.size());
+    }
+
+    @Test
+    void emptyRangeHasOneBucketAndReversedRangeIsRejected() {
+        LocalDateTime at = LocalDateTime.of(2024, 6, 1, 10, 30);
+        TimeBuckets buckets = TimeBuckets.of(at, at, TimeGranularity.HOUR);
+        assertEquals(1, buckets.size());
+        assertEquals(0, buckets.indexOf(at));
+
+        assertThrows(IllegalArgumentException.class, () -> TimeBuckets.of(at, at.minusSeconds(1), TimeGranularity.DAY));
+    }
+}
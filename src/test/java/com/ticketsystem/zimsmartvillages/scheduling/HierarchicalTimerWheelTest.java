@@ -0,0 +1,139 @@
+package com.ticketsystem.zimsmartvillages.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTest {
+
+    // Tick at which each key expired
+    private final Map<Long, Long> expiredAt = new HashMap<>();
+
+    private HierarchicalTimerWheel.ExpiryHandler recorder(HierarchicalTimerWheel wheel) {
+        return (key, deadlineTick) -> {
+            assertFalse(expiredAt.containsKey(key), "key " + key + " expired twice");
+            expiredAt.put(key, wheel.getCurrentTick());
+        };
+    }
+
+    @Test
+    void deadlinesOnEveryLevelBoundaryExpireOnTheirTick() {
+        long start = 1_000_003;
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(start);
+        long[] deltas = {1, 2, 63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 262_145,
+                (1L << 24) - 1, 1L << 24, (1L << 24) + 1, 3L << 24};
+        for (long delta : deltas) {
+            wheel.schedule(delta, start + delta);
+        }
+        assertEquals(deltas.length, wheel.size());
+
+        wheel.advance(start + (3L << 24), recorder(wheel));
+
+        assertEquals(deltas.length, expiredAt.size());
+        for (long delta : deltas) {
+            assertEquals(start + delta, expiredAt.get(delta), "deadline " + delta + " ticks out");
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesCascadeDownWhenTheLowerLevelWrapsAround() {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(60);
+        // 70 ticks out goes to level 1 and must come down to level 0 when tick 128 is reached
+        wheel.schedule(1, 130);
+        wheel.schedule(2, 128);
+        wheel.schedule(3, 127);
+
+        wheel.advance(127, recorder(wheel));
+        assertEquals(Map.of(3L, 127L), expiredAt);
+
+        wheel.advance(129, recorder(wheel));
+        assertEquals(128L, expiredAt.get(2L));
+        assertFalse(expiredAt.containsKey(1L));
+
+        wheel.advance(130, recorder(wheel));
+        assertEquals(130L, expiredAt.get(1L));
+    }
+
+    @Test
+    void rescheduleMovesAndCancelRemovesADeadline() {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(0);
+        wheel.schedule(1, 5_000);
+        wheel.schedule(2, 10);
+        wheel.schedule(3, 70);
+
+        wheel.schedule(1, 20);
+        wheel.schedule(2, 300_000);
+        assertEquals(20, wheel.deadlineOf(1));
+        assertTrue(wheel.cancel(3));
+        assertFalse(wheel.cancel(3));
+        assertFalse(wheel.contains(3));
+        assertEquals(-1, wheel.deadlineOf(3));
+        assertEquals(2, wheel.size());
+
+        wheel.advance(300_000, recorder(wheel));
+
+        assertEquals(Map.of(1L, 20L, 2L, 300_000L), expiredAt);
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextAdvanceAndMayBeRescheduledFromTheHandler() {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(100);
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 100);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(100, (key, deadlineTick) -> {
+            expired.add(key);
+            if (key == 1 && expired.size() == 1) {
+                // Still not in the future, so it expires again within this call
+                wheel.schedule(1, 99);
+            }
+        });
+
+        assertEquals(List.of(1L, 2L, 1L), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void randomSchedulesExpireExactlyOnceOnTheirLatestDeadline() {
+        Random random = new Random(17);
+        long start = random.nextInt(1_000_000);
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(start);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long key = 0; key < 5_000; key++) {
+            long deadline = start + 1 + random.nextInt(400_000);
+            wheel.schedule(key, deadline);
+            deadlines.put(key, deadline);
+        }
+        for (long key = 0; key < 5_000; key += 7) {
+            if (key % 2 == 0) {
+                wheel.cancel(key);
+                deadlines.remove(key);
+            } else {
+                long deadline = start + 1 + random.nextInt(400_000);
+                wheel.schedule(key, deadline);
+                deadlines.put(key, deadline);
+            }
+        }
+
+        // In uneven steps, so expiry does not depend on how far each advance goes
+        HierarchicalTimerWheel.ExpiryHandler handler = recorder(wheel);
+        long now = start;
+        while (now < start + 400_000) {
+            now = Math.min(start + 400_000, now + 1 + random.nextInt(5_000));
+            wheel.advance(now, handler);
+        }
+
+        assertEquals(deadlines, expiredAt);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,91 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.AnalyticsQueryRequest;
+import com.ticketsystem.zimsmartvillages.dto.AnalyticsQueryResultDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.reporting.TicketAggregation;
+import com.ticketsystem.zimsmartvillages.reporting.TimeGranularity;
+import com.ticketsystem.zimsmartvillages.repository.TicketRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+class ColumnarAnalyticsServiceTest {
+
+    @Autowired
+    private ColumnarAnalyticsService columnarService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void databaseFallbackAnswersLikeTheColumnarStore() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        for (int i = 0; i < 12; i++) {
+            TicketDto dto = new TicketDto();
+            dto.setTitle("columnar-test " + i);
+            dto.setPriority(Ticket.Priority.values()[i % Ticket.Priority.values().length]);
+            dto.setContentType(Ticket.ContentType.TEXT);
+            dto.setAssignedToId(i % 3 == 0 ? admin.getId() : null);
+            Long id = ticketService.createTicket(dto, admin).getId();
+            if (i % 4 == 0) {
+                ticketService.updateTicketStatus(id, Ticket.Status.RESOLVED, admin, null);
+            }
+        }
+        for (int i = 0; i < 100 && !columnarService.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(columnarService.isReady());
+        // Disabled, so it never loads a store and always reads the database
+        ColumnarAnalyticsService databaseOnly = new ColumnarAnalyticsService(ticketRepository, userRepository,
+                transactionManager, false, 256);
+
+        AnalyticsQueryRequest request = new AnalyticsQueryRequest();
+        request.setStartDate(LocalDateTime.now().minusDays(2));
+        request.setEndDate(LocalDateTime.now().plusHours(1));
+        request.setGranularity(TimeGranularity.HOUR);
+        request.setGroupBy(List.of(TicketAggregation.Dimension.STATUS, TicketAggregation.Dimension.PRIORITY,
+                TicketAggregation.Dimension.ASSIGNEE));
+        request.setMeasure(TicketAggregation.Measure.RESOLUTION);
+        request.setPercentiles(List.of(50, 95));
+
+        AnalyticsQueryResultDto columnar = columnarService.query(request);
+        AnalyticsQueryResultDto database = databaseOnly.query(request);
+
+        assertEquals(AnalyticsQueryResultDto.Source.COLUMNAR, columnar.getSource());
+        assertEquals(AnalyticsQueryResultDto.Source.DATABASE, database.getSource());
+        assertTrue(columnar.getTicketsMatched() >= 12);
+        assertEquals(columnar.getTicketsMatched(), database.getTicketsMatched());
+        assertEquals(columnar.getRows().size(), database.getRows().size());
+        for (int i = 0; i < columnar.getRows().size(); i++) {
+            AnalyticsQueryResultDto.Row expected = columnar.getRows().get(i);
+            AnalyticsQueryResultDto.Row actual = database.getRows().get(i);
+            assertEquals(expected.getBucketStart(), actual.getBucketStart());
+            assertEquals(expected.getDimensions(), actual.getDimensions());
+            assertEquals(expected.getCount(), actual.getCount());
+            assertEquals(expected.getMeasuredCount(), actual.getMeasuredCount());
+            assertEquals(expected.getSumHours(), actual.getSumHours());
+            assertEquals(expected.getPercentileHours(), actual.getPercentileHours());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketRequest;
+import com.ticketsystem.zimsmartvillages.dto.CommentDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import com.ticketsystem.zimsmartvillages.repository.projection.CommentTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+class CommentActivityServiceTest {
+
+    @Autowired
+    private CommentActivityService commentActivityService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+    private User support;
+
+    // Start from counters that match the comment table, whatever earlier tests left behind
+    @BeforeEach
+    void rebuildCounters() {
+        admin = userRepository.findByUsername("admin").orElseThrow();
+        support = userRepository.findByUsername("support").orElseThrow();
+        commentActivityService.rebuild();
+    }
+
+    @Test
+    void countersFollowCommentAndTicketChanges() {
+        Long first = createTicket();
+        Long second = createTicket();
+        Long third = createTicket();
+
+        Long kept = comment(first, "first comment").getId();
+        Long removed = comment(first, "to be deleted").getId();
+        comment(second, "on the second ticket");
+        comment(third, "on the third ticket");
+        comment(third, "another on the third");
+        assertTotalsMatchCommentTable();
+
+        CommentDto edit = new CommentDto();
+        edit.setTicketId(first);
+        edit.setContent("first comment, now somewhat longer");
+        commentService.updateComment(kept, edit, support);
+        assertTotalsMatchCommentTable();
+
+        commentService.deleteComment(removed, support);
+        assertTotalsMatchCommentTable();
+
+        ticketService.deleteTicket(first);
+        assertTotalsMatchCommentTable();
+
+        BulkTicketRequest request = new BulkTicketRequest();
+        request.setOperations(List.of(delete(second), delete(third)));
+        ticketService.applyBulk(request, admin);
+        assertTotalsMatchCommentTable();
+    }
+
+    @Test
+    void changesToAMissingRowAreDroppedUntilRebuild() {
+        Long ticketId = createTicket();
+        try {
+            Long commentId = comment(ticketId, "counted, then lost").getId();
+            jdbcTemplate.update("DELETE FROM author_comment_daily WHERE author_id = ? AND comment_date = ?",
+                    support.getId(), LocalDate.now());
+
+            // Only logs a warning; no row with negative counts is created
+            commentService.deleteComment(commentId, support);
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM author_comment_daily " +
+                    "WHERE author_id = ? AND comment_date = ?", Integer.class, support.getId(), LocalDate.now()));
+
+            comment(ticketId, "counted again after the rebuild");
+            commentActivityService.rebuild();
+            assertTotalsMatchCommentTable();
+        } finally {
+            ticketService.deleteTicket(ticketId);
+        }
+    }
+
+    private void assertTotalsMatchCommentTable() {
+        LocalDate since = LocalDate.now();
+        CommentTotals totals = commentActivityService.getAuthorTotals(support.getId(), since);
+        List<Long> recount = jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(LENGTH(content)), 0) " +
+                        "FROM comments WHERE author_id = ? AND created_date >= ?",
+                (rs, row) -> List.of(rs.getLong(1), rs.getLong(2)), support.getId(), since.atStartOfDay());
+        assertEquals(recount, List.of(totals.getCount(), totals.getCharacters()));
+    }
+
+    private Long createTicket() {
+        TicketDto dto = new TicketDto();
+        dto.setTitle("comment-activity-test");
+        dto.setPriority(Ticket.Priority.LOW);
+        dto.setContentType(Ticket.ContentType.TEXT);
+        return ticketService.createTicket(dto, admin).getId();
+    }
+
+    private CommentDto comment(Long ticketId, String content) {
+        CommentDto comment = new CommentDto();
+        comment.setTicketId(ticketId);
+        comment.setContent(content);
+        return commentService.createComment(comment, support);
+    }
+
+    private static BulkTicketRequest.Operation delete(Long ticketId) {
+        BulkTicketRequest.Operation operation = new BulkTicketRequest.Operation();
+        operation.setType(BulkTicketRequest.OperationType.DELETE);
+        operation.setTicketId(ticketId);
+        return operation;
+    }
+}
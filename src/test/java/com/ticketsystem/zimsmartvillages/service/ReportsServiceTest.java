@@ -0,0 +1,87 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.CommentDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.dto.UserActivityDTO;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+class ReportsServiceTest {
+
+    @Autowired
+    private ReportsService reportsService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void userActivityPagesFollowTheFullRanking() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User support = userRepository.findByUsername("support").orElseThrow();
+        TicketDto dto = new TicketDto();
+        dto.setTitle("user-activity-test");
+        dto.setPriority(Ticket.Priority.LOW);
+        dto.setContentType(Ticket.ContentType.TEXT);
+        dto.setAssignedToId(support.getId());
+        Long ticketId = ticketService.createTicket(dto, admin).getId();
+        ticketService.updateTicketStatus(ticketId, Ticket.Status.RESOLVED, support, null);
+        CommentDto comment = new CommentDto();
+        comment.setContent("user-activity-test");
+        comment.setTicketId(ticketId);
+        commentService.createComment(comment, support);
+        try {
+            assertPagesFollowTheFullRanking();
+        } finally {
+            ticketService.deleteTicket(ticketId);
+        }
+    }
+
+    @Test
+    void userActivityRejectsBadPages() {
+        assertThrows(IllegalArgumentException.class, () -> reportsService.getUserActivity(30, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> reportsService.getUserActivity(30, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reportsService.getUserActivity(30, 0, ReportsService.MAX_USER_ACTIVITY_PAGE_SIZE + 1));
+    }
+
+    private void assertPagesFollowTheFullRanking() {
+        List<UserActivityDTO> all = reportsService.getUserActivity(30);
+        assertEquals(userRepository.count(), all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(activity(all.get(i - 1)) >= activity(all.get(i)), "out of order at " + i);
+        }
+        UserActivityDTO supportActivity = all.stream()
+                .filter(user -> user.getUsername().equals("support")).findFirst().orElseThrow();
+        assertTrue(supportActivity.getTicketsResolved() >= 1);
+        assertTrue(supportActivity.getCommentsAdded() >= 1);
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < all.size(); page++) {
+            reportsService.getUserActivity(30, page, 1).forEach(user -> paged.add(user.getUsername()));
+        }
+        assertEquals(all.stream().map(UserActivityDTO::getUsername).toList(), paged);
+        assertEquals(List.of(), reportsService.getUserActivity(30, Integer.MAX_VALUE, 100));
+    }
+
+    private static int activity(UserActivityDTO user) {
+        return user.getTicketsResolved() + user.getCommentsAdded();
+    }
+}
@@ -0,0 +1,139 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.CommentDto;
+import com.ticketsystem.zimsmartvillages.dto.SlaBreachDto;
+import com.ticketsystem.zimsmartvillages.model.SlaBreach;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ticks every 50 ms, so deadlines that have passed are handled within a fraction of a second
+@SpringBootTest(properties = {"app.search.enabled=false", "app.sla.tick-ms=50"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SlaServiceTest {
+
+    private static final long TICK_MS = 50;
+
+    @Autowired
+    private SlaService slaService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> created = new ArrayList<>();
+    private User admin;
+    private User support;
+
+    @BeforeAll
+    void loadUsers() {
+        admin = userRepository.findByUsername("admin").orElseThrow();
+        support = userRepository.findByUsername("support").orElseThrow();
+    }
+
+    @AfterAll
+    void removeTickets() {
+        created.forEach(ticketService::deleteTicket);
+    }
+
+    @Test
+    void overdueTicketIsBreachedOnceAndEscalatedOneStep() throws Exception {
+        LocalDateTime createdDate = LocalDateTime.now().minusDays(4).truncatedTo(ChronoUnit.SECONDS);
+        // Answered in time, so only the 72 hour LOW resolution target has been missed
+        Long id = insertTicket("sla-overdue-test", createdDate, createdDate.plusHours(1));
+        ticketService.updateTicketStatus(id, Ticket.Status.IN_PROGRESS, admin, null);
+
+        awaitTrue(() -> !slaService.getBreaches(id).isEmpty(), "no breach recorded");
+        List<SlaBreachDto> breaches = slaService.getBreaches(id);
+        assertEquals(1, breaches.size());
+        SlaBreachDto breach = breaches.get(0);
+        assertEquals(SlaBreach.Type.RESOLUTION, breach.getType());
+        assertEquals(Ticket.Priority.LOW, breach.getPriority());
+        assertEquals(Ticket.Priority.MEDIUM, breach.getEscalatedTo());
+        assertEquals(createdDate.plusHours(72), breach.getDeadline());
+
+        // The escalation and this change both schedule the already missed deadline again
+        ticketService.updateTicketStatus(id, Ticket.Status.OPEN, admin, null);
+        Thread.sleep(20 * TICK_MS);
+
+        assertEquals(1, slaService.getBreaches(id).size());
+        assertEquals(Ticket.Priority.MEDIUM, ticketService.getTicketById(id).getPriority());
+    }
+
+    @Test
+    void firstResponseAndResolutionCancelTheirDeadlines() throws Exception {
+        int pendingBefore = awaitSteadyPendingDeadlines();
+        // The 8 hour LOW first-response target runs out in two seconds
+        Long id = insertTicket("sla-cancel-test", LocalDateTime.now().minusHours(8).plusSeconds(2), null);
+        ticketService.updateTicketStatus(id, Ticket.Status.IN_PROGRESS, admin, null);
+        assertEquals(pendingBefore + 2, slaService.getPendingDeadlines());
+
+        CommentDto comment = new CommentDto();
+        comment.setContent("sla-cancel-test");
+        comment.setTicketId(id);
+        commentService.createComment(comment, support);
+        assertEquals(pendingBefore + 1, slaService.getPendingDeadlines());
+
+        Thread.sleep(2000 + 20 * TICK_MS);
+        assertEquals(List.of(), slaService.getBreaches(id));
+        assertEquals(Ticket.Priority.LOW, ticketService.getTicketById(id).getPriority());
+
+        ticketService.updateTicketStatus(id, Ticket.Status.RESOLVED, support, null);
+        assertEquals(pendingBefore, slaService.getPendingDeadlines());
+    }
+
+    private Long insertTicket(String title, LocalDateTime createdDate, LocalDateTime firstResponseAt) {
+        jdbcTemplate.update("INSERT INTO tickets (id, title, priority, status, content_type, created_date, " +
+                        "updated_date, first_response_at, creator_id, assigned_to_id) " +
+                        "VALUES (NEXT VALUE FOR tickets_seq, ?, 'LOW', 'OPEN', 'TEXT', ?, ?, ?, ?, ?)",
+                title, createdDate, createdDate, firstResponseAt, admin.getId(), support.getId());
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tickets WHERE title = ?", Long.class, title);
+        created.add(id);
+        return id;
+    }
+
+    // Deadlines of other tickets that passed before this test ran are handled first
+    private int awaitSteadyPendingDeadlines() throws InterruptedException {
+        slaService.rebuild();
+        int pending = slaService.getPendingDeadlines();
+        for (int steady = 0; steady < 10; ) {
+            Thread.sleep(TICK_MS);
+            int now = slaService.getPendingDeadlines();
+            steady = now == pending ? steady + 1 : 0;
+            pending = now;
+        }
+        return pending;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(TICK_MS);
+        }
+    }
+}
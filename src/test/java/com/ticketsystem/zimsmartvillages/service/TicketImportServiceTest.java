@@ -0,0 +1,203 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.zimsmartvillages.dto.BulkTicketRequest;
+import com.ticketsystem.zimsmartvillages.dto.TicketImportDto;
+import com.ticketsystem.zimsmartvillages.model.TicketImport;
+import com.ticketsystem.zimsmartvillages.repository.TicketImportRepository;
+import com.ticketsystem.zimsmartvillages.repository.TicketStatusTransitionRepository;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketImportServiceTest {
+
+    private static final String TITLE_PREFIX = "import-test ";
+
+    @Autowired
+    private TicketImportService importService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketImportRepository importRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketStatusTransitionRepository transitionRepository;
+
+    @Autowired
+    private TicketRollupService rollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterAll
+    void removeTickets() {
+        BulkTicketRequest request = new BulkTicketRequest();
+        request.setOperations(jdbcTemplate.queryForList("SELECT id FROM tickets WHERE title LIKE ?", Long.class,
+                TITLE_PREFIX + "%").stream().map(id -> {
+            BulkTicketRequest.Operation operation = new BulkTicketRequest.Operation();
+            operation.setType(BulkTicketRequest.OperationType.DELETE);
+            operation.setTicketId(id);
+            return operation;
+        }).toList());
+        if (!request.getOperations().isEmpty()) {
+            ticketService.applyBulk(request, userRepository.findByUsername("admin").orElseThrow());
+        }
+    }
+
+    @Test
+    void sendingTheBodyAgainResumesAfterTheLastCommittedChunk() throws Exception {
+        String body = csv("resume", LocalDate.of(2003, 4, 5), 7);
+        // The connection drops while the seventh row is being read, after two chunks of three committed
+        int seventhRow = body.indexOf(TITLE_PREFIX + "resume 7");
+        TicketImportService service = importService(rollupService);
+
+        assertThrows(IOException.class, () -> service.importTickets(
+                failingAfter(body.substring(0, seventhRow + 5)), ExportFormat.CSV, "resume-test"));
+        TicketImportDto failed = service.getImport("resume-test");
+        assertEquals(TicketImport.Status.FAILED, failed.getStatus());
+        assertEquals(6, failed.getRowsRead());
+        assertEquals(6, failed.getImported());
+        assertEquals(6, importedTitles("resume").size());
+
+        TicketImportDto resumed = service.importTickets(stream(body), ExportFormat.CSV, "resume-test");
+        assertEquals(TicketImport.Status.COMPLETED, resumed.getStatus());
+        assertEquals(7, resumed.getRowsRead());
+        assertEquals(7, resumed.getImported());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), importedTitles("resume"));
+
+        // A completed import is not read again
+        TicketImportDto repeated = service.importTickets(failingAfter(""), ExportFormat.CSV, "resume-test");
+        assertEquals(7, repeated.getImported());
+        assertEquals(7, importedTitles("resume").size());
+    }
+
+    @Test
+    void aChunkThatFailsRollsBackWithItsCheckpoint() throws Exception {
+        LocalDate day = LocalDate.of(2003, 4, 6);
+        String body = csv("rollback", day, 6);
+        AtomicInteger chunks = new AtomicInteger();
+        TicketRollupService failingRollups = mock(TicketRollupService.class);
+        doAnswer(invocation -> {
+            if (chunks.incrementAndGet() == 2) {
+                throw new IllegalStateException("rollup write failed");
+            }
+            rollupService.applyAll(invocation.getArgument(0));
+            return null;
+        }).when(failingRollups).applyAll(any());
+
+        assertThrows(IllegalStateException.class, () -> importService(failingRollups)
+                .importTickets(stream(body), ExportFormat.CSV, "rollback-test"));
+        TicketImportDto failed = importService.getImport("rollback-test");
+        assertEquals(TicketImport.Status.FAILED, failed.getStatus());
+        assertEquals("rollup write failed", failed.getLastError());
+        assertEquals(3, failed.getRowsRead());
+        assertEquals(3, failed.getImported());
+        assertEquals(List.of(1, 2, 3), importedTitles("rollback"));
+        assertEquals(3, createdOn(day));
+
+        TicketImportDto resumed = importService(rollupService).importTickets(stream(body), ExportFormat.CSV, "rollback-test");
+        assertEquals(TicketImport.Status.COMPLETED, resumed.getStatus());
+        assertEquals(6, resumed.getImported());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), importedTitles("rollback"));
+        assertEquals(6, createdOn(day));
+    }
+
+    // Chunks of three rows, so a few rows span several transactions
+    private TicketImportService importService(TicketRollupService rollups) {
+        return new TicketImportService(importRepository, userRepository, transitionRepository, rollups,
+                eventPublisher, entityManager, objectMapper, transactionManager, 3);
+    }
+
+    // Closed tickets, which SLA tracking leaves alone
+    private static String csv(String name, LocalDate day, int rows) {
+        StringBuilder body = new StringBuilder("title,creator,status,createdDate\n");
+        for (int i = 1; i <= rows; i++) {
+            body.append(TITLE_PREFIX).append(name).append(' ').append(i).append(",admin,CLOSED,")
+                    .append(day.atTime(10, i)).append('\n');
+        }
+        return body.toString();
+    }
+
+    private List<Integer> importedTitles(String name) {
+        String prefix = TITLE_PREFIX + name + " ";
+        return jdbcTemplate.queryForList("SELECT title FROM tickets WHERE title LIKE ? ORDER BY id", String.class,
+                prefix + "%").stream().map(title -> Integer.parseInt(title.substring(prefix.length()))).toList();
+    }
+
+    private long createdOn(LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(created_count), 0) FROM ticket_daily_rollup " +
+                "WHERE rollup_date = ?", Long.class, day);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Serves the given text, then fails like a dropped connection
+    private static InputStream failingAfter(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position == bytes.length) {
+                    throw new IOException("Connection reset");
+                }
+                return bytes[position++] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (position == bytes.length) {
+                    throw new IOException("Connection reset");
+                }
+                int count = Math.min(length, bytes.length - position);
+                System.arraycopy(bytes, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+        };
+    }
+}
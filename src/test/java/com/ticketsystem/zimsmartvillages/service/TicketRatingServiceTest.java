@@ -0,0 +1,86 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.dto.TicketRatingRequest;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketRatingServiceTest {
+
+    @Autowired
+    private TicketRatingService ratingService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(6);
+
+    @AfterAll
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentFirstRatingsOfATicketKeepOneRating() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        TicketDto dto = new TicketDto();
+        dto.setTitle("rating-race-test");
+        dto.setPriority(Ticket.Priority.LOW);
+        dto.setContentType(Ticket.ContentType.TEXT);
+        Long ticketId = ticketService.createTicket(dto, admin).getId();
+        ticketService.updateTicketStatus(ticketId, Ticket.Status.CLOSED, admin, null);
+        long teamRatingsBefore = ratingService.getTeamSummary(LocalDate.now()).count();
+
+        int raters = 6;
+        CyclicBarrier start = new CyclicBarrier(raters);
+        List<CompletableFuture<Void>> ratings = new ArrayList<>();
+        for (int i = 0; i < raters; i++) {
+            TicketRatingRequest request = new TicketRatingRequest();
+            request.setScore(i % 5 + 1);
+            ratings.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                ratingService.rateTicket(ticketId, request, admin);
+            }, executor));
+        }
+        CompletableFuture.allOf(ratings.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_rating WHERE ticket_id = ?",
+                Integer.class, ticketId));
+        // Each later rating replaced the one before it, so the team counts it once
+        assertEquals(teamRatingsBefore + 1, ratingService.getTeamSummary(LocalDate.now()).count());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
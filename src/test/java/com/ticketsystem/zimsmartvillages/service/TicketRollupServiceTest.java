@@ -0,0 +1,162 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.TicketDto;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.model.User;
+import com.ticketsystem.zimsmartvillages.reporting.LatencyHistogram;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.search.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketRollupServiceTest {
+
+    @Autowired
+    private TicketRollupService rollupService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterAll
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    // The second create runs while the first has inserted the new row but not yet committed it,
+    // so it cannot see the row and has to recover from the duplicate key once the first commits
+    @Test
+    void concurrentCreatesOnNewRollupKeyBothCount() throws Exception {
+        LocalDate day = LocalDate.of(1990, 1, 1);
+        TicketSnapshot created = new TicketSnapshot(null, Ticket.Status.OPEN, Ticket.Priority.LOW,
+                Ticket.ContentType.TEXT, null, null, day.atTime(9, 0), day.atTime(9, 0), null, null);
+
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            rollupService.apply(null, created);
+            firstApplied.countDown();
+            sleep(300);
+        }), executor);
+        assertTrue(firstApplied.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> rollupService.apply(null, created)), executor);
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT SUM(created_count) FROM ticket_daily_rollup " +
+                "WHERE rollup_date = ? AND status = 'OPEN' AND priority = 'LOW' AND content_type = 'TEXT'", Long.class, day));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_daily_rollup WHERE rollup_date = ?",
+                Integer.class, day));
+    }
+
+    // Only the first response changes, so the writers meet on nothing but the missing histogram row
+    @Test
+    void concurrentFirstResponsesOnNewHistogramKeyAllCount() throws Exception {
+        LocalDate day = LocalDate.of(1990, 1, 2);
+        TicketSnapshot responded = new TicketSnapshot(null, Ticket.Status.IN_PROGRESS, Ticket.Priority.LOW,
+                Ticket.ContentType.TEXT, null, null, day.atTime(9, 0), day.atTime(9, 5), day.atTime(9, 5), null);
+
+        int writers = 8;
+        CyclicBarrier start = new CyclicBarrier(writers);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            writes.add(CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                await(start);
+                rollupService.apply(responded.withFirstResponseAt(null), responded);
+            }), executor));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        List<byte[]> counts = jdbcTemplate.queryForList("SELECT counts FROM ticket_latency_histogram " +
+                "WHERE histogram_date = ? AND priority = 'LOW' AND metric = 'FIRST_RESPONSE'", byte[].class, day);
+        assertEquals(1, counts.size());
+        LatencyHistogram histogram = LatencyHistogram.fromBytes(counts.get(0));
+        assertEquals(writers, histogram.getCount());
+        assertEquals(300, histogram.getMean());
+    }
+
+    @Test
+    void ticketsWithoutAPriorityCountAsMedium() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        TicketDto dto = new TicketDto();
+        dto.setTitle("rollup-no-priority-test");
+        dto.setContentType(Ticket.ContentType.TEXT);
+        Long createdId = ticketService.createTicket(dto, admin).getId();
+
+        // Rows stored before new tickets got a default priority can still have none
+        LocalDate day = LocalDate.of(1990, 1, 3);
+        LocalDateTime createdDate = day.atTime(9, 0);
+        jdbcTemplate.update("INSERT INTO tickets (id, title, status, content_type, created_date, updated_date, creator_id) " +
+                "VALUES (NEXT VALUE FOR tickets_seq, 'rollup-null-priority-test', 'OPEN', 'TEXT', ?, ?, ?)",
+                createdDate, createdDate, admin.getId());
+        Long legacyId = jdbcTemplate.queryForObject("SELECT id FROM tickets WHERE title = 'rollup-null-priority-test'",
+                Long.class);
+        try {
+            assertEquals(Ticket.Priority.MEDIUM, ticketService.getTicketById(createdId).getPriority());
+
+            rollupService.rebuild();
+            assertEquals(1L, createdCount(day, Ticket.Status.OPEN));
+
+            ticketService.updateTicketStatus(legacyId, Ticket.Status.RESOLVED, admin, null);
+            assertEquals(0L, createdCount(day, Ticket.Status.OPEN));
+            assertEquals(1L, createdCount(day, Ticket.Status.RESOLVED));
+            List<byte[]> counts = jdbcTemplate.queryForList("SELECT counts FROM ticket_latency_histogram " +
+                    "WHERE histogram_date = ? AND priority = 'MEDIUM' AND metric = 'RESOLUTION'", byte[].class, day);
+            assertEquals(1, LatencyHistogram.fromBytes(counts.get(0)).getCount());
+        } finally {
+            ticketService.deleteTicket(legacyId);
+            ticketService.deleteTicket(createdId);
+        }
+        assertEquals(0L, createdCount(day, Ticket.Status.RESOLVED));
+    }
+
+    private long createdCount(LocalDate day, Ticket.Status status) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(created_count), 0) FROM ticket_daily_rollup " +
+                "WHERE rollup_date = ? AND status = ? AND priority = 'MEDIUM'", Long.class, day, status.name());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
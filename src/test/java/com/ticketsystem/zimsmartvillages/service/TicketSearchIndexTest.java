@@ -0,0 +1,215 @@
+package com.ticketsystem.zimsmartvillages.service;
+
+import com.ticketsystem.zimsmartvillages.dto.TicketSearchCriteria;
+import com.ticketsystem.zimsmartvillages.model.Ticket;
+import com.ticketsystem.zimsmartvillages.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with H2's {@code EXPLAIN} that every supported search combination is answered by an
+ * index lookup on its filter columns rather than a table scan. The SQL is the statement
+ * Hibernate actually sends for the search, captured by a statement inspector.
+ */
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ticketsystem.zimsmartvillages.service.TicketSearchIndexTest$CapturingStatementInspector",
+        "app.search.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketSearchIndexTest {
+
+    private static final String SEEDED_TITLE = "search-index-test";
+    // The index H2 chose and the conditions it looks up, e.g. /* PUBLIC.IDX_X: STATUS = ?1 */
+    private static final Pattern INDEX_LOOKUP = Pattern.compile("/\\* PUBLIC\\.(\\w+): (.+?) \\*/", Pattern.DOTALL);
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    // H2 picks indexes from table statistics, so give it a realistic spread of tickets
+    @BeforeAll
+    void seedTickets() {
+        userId = userRepository.findByUsername("admin").orElseThrow().getId();
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(new Object[]{SEEDED_TITLE,
+                    Ticket.Priority.values()[random.nextInt(Ticket.Priority.values().length)].name(),
+                    Ticket.Status.values()[random.nextInt(Ticket.Status.values().length)].name(),
+                    Ticket.ContentType.TEXT.name(),
+                    now.minusMinutes(random.nextInt(500_000)),
+                    now.minusMinutes(random.nextInt(500_000)),
+                    userId,
+                    random.nextInt(3) == 0 ? userId : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (id, title, priority, status, content_type, created_date, " +
+                "updated_date, creator_id, assigned_to_id) VALUES (NEXT VALUE FOR tickets_seq, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void removeTickets() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE title = ?", SEEDED_TITLE);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void statusSet() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatuses(List.of(Ticket.Status.OPEN, Ticket.Status.REOPENED));
+        assertIndexLookup(criteria, "STATUS");
+    }
+
+    @Test
+    void prioritySet() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setPriorities(List.of(Ticket.Priority.CRITICAL));
+        assertIndexLookup(criteria, "PRIORITY");
+    }
+
+    @Test
+    void contentType() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setContentTypes(List.of(Ticket.ContentType.AUDIO));
+        assertIndexLookup(criteria, "CONTENT_TYPE");
+    }
+
+    @Test
+    void creator() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setCreatorId(userId);
+        assertIndexLookup(criteria, "CREATOR_ID");
+    }
+
+    @Test
+    void assignee() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setAssigneeId(userId);
+        assertIndexLookup(criteria, "ASSIGNED_TO_ID");
+    }
+
+    @Test
+    void statusAndPriority() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatuses(List.of(Ticket.Status.OPEN));
+        criteria.setPriorities(List.of(Ticket.Priority.CRITICAL));
+        assertIndexLookup(criteria, "STATUS", "PRIORITY");
+    }
+
+    @Test
+    void assignedOpenCriticalThisWeek() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatuses(List.of(Ticket.Status.OPEN));
+        criteria.setPriorities(List.of(Ticket.Priority.CRITICAL));
+        criteria.setAssigneeId(userId);
+        criteria.setCreatedFrom(now.minusDays(7));
+        assertIndexLookup(criteria, "ASSIGNED_TO_ID", "STATUS", "PRIORITY", "CREATED_DATE");
+    }
+
+    @Test
+    void creatorAndStatus() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setCreatorId(userId);
+        criteria.setStatuses(List.of(Ticket.Status.OPEN));
+        assertIndexLookup(criteria, "CREATOR_ID", "STATUS");
+    }
+
+    @Test
+    void statusAndCreatedRange() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatuses(List.of(Ticket.Status.IN_PROGRESS));
+        criteria.setCreatedFrom(now.minusDays(30));
+        criteria.setCreatedTo(now.minusDays(7));
+        assertIndexLookup(criteria, "STATUS", "CREATED_DATE");
+    }
+
+    @Test
+    void createdRange() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setCreatedFrom(now.minusDays(7));
+        criteria.setCreatedTo(now);
+        assertIndexLookup(criteria, "CREATED_DATE");
+    }
+
+    @Test
+    void updatedRangeSortedByUpdate() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setUpdatedFrom(now.minusDays(1));
+        String plan = explain(() -> ticketService.searchTickets(criteria,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "updatedDate"))));
+        assertLookupOn(plan, "UPDATED_DATE");
+    }
+
+    @Test
+    void keysetPage() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatuses(List.of(Ticket.Status.OPEN));
+        criteria.setPriorities(List.of(Ticket.Priority.HIGH));
+        String plan = explain(() -> ticketService.searchTickets(criteria, "", 20));
+        assertLookupOn(plan, "STATUS", "PRIORITY");
+    }
+
+    private void assertIndexLookup(TicketSearchCriteria criteria, String... columns) {
+        assertLookupOn(explain(() -> ticketService.searchTickets(criteria, PageRequest.of(0, 20))), columns);
+    }
+
+    private static void assertLookupOn(String plan, String... columns) {
+        Matcher lookup = INDEX_LOOKUP.matcher(plan);
+        assertTrue(lookup.find(), () -> "Expected an index lookup:\n" + plan);
+        for (String column : columns) {
+            assertTrue(lookup.group(2).contains(column),
+                    () -> "Index " + lookup.group(1) + " does not look up " + column + ":\n" + plan);
+        }
+    }
+
+    // Runs the search and explains the page query it sent, ignoring the count query
+    private String explain(Runnable search) {
+        CapturingStatementInspector.statements.clear();
+        search.run();
+        String sql = CapturingStatementInspector.statements.stream()
+                .filter(statement -> statement.contains("from tickets") && statement.contains("order by"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No ticket query in " + CapturingStatementInspector.statements));
+        // Plans depend on the conditions, not the values, so every parameter is bound to null
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+        }, (rs, rowNum) -> rs.getString(1)).get(0);
+    }
+}